@@ -0,0 +1,90 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.benchmarks;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Random;
+
+/**
+ * Realistic message payloads shared by the benchmarks.
+ */
+public final class Payloads {
+
+    public static final int BINARY_SIZE = 64 * 1024;
+
+    // a typical small application message, around 250 bytes
+    private static final String JSON = "{\"type\":\"quote\",\"symbol\":\"KZNG\",\"exchange\":\"NASDAQ\","
+            + "\"bid\":{\"price\":102.25,\"size\":300},\"ask\":{\"price\":102.27,\"size\":500},"
+            + "\"last\":{\"price\":102.26,\"size\":100,\"time\":\"2016-06-01T14:30:00.123Z\"},"
+            + "\"volume\":1204330,\"sequence\":4711,\"flags\":[\"regular\",\"open\"]}";
+
+    // the same message as it is often sent, pretty printed over several lines
+    private static final String MULTILINE_JSON = "{\n"
+            + "  \"type\": \"quote\",\n"
+            + "  \"symbol\": \"KZNG\",\n"
+            + "  \"bid\": { \"price\": 102.25, \"size\": 300 },\n"
+            + "  \"ask\": { \"price\": 102.27, \"size\": 500 },\n"
+            + "  \"sequence\": 4711\n"
+            + "}";
+
+    // a chat message, mostly ASCII with a few multi-byte characters
+    private static final String CHAT = "{\"room\":\"general\",\"from\":\"Zo\u00eb\",\"sent\":\"2016-06-01T14:30:00.123Z\","
+            + "\"text\":\"Caf\u00e9 at 3? I'll bring the cr\u00e8me br\u00fbl\u00e9e \u2615 and the slides for the M\u00fcnchen "
+            + "meeting, see you there \ud83d\ude00\",\"sequence\":4711}";
+
+    private Payloads() {
+    }
+
+    public static byte[] json() {
+        return JSON.getBytes(UTF_8);
+    }
+
+    public static byte[] multilineJson() {
+        return MULTILINE_JSON.getBytes(UTF_8);
+    }
+
+    public static byte[] chat() {
+        return CHAT.getBytes(UTF_8);
+    }
+
+    /**
+     * @return {@link #BINARY_SIZE} bytes of reproducible, incompressible binary data
+     */
+    public static byte[] binary() {
+        byte[] bytes = new byte[BINARY_SIZE];
+        new Random(BINARY_SIZE).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * @return the payload for the given name, one of json, multiline-json, chat or binary
+     */
+    public static byte[] payload(String name) {
+        switch (name) {
+            case "json":
+                return json();
+            case "multiline-json":
+                return multilineJson();
+            case "chat":
+                return chat();
+            case "binary":
+                return binary();
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+}
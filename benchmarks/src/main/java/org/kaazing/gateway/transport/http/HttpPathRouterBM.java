@@ -0,0 +1,90 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Routes requests among the paths bound on one HTTP origin by a service with WSEB: the service path,
+ * its resources and cookies paths, and an upstream and downstream path per emulated session.
+ * Lookup cost should not depend on the number of sessions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpPathRouterBM {
+
+    private static final String SERVICE_PATH = "/echo";
+
+    @Param({ "0", "1000", "100000" })
+    public int sessions;
+
+    private HttpPathRouter<Object> router;
+    private String[] sessionPaths;
+
+    @Setup
+    public void init() {
+        router = new HttpPathRouter<>();
+        router.putIfAbsent("/;resource", new Object());
+        router.putIfAbsent(SERVICE_PATH, new Object());
+        router.putIfAbsent(SERVICE_PATH + "/;e/cookies", new Object());
+
+        int count = Math.max(sessions, 1);
+        sessionPaths = new String[count * 2];
+        for (int i = 0; i < count; i++) {
+            String sessionId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+            sessionPaths[i * 2] = SERVICE_PATH + "/;e/ub/" + sessionId;
+            sessionPaths[i * 2 + 1] = SERVICE_PATH + "/;e/db/" + sessionId;
+            if (i < sessions) {
+                router.putIfAbsent(sessionPaths[i * 2], new Object());
+                router.putIfAbsent(sessionPaths[i * 2 + 1], new Object());
+            }
+        }
+    }
+
+    @Benchmark
+    public Object servicePath() {
+        return router.match(SERVICE_PATH);
+    }
+
+    @Benchmark
+    public Object createPath() {
+        // routed by prefix to the service path
+        return router.match(SERVICE_PATH + "/;e/cbm");
+    }
+
+    @Benchmark
+    public Object sessionPath() {
+        String[] paths = sessionPaths;
+        return router.match(paths[ThreadLocalRandom.current().nextInt(paths.length)]);
+    }
+}
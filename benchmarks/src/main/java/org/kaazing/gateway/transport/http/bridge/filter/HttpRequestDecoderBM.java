@@ -0,0 +1,128 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.filter.codec.ProtocolDecoder;
+import org.kaazing.gateway.benchmarks.Payloads;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.filter.codec.ProtocolCodecSessionEx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class HttpRequestDecoderBM {
+
+    private static final String BROWSER_HEADERS =
+            "Host: gateway.example.com:8000\r\n" +
+            "User-Agent: Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) " +
+                    "Chrome/51.0.2704.103 Safari/537.36\r\n" +
+            "Accept: text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8\r\n" +
+            "Accept-Encoding: gzip, deflate, sdch\r\n" +
+            "Accept-Language: en-US,en;q=0.8\r\n" +
+            "Cookie: JSESSIONID=1f3b5c7d9e2a4c6e8a0b; kaazing_sso=eyJhbGciOiJIUzI1NiJ9.e30.ZRrHA1JJJW8opsbCGfG_HACGpVU\r\n" +
+            "Cache-Control: max-age=0\r\n" +
+            "Connection: keep-alive\r\n";
+
+    private static final String GET =
+            "GET /demo/index.html?symbol=KZNG&depth=10 HTTP/1.1\r\n" +
+            BROWSER_HEADERS +
+            "\r\n";
+
+    private static final String POST_HEADERS =
+            "POST /api/quotes HTTP/1.1\r\n" +
+            BROWSER_HEADERS +
+            "Content-Type: application/json;charset=UTF-8\r\n" +
+            "Content-Length: %d\r\n" +
+            "\r\n";
+
+    private static final String WEBSOCKET_UPGRADE =
+            "GET /echo HTTP/1.1\r\n" +
+            "Host: gateway.example.com:8000\r\n" +
+            "Upgrade: websocket\r\n" +
+            "Connection: Upgrade\r\n" +
+            "Origin: http://www.example.com\r\n" +
+            "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n" +
+            "Sec-WebSocket-Version: 13\r\n" +
+            "Sec-WebSocket-Protocol: chat, superchat\r\n" +
+            "Sec-WebSocket-Extensions: permessage-deflate; client_max_window_bits\r\n" +
+            "\r\n";
+
+    @Param({ "get", "post-json", "websocket-upgrade" })
+    public String request;
+
+    private ProtocolCodecSessionEx session;
+    private IoBufferAllocatorEx<?> allocator;
+    private ProtocolDecoder decoder;
+    private ByteBuffer bytes;
+
+    @Setup
+    public void init() throws Exception {
+        session = new ProtocolCodecSessionEx();
+        allocator = session.getBufferAllocator();
+        // one decoder per connection, reused for each request as with keep-alive connections
+        decoder = new HttpRequestDecoder();
+
+        switch (request) {
+            case "get":
+                bytes = ByteBuffer.wrap(GET.getBytes(US_ASCII));
+                break;
+            case "post-json":
+                byte[] content = Payloads.json();
+                byte[] headers = String.format(POST_HEADERS, content.length).getBytes(US_ASCII);
+                bytes = ByteBuffer.allocate(headers.length + content.length);
+                bytes.put(headers).put(content).flip();
+                break;
+            case "websocket-upgrade":
+                bytes = ByteBuffer.wrap(WEBSOCKET_UPGRADE.getBytes(US_ASCII));
+                break;
+            default:
+                throw new IllegalArgumentException(request);
+        }
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) throws Exception {
+        decoder.decode(session, (IoBuffer) allocator.wrap(bytes.duplicate()), session.getDecoderOutput());
+
+        Queue<Object> decoded = session.getDecoderOutputQueue();
+        Object message;
+        while ((message = decoded.poll()) != null) {
+            blackhole.consume(message);
+        }
+    }
+}
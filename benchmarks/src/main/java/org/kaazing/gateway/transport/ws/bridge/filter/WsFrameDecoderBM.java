@@ -0,0 +1,172 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.ws.bridge.filter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.kaazing.gateway.benchmarks.Payloads;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.filter.codec.ProtocolCodecSessionEx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class WsFrameDecoderBM {
+
+    private static final int OPCODE_CONTINUATION = 0x00;
+    private static final int OPCODE_TEXT = 0x01;
+    private static final int OPCODE_BINARY = 0x02;
+    private static final int MASKING_KEY = 0x1a2b3c4d;
+
+    // typical TCP segment payload size on an Ethernet network
+    private static final int SEGMENT_SIZE = 1448;
+
+    private static final int FRAGMENTS = 4;
+
+    /**
+     * json is a small text message, binary a 64 KB binary message and fragmented-json the json message
+     * sent as a text frame followed by continuation frames.
+     */
+    @Param({ "json", "binary", "fragmented-json" })
+    public String message;
+
+    /**
+     * Client frames are always masked, server frames never are.
+     */
+    @Param({ "true", "false" })
+    public boolean masked;
+
+    /**
+     * Whether the frames arrive in a single read or split across TCP segment sized reads.
+     */
+    @Param({ "false", "true" })
+    public boolean segmented;
+
+    private ProtocolCodecSessionEx session;
+    private IoBufferAllocatorEx<?> allocator;
+    private WsFrameDecoder decoder;
+    private List<ByteBuffer> reads;
+    private List<ByteBuffer> workReads;
+
+    @Setup
+    public void init() throws Exception {
+        session = new ProtocolCodecSessionEx();
+        allocator = session.getBufferAllocator();
+        decoder = new WsFrameDecoder(allocator, 0, masked);
+
+        ByteBuffer wire;
+        if ("fragmented-json".equals(message)) {
+            wire = fragmentedFrames(Payloads.json(), masked);
+        }
+        else {
+            int opcode = "binary".equals(message) ? OPCODE_BINARY : OPCODE_TEXT;
+            wire = frame(opcode, true, ByteBuffer.wrap(Payloads.payload(message)), masked);
+        }
+
+        reads = new ArrayList<>();
+        workReads = new ArrayList<>();
+        int readSize = segmented ? SEGMENT_SIZE : wire.remaining();
+        while (wire.hasRemaining()) {
+            ByteBuffer read = wire.slice();
+            read.limit(Math.min(readSize, read.remaining()));
+            wire.position(wire.position() + read.remaining());
+            reads.add(read);
+            workReads.add(ByteBuffer.allocate(read.remaining()));
+        }
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) throws Exception {
+        Queue<Object> decoded = session.getDecoderOutputQueue();
+        for (int i = 0; i < reads.size(); i++) {
+            // unmasking is done in place, so each operation decodes a fresh copy of the received bytes
+            ByteBuffer read = workReads.get(i);
+            read.clear();
+            read.put(reads.get(i).duplicate());
+            read.flip();
+
+            decoder.decode(session, (IoBuffer) allocator.wrap(read), session.getDecoderOutput());
+
+            Object message;
+            while ((message = decoded.poll()) != null) {
+                blackhole.consume(message);
+            }
+        }
+    }
+
+    static ByteBuffer fragmentedFrames(byte[] payload, boolean masked) {
+        ByteBuffer frames = ByteBuffer.allocate(payload.length + FRAGMENTS * 14);
+        int fragmentSize = (payload.length + FRAGMENTS - 1) / FRAGMENTS;
+        for (int offset = 0; offset < payload.length; offset += fragmentSize) {
+            int length = Math.min(fragmentSize, payload.length - offset);
+            int opcode = offset == 0 ? OPCODE_TEXT : OPCODE_CONTINUATION;
+            boolean fin = offset + length == payload.length;
+            frames.put(frame(opcode, fin, ByteBuffer.wrap(payload, offset, length), masked));
+        }
+        frames.flip();
+        return frames;
+    }
+
+    static ByteBuffer frame(int opcode, boolean fin, ByteBuffer payload, boolean masked) {
+        int length = payload.remaining();
+        ByteBuffer frame = ByteBuffer.allocate(14 + length);
+        frame.put((byte) ((fin ? 0x80 : 0x00) | opcode));
+        int maskBit = masked ? 0x80 : 0x00;
+        if (length < 126) {
+            frame.put((byte) (maskBit | length));
+        }
+        else if (length <= 0xffff) {
+            frame.put((byte) (maskBit | 126));
+            frame.putShort((short) length);
+        }
+        else {
+            frame.put((byte) (maskBit | 127));
+            frame.putLong(length);
+        }
+        if (masked) {
+            frame.putInt(MASKING_KEY);
+            for (int i = 0; i < length; i++) {
+                int maskByte = MASKING_KEY >>> (8 * (3 - (i & 3)));
+                frame.put((byte) (payload.get(payload.position() + i) ^ maskByte));
+            }
+        }
+        else {
+            frame.put(payload.duplicate());
+        }
+        frame.flip();
+        return frame;
+    }
+}
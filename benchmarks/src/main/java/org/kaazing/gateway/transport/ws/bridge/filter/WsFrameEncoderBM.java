@@ -0,0 +1,89 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.ws.bridge.filter;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.kaazing.gateway.benchmarks.Payloads;
+import org.kaazing.gateway.transport.ws.WsBinaryMessage;
+import org.kaazing.gateway.transport.ws.WsMessage;
+import org.kaazing.gateway.transport.ws.WsTextMessage;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.filter.codec.ProtocolCodecSessionEx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class WsFrameEncoderBM {
+
+    /**
+     * json is sent as a text message, binary as a 64 KB binary message.
+     */
+    @Param({ "json", "binary" })
+    public String message;
+
+    /**
+     * Whether frames are masked, as they are when the gateway is the client.
+     */
+    @Param({ "false", "true" })
+    public boolean masked;
+
+    private ProtocolCodecSessionEx session;
+    private IoBufferAllocatorEx<?> allocator;
+    private WsFrameEncoder encoder;
+    private ByteBuffer payload;
+
+    @Setup
+    public void init() throws Exception {
+        session = new ProtocolCodecSessionEx();
+        allocator = session.getBufferAllocator();
+        encoder = new WsFrameEncoder(allocator, masked);
+        payload = ByteBuffer.wrap(Payloads.payload(message));
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) throws Exception {
+        // a new message for each operation, as the application layer would write
+        WsMessage wsMessage = "binary".equals(message)
+                ? new WsBinaryMessage(allocator.wrap(payload.duplicate()))
+                : new WsTextMessage(allocator.wrap(payload.duplicate()));
+
+        encoder.encode(session, wsMessage, session.getEncoderOutput());
+
+        Queue<Object> encoded = session.getEncoderOutputQueue();
+        Object frame;
+        while ((frame = encoded.poll()) != null) {
+            blackhole.consume(frame);
+        }
+    }
+}
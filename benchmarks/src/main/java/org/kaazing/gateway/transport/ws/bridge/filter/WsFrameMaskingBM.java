@@ -0,0 +1,124 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.ws.bridge.filter;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.kaazing.gateway.benchmarks.Payloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares in place unmasking of client frame payloads 64 bits at a time ({@link WsFrameUtils#xor(ByteBuffer, int)})
+ * with the previous implementation, which worked 32 bits at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class WsFrameMaskingBM {
+
+    private static final int MASKING_KEY = 0x1a2b3c4d;
+
+    /**
+     * json is a small text message, binary a 64 KB binary message.
+     */
+    @Param({ "json", "binary" })
+    public String message;
+
+    /**
+     * Whether the payload is in a heap or a direct buffer, as read from the network.
+     */
+    @Param({ "false", "true" })
+    public boolean direct;
+
+    private ByteBuffer payload;
+
+    @Setup
+    public void init() throws Exception {
+        byte[] bytes = Payloads.payload(message);
+        payload = direct ? ByteBuffer.allocateDirect(bytes.length) : ByteBuffer.allocate(bytes.length);
+        payload.put(bytes).flip();
+    }
+
+    @Benchmark
+    public ByteBuffer unmask() {
+        // masking twice restores the payload, so each operation unmasks the same bytes
+        WsFrameUtils.xor(payload, MASKING_KEY);
+        return payload;
+    }
+
+    @Benchmark
+    public ByteBuffer unmaskIntWide() {
+        unmaskIntWide(payload, MASKING_KEY);
+        return payload;
+    }
+
+    // the previous WsFrameDecoder.unmask implementation
+    private static void unmaskIntWide(ByteBuffer buf, int mask) {
+        if (!buf.hasRemaining()) {
+            return;
+        }
+
+        byte b;
+        int start = buf.position();
+        int remainder = buf.remaining() % 4;
+        int remaining = buf.remaining() - remainder;
+        int end = remaining + buf.position();
+
+        while (buf.position() < end) {
+            int plaintext = buf.getInt(buf.position()) ^ mask;
+            buf.putInt(plaintext);
+        }
+
+        switch (remainder) {
+        case 3:
+            b = (byte) (buf.get(buf.position()) ^ ((mask >> 24) & 0xff));
+            buf.put(b);
+            b = (byte) (buf.get(buf.position()) ^ ((mask >> 16) & 0xff));
+            buf.put(b);
+            b = (byte) (buf.get(buf.position()) ^ ((mask >> 8) & 0xff));
+            buf.put(b);
+            break;
+        case 2:
+            b = (byte) (buf.get(buf.position()) ^ ((mask >> 24) & 0xff));
+            buf.put(b);
+            b = (byte) (buf.get(buf.position()) ^ ((mask >> 16) & 0xff));
+            buf.put(b);
+            break;
+        case 1:
+            b = (byte) (buf.get(buf.position()) ^ (mask >> 24));
+            buf.put(b);
+            break;
+        case 0:
+        default:
+            break;
+        }
+        buf.position(start);
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.wseb.filter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.filter.codec.ProtocolDecoder;
+import org.kaazing.gateway.benchmarks.Payloads;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.filter.codec.ProtocolCodecSessionEx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class WsebFrameDecoderBM {
+
+    private static final byte TEXT_TYPE_BYTE = (byte) 0x00;
+    private static final byte TEXT_TERMINATOR_BYTE = (byte) 0xff;
+    private static final byte BINARY_TYPE_BYTE = (byte) 0x80;
+
+    // typical TCP segment payload size on an Ethernet network
+    private static final int SEGMENT_SIZE = 1448;
+
+    /**
+     * json is sent as a terminated text frame, binary as a 64 KB length-prefixed binary frame.
+     */
+    @Param({ "json", "binary" })
+    public String message;
+
+    /**
+     * Whether the upstream request body arrives in a single read or split across TCP segment sized reads.
+     */
+    @Param({ "false", "true" })
+    public boolean segmented;
+
+    private ProtocolCodecSessionEx session;
+    private IoBufferAllocatorEx<?> allocator;
+    private ProtocolDecoder decoder;
+    private List<ByteBuffer> reads;
+
+    @Setup
+    public void init() throws Exception {
+        session = new ProtocolCodecSessionEx();
+        allocator = session.getBufferAllocator();
+        decoder = new WsebFrameDecoder(allocator, 0, true);
+
+        byte[] payload = Payloads.payload(message);
+        ByteBuffer wire = ByteBuffer.allocate(payload.length + 6);
+        if ("binary".equals(message)) {
+            wire.put(BINARY_TYPE_BYTE);
+            putLength(wire, payload.length);
+            wire.put(payload);
+        }
+        else {
+            wire.put(TEXT_TYPE_BYTE);
+            wire.put(payload);
+            wire.put(TEXT_TERMINATOR_BYTE);
+        }
+        wire.flip();
+
+        reads = new ArrayList<>();
+        int readSize = segmented ? SEGMENT_SIZE : wire.remaining();
+        while (wire.hasRemaining()) {
+            ByteBuffer read = wire.slice();
+            read.limit(Math.min(readSize, read.remaining()));
+            wire.position(wire.position() + read.remaining());
+            reads.add(read);
+        }
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) throws Exception {
+        Queue<Object> decoded = session.getDecoderOutputQueue();
+        for (int i = 0; i < reads.size(); i++) {
+            decoder.decode(session, (IoBuffer) allocator.wrap(reads.get(i).duplicate()), session.getDecoderOutput());
+
+            Object message;
+            while ((message = decoded.poll()) != null) {
+                blackhole.consume(message);
+            }
+        }
+    }
+
+    // big-endian base 128 with a continuation bit, as read by WsebFrameDecodingState
+    private static void putLength(ByteBuffer buf, int length) {
+        int shift = 28;
+        while (shift > 0 && (length >>> shift) == 0) {
+            shift -= 7;
+        }
+        for (; shift > 0; shift -= 7) {
+            buf.put((byte) (0x80 | ((length >>> shift) & 0x7f)));
+        }
+        buf.put((byte) (length & 0x7f));
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.util;
+
+import static java.lang.String.format;
+import static org.kaazing.gateway.util.Utf8Util.INVALID_UTF8;
+import static org.kaazing.gateway.util.Utf8Util.byteCountUTF8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.kaazing.gateway.benchmarks.Payloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares UTF-8 validation of text frames, skipping ASCII 8 bytes at a time, with the previous byte at a time
+ * implementation. Also compares the ASCII check now made by WsFrameUtf8Filter with the text to binary decoding
+ * it previously always did.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class Utf8UtilBM {
+
+    private static final ErrorHandler IGNORE_ERROR = new ErrorHandler() {
+        @Override
+        public void handleError(String message) {
+        }
+    };
+
+    /**
+     * json and multiline-json are ASCII text, chat is mostly ASCII with a few multi-byte characters.
+     */
+    @Param({ "json", "multiline-json", "chat" })
+    public String message;
+
+    private ByteBuffer text;
+
+    @Setup
+    public void init() throws Exception {
+        text = ByteBuffer.wrap(Payloads.payload(message));
+    }
+
+    @Benchmark
+    public int validate() {
+        return Utf8Util.validateUTF8(text, text.position(), text.remaining(), IGNORE_ERROR);
+    }
+
+    @Benchmark
+    public int validateBytewise() {
+        return validateUTF8Bytewise(text, text.position(), text.remaining(), IGNORE_ERROR);
+    }
+
+    @Benchmark
+    public ByteBuffer decodeText() {
+        ByteBuffer encoded = text.duplicate();
+        return Utf8Util.isASCII(encoded, encoded.position(), encoded.limit()) ? encoded : Encoding.UTF8.decode(encoded);
+    }
+
+    @Benchmark
+    public ByteBuffer decodeTextAlways() {
+        return Encoding.UTF8.decode(text.duplicate());
+    }
+
+    // the previous Utf8Util.validateUTF8 implementation
+    private static int validateUTF8Bytewise(ByteBuffer buffer, int offset, int length, ErrorHandler errorHandler) {
+        for (int index = 0; index < length; index++) {
+            byte leadingByte = buffer.get(offset + index);
+            final int expectedLen;
+            int codePoint;
+            if ((leadingByte & 0x80) == 0) {
+                continue;
+            }
+            if ((leadingByte & 0xff) > 0xf4) {
+                errorHandler.handleError(format("Invalid leading byte: %x", leadingByte));
+                return INVALID_UTF8;
+            }
+            if ((leadingByte & 0xE0) == 0xC0) {
+                expectedLen = 2;
+                codePoint = leadingByte & 0x1F;
+                if (codePoint < 2) {
+                    errorHandler.handleError(format("Overlong encoding: %x%x", leadingByte, buffer.get(offset + index + 1)));
+                    return INVALID_UTF8;
+                }
+            } else if ((leadingByte & 0xF0) == 0xE0) {
+                expectedLen = 3;
+                codePoint = leadingByte & 0x0F;
+            } else if ((leadingByte & 0xF8) == 0xF0) {
+                expectedLen = 4;
+                codePoint = leadingByte & 0x07;
+            } else {
+                errorHandler.handleError(format("Value exceeds Unicode limit: %x", leadingByte));
+                return INVALID_UTF8;
+            }
+            int characterStartIndex = index;
+            int remainingLen = expectedLen;
+            while (--remainingLen > 0) {
+                if (++index >= length) {
+                    return length - characterStartIndex;
+                }
+                byte nextByte = buffer.get(offset + index);
+                if ((nextByte & 0xC0) != 0x80) {
+                    errorHandler.handleError(format("Invalid continuation byte: %x", nextByte));
+                    return INVALID_UTF8;
+                }
+                codePoint = (codePoint << 6) | (nextByte & 0x3F);
+                if (codePoint > 0x10FFFF) {
+                    return INVALID_UTF8;
+                }
+            }
+
+            try {
+                if (expectedLen > byteCountUTF8(codePoint)) {
+                    errorHandler.handleError(format("Overlong encoding starting at byte %x postion %d", leadingByte,
+                            characterStartIndex));
+                    return INVALID_UTF8;
+                }
+            } catch (IOException e) {
+                errorHandler.handleError(e.getMessage());
+                return INVALID_UTF8;
+            }
+        }
+        return 0;
+    }
+}
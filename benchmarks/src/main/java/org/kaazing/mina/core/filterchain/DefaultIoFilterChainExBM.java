@@ -0,0 +1,95 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.core.filterchain;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.mina.core.filterchain.IoFilterAdapter;
+import org.apache.mina.core.filterchain.IoFilterChain;
+import org.apache.mina.core.service.IoHandlerAdapter;
+import org.kaazing.gateway.benchmarks.Payloads;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+import org.kaazing.mina.core.session.DummySessionEx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a message passing through a {@link DefaultIoFilterChainEx} of pass-through filters, on the I/O thread
+ * of the session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class DefaultIoFilterChainExBM {
+
+    /**
+     * Number of filters in the chain, a bare transport session and a typical bridge session.
+     */
+    @Param({ "1", "8" })
+    public int filters;
+
+    private DummySessionEx session;
+    private IoFilterChain filterChain;
+    private IoBufferAllocatorEx<?> allocator;
+    private ByteBuffer payload;
+
+    @Setup
+    public void init() throws Exception {
+        // thread state is set up on the benchmark thread, which becomes the I/O thread of the session, so the
+        // session gets an aligned DefaultIoFilterChainEx and events are never dispatched to the executor
+        session = new DummySessionEx(Thread.currentThread(), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+        session.setHandler(new IoHandlerAdapter());
+        filterChain = session.getFilterChain();
+        for (int i = 0; i < filters; i++) {
+            filterChain.addLast("filter#" + i, new IoFilterAdapter());
+        }
+        allocator = session.getBufferAllocator();
+        payload = ByteBuffer.wrap(Payloads.json());
+    }
+
+    @Benchmark
+    public void messageReceived() throws Exception {
+        IoBufferEx message = allocator.wrap(payload.duplicate());
+        filterChain.fireMessageReceived(message);
+    }
+
+    @Benchmark
+    public Object write() throws Exception {
+        // the dummy processor completes the write and fires messageSent back through the chain
+        IoBufferEx message = allocator.wrap(payload.duplicate());
+        return session.write(message);
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.netty;
+
+import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_DIRECT;
+import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_NONE;
+
+import java.util.concurrent.TimeUnit;
+
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+import org.kaazing.mina.core.buffer.SimpleBufferAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of allocating, filling and freeing a buffer with each of the buffer allocators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class IoBufferAllocatorBM {
+
+    @Param({ "simple", "channel" })
+    public String allocator;
+
+    @Param({ "256", "65536" })
+    public int capacity;
+
+    @Param({ "false", "true" })
+    public boolean direct;
+
+    private IoBufferAllocatorEx<?> bufferAllocator;
+    private int flags;
+
+    @Setup
+    public void init() throws Exception {
+        switch (allocator) {
+            case "simple":
+                bufferAllocator = SimpleBufferAllocator.BUFFER_ALLOCATOR;
+                break;
+            case "channel":
+                bufferAllocator = new ChannelIoBufferAllocator();
+                break;
+            default:
+                throw new IllegalArgumentException(allocator);
+        }
+        flags = direct ? FLAG_DIRECT : FLAG_NONE;
+    }
+
+    @Benchmark
+    public int allocateAndFree() throws Exception {
+        IoBufferEx buf = bufferAllocator.wrap(bufferAllocator.allocate(capacity, flags), flags);
+        buf.putInt(capacity);
+        buf.position(capacity - 4);
+        buf.putInt(capacity);
+        buf.flip();
+        int value = buf.getInt();
+        buf.free();
+        return value;
+    }
+}
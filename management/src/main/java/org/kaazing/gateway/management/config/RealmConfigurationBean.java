@@ -41,4 +41,24 @@ public interface RealmConfigurationBean {
     String getSessionTimeout();
 
     String getLoginModules();
+
+    long getLoginQueueDepth();
+
+    long getRejectedLogins();
+
+    long getCompletedLogins();
+
+    double getAverageLoginQueueTime();
+
+    double getAverageLoginTime();
+
+    double getMaximumLoginTime();
+
+    int getLoginCacheSize();
+
+    long getLoginCacheHits();
+
+    long getLoginCacheMisses();
+
+    long getLoginCacheEvictions();
 }
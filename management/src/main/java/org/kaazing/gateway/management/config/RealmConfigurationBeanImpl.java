@@ -23,7 +23,11 @@ import javax.security.auth.login.Configuration;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.kaazing.gateway.management.gateway.GatewayManagementBean;
+import org.kaazing.gateway.security.LoginContextFactory;
 import org.kaazing.gateway.security.RealmContext;
+import org.kaazing.gateway.security.auth.context.DefaultLoginContextFactory;
+import org.kaazing.gateway.security.auth.context.LoginContextCache;
+import org.kaazing.gateway.security.auth.context.LoginStatistics;
 
 public class RealmConfigurationBeanImpl implements RealmConfigurationBean {
 
@@ -91,6 +95,66 @@ public class RealmConfigurationBeanImpl implements RealmConfigurationBean {
         return jsonArray.toString();
     }
 
+    @Override
+    public long getLoginQueueDepth() {
+        LoginStatistics loginStatistics = getLoginStatistics();
+        return loginStatistics == null ? 0 : loginStatistics.getQueueDepth();
+    }
+
+    @Override
+    public long getRejectedLogins() {
+        LoginStatistics loginStatistics = getLoginStatistics();
+        return loginStatistics == null ? 0 : loginStatistics.getRejectedLogins();
+    }
+
+    @Override
+    public long getCompletedLogins() {
+        LoginStatistics loginStatistics = getLoginStatistics();
+        return loginStatistics == null ? 0 : loginStatistics.getCompletedLogins();
+    }
+
+    @Override
+    public double getAverageLoginQueueTime() {
+        LoginStatistics loginStatistics = getLoginStatistics();
+        return loginStatistics == null ? 0 : loginStatistics.getAverageQueueTime();
+    }
+
+    @Override
+    public double getAverageLoginTime() {
+        LoginStatistics loginStatistics = getLoginStatistics();
+        return loginStatistics == null ? 0 : loginStatistics.getAverageLoginTime();
+    }
+
+    @Override
+    public double getMaximumLoginTime() {
+        LoginStatistics loginStatistics = getLoginStatistics();
+        return loginStatistics == null ? 0 : loginStatistics.getMaximumLoginTime();
+    }
+
+    @Override
+    public int getLoginCacheSize() {
+        LoginContextCache loginCache = getLoginCache();
+        return loginCache == null ? 0 : loginCache.size();
+    }
+
+    @Override
+    public long getLoginCacheHits() {
+        LoginContextCache loginCache = getLoginCache();
+        return loginCache == null ? 0 : loginCache.getHits();
+    }
+
+    @Override
+    public long getLoginCacheMisses() {
+        LoginContextCache loginCache = getLoginCache();
+        return loginCache == null ? 0 : loginCache.getMisses();
+    }
+
+    @Override
+    public long getLoginCacheEvictions() {
+        LoginContextCache loginCache = getLoginCache();
+        return loginCache == null ? 0 : loginCache.getEvictions();
+    }
+
     @Override
     public String getDescription() {
         return realm.getDescription();
@@ -129,6 +193,18 @@ public class RealmConfigurationBeanImpl implements RealmConfigurationBean {
         return makeJSONArray(realm.getUserPrincipalClasses());
     }
 
+    private LoginStatistics getLoginStatistics() {
+        LoginContextFactory loginContextFactory = realm.getLoginContextFactory();
+        return loginContextFactory instanceof DefaultLoginContextFactory
+                ? ((DefaultLoginContextFactory) loginContextFactory).getLoginStatistics() : null;
+    }
+
+    private LoginContextCache getLoginCache() {
+        LoginContextFactory loginContextFactory = realm.getLoginContextFactory();
+        return loginContextFactory instanceof DefaultLoginContextFactory
+                ? ((DefaultLoginContextFactory) loginContextFactory).getLoginCache() : null;
+    }
+
     public String makeJSONArray(String[] strArray) {
         if (strArray == null) {
             return null;
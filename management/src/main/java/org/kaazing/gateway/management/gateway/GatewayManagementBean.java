@@ -72,6 +72,17 @@ public interface GatewayManagementBean extends ManagementBean {
 
     String getManagementServiceMap();
 
+    // DNS cache counters, all 0 when the DNS cache is disabled
+    long getDnsCacheHits();
+
+    long getDnsCacheNegativeHits();
+
+    long getDnsCacheMisses();
+
+    long getDnsCacheRefreshes();
+
+    long getDnsCacheRefreshFailures();
+
     void addClusterManagementListener(ClusterManagementListener listener);
 
     // Various methods needed by the strategy objects
@@ -37,6 +37,7 @@ import org.kaazing.gateway.management.Utils.ManagementSessionType;
 import org.kaazing.gateway.management.context.ManagementContext;
 import org.kaazing.gateway.management.update.check.ManagementUpdateCheck;
 import org.kaazing.gateway.management.update.check.ManagementUpdateCheckFactory;
+import org.kaazing.gateway.resource.address.CachingNameResolver;
 import org.kaazing.gateway.server.context.GatewayContext;
 import org.kaazing.gateway.server.util.ProductInfo;
 import org.kaazing.gateway.service.cluster.ClusterContext;
@@ -330,6 +331,41 @@ public class GatewayManagementBeanImpl extends AbstractManagementBean
         return jsonObj.toString();
     }
 
+    @Override
+    public long getDnsCacheHits() {
+        CachingNameResolver nameResolver = getCachingNameResolver();
+        return (nameResolver != null) ? nameResolver.getHits() : 0;
+    }
+
+    @Override
+    public long getDnsCacheNegativeHits() {
+        CachingNameResolver nameResolver = getCachingNameResolver();
+        return (nameResolver != null) ? nameResolver.getNegativeHits() : 0;
+    }
+
+    @Override
+    public long getDnsCacheMisses() {
+        CachingNameResolver nameResolver = getCachingNameResolver();
+        return (nameResolver != null) ? nameResolver.getMisses() : 0;
+    }
+
+    @Override
+    public long getDnsCacheRefreshes() {
+        CachingNameResolver nameResolver = getCachingNameResolver();
+        return (nameResolver != null) ? nameResolver.getRefreshes() : 0;
+    }
+
+    @Override
+    public long getDnsCacheRefreshFailures() {
+        CachingNameResolver nameResolver = getCachingNameResolver();
+        return (nameResolver != null) ? nameResolver.getRefreshFailures() : 0;
+    }
+
+    private CachingNameResolver getCachingNameResolver() {
+        Object nameResolver = gatewayContext.getInjectables().get("nameResolver");
+        return (nameResolver instanceof CachingNameResolver) ? (CachingNameResolver) nameResolver : null;
+    }
+
     @Override
     public void addClusterManagementListener(ClusterManagementListener listener) {
         listener.setGatewayBean(this);
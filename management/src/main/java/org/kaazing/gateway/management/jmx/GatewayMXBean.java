@@ -47,6 +47,16 @@ public interface GatewayMXBean {
 
     String getManagementServiceMap();
 
+    long getDnsCacheHits();
+
+    long getDnsCacheNegativeHits();
+
+    long getDnsCacheMisses();
+
+    long getDnsCacheRefreshes();
+
+    long getDnsCacheRefreshFailures();
+
     String getAvailableUpdateVersion();
 
     void forceUpdateVersionCheck();
@@ -103,6 +103,31 @@ public class GatewayMXBeanImpl implements GatewayMXBean {
         return gatewayManagementBean.getManagementServiceMap();
     }
 
+    @Override
+    public long getDnsCacheHits() {
+        return gatewayManagementBean.getDnsCacheHits();
+    }
+
+    @Override
+    public long getDnsCacheNegativeHits() {
+        return gatewayManagementBean.getDnsCacheNegativeHits();
+    }
+
+    @Override
+    public long getDnsCacheMisses() {
+        return gatewayManagementBean.getDnsCacheMisses();
+    }
+
+    @Override
+    public long getDnsCacheRefreshes() {
+        return gatewayManagementBean.getDnsCacheRefreshes();
+    }
+
+    @Override
+    public long getDnsCacheRefreshFailures() {
+        return gatewayManagementBean.getDnsCacheRefreshFailures();
+    }
+
     @Override
     public String getAvailableUpdateVersion() {
         return gatewayManagementBean.getAvailableUpdateVersion();
@@ -37,4 +37,24 @@ public interface RealmMXBean {
     String getSessionTimeout();
 
     String getLoginModules();
+
+    long getLoginQueueDepth();
+
+    long getRejectedLogins();
+
+    long getCompletedLogins();
+
+    double getAverageLoginQueueTime();
+
+    double getAverageLoginTime();
+
+    double getMaximumLoginTime();
+
+    int getLoginCacheSize();
+
+    long getLoginCacheHits();
+
+    long getLoginCacheMisses();
+
+    long getLoginCacheEvictions();
 }
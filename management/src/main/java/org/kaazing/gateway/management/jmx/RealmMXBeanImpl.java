@@ -48,6 +48,56 @@ public class RealmMXBeanImpl implements RealmMXBean {
         return realmBean.getLoginModules();
     }
 
+    @Override
+    public long getLoginQueueDepth() {
+        return realmBean.getLoginQueueDepth();
+    }
+
+    @Override
+    public long getRejectedLogins() {
+        return realmBean.getRejectedLogins();
+    }
+
+    @Override
+    public long getCompletedLogins() {
+        return realmBean.getCompletedLogins();
+    }
+
+    @Override
+    public double getAverageLoginQueueTime() {
+        return realmBean.getAverageLoginQueueTime();
+    }
+
+    @Override
+    public double getAverageLoginTime() {
+        return realmBean.getAverageLoginTime();
+    }
+
+    @Override
+    public double getMaximumLoginTime() {
+        return realmBean.getMaximumLoginTime();
+    }
+
+    @Override
+    public int getLoginCacheSize() {
+        return realmBean.getLoginCacheSize();
+    }
+
+    @Override
+    public long getLoginCacheHits() {
+        return realmBean.getLoginCacheHits();
+    }
+
+    @Override
+    public long getLoginCacheMisses() {
+        return realmBean.getLoginCacheMisses();
+    }
+
+    @Override
+    public long getLoginCacheEvictions() {
+        return realmBean.getLoginCacheEvictions();
+    }
+
     @Override
     public String getDescription() {
         return realmBean.getDescription();
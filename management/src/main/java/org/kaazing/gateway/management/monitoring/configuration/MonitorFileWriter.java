@@ -21,6 +21,7 @@ import org.kaazing.gateway.management.monitoring.service.MonitoredService;
 import org.kaazing.gateway.service.MonitoringEntityFactory;
 
 import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.CountersManager;
 
 /**
  * MonitoringFileWriter interface responsible with writing data to monitoring files
@@ -61,6 +62,13 @@ public interface MonitorFileWriter {
      */
     MonitoringEntityFactory getGatewayMonitoringEntityFactory();
 
+    /**
+     * Method returning the counters manager of the gateway counters section, shared with the gateway
+     * monitoring entity factory
+     * @return
+     */
+    CountersManager getGatewayCountersManager();
+
     /**
      * Method returning service monitoring entity factory
      * @param monitoredService
@@ -22,6 +22,7 @@ import org.kaazing.gateway.management.monitoring.configuration.MonitoringDataMan
 import org.kaazing.gateway.management.monitoring.entity.manager.impl.ServiceCounterManagerImpl;
 import org.kaazing.gateway.management.monitoring.service.MonitoredService;
 import org.kaazing.gateway.service.MonitoringEntityFactory;
+import org.kaazing.mina.core.metrics.TransportMetrics;
 
 import org.agrona.IoUtil;
 
@@ -39,6 +40,7 @@ public class MMFMonitoringDataManager implements MonitoringDataManager {
     private File monitoringDir;
     int serviceCount;
     private String gatewayId;
+    private TransportMetrics transportMetrics;
 
     public MMFMonitoringDataManager(String gatewayId) {
         super();
@@ -55,6 +57,10 @@ public class MMFMonitoringDataManager implements MonitoringDataManager {
         MonitoringEntityFactory gwCountersFactory =
                 monitorFileWriter.getGatewayMonitoringEntityFactory();
 
+        // publish transport counters alongside the gateway counters
+        transportMetrics = new TransportMetrics(monitorFileWriter.getGatewayCountersManager());
+        TransportMetrics.setInstance(transportMetrics);
+
         return gwCountersFactory;
     }
 
@@ -70,6 +76,12 @@ public class MMFMonitoringDataManager implements MonitoringDataManager {
 
     @Override
     public void close() {
+        // stop recording transport counters before the monitoring file is unmapped
+        if (transportMetrics != null) {
+            TransportMetrics.setInstance(TransportMetrics.NONE);
+            transportMetrics.close();
+            transportMetrics = null;
+        }
         monitorFileWriter.close(monitoringDir);
     }
 
@@ -21,7 +21,6 @@ import java.nio.MappedByteBuffer;
 
 import org.kaazing.gateway.management.monitoring.configuration.MonitorFileWriter;
 import org.kaazing.gateway.management.monitoring.service.MonitoredService;
-import org.kaazing.gateway.management.monitoring.writer.GatewayWriter;
 import org.kaazing.gateway.management.monitoring.writer.ServiceWriter;
 import org.kaazing.gateway.management.monitoring.writer.impl.MMFGatewayWriter;
 import org.kaazing.gateway.management.monitoring.writer.impl.MMFServiceWriter;
@@ -30,6 +29,7 @@ import org.kaazing.gateway.service.MonitoringEntityFactory;
 import org.agrona.BitUtil;
 import org.agrona.IoUtil;
 import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.CountersManager;
 
 /**
  * Class responsible for storing/writing information in the appropriate the MMF format.
@@ -54,6 +54,8 @@ public final class MonitorFileWriterImpl implements MonitorFileWriter {
     private static final int SIZEOF_STRING = 128;
     private static final int SIZEOF_ENTRY = 128;
     private static final int ENTRIES_COUNT = 1024;
+    // gateway counters also hold the per-thread transport counters
+    private static final int GATEWAY_ENTRIES_COUNT = 8 * ENTRIES_COUNT;
     private static final int MAX_SERVICE_COUNT = 100;
 
     private static final int MONITOR_VERSION = 1;
@@ -64,7 +66,7 @@ public final class MonitorFileWriterImpl implements MonitorFileWriter {
     private static final int GW_ID_OFFSET = SERVICE_DATA_REFERENCE_OFFSET + BitUtil.SIZE_OF_INT;
     private static final int GW_DATA_OFFSET = GW_ID_OFFSET;
 
-    private static final int GATEWAY_COUNTER_VALUES_BUFFER_LENGTH = ENTRIES_COUNT * SIZEOF_ENTRY;
+    private static final int GATEWAY_COUNTER_VALUES_BUFFER_LENGTH = GATEWAY_ENTRIES_COUNT * SIZEOF_ENTRY;
     private static final int GATEWAY_COUNTER_LABELS_BUFFER_LENGTH = 2 * GATEWAY_COUNTER_VALUES_BUFFER_LENGTH;
     private static final int SERVICE_COUNTER_VALUES_BUFFER_LENGTH = ENTRIES_COUNT * SIZEOF_ENTRY;
     private static final int SERVICE_COUNTER_LABELS_BUFFER_LENGTH = 2 * SERVICE_COUNTER_VALUES_BUFFER_LENGTH;
@@ -84,6 +86,7 @@ public final class MonitorFileWriterImpl implements MonitorFileWriter {
     private int prevServiceOffset;
     private String prevServiceName = "";
     private MappedByteBuffer mappedMonitorFile;
+    private MMFGatewayWriter gatewayWriter;
 
     /**
      * MonitorFileDescriptor constructor
@@ -157,8 +160,12 @@ public final class MonitorFileWriterImpl implements MonitorFileWriter {
 
     @Override
     public MonitoringEntityFactory getGatewayMonitoringEntityFactory() {
-        GatewayWriter gatewayWriter = new MMFGatewayWriter(this);
-        return gatewayWriter.writeCountersFactory();
+        return getGatewayWriter().writeCountersFactory();
+    }
+
+    @Override
+    public CountersManager getGatewayCountersManager() {
+        return getGatewayWriter().getCountersManager();
     }
 
     @Override
@@ -176,6 +183,17 @@ public final class MonitorFileWriterImpl implements MonitorFileWriter {
         IoUtil.delete(monitoringDir, false);
     }
 
+    /**
+     * Method returning the gateway writer, created once so the gateway counters section has a single counters manager
+     * @return
+     */
+    private MMFGatewayWriter getGatewayWriter() {
+        if (gatewayWriter == null) {
+            gatewayWriter = new MMFGatewayWriter(this);
+        }
+        return gatewayWriter;
+    }
+
     /**
      * Method setting the number of services and metadata length
      */
@@ -42,7 +42,11 @@ public class AgronaMonitoringEntityFactory implements MonitoringEntityFactory {
     public LongMonitoringCounter makeLongMonitoringCounter(String name) {
         // We create the new AtomicCounter using the CountersManager and we also add it to the list of counters
         // in order to close them when needed.
-        AtomicCounter counter = countersManager.newCounter(name);
+        // The gateway counters manager is shared with transport counters allocated on I/O threads
+        AtomicCounter counter;
+        synchronized (countersManager) {
+            counter = countersManager.newCounter(name);
+        }
         counters.add(counter);
 
         LongMonitoringCounter longMonitoringCounter = new AgronaLongMonitoringCounter(counter);
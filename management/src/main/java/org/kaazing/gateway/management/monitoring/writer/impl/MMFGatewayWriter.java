@@ -34,11 +34,21 @@ public class MMFGatewayWriter implements GatewayWriter {
 
     @Override
     public MonitoringEntityFactory writeCountersFactory() {
-        createCountersManager();
-        MonitoringEntityFactory factory = new AgronaMonitoringEntityFactory(countersManager);
+        MonitoringEntityFactory factory = new AgronaMonitoringEntityFactory(getCountersManager());
         return factory;
     }
 
+    /**
+     * Method returning the counters manager of the gateway counters section, also used for transport counters
+     * @return
+     */
+    public CountersManager getCountersManager() {
+        if (countersManager == null) {
+            createCountersManager();
+        }
+        return countersManager;
+    }
+
     /**
      * Helper method instantiating a counters manager
      */
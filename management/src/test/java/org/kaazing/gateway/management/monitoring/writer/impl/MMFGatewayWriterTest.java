@@ -16,6 +16,7 @@
 package org.kaazing.gateway.management.monitoring.writer.impl;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 import org.jmock.Expectations;
 import org.jmock.Mockery;
@@ -42,4 +43,22 @@ public class MMFGatewayWriterTest {
         assertNotNull(gatewayWriter);
         assertNotNull(gatewayWriter.writeCountersFactory());
     }
+
+    @Test
+    public void shouldShareCountersManager() {
+        Mockery context = new Mockery();
+
+        context.setImposteriser(ClassImposteriser.INSTANCE);
+
+        MonitorFileWriter monitorWriter = context.mock(MonitorFileWriter.class);
+        context.checking(new Expectations() {{
+            oneOf(monitorWriter).createGatewayCounterLabelsBuffer();
+            oneOf(monitorWriter).createGatewayCounterValuesBuffer();
+        }});
+
+        MMFGatewayWriter gatewayWriter = new MMFGatewayWriter(monitorWriter);
+        assertNotNull(gatewayWriter.writeCountersFactory());
+        assertSame(gatewayWriter.getCountersManager(), gatewayWriter.getCountersManager());
+        context.assertIsSatisfied();
+    }
 }
@@ -41,6 +41,7 @@ import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -59,6 +60,7 @@ import org.jboss.netty.logging.InternalLoggerFactory;
 import org.jboss.netty.util.ThreadNameDeterminer;
 import org.jboss.netty.util.ThreadRenamingRunnable;
 import org.jboss.netty.util.internal.DeadLockProofWorker;
+import org.kaazing.mina.core.metrics.TransportMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.agrona.concurrent.BackoffIdleStrategy;
@@ -68,6 +70,8 @@ abstract class AbstractNioSelector implements NioSelector {
     protected static final Logger PERF_LOGGER = LoggerFactory.getLogger("performance.tcp");
 
     private static final AtomicInteger nextId = new AtomicInteger();
+    private static final Runnable[] NO_SELECT_LOOP_TASKS = new Runnable[0];
+    private static final ThreadLocal<AbstractNioSelector> CURRENT_SELECTOR = new ThreadLocal<>();
     protected static final long LATENCY_BEFORE_LOG_PROCESS_SELECT = MILLISECONDS.toNanos(100);
     private static final long LATENCY_BEFORE_LOG_TASK = MILLISECONDS.toNanos(100);
 
@@ -117,6 +121,11 @@ abstract class AbstractNioSelector implements NioSelector {
 
     private volatile int cancelledKeys; // should use AtomicInteger but we just need approximation
 
+    /**
+     * Tasks run on each iteration of the selector loop, only accessed from the I/O thread.
+     */
+    private Runnable[] selectLoopTasks = NO_SELECT_LOOP_TASKS;
+
     private final CountDownLatch shutdownLatch = new CountDownLatch(1);
     private volatile boolean shutdown;
 
@@ -142,6 +151,7 @@ abstract class AbstractNioSelector implements NioSelector {
 
         if (selector != null) {
             if (wakenUp.compareAndSet(false, true)) {
+                TransportMetrics.getInstance().selectorWakeup();
                 selector.wakeup();
             }
             // log("Task added to queue");
@@ -227,6 +237,7 @@ abstract class AbstractNioSelector implements NioSelector {
     @Override
     public void run() {
         thread = Thread.currentThread();
+        CURRENT_SELECTOR.set(this);
         startupLatch.countDown();
 
         int selectReturnsImmediately = 0;
@@ -384,6 +395,7 @@ abstract class AbstractNioSelector implements NioSelector {
                 } else {
                     process(selector);
                     processRead();
+                    processSelectLoopTasks();
                 }
             } catch (Throwable t) {
                 logger.warn(
@@ -485,6 +497,53 @@ abstract class AbstractNioSelector implements NioSelector {
         return quickSelect;
     }
 
+    /**
+     * Returns the selector whose I/O thread is the current thread, or null if the current thread is not an I/O thread.
+     */
+    static AbstractNioSelector currentSelector() {
+        return CURRENT_SELECTOR.get();
+    }
+
+    /**
+     * Adds a task to be run on each iteration of the selector loop, must be called from the I/O thread.
+     * Tasks must be cheap when there is nothing for them to do, since the loop can iterate very frequently.
+     */
+    final void addSelectLoopTask(Runnable task) {
+        assert isIoThread();
+        Runnable[] tasks = Arrays.copyOf(selectLoopTasks, selectLoopTasks.length + 1);
+        tasks[tasks.length - 1] = task;
+        selectLoopTasks = tasks;
+    }
+
+    /**
+     * Removes a task added by {@link #addSelectLoopTask(Runnable)}, must be called from the I/O thread.
+     */
+    final boolean removeSelectLoopTask(Runnable task) {
+        assert isIoThread();
+        Runnable[] tasks = selectLoopTasks;
+        for (int i = 0; i < tasks.length; i++) {
+            if (tasks[i] == task) {
+                Runnable[] newTasks = new Runnable[tasks.length - 1];
+                System.arraycopy(tasks, 0, newTasks, 0, i);
+                System.arraycopy(tasks, i + 1, newTasks, i, newTasks.length - i);
+                selectLoopTasks = newTasks.length == 0 ? NO_SELECT_LOOP_TASKS : newTasks;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void processSelectLoopTasks() {
+        Runnable[] tasks = selectLoopTasks;
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                logger.warn("Unexpected exception in a select loop task.", t);
+            }
+        }
+    }
+
     protected final void increaseCancelledKeys() {
         cancelledKeys ++;
     }
@@ -43,6 +43,7 @@ import org.jboss.netty.logging.InternalLogger;
 import org.jboss.netty.logging.InternalLoggerFactory;
 import org.jboss.netty.util.ThreadNameDeterminer;
 import org.jboss.netty.util.ThreadRenamingRunnable;
+import org.kaazing.mina.core.metrics.TransportMetrics;
 import org.kaazing.mina.netty.channel.DefaultWriteCompletionEventEx;
 import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
 
@@ -558,6 +559,7 @@ public abstract class AbstractNioWorker extends AbstractNioSelector implements W
                 key.interestOps(newInterestOps);
                 if (Thread.currentThread() != thread &&
                     wakenUp.compareAndSet(false, true)) {
+                    TransportMetrics.getInstance().selectorWakeup();
                     selector.wakeup();
                 }
                 channel.setInternalInterestOps(newInterestOps);
@@ -609,6 +611,7 @@ public abstract class AbstractNioWorker extends AbstractNioSelector implements W
 
                     // wake up selector if necessary, to avoid selector timeout stall
                     if (wakenUp.compareAndSet(false, true)) {
+                        TransportMetrics.getInstance().selectorWakeup();
                         selector.wakeup();
                     }
                 }
@@ -662,6 +665,7 @@ public abstract class AbstractNioWorker extends AbstractNioSelector implements W
         // Wake up the selector so the event gets processed immediately by the worker thread
         if (selector != null) {
             if (wakenUp.compareAndSet(false, true)) {
+                TransportMetrics.getInstance().selectorWakeup();
                 selector.wakeup();
             }
         }
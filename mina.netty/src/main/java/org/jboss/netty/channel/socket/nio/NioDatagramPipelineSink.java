@@ -48,6 +48,17 @@ import org.jboss.netty.channel.MessageEvent;
  */
 class NioDatagramPipelineSink extends AbstractNioChannelSink {
 
+    // mina.netty change - SO_REUSEPORT for server datagram channels bound several times per address
+    private volatile boolean reusePort;
+
+    boolean isReusePort() {
+        return reusePort;
+    }
+
+    void setReusePort(boolean reusePort) {
+        this.reusePort = reusePort;
+    }
+
     /**
      * Handle downstream event.
      *
@@ -117,11 +128,16 @@ class NioDatagramPipelineSink extends AbstractNioChannelSink {
      * Will bind the DatagramSocket to the passed-in address.
      * Every call bind will spawn a new thread using the that basically in turn
      */
-    private static void bind(final NioDatagramChannel channel,
+    private void bind(final NioDatagramChannel channel,
                              final ChannelFuture future, final InetSocketAddress address) {
         boolean bound = false;
         boolean started = false;
         try {
+            // SO_REUSEPORT must be set before we try to bind the socket
+            if (reusePort) {
+                NioServerSocketOptions.setReusePort(channel, true);
+            }
+
             // First bind the DatagramSocket the specified port.
             channel.getDatagramChannel().socket().bind(address);
             bound = true;
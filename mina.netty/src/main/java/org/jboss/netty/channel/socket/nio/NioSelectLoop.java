@@ -0,0 +1,58 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.netty.channel.socket.nio;
+
+/**
+ * Allows tasks to be run on each iteration of the selector loop of the current NIO I/O thread,
+ * for example to drive timers without needing a separate timer thread.
+ */
+public final class NioSelectLoop {
+
+    /**
+     * @return true if the current thread is a NIO I/O thread running a selector loop
+     */
+    public static boolean isIoThread() {
+        return AbstractNioSelector.currentSelector() != null;
+    }
+
+    /**
+     * Adds a task to be run on each iteration of the selector loop of the current thread.
+     *
+     * @return false if the current thread is not a NIO I/O thread, in which case the task is not added
+     */
+    public static boolean addTask(Runnable task) {
+        AbstractNioSelector selector = AbstractNioSelector.currentSelector();
+        if (selector == null) {
+            return false;
+        }
+        selector.addSelectLoopTask(task);
+        return true;
+    }
+
+    /**
+     * Removes a task previously added from the current thread.
+     *
+     * @return true if the task was removed
+     */
+    public static boolean removeTask(Runnable task) {
+        AbstractNioSelector selector = AbstractNioSelector.currentSelector();
+        return selector != null && selector.removeSelectLoopTask(task);
+    }
+
+    private NioSelectLoop() {
+        // utility class
+    }
+}
@@ -83,6 +83,23 @@ public class NioServerDatagramChannelFactory implements DatagramChannelFactory {
         releasePool = true;
     }
 
+    // mina.netty change - several datagram channels, each read by its own boss, can share a bind address
+    public boolean isReusePort() {
+        return sink.isReusePort();
+    }
+
+    /**
+     * Sets SO_REUSEPORT on datagram channels bound from now on, so that several of them can bind the same
+     * address. The kernel then hashes each remote address to one of them, preserving the order of the
+     * datagrams received from each peer.
+     */
+    public void setReusePort(boolean reusePort) {
+        if (reusePort && !NioServerSocketOptions.isDatagramReusePortSupported()) {
+            throw new UnsupportedOperationException("SO_REUSEPORT is not supported");
+        }
+        sink.setReusePort(reusePort);
+    }
+
     public DatagramChannel newChannel(final ChannelPipeline pipeline) {
         return new NioDatagramChannel(this, pipeline, sink, bossPool.nextBoss(), family);
     }
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.netty.channel.socket.nio;
+
+import java.io.IOException;
+import java.net.SocketOption;
+import java.net.StandardSocketOptions;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.NetworkChannel;
+import java.nio.channels.ServerSocketChannel;
+
+import org.jboss.netty.channel.Channel;
+
+/**
+ * Socket options of NIO server socket and datagram channels that Netty does not expose through the channel
+ * configuration.
+ */
+public final class NioServerSocketOptions {
+
+    private static final SocketOption<Boolean> SO_REUSEPORT = reusePortOption(true);
+    private static final SocketOption<Boolean> DATAGRAM_SO_REUSEPORT = reusePortOption(false);
+
+    private NioServerSocketOptions() {
+    }
+
+    /**
+     * Whether SO_REUSEPORT, allowing several listening sockets to bind the same address and port with the
+     * kernel spreading incoming connections across them, is supported by this JVM and platform.
+     */
+    public static boolean isReusePortSupported() {
+        return SO_REUSEPORT != null;
+    }
+
+    /**
+     * Sets SO_REUSEPORT on the given (not yet bound) server socket channel.
+     */
+    public static void setReusePort(Channel channel, boolean reusePort) throws IOException {
+        if (SO_REUSEPORT == null) {
+            throw new UnsupportedOperationException("SO_REUSEPORT is not supported");
+        }
+        if (!(channel instanceof NioServerSocketChannel)) {
+            throw new IllegalArgumentException("Not an NIO server socket channel: " + channel);
+        }
+        ((NioServerSocketChannel) channel).socket.setOption(SO_REUSEPORT, reusePort);
+    }
+
+    /**
+     * Whether SO_REUSEPORT, allowing several datagram sockets to bind the same address and port with the
+     * kernel spreading incoming datagrams across them by remote address, is supported by this JVM and platform.
+     */
+    public static boolean isDatagramReusePortSupported() {
+        return DATAGRAM_SO_REUSEPORT != null;
+    }
+
+    /**
+     * Sets SO_REUSEPORT on the given (not yet bound) datagram channel.
+     */
+    static void setReusePort(NioDatagramChannel channel, boolean reusePort) throws IOException {
+        if (DATAGRAM_SO_REUSEPORT == null) {
+            throw new UnsupportedOperationException("SO_REUSEPORT is not supported");
+        }
+        channel.getDatagramChannel().setOption(DATAGRAM_SO_REUSEPORT, reusePort);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SocketOption<Boolean> reusePortOption(boolean serverSocket) {
+        SocketOption<Boolean> option;
+        try {
+            // StandardSocketOptions.SO_REUSEPORT is only available from Java 9
+            option = (SocketOption<Boolean>) StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return null;
+        }
+
+        // not every platform supports the option
+        try (NetworkChannel socket = serverSocket ? ServerSocketChannel.open() : DatagramChannel.open()) {
+            return socket.supportedOptions().contains(option) ? option : null;
+        }
+        catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.core.buffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An encoded message made of several buffers that are written out together, in order, with a single gathering
+ * write. This lets an encoder put a small header in front of a large payload without copying the payload.
+ * <p>
+ * Only transports that declare this class in their envelope types accept it, so encoders must check
+ * {@code session.getTransportMetadata().getEnvelopeTypes()} before writing one and fall back to a single buffer
+ * otherwise. The component buffers must not be modified until the write completes.
+ */
+public final class GatheringBuffer {
+
+    private final IoBufferEx[] buffers;
+
+    public GatheringBuffer(IoBufferEx... buffers) {
+        this.buffers = buffers;
+    }
+
+    public IoBufferEx[] getBuffers() {
+        return buffers;
+    }
+
+    public int remaining() {
+        int remaining = 0;
+        for (IoBufferEx buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * Returns duplicates of the component buffers, leaving the positions of (possibly shared) buffers untouched
+     * by the write.
+     */
+    public ByteBuffer[] toByteBuffers() {
+        ByteBuffer[] byteBuffers = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            byteBuffers[i] = buffers[i].buf().duplicate();
+        }
+        return byteBuffers;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("GatheringBuffer[");
+        for (int i = 0; i < buffers.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(buffers[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
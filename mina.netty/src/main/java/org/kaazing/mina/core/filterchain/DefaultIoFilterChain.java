@@ -16,11 +16,10 @@
 package org.kaazing.mina.core.filterchain;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.file.FileRegion;
 import org.apache.mina.core.filterchain.IoFilter;
 import org.apache.mina.core.filterchain.IoFilterAdapter;
 import org.apache.mina.core.filterchain.IoFilterChain;
@@ -35,6 +34,7 @@ import org.apache.mina.core.write.WriteRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.kaazing.mina.core.buffer.GatheringBuffer;
 import org.kaazing.mina.core.session.AbstractIoSession;
 
 /**
@@ -55,7 +55,8 @@ public class DefaultIoFilterChain implements IoFilterChain {
     /** The associated session */
     private final AbstractIoSession session;
 
-    private final Map<String, Entry> name2entry = new HashMap<>();
+    // Note: there is deliberately no name to entry map, chains hold a handful of filters so a scan of
+    //       the entries is as fast as hashing, and every session would otherwise pay for the map
 
     /** The chain head */
     private final EntryImpl head;
@@ -76,7 +77,6 @@ public class DefaultIoFilterChain implements IoFilterChain {
         EntryImpl prevEntry = head;
         for (EntryImpl entry = oldHead.nextEntry; entry != oldTail; entry = entry.nextEntry) {
             EntryImpl newEntry = new EntryImpl(prevEntry, tail, entry.name, entry.filter);
-            name2entry.put(entry.name, newEntry);
             prevEntry.nextEntry = newEntry;
             prevEntry = newEntry;
         }
@@ -107,11 +107,18 @@ public class DefaultIoFilterChain implements IoFilterChain {
 
     @Override
     public Entry getEntry(String name) {
-        Entry e = name2entry.get(name);
-        if (e == null) {
-            return null;
+        return getEntry0(name);
+    }
+
+    private EntryImpl getEntry0(String name) {
+        EntryImpl e = head.nextEntry;
+        while (e != tail) {
+            if (e.name.equals(name)) {
+                return e;
+            }
+            e = e.nextEntry;
         }
-        return e;
+        return null;
     }
 
     @Override
@@ -292,8 +299,7 @@ public class DefaultIoFilterChain implements IoFilterChain {
 
     @Override
     public synchronized void clear() throws Exception {
-        List<IoFilterChain.Entry> l = new ArrayList<>(
-                name2entry.values());
+        List<IoFilterChain.Entry> l = getAll();
         for (IoFilterChain.Entry entry : l) {
             try {
                 deregister((EntryImpl) entry);
@@ -317,7 +323,6 @@ public class DefaultIoFilterChain implements IoFilterChain {
 
         prevEntry.nextEntry.prevEntry = newEntry;
         prevEntry.nextEntry = newEntry;
-        name2entry.put(name, newEntry);
 
         try {
             filter.onPostAdd(this, name, newEntry.getNextFilter());
@@ -353,8 +358,6 @@ public class DefaultIoFilterChain implements IoFilterChain {
         EntryImpl nextEntry = entry.nextEntry;
         prevEntry.nextEntry = nextEntry;
         nextEntry.prevEntry = prevEntry;
-
-        name2entry.remove(entry.name);
     }
 
     /**
@@ -363,7 +366,7 @@ public class DefaultIoFilterChain implements IoFilterChain {
      * @return An filter entry with the specified name.
      */
     private EntryImpl checkOldName(String baseName) {
-        EntryImpl e = (EntryImpl) name2entry.get(baseName);
+        EntryImpl e = getEntry0(baseName);
         if (e == null) {
             throw new IllegalArgumentException("Filter not found:" + baseName);
         }
@@ -374,7 +377,7 @@ public class DefaultIoFilterChain implements IoFilterChain {
      * Checks the specified filter name is already taken and throws an exception if already taken.
      */
     private void checkAddable(String name) {
-        if (name2entry.containsKey(name)) {
+        if (getEntry0(name) != null) {
             throw new IllegalArgumentException(
                     "Other filter is using the same name '" + name + "'");
         }
@@ -485,6 +488,7 @@ public class DefaultIoFilterChain implements IoFilterChain {
         } catch (Throwable t) {
             fireExceptionCaught(t);
         }
+        session.getTransportLayerMetrics().messageWritten();
 
         Entry head = this.head;
         callNextMessageSent(head, session, request);
@@ -661,6 +665,16 @@ public class DefaultIoFilterChain implements IoFilterChain {
                         break;
                 }
             }
+            else if (writeRequest.getMessage() instanceof GatheringBuffer) {
+                // written bytes are counted down as the gathered buffers are written, see increaseWrittenBytes
+                GatheringBuffer buffer = (GatheringBuffer) writeRequest.getMessage();
+                s.increaseScheduledWriteBytes(buffer.remaining());
+            }
+            else if (writeRequest.getMessage() instanceof FileRegion) {
+                // likewise for the bytes transferred from the file
+                FileRegion region = (FileRegion) writeRequest.getMessage();
+                s.increaseScheduledWriteBytes((int) Math.min(region.getRemainingBytes(), Integer.MAX_VALUE));
+            }
 
             s.getWriteRequestQueue().offer(s, writeRequest);
             if (!s.isWriteSuspended()) {
@@ -782,7 +796,8 @@ public class DefaultIoFilterChain implements IoFilterChain {
         }
     }
 
-    private final class EntryImpl implements Entry {
+    // Note: the entry is also the NextFilter passed to its filter, saving an object per entry per session
+    private final class EntryImpl implements Entry, NextFilter {
         private EntryImpl prevEntry;
 
         private EntryImpl nextEntry;
@@ -791,8 +806,6 @@ public class DefaultIoFilterChain implements IoFilterChain {
 
         private IoFilter filter;
 
-        private final NextFilter nextFilter;
-
         private EntryImpl(EntryImpl prevEntry, EntryImpl nextEntry,
                 String name, IoFilter filter) {
             if (filter == null) {
@@ -806,67 +819,6 @@ public class DefaultIoFilterChain implements IoFilterChain {
             this.nextEntry = nextEntry;
             this.name = name;
             this.filter = filter;
-            this.nextFilter = new NextFilter() {
-                @Override
-                public void sessionCreated(IoSession session) {
-                    Entry nextEntry = EntryImpl.this.nextEntry;
-                    callNextSessionCreated(nextEntry, session);
-                }
-
-                @Override
-                public void sessionOpened(IoSession session) {
-                    Entry nextEntry = EntryImpl.this.nextEntry;
-                    callNextSessionOpened(nextEntry, session);
-                }
-
-                @Override
-                public void sessionClosed(IoSession session) {
-                    Entry nextEntry = EntryImpl.this.nextEntry;
-                    callNextSessionClosed(nextEntry, session);
-                }
-
-                @Override
-                public void sessionIdle(IoSession session, IdleStatus status) {
-                    Entry nextEntry = EntryImpl.this.nextEntry;
-                    callNextSessionIdle(nextEntry, session, status);
-                }
-
-                @Override
-                public void exceptionCaught(IoSession session, Throwable cause) {
-                    Entry nextEntry = EntryImpl.this.nextEntry;
-                    callNextExceptionCaught(nextEntry, session, cause);
-                }
-
-                @Override
-                public void messageReceived(IoSession session, Object message) {
-                    Entry nextEntry = EntryImpl.this.nextEntry;
-                    callNextMessageReceived(nextEntry, session, message);
-                }
-
-                @Override
-                public void messageSent(IoSession session,
-                                        WriteRequest writeRequest) {
-                    Entry nextEntry = EntryImpl.this.nextEntry;
-                    callNextMessageSent(nextEntry, session, writeRequest);
-                }
-
-                @Override
-                public void filterWrite(IoSession session,
-                                        WriteRequest writeRequest) {
-                    Entry nextEntry = EntryImpl.this.prevEntry;
-                    callPreviousFilterWrite(nextEntry, session, writeRequest);
-                }
-
-                @Override
-                public void filterClose(IoSession session) {
-                    Entry nextEntry = EntryImpl.this.prevEntry;
-                    callPreviousFilterClose(nextEntry, session);
-                }
-
-                public String toString() {
-                    return EntryImpl.this.nextEntry.name;
-                }
-            };
         }
 
         @Override
@@ -889,7 +841,63 @@ public class DefaultIoFilterChain implements IoFilterChain {
 
         @Override
         public NextFilter getNextFilter() {
-            return nextFilter;
+            return this;
+        }
+
+        @Override
+        public void sessionCreated(IoSession session) {
+            Entry nextEntry = this.nextEntry;
+            callNextSessionCreated(nextEntry, session);
+        }
+
+        @Override
+        public void sessionOpened(IoSession session) {
+            Entry nextEntry = this.nextEntry;
+            callNextSessionOpened(nextEntry, session);
+        }
+
+        @Override
+        public void sessionClosed(IoSession session) {
+            Entry nextEntry = this.nextEntry;
+            callNextSessionClosed(nextEntry, session);
+        }
+
+        @Override
+        public void sessionIdle(IoSession session, IdleStatus status) {
+            Entry nextEntry = this.nextEntry;
+            callNextSessionIdle(nextEntry, session, status);
+        }
+
+        @Override
+        public void exceptionCaught(IoSession session, Throwable cause) {
+            Entry nextEntry = this.nextEntry;
+            callNextExceptionCaught(nextEntry, session, cause);
+        }
+
+        @Override
+        public void messageReceived(IoSession session, Object message) {
+            Entry nextEntry = this.nextEntry;
+            callNextMessageReceived(nextEntry, session, message);
+        }
+
+        @Override
+        public void messageSent(IoSession session,
+                                WriteRequest writeRequest) {
+            Entry nextEntry = this.nextEntry;
+            callNextMessageSent(nextEntry, session, writeRequest);
+        }
+
+        @Override
+        public void filterWrite(IoSession session,
+                                WriteRequest writeRequest) {
+            Entry nextEntry = this.prevEntry;
+            callPreviousFilterWrite(nextEntry, session, writeRequest);
+        }
+
+        @Override
+        public void filterClose(IoSession session) {
+            Entry nextEntry = this.prevEntry;
+            callPreviousFilterClose(nextEntry, session);
         }
 
         @Override
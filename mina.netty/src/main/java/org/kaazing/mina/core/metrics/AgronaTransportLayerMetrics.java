@@ -0,0 +1,211 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.core.metrics;
+
+import static java.lang.Long.numberOfLeadingZeros;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.jboss.netty.channel.socket.nio.NioSelectLoop;
+import org.kaazing.mina.netty.util.threadlocal.VicariousThreadLocal;
+
+final class AgronaTransportLayerMetrics extends TransportLayerMetrics {
+
+    // decode and handshake time buckets cover [2^MINIMUM_BUCKET_SHIFT, 2^(MINIMUM_BUCKET_SHIFT + BUCKET_COUNT)) nanoseconds,
+    // with values outside the range counted in the first or last bucket (about 1us to 1s)
+    static final int MINIMUM_BUCKET_SHIFT = 10;
+    static final int BUCKET_COUNT = 20;
+
+    private final TransportMetrics metrics;
+    private final String name;
+    private final AtomicCounter[] decodeTimeBuckets;
+    private final AtomicCounter decodeTimeTotal;
+    private final AtomicCounter bytesRead;
+    private final AtomicCounter bytesWritten;
+    private final AtomicCounter messagesRead;
+    private final AtomicCounter messagesWritten;
+    private final AtomicCounter scheduledWriteBytes;
+    private volatile HandshakeCounters handshakeCounters;
+    private volatile boolean closed;
+
+    // NIO I/O threads are few and long lived, so each gets its own counters; any other thread (application, scheduler
+    // or pooled threads, which may come and go) shares the counters of the layer, so null is stored for them
+    private final ThreadLocal<IoThreadCounters> ioThreadCounters = new VicariousThreadLocal<IoThreadCounters>() {
+        @Override
+        protected IoThreadCounters initialValue() {
+            return NioSelectLoop.isIoThread() ? new IoThreadCounters(Thread.currentThread().getName()) : null;
+        }
+    };
+
+    AgronaTransportLayerMetrics(TransportMetrics metrics, String name) {
+        this.metrics = metrics;
+        this.name = name;
+        this.decodeTimeBuckets = new AtomicCounter[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            decodeTimeBuckets[i] = metrics.newCounter(timeBucketLabel(name + "-decode", i));
+        }
+        this.decodeTimeTotal = metrics.newCounter(name + "-decode-time-ns-total");
+        this.bytesRead = metrics.newCounter(name + "-bytes-read");
+        this.bytesWritten = metrics.newCounter(name + "-bytes-written");
+        this.messagesRead = metrics.newCounter(name + "-messages-read");
+        this.messagesWritten = metrics.newCounter(name + "-messages-written");
+        this.scheduledWriteBytes = metrics.newCounter(name + "-write-queue-bytes");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void bytesRead(long bytes) {
+        if (!closed) {
+            IoThreadCounters counters = ioThreadCounters.get();
+            if (counters != null) {
+                counters.bytesRead.addOrdered(bytes);
+            }
+            else {
+                bytesRead.add(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void bytesWritten(long bytes) {
+        if (!closed) {
+            IoThreadCounters counters = ioThreadCounters.get();
+            if (counters != null) {
+                counters.bytesWritten.addOrdered(bytes);
+            }
+            else {
+                bytesWritten.add(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void messageRead() {
+        if (!closed) {
+            IoThreadCounters counters = ioThreadCounters.get();
+            if (counters != null) {
+                counters.messagesRead.incrementOrdered();
+            }
+            else {
+                messagesRead.increment();
+            }
+        }
+    }
+
+    @Override
+    public void messageWritten() {
+        if (!closed) {
+            IoThreadCounters counters = ioThreadCounters.get();
+            if (counters != null) {
+                counters.messagesWritten.incrementOrdered();
+            }
+            else {
+                messagesWritten.increment();
+            }
+        }
+    }
+
+    @Override
+    public void scheduledWriteBytes(long delta) {
+        // a write is queued on the writing thread and completed on the I/O thread, so this gauge is always shared
+        if (!closed) {
+            scheduledWriteBytes.add(delta);
+        }
+    }
+
+    @Override
+    public void decodeTime(long nanos) {
+        if (!closed) {
+            decodeTimeBuckets[bucket(nanos)].increment();
+            decodeTimeTotal.add(nanos);
+        }
+    }
+
+    @Override
+    public void handshake(long nanos, boolean resumed) {
+        if (closed) {
+            return;
+        }
+        HandshakeCounters counters = handshakeCounters;
+        if (counters == null) {
+            counters = newHandshakeCounters();
+        }
+        (resumed ? counters.resumed : counters.full).increment();
+        counters.timeBuckets[bucket(nanos)].increment();
+        counters.timeTotal.add(nanos);
+    }
+
+    /**
+     * Detaches this layer from its counters, sessions still referencing it no longer update them.
+     */
+    void close() {
+        closed = true;
+    }
+
+    static int bucket(long nanos) {
+        int log2 = 63 - numberOfLeadingZeros(nanos | 1L);
+        return Math.max(0, Math.min(BUCKET_COUNT - 1, log2 - MINIMUM_BUCKET_SHIFT));
+    }
+
+    static String timeBucketLabel(String prefix, int bucket) {
+        return prefix + "-time-ns-ge-" + (bucket == 0 ? 0L : 1L << (bucket + MINIMUM_BUCKET_SHIFT));
+    }
+
+    // only layers that handshake pay for the handshake counters
+    private synchronized HandshakeCounters newHandshakeCounters() {
+        HandshakeCounters counters = handshakeCounters;
+        if (counters == null) {
+            counters = new HandshakeCounters();
+            handshakeCounters = counters;
+        }
+        return counters;
+    }
+
+    private final class HandshakeCounters {
+        private final AtomicCounter resumed;
+        private final AtomicCounter full;
+        private final AtomicCounter[] timeBuckets;
+        private final AtomicCounter timeTotal;
+
+        HandshakeCounters() {
+            resumed = metrics.newCounter(name + "-session-cache-hits");
+            full = metrics.newCounter(name + "-session-cache-misses");
+            timeBuckets = new AtomicCounter[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                timeBuckets[i] = metrics.newCounter(timeBucketLabel(name + "-handshake", i));
+            }
+            timeTotal = metrics.newCounter(name + "-handshake-time-ns-total");
+        }
+    }
+
+    // counters only ever updated by their NIO I/O thread
+    private final class IoThreadCounters {
+        private final AtomicCounter bytesRead;
+        private final AtomicCounter bytesWritten;
+        private final AtomicCounter messagesRead;
+        private final AtomicCounter messagesWritten;
+
+        IoThreadCounters(String threadName) {
+            bytesRead = metrics.newCounter(name + "-bytes-read-" + threadName);
+            bytesWritten = metrics.newCounter(name + "-bytes-written-" + threadName);
+            messagesRead = metrics.newCounter(name + "-messages-read-" + threadName);
+            messagesWritten = metrics.newCounter(name + "-messages-written-" + threadName);
+        }
+    }
+}
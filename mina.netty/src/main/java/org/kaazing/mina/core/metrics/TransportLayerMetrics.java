@@ -0,0 +1,89 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.core.metrics;
+
+/**
+ * Hot-path counters of one transport layer, see {@link TransportMetrics}.
+ *
+ * Updates are cheap enough to be made from I/O threads on every read and write. {@link #isEnabled()} lets callers
+ * skip the cost of measuring (such as reading the clock) when nothing is recorded.
+ */
+public abstract class TransportLayerMetrics {
+
+    public static final TransportLayerMetrics NONE = new TransportLayerMetrics() {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void bytesRead(long bytes) {
+        }
+
+        @Override
+        public void bytesWritten(long bytes) {
+        }
+
+        @Override
+        public void messageRead() {
+        }
+
+        @Override
+        public void messageWritten() {
+        }
+
+        @Override
+        public void scheduledWriteBytes(long delta) {
+        }
+
+        @Override
+        public void decodeTime(long nanos) {
+        }
+
+        @Override
+        public void handshake(long nanos, boolean resumed) {
+        }
+    };
+
+    public abstract boolean isEnabled();
+
+    public abstract void bytesRead(long bytes);
+
+    public abstract void bytesWritten(long bytes);
+
+    public abstract void messageRead();
+
+    public abstract void messageWritten();
+
+    /**
+     * Tracks the write queue depth of the layer in bytes.
+     *
+     * @param delta  bytes added to (positive) or removed from (negative) session write queues
+     */
+    public abstract void scheduledWriteBytes(long delta);
+
+    public abstract void decodeTime(long nanos);
+
+    /**
+     * Records a completed security handshake, such as a TLS handshake, of the layer.
+     *
+     * @param nanos    the duration of the handshake
+     * @param resumed  whether a previous session was resumed (a session cache hit) rather than newly negotiated
+     */
+    public abstract void handshake(long nanos, boolean resumed);
+
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.core.metrics;
+
+import static java.lang.String.format;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hot-path transport counters published through an Agrona {@link CountersManager}, typically backed by the
+ * memory-mapped monitoring file so they can be read by external agents without involving the gateway.
+ *
+ * Counters are grouped by transport layer (the {@link org.apache.mina.core.service.TransportMetadata} name of the
+ * session, for example tcp, ssl, http, wsn, wseb or sse). Byte and message counters are kept per NIO I/O thread, so
+ * that each of these counters has a single writer and is updated with ordered writes only; updates from any other
+ * thread, and the write queue bytes gauge, which is updated from both the writing and the I/O thread, go to shared
+ * counters of the layer updated atomically. Readers sum the per-thread and shared counters of a layer. Decode times
+ * are recorded in a shared log2-bucketed latency histogram per layer.
+ *
+ * Counter allocation synchronizes on the {@link CountersManager}, so other owners of the same counters manager
+ * must do the same.
+ *
+ * The installed instance defaults to {@link #NONE}, which records nothing.
+ */
+public final class TransportMetrics {
+
+    public static final TransportMetrics NONE = new TransportMetrics();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransportMetrics.class);
+
+    private static final String SELECTOR_WAKEUPS = "selector-wakeups";
+
+    // counters that do not fit in the published counters file still work, they are just not visible externally
+    private static final int OVERFLOW_COUNTERS_VALUES_LENGTH = 64 * 1024;
+
+    private static volatile TransportMetrics instance = NONE;
+
+    private final CountersManager countersManager;
+    private final ConcurrentMap<String, AgronaTransportLayerMetrics> layers;
+    private final Map<String, AtomicCounter> countersByLabel;
+    private final List<AtomicCounter> counters;
+    private final AtomicCounter selectorWakeups;
+    private CountersManager overflowCountersManager;
+
+    private TransportMetrics() {
+        this.countersManager = null;
+        this.layers = null;
+        this.countersByLabel = null;
+        this.counters = null;
+        this.selectorWakeups = null;
+    }
+
+    public TransportMetrics(CountersManager countersManager) {
+        if (countersManager == null) {
+            throw new NullPointerException("countersManager");
+        }
+        this.countersManager = countersManager;
+        this.layers = new ConcurrentHashMap<>();
+        this.countersByLabel = new ConcurrentHashMap<>();
+        this.counters = new CopyOnWriteArrayList<>();
+        this.selectorWakeups = newCounter(SELECTOR_WAKEUPS);
+    }
+
+    public static TransportMetrics getInstance() {
+        return instance;
+    }
+
+    public static void setInstance(TransportMetrics metrics) {
+        if (metrics == null) {
+            throw new NullPointerException("metrics");
+        }
+        instance = metrics;
+    }
+
+    public boolean isEnabled() {
+        return countersManager != null;
+    }
+
+    /**
+     * @param name  the transport layer name, for example tcp, ssl, http, wsn, wseb or sse
+     * @return the metrics of the layer, shared by all its sessions
+     */
+    public TransportLayerMetrics layer(String name) {
+        if (countersManager == null) {
+            return TransportLayerMetrics.NONE;
+        }
+        AgronaTransportLayerMetrics layer = layers.get(name);
+        if (layer == null) {
+            AgronaTransportLayerMetrics newLayer = new AgronaTransportLayerMetrics(this, name);
+            layer = layers.putIfAbsent(name, newLayer);
+            if (layer == null) {
+                layer = newLayer;
+            }
+        }
+        return layer;
+    }
+
+    /**
+     * Records a wakeup of an NIO selector from another thread.
+     */
+    public void selectorWakeup() {
+        if (selectorWakeups != null) {
+            selectorWakeups.increment();
+        }
+    }
+
+    /**
+     * Frees all the counters of this instance, which must no longer be installed. Sessions that still reference
+     * a layer of this instance stop updating its counters, so the counters file can then be unmapped.
+     */
+    public void close() {
+        if (layers != null) {
+            for (AgronaTransportLayerMetrics layer : layers.values()) {
+                layer.close();
+            }
+        }
+        if (counters != null) {
+            for (AtomicCounter counter : counters) {
+                counter.close();
+            }
+            counters.clear();
+        }
+    }
+
+    // package-private for tests
+    long value(String label) {
+        AtomicCounter counter = countersByLabel.get(label);
+        return counter != null ? counter.get() : 0L;
+    }
+
+    synchronized AtomicCounter newCounter(String label) {
+        AtomicCounter counter;
+        try {
+            // the counters manager may be shared with other counter owners, see class javadoc
+            synchronized (countersManager) {
+                counter = countersManager.newCounter(label);
+            }
+            counters.add(counter);
+        }
+        catch (RuntimeException e) {
+            counter = newOverflowCounter(label);
+        }
+        countersByLabel.put(label, counter);
+        return counter;
+    }
+
+    private AtomicCounter newOverflowCounter(String label) {
+        if (overflowCountersManager == null) {
+            LOGGER.warn(format("Transport counters file is full, counter %s and later counters will not be published",
+                    label));
+        }
+        for (;;) {
+            if (overflowCountersManager == null) {
+                overflowCountersManager = new CountersManager(
+                        new UnsafeBuffer(ByteBuffer.allocateDirect(2 * OVERFLOW_COUNTERS_VALUES_LENGTH)),
+                        new UnsafeBuffer(ByteBuffer.allocateDirect(OVERFLOW_COUNTERS_VALUES_LENGTH)));
+            }
+            try {
+                return overflowCountersManager.newCounter(label);
+            }
+            catch (RuntimeException e) {
+                overflowCountersManager = null;
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.file.FileRegion;
 import org.apache.mina.core.filterchain.IoFilterChain;
 import org.apache.mina.core.future.CloseFuture;
 import org.apache.mina.core.future.DefaultCloseFuture;
@@ -49,8 +50,11 @@ import org.apache.mina.core.write.WriteTimeoutException;
 import org.apache.mina.core.write.WriteToClosedSessionException;
 import org.apache.mina.util.CircularQueue;
 
+import org.kaazing.mina.core.buffer.GatheringBuffer;
 import org.kaazing.mina.core.future.DefaultWriteFutureEx;
 import org.kaazing.mina.core.future.WriteFutureEx;
+import org.kaazing.mina.core.metrics.TransportLayerMetrics;
+import org.kaazing.mina.core.metrics.TransportMetrics;
 import org.kaazing.mina.core.write.DefaultWriteRequestEx;
 import org.kaazing.mina.core.write.WriteRequestEx;
 
@@ -156,6 +160,9 @@ public abstract class AbstractIoSession implements IoSession, IoAlignment {
 
     private boolean deferDecreaseReadBuffer = true;
 
+    // resolved lazily because the transport metadata of some sessions is only set after construction
+    private volatile CachedLayerMetrics transportLayerMetrics = CachedLayerMetrics.NONE;
+
     /**
      * TODO Add method documentation
      */
@@ -777,6 +784,36 @@ public abstract class AbstractIoSession implements IoSession, IoAlignment {
     }
 
 
+    /**
+     * Returns the hot-path counters of this session's transport layer, named after its transport metadata.
+     */
+    public final TransportLayerMetrics getTransportLayerMetrics() {
+        TransportMetrics metrics = TransportMetrics.getInstance();
+        CachedLayerMetrics cached = transportLayerMetrics;
+        if (metrics != cached.metrics) {
+            TransportMetadata transportMetadata = getTransportMetadata();
+            if (transportMetadata == null) {
+                return TransportLayerMetrics.NONE;
+            }
+            cached = new CachedLayerMetrics(metrics, metrics.layer(transportMetadata.getName()));
+            transportLayerMetrics = cached;
+        }
+        return cached.layer;
+    }
+
+    // the layer and the metrics instance it belongs to, published together so other threads never mix them up
+    private static final class CachedLayerMetrics {
+        static final CachedLayerMetrics NONE = new CachedLayerMetrics(TransportMetrics.NONE, TransportLayerMetrics.NONE);
+
+        final TransportMetrics metrics;
+        final TransportLayerMetrics layer;
+
+        CachedLayerMetrics(TransportMetrics metrics, TransportLayerMetrics layer) {
+            this.metrics = metrics;
+            this.layer = layer;
+        }
+    }
+
     /**
      * TODO Add method documentation
      */
@@ -789,6 +826,7 @@ public abstract class AbstractIoSession implements IoSession, IoAlignment {
         lastReadTime = currentTime;
         idleCountForBoth.set(0);
         idleCountForRead.set(0);
+        getTransportLayerMetrics().bytesRead(increment);
 
 //        if (getService() instanceof AbstractIoService) {
 //            ((AbstractIoService) getService()).getStatistics().increaseReadBytes(increment, currentTime);
@@ -803,6 +841,7 @@ public abstract class AbstractIoSession implements IoSession, IoAlignment {
         lastReadTime = currentTime;
         idleCountForBoth.set(0);
         idleCountForRead.set(0);
+        getTransportLayerMetrics().messageRead();
 
 //        if (getService() instanceof AbstractIoService) {
 //            ((AbstractIoService) getService()).getStatistics().increaseReadMessages(currentTime);
@@ -821,6 +860,7 @@ public abstract class AbstractIoSession implements IoSession, IoAlignment {
         lastWriteTime = currentTime;
         idleCountForBoth.set(0);
         idleCountForWrite.set(0);
+        getTransportLayerMetrics().bytesWritten(increment);
 
 //        if (getService() instanceof AbstractIoService) {
 //            ((AbstractIoService) getService()).getStatistics().increaseWrittenBytes(increment, currentTime);
@@ -836,6 +876,7 @@ public abstract class AbstractIoSession implements IoSession, IoAlignment {
      */
     public final void increaseScheduledWriteBytes(int increment) {
         scheduledWriteBytes.addAndGet(increment);
+        getTransportLayerMetrics().scheduledWriteBytes(increment);
 //        if (getService() instanceof AbstractIoService) {
 //            ((AbstractIoService) getService()).getStatistics().increaseScheduledWriteBytes(increment);
 //        }
@@ -853,6 +894,14 @@ public abstract class AbstractIoSession implements IoSession, IoAlignment {
                 increaseScheduledWriteBytes(-((IoBuffer) message).remaining());
             }
         }
+        else if (message instanceof GatheringBuffer) {
+            GatheringBuffer b = (GatheringBuffer) message;
+            increaseScheduledWriteBytes(-b.remaining());
+        }
+        else if (message instanceof FileRegion) {
+            FileRegion region = (FileRegion) message;
+            increaseScheduledWriteBytes((int) -Math.min(region.getRemainingBytes(), Integer.MAX_VALUE));
+        }
     }
 
     /**
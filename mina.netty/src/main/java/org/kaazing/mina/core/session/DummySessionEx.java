@@ -28,7 +28,6 @@ import org.apache.mina.core.service.IoHandler;
 import org.apache.mina.core.service.IoHandlerAdapter;
 import org.apache.mina.core.service.IoService;
 import org.apache.mina.core.service.TransportMetadata;
-import org.apache.mina.core.session.DefaultIoSessionDataStructureFactory;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.core.session.IoSessionConfig;
 import org.apache.mina.core.session.IoSessionDataStructureFactory;
@@ -207,7 +206,7 @@ public class DummySessionEx extends AbstractIoSessionEx {
         };
 
         try {
-            IoSessionDataStructureFactory factory = new DefaultIoSessionDataStructureFactory();
+            IoSessionDataStructureFactory factory = new IndexedIoSessionDataStructureFactory();
             setAttributeMap(factory.getAttributeMap(this));
             setWriteRequestQueue(factory.getWriteRequestQueue(this));
         } catch (Exception e) {
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.core.session;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Base class for session attribute keys that can be stored in a fixed slot of an
+ * {@link IndexedIoSessionAttributeMap}, so that lookups need no hashing.
+ *
+ * Slots are handed out in key creation order to the first {@link #SLOT_COUNT} keys, whatever creates them.
+ * Keys must therefore be constants, created once per class; a key created per filter, handler or session
+ * would take a new slot each time and soon leave none for the others.  Keys created after the slots run out
+ * (and deserialized keys) have no slot and are stored in the attribute map's fallback map instead.
+ */
+public abstract class IndexedAttributeKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int SLOT_COUNT = Long.SIZE;
+
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+    private static final AtomicReferenceArray<IndexedAttributeKey> KEYS_BY_SLOT =
+            new AtomicReferenceArray<>(SLOT_COUNT);
+
+    // slot + 1, so that the default value of a deserialized key means no slot
+    private final transient int slotPlusOne;
+
+    protected IndexedAttributeKey() {
+        int slot = NEXT_SLOT.getAndIncrement();
+        if (slot < SLOT_COUNT) {
+            KEYS_BY_SLOT.set(slot, this);
+            slotPlusOne = slot + 1;
+        }
+        else {
+            // do not let the counter wrap around into valid slots
+            NEXT_SLOT.set(SLOT_COUNT);
+            slotPlusOne = 0;
+        }
+    }
+
+    /**
+     * Returns the slot of this key, or -1 if it has none.
+     */
+    public final int slot() {
+        return slotPlusOne - 1;
+    }
+
+    static IndexedAttributeKey keyAt(int slot) {
+        return KEYS_BY_SLOT.get(slot);
+    }
+
+}
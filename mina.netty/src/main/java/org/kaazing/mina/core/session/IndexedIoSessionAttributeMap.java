@@ -0,0 +1,276 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.core.session;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.core.session.IoSessionAttributeMap;
+
+/**
+ * Session attribute map storing the values of {@link IndexedAttributeKey}s in their slots, and any other keys
+ * in a fallback map that is only allocated once such a key is used.
+ *
+ * Slotted values are kept as a bitmap of the occupied slots plus a packed array of their values, so a lookup is
+ * a bit count and an array load, and an empty or lightly used session costs a few words instead of a hash map.
+ * Reads of slotted keys are lock free against an immutable snapshot; writes copy the (small) snapshot under the
+ * map's lock. Keys without a slot, such as codec keys, are as lock free as before in a concurrent fallback map.
+ */
+public final class IndexedIoSessionAttributeMap implements IoSessionAttributeMap {
+
+    private static final Slots EMPTY_SLOTS = new Slots(0L, new Object[0]);
+
+    private volatile Slots slots = EMPTY_SLOTS;
+
+    // null until a key without a slot is used, only created under the map's lock
+    private volatile ConcurrentMap<Object, Object> attributes;
+
+    @Override
+    public Object getAttribute(IoSession session, Object key, Object defaultValue) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        Object answer;
+        int slot = slotOf(key);
+        if (slot != -1) {
+            answer = slots.get(slot);
+        }
+        else {
+            ConcurrentMap<Object, Object> attributes = this.attributes;
+            answer = (attributes != null) ? attributes.get(key) : null;
+        }
+
+        return (answer != null) ? answer : defaultValue;
+    }
+
+    @Override
+    public Object setAttribute(IoSession session, Object key, Object value) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        if (value == null) {
+            return removeAttribute(session, key);
+        }
+
+        int slot = slotOf(key);
+        if (slot == -1) {
+            return attributes().put(key, value);
+        }
+
+        synchronized (this) {
+            Slots slots = this.slots;
+            Object oldValue = slots.get(slot);
+            this.slots = slots.put(slot, value);
+            return oldValue;
+        }
+    }
+
+    @Override
+    public Object setAttributeIfAbsent(IoSession session, Object key, Object value) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        if (value == null) {
+            return null;
+        }
+
+        int slot = slotOf(key);
+        if (slot == -1) {
+            return attributes().putIfAbsent(key, value);
+        }
+
+        synchronized (this) {
+            Slots slots = this.slots;
+            Object oldValue = slots.get(slot);
+            if (oldValue == null) {
+                this.slots = slots.put(slot, value);
+            }
+            return oldValue;
+        }
+    }
+
+    @Override
+    public Object removeAttribute(IoSession session, Object key) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        int slot = slotOf(key);
+        if (slot == -1) {
+            ConcurrentMap<Object, Object> attributes = this.attributes;
+            return (attributes != null) ? attributes.remove(key) : null;
+        }
+
+        synchronized (this) {
+            Slots slots = this.slots;
+            Object oldValue = slots.get(slot);
+            if (oldValue != null) {
+                this.slots = slots.remove(slot);
+            }
+            return oldValue;
+        }
+    }
+
+    @Override
+    public boolean removeAttribute(IoSession session, Object key, Object value) {
+        if (key == null) {
+            throw new NullPointerException("key");
+        }
+
+        if (value == null) {
+            return false;
+        }
+
+        int slot = slotOf(key);
+        if (slot == -1) {
+            ConcurrentMap<Object, Object> attributes = this.attributes;
+            return attributes != null && attributes.remove(key, value);
+        }
+
+        synchronized (this) {
+            Slots slots = this.slots;
+            if (value.equals(slots.get(slot))) {
+                this.slots = slots.remove(slot);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public boolean replaceAttribute(IoSession session, Object key, Object oldValue, Object newValue) {
+        int slot = slotOf(key);
+        if (slot == -1) {
+            ConcurrentMap<Object, Object> attributes = this.attributes;
+            if (attributes == null || oldValue == null) {
+                return false;
+            }
+            return (newValue != null) ? attributes.replace(key, oldValue, newValue) : attributes.remove(key, oldValue);
+        }
+
+        synchronized (this) {
+            Slots slots = this.slots;
+            Object actualOldValue = slots.get(slot);
+            if (actualOldValue != null && actualOldValue.equals(oldValue)) {
+                this.slots = (newValue != null) ? slots.put(slot, newValue) : slots.remove(slot);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public boolean containsAttribute(IoSession session, Object key) {
+        int slot = slotOf(key);
+        if (slot != -1) {
+            return slots.get(slot) != null;
+        }
+        ConcurrentMap<Object, Object> attributes = this.attributes;
+        return attributes != null && attributes.containsKey(key);
+    }
+
+    @Override
+    public Set<Object> getAttributeKeys(IoSession session) {
+        Set<Object> keys = new HashSet<>();
+        long bitmap = slots.bitmap;
+        while (bitmap != 0L) {
+            int slot = Long.numberOfTrailingZeros(bitmap);
+            keys.add(IndexedAttributeKey.keyAt(slot));
+            bitmap &= bitmap - 1;
+        }
+        ConcurrentMap<Object, Object> attributes = this.attributes;
+        if (attributes != null) {
+            keys.addAll(attributes.keySet());
+        }
+        return keys;
+    }
+
+    @Override
+    public void dispose(IoSession session) throws Exception {
+        // Do nothing
+    }
+
+    private ConcurrentMap<Object, Object> attributes() {
+        ConcurrentMap<Object, Object> attributes = this.attributes;
+        if (attributes == null) {
+            synchronized (this) {
+                attributes = this.attributes;
+                if (attributes == null) {
+                    attributes = new ConcurrentHashMap<>(4);
+                    this.attributes = attributes;
+                }
+            }
+        }
+        return attributes;
+    }
+
+    private static int slotOf(Object key) {
+        return (key instanceof IndexedAttributeKey) ? ((IndexedAttributeKey) key).slot() : -1;
+    }
+
+    private static final class Slots {
+        private final long bitmap;
+        private final Object[] values;
+
+        Slots(long bitmap, Object[] values) {
+            this.bitmap = bitmap;
+            this.values = values;
+        }
+
+        Object get(int slot) {
+            long bit = 1L << slot;
+            return ((bitmap & bit) != 0L) ? values[Long.bitCount(bitmap & (bit - 1L))] : null;
+        }
+
+        Slots put(int slot, Object value) {
+            long bit = 1L << slot;
+            int index = Long.bitCount(bitmap & (bit - 1L));
+            if ((bitmap & bit) != 0L) {
+                Object[] newValues = values.clone();
+                newValues[index] = value;
+                return new Slots(bitmap, newValues);
+            }
+
+            Object[] newValues = new Object[values.length + 1];
+            System.arraycopy(values, 0, newValues, 0, index);
+            newValues[index] = value;
+            System.arraycopy(values, index, newValues, index + 1, values.length - index);
+            return new Slots(bitmap | bit, newValues);
+        }
+
+        Slots remove(int slot) {
+            long bit = 1L << slot;
+            if ((bitmap & bit) == 0L) {
+                return this;
+            }
+            if (values.length == 1) {
+                return EMPTY_SLOTS;
+            }
+
+            int index = Long.bitCount(bitmap & (bit - 1L));
+            Object[] newValues = new Object[values.length - 1];
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(values, index + 1, newValues, index, newValues.length - index);
+            return new Slots(bitmap & ~bit, newValues);
+        }
+    }
+}
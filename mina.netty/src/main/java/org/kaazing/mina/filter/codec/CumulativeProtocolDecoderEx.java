@@ -35,6 +35,9 @@
 package org.kaazing.mina.filter.codec;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.mina.core.buffer.IoBuffer;
 import org.apache.mina.core.service.TransportMetadata;
@@ -124,18 +127,50 @@ import org.kaazing.mina.core.buffer.IoBufferEx;
 /* This has the following differences from CumulativeProtocolDecoder in Mina 2.0.0-RC1:
  * 1. Uses IoBufferAllocatorEx as the allocator
  * 2. Fixes a Mina bug by removing the logic which compacted the buffer when data is remaining (see KG-9213)
+ * 3. Optionally cumulates received buffers without decoding them until the decoder can make progress
+ *    (see Cumulation.COMPOSITE)
 */
 public abstract class CumulativeProtocolDecoderEx extends ProtocolDecoderAdapter {
 
+    /**
+     * How received buffers are cumulated while a message is incomplete.
+     */
+    public enum Cumulation {
+
+        /**
+         * Appends each received buffer to the cumulative buffer and decodes it again, copying the
+         * undecoded remainder each time.
+         */
+        COPY,
+
+        /**
+         * Gathers (a copy of) each received buffer as a fragment, only joining the fragments into a
+         * contiguous cumulative buffer once it holds the number of bytes the decoder asked for with
+         * {@link CumulativeProtocolDecoderEx#requireRemaining(IoSession, long)}. A message arriving in
+         * many reads is then copied a constant number of times, rather than once per read.
+         */
+        COMPOSITE
+    }
+
     private final AttributeKey BUFFER = new AttributeKey(getClass(), "buffer");
+    private final AttributeKey REQUIRED = new AttributeKey(getClass(), "required");
 
     private final IoBufferAllocatorEx<?> allocator;
+    private final Cumulation cumulation;
 
     /**
      * Creates a new instance.
      */
     protected CumulativeProtocolDecoderEx(IoBufferAllocatorEx<?> allocator) {
+        this(allocator, Cumulation.COPY);
+    }
+
+    /**
+     * Creates a new instance using the given cumulation strategy.
+     */
+    protected CumulativeProtocolDecoderEx(IoBufferAllocatorEx<?> allocator, Cumulation cumulation) {
         this.allocator = allocator;
+        this.cumulation = cumulation;
     }
 
     /**
@@ -163,6 +198,11 @@ public abstract class CumulativeProtocolDecoderEx extends ProtocolDecoderAdapter
             return;
         }
 
+        if (cumulation == Cumulation.COMPOSITE) {
+            decodeComposite(session, inEx, out);
+            return;
+        }
+
         boolean usingSessionBuffer = true;
         IoBufferEx buf = (IoBufferEx) session.getAttribute(BUFFER);
         // If we have a session buffer, append data to that; otherwise
@@ -205,6 +245,53 @@ public abstract class CumulativeProtocolDecoderEx extends ProtocolDecoderAdapter
             usingSessionBuffer = false;
         }
 
+        decodeAll(session, buf, out);
+
+        // if there is any data left that cannot be decoded, we store
+        // it in a buffer in the session and next time this decoder is
+        // invoked the session buffer gets appended to
+        if (buf.hasRemaining()) {
+                storeRemainingInSession(buf, session);
+        } else {
+            if (usingSessionBuffer) {
+                removeSessionBuffer(session);
+            }
+        }
+    }
+
+    private void decodeComposite(IoSession session, IoBufferEx in, ProtocolDecoderOutput out) throws Exception {
+        boolean usingSessionBuffer = true;
+        IoBufferEx buf;
+        Fragments fragments = (Fragments) session.getAttribute(BUFFER);
+        if (fragments != null) {
+            if (fragments.remaining + in.remaining() < fragments.required) {
+                // the decoder cannot make progress yet, so just gather the received bytes
+                fragments.add(copy(in));
+                return;
+            }
+
+            buf = fragments.join(allocator, in);
+        } else {
+            buf = in;
+            usingSessionBuffer = false;
+        }
+
+        decodeAll(session, buf, out);
+
+        // if there is any data left that cannot be decoded, we store a copy of it as the first
+        // fragment in the session, along with how many bytes the decoder requires to continue
+        if (buf.hasRemaining()) {
+            Long required = (Long) session.removeAttribute(REQUIRED);
+            IoBufferEx remainingBuf = copy(buf);
+            session.setAttribute(BUFFER, new Fragments(remainingBuf, required != null ? required : 0L));
+        } else {
+            if (usingSessionBuffer) {
+                removeSessionBuffer(session);
+            }
+        }
+    }
+
+    private void decodeAll(IoSession session, IoBufferEx buf, ProtocolDecoderOutput out) throws Exception {
         for (;;) {
             int oldPos = buf.position();
             boolean decoded = doDecode(session, buf, out);
@@ -221,16 +308,17 @@ public abstract class CumulativeProtocolDecoderEx extends ProtocolDecoderAdapter
                 break;
             }
         }
+    }
 
-        // if there is any data left that cannot be decoded, we store
-        // it in a buffer in the session and next time this decoder is
-        // invoked the session buffer gets appended to
-        if (buf.hasRemaining()) {
-                storeRemainingInSession(buf, session);
-        } else {
-            if (usingSessionBuffer) {
-                removeSessionBuffer(session);
-            }
+    /**
+     * Called by <tt>doDecode()</tt>, before returning <tt>false</tt>, when it knows how many bytes (counted from
+     * the current position of the cumulative buffer) it needs before it can decode the next message. With
+     * {@link Cumulation#COMPOSITE}, received buffers are then only gathered until that many bytes are available.
+     * Has no effect with {@link Cumulation#COPY}.
+     */
+    protected final void requireRemaining(IoSession session, long remaining) {
+        if (cumulation == Cumulation.COMPOSITE) {
+            session.setAttribute(REQUIRED, remaining);
         }
     }
 
@@ -260,6 +348,16 @@ public abstract class CumulativeProtocolDecoderEx extends ProtocolDecoderAdapter
 
     private void removeSessionBuffer(IoSession session) {
         session.removeAttribute(BUFFER);
+        session.removeAttribute(REQUIRED);
+    }
+
+    private IoBufferEx copy(IoBufferEx buf) {
+        ByteBuffer copyNioBuf = allocator.allocate(buf.remaining());
+        IoBufferEx copyBuf = allocator.wrap(copyNioBuf);
+        copyBuf.order(buf.order());
+        copyBuf.put(buf);
+        copyBuf.flip();
+        return copyBuf;
     }
 
     private void storeRemainingInSession(IoBufferEx buf, IoSession session) {
@@ -271,4 +369,36 @@ public abstract class CumulativeProtocolDecoderEx extends ProtocolDecoderAdapter
 
         session.setAttribute(BUFFER, remainingBuf);
     }
+
+    private static final class Fragments {
+
+        private final List<IoBufferEx> buffers;
+        private final ByteOrder order;
+        private final long required;
+        private int remaining;
+
+        Fragments(IoBufferEx first, long required) {
+            this.buffers = new ArrayList<>();
+            this.order = first.order();
+            this.required = required;
+            add(first);
+        }
+
+        void add(IoBufferEx buf) {
+            buffers.add(buf);
+            remaining += buf.remaining();
+        }
+
+        IoBufferEx join(IoBufferAllocatorEx<?> allocator, IoBufferEx in) {
+            ByteBuffer joinedNioBuf = allocator.allocate(remaining + in.remaining());
+            IoBufferEx joined = allocator.wrap(joinedNioBuf);
+            joined.order(order);
+            for (IoBufferEx buf : buffers) {
+                joined.put(buf);
+            }
+            joined.put(in);
+            joined.flip();
+            return joined;
+        }
+    }
 }
@@ -45,6 +45,9 @@ import org.apache.mina.filter.codec.RecoverableProtocolDecoderException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.kaazing.mina.core.buffer.GatheringBuffer;
+import org.kaazing.mina.core.metrics.TransportLayerMetrics;
+import org.kaazing.mina.core.session.AbstractIoSession;
 import org.kaazing.mina.core.session.IoSessionEx;
 import org.kaazing.mina.core.write.WriteRequestEx;
 
@@ -227,6 +230,9 @@ public class ProtocolCodecFilter extends IoFilterAdapter {
         IoSessionEx sessionEx = (IoSessionEx)session;
 
         Thread ioThread = sessionEx.getIoThread();
+        TransportLayerMetrics metrics = (session instanceof AbstractIoSession)
+                ? ((AbstractIoSession) session).getTransportLayerMetrics() : TransportLayerMetrics.NONE;
+        boolean timeDecode = metrics.isEnabled();
 
         // Loop until we don't have anymore byte in the buffer,
         // or until the decoder throws an unrecoverable exception or
@@ -246,7 +252,11 @@ public class ProtocolCodecFilter extends IoFilterAdapter {
             try {
                 synchronized (decoderOut) {
                     // Call the decoder with the read bytes
+                    long decodeStart = timeDecode ? System.nanoTime() : 0L;
                     decoder.decode(session, in, decoderOut);
+                    if (timeDecode) {
+                        metrics.decodeTime(System.nanoTime() - decodeStart);
+                    }
 
                     // Finish decoding if no exception was thrown.
                     decoderOut.flush(nextFilter, session);
@@ -307,7 +317,7 @@ public class ProtocolCodecFilter extends IoFilterAdapter {
 
         // Bypass the encoding if the message is contained in a IoBuffer,
         // as it has already been encoded before
-        if (message instanceof IoBuffer || message instanceof FileRegion) {
+        if (message instanceof IoBuffer || message instanceof FileRegion || message instanceof GatheringBuffer) {
             nextFilter.filterWrite(session, writeRequest);
             return;
         }
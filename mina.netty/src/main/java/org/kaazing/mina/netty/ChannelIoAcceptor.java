@@ -16,6 +16,7 @@
 package org.kaazing.mina.netty;
 
 import static java.lang.String.format;
+import static org.kaazing.mina.netty.config.InternalSystemProperty.TIMING_WHEEL_IDLE_TRACKER;
 
 import java.io.IOException;
 import java.net.BindException;
@@ -28,6 +29,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.mina.core.future.IoFuture;
 import org.apache.mina.core.session.IoSessionInitializer;
@@ -56,18 +59,24 @@ public abstract class ChannelIoAcceptor<C extends IoSessionConfigEx, F extends C
                 extends AbstractIoAcceptorEx implements ChannelIoService {
 
     private final ServerBootstrap bootstrap;
-    private final Map<SocketAddress, Channel> boundChannels;
+    private final Map<SocketAddress, List<Channel>> boundChannels;
+    private volatile int channelsPerAddress = 1;
     private IoSessionInitializer<? extends IoFuture> initializer;
     private final IoAcceptorChannelHandler parentHandler;
     private final ChannelGroup channelGroup;
     private final IoProcessorEx<ChannelIoSession<? extends ChannelConfig>> processor = new ChannelIoProcessor();
+    // Avoid static variables to facilitate unit tests
+    private final boolean useTimingWheelIdleTracker
+        = TIMING_WHEEL_IDLE_TRACKER.getBooleanProperty(System.getProperties());
     private final List<IoSessionIdleTracker> sessionIdleTrackers
         = Collections.synchronizedList(new ArrayList<>());
     private final ThreadLocal<IoSessionIdleTracker> currentSessionIdleTracker
         = new VicariousThreadLocal<IoSessionIdleTracker>() {
         @Override
         protected IoSessionIdleTracker initialValue() {
-            IoSessionIdleTracker result = new DefaultIoSessionIdleTracker();
+            IoSessionIdleTracker result = useTimingWheelIdleTracker
+                    ? new TimingWheelIoSessionIdleTracker()
+                    : new DefaultIoSessionIdleTracker();
             sessionIdleTrackers.add(result);
             return result;
         }
@@ -109,6 +118,21 @@ public abstract class ChannelIoAcceptor<C extends IoSessionConfigEx, F extends C
         parentHandler.setPipelineFactory(pipelineFactory);
     }
 
+    public int getChannelsPerAddress() {
+        return channelsPerAddress;
+    }
+
+    /**
+     * Sets the number of listening channels bound to each local address from now on (default 1). More than one
+     * channel per address requires the channels to share the port, e.g. with SO_REUSEPORT.
+     */
+    public void setChannelsPerAddress(int channelsPerAddress) {
+        if (channelsPerAddress < 1) {
+            throw new IllegalArgumentException("channelsPerAddress (" + channelsPerAddress + ") must be a positive integer");
+        }
+        this.channelsPerAddress = channelsPerAddress;
+    }
+
     @Override
     public IoSessionIdleTracker getSessionIdleTracker() {
         return currentSessionIdleTracker.get();
@@ -133,11 +157,18 @@ public abstract class ChannelIoAcceptor<C extends IoSessionConfigEx, F extends C
             List<? extends SocketAddress> localAddresses) throws Exception {
 
         for (SocketAddress localAddress : localAddresses) {
+            int count = channelsPerAddress;
+            List<Channel> channels = new ArrayList<>(count);
             try {
-                Channel channel = bootstrap.bind(localAddress);
-                boundChannels.put(localAddress, channel);
+                for (int i = 0; i < count; i++) {
+                    channels.add(bootstrap.bind(localAddress));
+                }
+                boundChannels.put(localAddress, channels);
             }
             catch (Exception e) {
+                for (Channel channel : channels) {
+                    channel.close();
+                }
                 BindException be = new BindException(format("Unable to bind address: %s", localAddress));
                 be.initCause(e);
                 be.fillInStackTrace();
@@ -156,23 +187,43 @@ public abstract class ChannelIoAcceptor<C extends IoSessionConfigEx, F extends C
     @Override
     protected BindFuture bindAsyncInternal(final SocketAddress localAddress) {
         final BindFuture bound = new DefaultBindFuture();
-        ChannelFuture channelBound = bootstrap.bindAsync(localAddress);
-        channelBound.addListener(new ChannelFutureListener() {
+        final int count = channelsPerAddress;
+        final List<Channel> channels = Collections.synchronizedList(new ArrayList<Channel>(count));
+        final AtomicInteger pending = new AtomicInteger(count);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        ChannelFutureListener listener = new ChannelFutureListener() {
             @Override
             public void operationComplete(ChannelFuture future) throws Exception {
                 if (future.isSuccess()) {
-                    Channel channel = future.getChannel();
-                    boundChannels.put(localAddress, channel);
-                    bound.setBound();
+                    channels.add(future.getChannel());
                 }
                 else {
-                    BindException be = new BindException(format("Unable to bind address: %s", localAddress));
-                    be.initCause(future.getCause());
-                    be.fillInStackTrace();
-                    bound.setException(be);
+                    failure.compareAndSet(null, future.getCause());
+                }
+
+                if (pending.decrementAndGet() == 0) {
+                    Throwable cause = failure.get();
+                    if (cause == null) {
+                        boundChannels.put(localAddress, channels);
+                        bound.setBound();
+                    }
+                    else {
+                        // release the channels that did bind
+                        for (Channel channel : channels) {
+                            channel.close();
+                        }
+                        BindException be = new BindException(format("Unable to bind address: %s", localAddress));
+                        be.initCause(cause);
+                        be.fillInStackTrace();
+                        bound.setException(be);
+                    }
                 }
             }
-        });
+        };
+        for (int i = 0; i < count; i++) {
+            ChannelFuture channelBound = bootstrap.bindAsync(localAddress);
+            channelBound.addListener(listener);
+        }
         return bound;
     }
 
@@ -181,19 +232,21 @@ public abstract class ChannelIoAcceptor<C extends IoSessionConfigEx, F extends C
             throws Exception {
 
         for (SocketAddress localAddress : localAddresses) {
-            Channel channel = boundChannels.remove(localAddress);
+            List<Channel> channels = boundChannels.remove(localAddress);
 
-            if (channel == null) {
+            if (channels == null) {
                 continue;
             }
 
-            ChannelFuture unbound = channel.close();
+            for (Channel channel : channels) {
+                ChannelFuture unbound = channel.close();
 
-            // the signature of this method (and of the public bind method that calls it) implies it is a
-            // synchronous operation, which must therefore complete or fail before we return.
-            unbound.awaitUninterruptibly();
-            if (!unbound.isSuccess()) {
-                throw new IOException(unbound.getCause());
+                // the signature of this method (and of the public bind method that calls it) implies it is a
+                // synchronous operation, which must therefore complete or fail before we return.
+                unbound.awaitUninterruptibly();
+                if (!unbound.isSuccess()) {
+                    throw new IOException(unbound.getCause());
+                }
             }
         }
 
@@ -202,19 +255,31 @@ public abstract class ChannelIoAcceptor<C extends IoSessionConfigEx, F extends C
     @Override
     protected UnbindFuture unbindAsyncInternal(final SocketAddress localAddress) {
         final UnbindFuture unbound = new DefaultUnbindFuture();
-        Channel channel = boundChannels.remove(localAddress);
-        ChannelFuture channelUnbound = channel.close();
-        channelUnbound.addListener(new ChannelFutureListener() {
+        List<Channel> channels = boundChannels.remove(localAddress);
+        final AtomicInteger pending = new AtomicInteger(channels.size());
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        ChannelFutureListener listener = new ChannelFutureListener() {
             @Override
             public void operationComplete(ChannelFuture future) throws Exception {
-                if (future.isSuccess()) {
-                    unbound.setUnbound();
+                if (!future.isSuccess()) {
+                    failure.compareAndSet(null, future.getCause());
                 }
-                else {
-                    unbound.setException(future.getCause());
+
+                if (pending.decrementAndGet() == 0) {
+                    Throwable cause = failure.get();
+                    if (cause == null) {
+                        unbound.setUnbound();
+                    }
+                    else {
+                        unbound.setException(cause);
+                    }
                 }
             }
-        });
+        };
+        for (Channel channel : channels) {
+            ChannelFuture channelUnbound = channel.close();
+            channelUnbound.addListener(listener);
+        }
         return unbound;
     }
 
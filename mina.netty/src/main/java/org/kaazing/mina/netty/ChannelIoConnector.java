@@ -16,6 +16,7 @@
 package org.kaazing.mina.netty;
 
 import static org.jboss.netty.channel.Channels.pipeline;
+import static org.kaazing.mina.netty.config.InternalSystemProperty.TIMING_WHEEL_IDLE_TRACKER;
 
 import java.net.SocketAddress;
 import java.util.ArrayList;
@@ -54,13 +55,18 @@ public abstract
     private final IoProcessorEx<ChannelIoSession<? extends ChannelConfig>> processor = new ChannelIoProcessor();
     private final ClientBootstrapFactory bootstrapFactory;
     private final IoConnectorChannelHandlerFactory handlerFactory;
+    // Avoid static variables to facilitate unit tests
+    private final boolean useTimingWheelIdleTracker
+        = TIMING_WHEEL_IDLE_TRACKER.getBooleanProperty(System.getProperties());
     private final List<IoSessionIdleTracker> sessionIdleTrackers
         = Collections.synchronizedList(new ArrayList<>());
     private final ThreadLocal<IoSessionIdleTracker> currentSessionIdleTracker
         = new VicariousThreadLocal<IoSessionIdleTracker>() {
         @Override
         protected IoSessionIdleTracker initialValue() {
-            IoSessionIdleTracker result = new DefaultIoSessionIdleTracker();
+            IoSessionIdleTracker result = useTimingWheelIdleTracker
+                    ? new TimingWheelIoSessionIdleTracker()
+                    : new DefaultIoSessionIdleTracker();
             sessionIdleTrackers.add(result);
             return result;
         }
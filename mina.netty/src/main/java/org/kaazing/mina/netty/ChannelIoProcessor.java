@@ -36,7 +36,9 @@ import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelConfig;
 import org.jboss.netty.channel.ChannelFuture;
 import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.DefaultFileRegion;
 
+import org.kaazing.mina.core.buffer.GatheringBuffer;
 import org.kaazing.mina.core.buffer.IoBufferEx;
 import org.kaazing.mina.core.service.AbstractIoProcessor;
 import org.kaazing.mina.netty.ChannelIoBufferAllocator.ChannelIoBuffer;
@@ -301,8 +303,28 @@ final class ChannelIoProcessor extends AbstractIoProcessor<ChannelIoSession<? ex
                 }
                 else if (message instanceof FileRegion) {
                     FileRegion region = (FileRegion) message;
-                    ChannelFuture future = channel.write(region);  // TODO: FileRegion
-                    future.addListener(new ChannelWriteFutureListener(filterChain, req));
+                    if (region.getRemainingBytes() == 0) {
+                        filterChain.fireMessageSent(req);
+                    }
+                    else {
+                        // adapt to a netty file region so the worker sends it with FileChannel.transferTo
+                        // Note: the file channel remains owned (and closed) by the writer
+                        ChannelFuture future = channel.write(new DefaultFileRegion(region.getFileChannel(),
+                                region.getPosition(), region.getRemainingBytes()));
+                        future.addListener(new ChannelWriteFutureListener(filterChain, req));
+                    }
+                }
+                else if (message instanceof GatheringBuffer) {
+                    GatheringBuffer gatheringBuf = (GatheringBuffer) message;
+                    if (gatheringBuf.remaining() == 0) {
+                        filterChain.fireMessageSent(req);
+                    }
+                    else {
+                        // compose a gathering netty buffer so the worker sends all the buffers
+                        // with a single GatheringByteChannel.write, without copying them
+                        ChannelFuture future = channel.write(wrappedBuffer(true, gatheringBuf.toByteBuffers()));
+                        future.addListener(new ChannelWriteFutureListener(filterChain, req));
+                    }
                 }
                 else if (message instanceof IoBufferEx && ((IoBufferEx) message).isShared()) {
                     String messageClassName = message.getClass().getName();
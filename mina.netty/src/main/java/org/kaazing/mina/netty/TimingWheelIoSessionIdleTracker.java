@@ -0,0 +1,304 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.netty;
+
+import static java.lang.System.currentTimeMillis;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.mina.core.session.IdleStatus;
+import org.jboss.netty.channel.socket.nio.NioSelectLoop;
+
+import org.kaazing.mina.core.session.IoSessionConfigEx;
+import org.kaazing.mina.core.session.IoSessionConfigEx.ChangeListener;
+import org.kaazing.mina.core.session.IoSessionEx;
+
+/**
+ * Idle tracker which uses a hashed timing wheel owned by the NIO I/O thread it was created on, checked from that
+ * thread's selector loop, instead of a timer thread. Timeouts are checked lazily: I/O on a session does not touch the
+ * wheel, the last I/O time is only compared when the timeout's slot expires, and the timeout is then relinked to the
+ * slot of its actual deadline. Timeout entries are allocated once per session, so (re)scheduling does not allocate.
+ * Idle events may fire up to one select timeout late when the I/O thread is not busy.
+ * If not created on a NIO I/O thread, this tracker delegates to a {@link DefaultIoSessionIdleTracker}.
+ */
+public final class TimingWheelIoSessionIdleTracker implements IoSessionIdleTracker {
+
+    static final long TICK_MILLIS = DefaultIoSessionIdleTracker.PRECISION;
+    static final int WHEEL_SIZE = 512;
+
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final Thread ioThread;
+    private final IdleTimeout[] wheel;
+    private final Queue<IdleTimeout> rescheduleQueue;
+    private final Runnable expireTask;
+    private final IoSessionIdleTracker fallback;
+
+    private volatile boolean disposed;
+    private long currentTick;
+
+    public TimingWheelIoSessionIdleTracker() {
+        this(currentTimeMillis(), true);
+    }
+
+    TimingWheelIoSessionIdleTracker(long startTimeMillis) {
+        this(startTimeMillis, false);
+    }
+
+    private TimingWheelIoSessionIdleTracker(long startTimeMillis, boolean useSelectLoop) {
+        this.ioThread = Thread.currentThread();
+        this.wheel = new IdleTimeout[WHEEL_SIZE];
+        this.rescheduleQueue = new ConcurrentLinkedQueue<>();
+        this.currentTick = startTimeMillis / TICK_MILLIS;
+        this.expireTask = new Runnable() {
+            @Override
+            public void run() {
+                if (disposed) {
+                    NioSelectLoop.removeTask(this);
+                }
+                else {
+                    expireTimeouts(currentTimeMillis());
+                }
+            }
+        };
+        this.fallback = !useSelectLoop || NioSelectLoop.addTask(expireTask) ? null : new DefaultIoSessionIdleTracker();
+    }
+
+    @Override
+    public void addSession(final IoSessionEx session) {
+        if (fallback != null) {
+            fallback.addSession(session);
+            return;
+        }
+
+        IoSessionConfigEx config = session.getConfig();
+        config.setChangeListener(new NotifyIdleChangeListener(session));
+    }
+
+    @Override
+    public void removeSession(final IoSessionEx session) {
+        if (fallback != null) {
+            fallback.removeSession(session);
+            return;
+        }
+
+        IoSessionConfigEx config = session.getConfig();
+        config.setChangeListener(null);
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        if (fallback != null) {
+            fallback.dispose();
+        }
+    }
+
+    /**
+     * Expires all wheel slots whose tick has fully elapsed at the given time, must be called from the I/O thread.
+     */
+    void expireTimeouts(long nowMillis) {
+        IdleTimeout timeout;
+        while ((timeout = rescheduleQueue.poll()) != null) {
+            timeout.reschedulePending.set(false);
+            timeout.reschedule();
+        }
+
+        long nowTick = nowMillis / TICK_MILLIS;
+        if (nowTick - currentTick > WHEEL_SIZE) {
+            // all slots will be visited anyway, and every timeout in them is already due
+            currentTick = nowTick - WHEEL_SIZE;
+        }
+
+        while (currentTick < nowTick) {
+            expireSlot(currentTick, nowMillis);
+            currentTick++;
+        }
+    }
+
+    private void expireSlot(long tick, long nowMillis) {
+        // collect due timeouts before firing any idle events, since handlers may reschedule timeouts
+        IdleTimeout expired = null;
+        IdleTimeout timeout = wheel[(int) (tick & WHEEL_MASK)];
+        while (timeout != null) {
+            IdleTimeout next = timeout.next;
+            if (timeout.deadlineMillis / TICK_MILLIS <= tick) {
+                timeout.unlink();
+                timeout.nextExpired = expired;
+                expired = timeout;
+            }
+            timeout = next;
+        }
+
+        while (expired != null) {
+            IdleTimeout nextExpired = expired.nextExpired;
+            expired.nextExpired = null;
+            if (expired.slot == -1) {
+                expired.expire(nowMillis);
+            }
+            expired = nextExpired;
+        }
+    }
+
+    private final class NotifyIdleChangeListener implements ChangeListener {
+
+        private final IdleTimeout bothIdle;
+        private final IdleTimeout readerIdle;
+        private final IdleTimeout writerIdle;
+
+        NotifyIdleChangeListener(IoSessionEx session) {
+            bothIdle = new IdleTimeout(session, IdleStatus.BOTH_IDLE);
+            readerIdle = new IdleTimeout(session, IdleStatus.READER_IDLE);
+            writerIdle = new IdleTimeout(session, IdleStatus.WRITER_IDLE);
+        }
+
+        @Override
+        public void idleTimeInMillisChanged(IdleStatus status, long idleTimeMillis) {
+
+            if (status == IdleStatus.BOTH_IDLE) {
+                bothIdle.idleTimeChanged(idleTimeMillis);
+            }
+            else if (status == IdleStatus.READER_IDLE) {
+                readerIdle.idleTimeChanged(idleTimeMillis);
+            }
+            else if (status == IdleStatus.WRITER_IDLE) {
+                writerIdle.idleTimeChanged(idleTimeMillis);
+            }
+            else {
+                throw new IllegalArgumentException("Unrecognized idle status: " + status);
+            }
+        }
+    }
+
+    private final class IdleTimeout {
+
+        private final IoSessionEx session;
+        private final IdleStatus status;
+        private final AtomicBoolean reschedulePending;
+
+        private volatile long idleTimeMillis;
+
+        // following fields are only accessed from the I/O thread
+        private long deadlineMillis;
+        private int slot = -1;
+        private IdleTimeout prev;
+        private IdleTimeout next;
+        private IdleTimeout nextExpired;
+
+        IdleTimeout(IoSessionEx session, IdleStatus status) {
+            this.session = session;
+            this.status = status;
+            this.reschedulePending = new AtomicBoolean();
+        }
+
+        void idleTimeChanged(long idleTimeMillis) {
+            this.idleTimeMillis = idleTimeMillis;
+
+            if (Thread.currentThread() == ioThread) {
+                reschedule();
+            }
+            else if (reschedulePending.compareAndSet(false, true)) {
+                // the wheel is only accessed from the I/O thread, so defer to the next selector loop iteration
+                rescheduleQueue.add(this);
+            }
+        }
+
+        void reschedule() {
+            unlink();
+
+            long idleTimeMillis = this.idleTimeMillis;
+            if (idleTimeMillis != 0) {
+                schedule(startPointMillis() + idleTimeMillis);
+            }
+        }
+
+        void expire(long nowMillis) {
+            long idleTimeMillis = this.idleTimeMillis;
+            if (idleTimeMillis == 0) {
+                return;
+            }
+
+            // Checking lazily here means I/O on the session never needs to touch the wheel
+            long sessionIdleMillis = startPointMillis() + idleTimeMillis;
+            if (sessionIdleMillis <= nowMillis) {
+                if (session.getIoThread() != IoSessionEx.NO_THREAD && !session.isClosing()) {
+                    session.getFilterChain().fireSessionIdle(status);
+                }
+
+                // an idle handler may have changed the idle time, which already rescheduled or cancelled this timeout
+                if (slot != -1) {
+                    return;
+                }
+                idleTimeMillis = this.idleTimeMillis;
+                if (idleTimeMillis != 0) {
+                    schedule(nowMillis + idleTimeMillis);
+                }
+            }
+            else {
+                // An intervening I/O means we should not fire session idle, so wait until the actual deadline
+                schedule(sessionIdleMillis);
+            }
+        }
+
+        void unlink() {
+            if (slot == -1) {
+                return;
+            }
+
+            if (prev != null) {
+                prev.next = next;
+            }
+            else {
+                wheel[slot] = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            prev = null;
+            next = null;
+            slot = -1;
+        }
+
+        private void schedule(long deadlineMillis) {
+            long tick = Math.max(deadlineMillis / TICK_MILLIS, currentTick);
+            this.deadlineMillis = deadlineMillis;
+            this.slot = (int) (tick & WHEEL_MASK);
+
+            IdleTimeout head = wheel[slot];
+            next = head;
+            if (head != null) {
+                head.prev = this;
+            }
+            wheel[slot] = this;
+        }
+
+        private long startPointMillis() {
+            long lastIoTimeMillis;
+            if (status == IdleStatus.BOTH_IDLE) {
+                lastIoTimeMillis = session.getLastIoTime();
+            }
+            else if (status == IdleStatus.READER_IDLE) {
+                lastIoTimeMillis = session.getLastReadTime();
+            }
+            else {
+                lastIoTimeMillis = session.getLastWriteTime();
+            }
+            return Math.max(lastIoTimeMillis, session.getLastIdleTime(status));
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.kaazing.mina.netty.config;
 
+import static java.lang.Boolean.parseBoolean;
 import static java.lang.Integer.parseInt;
 import static java.lang.Long.parseLong;
 
@@ -35,7 +36,11 @@ public enum InternalSystemProperty {
 
     // A worker is serving multiple UDP child channels and they share an Agrona read queue.
     // Agrona uses the next power of 2 greater than or equal to the supplied value
-    UDP_CHANNEL_READ_QUEUE_SIZE("org.kaazing.netty.UDP_CHANNEL_READ_QUEUE_SIZE", "16384");
+    UDP_CHANNEL_READ_QUEUE_SIZE("org.kaazing.netty.UDP_CHANNEL_READ_QUEUE_SIZE", "16384"),
+
+    // Track session idle timeouts with a timing wheel checked from each NIO I/O thread's selector loop
+    // (TimingWheelIoSessionIdleTracker) instead of a HashedWheelTimer thread (DefaultIoSessionIdleTracker)
+    TIMING_WHEEL_IDLE_TRACKER("org.kaazing.netty.TIMING_WHEEL_IDLE_TRACKER", "false");
 
     private final String name;
     private final String defaultValue;
@@ -53,6 +58,10 @@ public enum InternalSystemProperty {
         return configuration.getProperty(name, defaultValue);
     }
 
+    public boolean getBooleanProperty(Properties configuration) {
+        return parseBoolean(getProperty(configuration));
+    }
+
     public Integer getIntProperty(Properties configuration) {
         String value = getProperty(configuration);
         if (value == null) {
@@ -23,6 +23,7 @@ import org.jboss.netty.channel.ChannelConfig;
 import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
 import org.jboss.netty.channel.socket.DatagramChannelFactory;
 import org.jboss.netty.channel.socket.nio.NioChildDatagramChannel;
+import org.jboss.netty.channel.socket.nio.NioServerDatagramChannelFactory;
 import org.kaazing.mina.core.service.IoProcessorEx;
 import org.kaazing.mina.netty.ChannelIoSession;
 import org.kaazing.mina.netty.socket.DatagramChannelIoAcceptor;
@@ -36,8 +37,29 @@ public class NioDatagramChannelIoAcceptor extends DatagramChannelIoAcceptor {
             "Kaazing", "NioDatagramChannel", true, true, InetSocketAddress.class,
             DatagramSessionConfig.class, Object.class);
 
+    private final DatagramChannelFactory channelFactory;
+
     public NioDatagramChannelIoAcceptor(DatagramChannelIoSessionConfig sessionConfig, DatagramChannelFactory channelFactory) {
         super(sessionConfig, channelFactory, new SimpleChannelUpstreamHandler());
+
+        // note: the bootstrap wraps the channel factory, so keep hold of it here
+        this.channelFactory = channelFactory;
+    }
+
+    public boolean isReusePort() {
+        return channelFactory instanceof NioServerDatagramChannelFactory &&
+                ((NioServerDatagramChannelFactory) channelFactory).isReusePort();
+    }
+
+    /**
+     * Sets SO_REUSEPORT on datagram channels bound from now on, so that several of them (see
+     * {@link #setChannelsPerAddress(int)}) can share each bind address.
+     */
+    public void setReusePort(boolean reusePort) {
+        if (!(channelFactory instanceof NioServerDatagramChannelFactory)) {
+            throw new UnsupportedOperationException("SO_REUSEPORT is not supported by " + channelFactory);
+        }
+        ((NioServerDatagramChannelFactory) channelFactory).setReusePort(reusePort);
     }
 
     @Override
@@ -15,18 +15,27 @@
  */
 package org.kaazing.mina.netty.socket.nio;
 
+import static java.lang.String.format;
+
+import java.io.IOException;
 import java.net.InetSocketAddress;
 
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.file.FileRegion;
 import org.apache.mina.core.service.DefaultTransportMetadata;
 import org.apache.mina.core.service.TransportMetadata;
 import org.apache.mina.transport.socket.SocketSessionConfig;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelConfig;
 import org.jboss.netty.channel.ChannelHandler;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
 import org.jboss.netty.channel.SimpleChannelHandler;
 import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketOptions;
 import org.jboss.netty.channel.socket.nio.NioSocketChannel;
 
+import org.kaazing.mina.core.buffer.GatheringBuffer;
 import org.kaazing.mina.core.service.IoProcessorEx;
 import org.kaazing.mina.netty.ChannelIoSession;
 import org.kaazing.mina.netty.socket.SocketChannelIoAcceptor;
@@ -35,7 +44,9 @@ public class NioSocketChannelIoAcceptor extends SocketChannelIoAcceptor {
 
     private static final TransportMetadata NIO_SOCKET_TRANSPORT_METADATA = new DefaultTransportMetadata(
             "Kaazing", "tcp", false, true, InetSocketAddress.class,
-            SocketSessionConfig.class, Object.class);
+            SocketSessionConfig.class, IoBuffer.class, FileRegion.class, GatheringBuffer.class);
+
+    private final ReusePortBindHandler reusePortHandler;
 
     public NioSocketChannelIoAcceptor(NioSocketChannelIoSessionConfig sessionConfig) {
         this(sessionConfig, new NioServerSocketChannelFactory());
@@ -48,8 +59,31 @@ public class NioSocketChannelIoAcceptor extends SocketChannelIoAcceptor {
 
     public NioSocketChannelIoAcceptor(NioSocketChannelIoSessionConfig sessionConfig,
             final NioServerSocketChannelFactory channelFactory, ChannelHandler bindHandler) {
-        super(sessionConfig, channelFactory, bindHandler);
+        this(sessionConfig, channelFactory, new ReusePortBindHandler(bindHandler));
+    }
+
+    private NioSocketChannelIoAcceptor(NioSocketChannelIoSessionConfig sessionConfig,
+            final NioServerSocketChannelFactory channelFactory, ReusePortBindHandler reusePortHandler) {
+        super(sessionConfig, channelFactory, reusePortHandler);
         sessionConfig.init(this);
+
+        // bind handler allocated on constructor stack to share across acceptor and pipeline
+        this.reusePortHandler = reusePortHandler;
+    }
+
+    public boolean isReusePort() {
+        return reusePortHandler.reusePort;
+    }
+
+    /**
+     * Sets SO_REUSEPORT on listening sockets bound from now on, so that several of them (see
+     * {@link #setChannelsPerAddress(int)}) can share each bind address.
+     */
+    public void setReusePort(boolean reusePort) {
+        if (reusePort && !NioServerSocketOptions.isReusePortSupported()) {
+            throw new UnsupportedOperationException("SO_REUSEPORT is not supported");
+        }
+        reusePortHandler.reusePort = reusePort;
     }
 
     @Override
@@ -63,4 +97,43 @@ public class NioSocketChannelIoAcceptor extends SocketChannelIoAcceptor {
         return new NioSocketChannelIoSession(this, processor, (NioSocketChannel) channel);
     }
 
+    private static final class ReusePortBindHandler extends SimpleChannelHandler {
+
+        private final ChannelHandler bindHandler;
+        private volatile boolean reusePort;
+
+        public ReusePortBindHandler(ChannelHandler bindHandler) {
+            this.bindHandler = bindHandler;
+        }
+
+        @Override
+        public void bindRequested(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+            // SO_REUSEPORT must be set before we try to bind the channel
+            if (reusePort) {
+                try {
+                    NioServerSocketOptions.setReusePort(ctx.getChannel(), true);
+                }
+                catch (IOException ex) {
+                    e.getFuture().setFailure(ex);
+                    return;
+                }
+            }
+
+            // propagate bind requested event
+            super.bindRequested(ctx, e);
+        }
+
+        @Override
+        public void channelOpen(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+
+            // add bind handler to pipeline
+            String baseName = ctx.getName();
+            String name = format("%s:reusePort", baseName);
+            ctx.getPipeline().addAfter(baseName, name, bindHandler);
+
+            // propagate channel open event
+            super.channelOpen(ctx, e);
+        }
+    }
+
 }
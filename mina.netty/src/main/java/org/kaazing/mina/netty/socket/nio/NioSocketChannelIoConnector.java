@@ -17,6 +17,8 @@ package org.kaazing.mina.netty.socket.nio;
 
 import java.net.InetSocketAddress;
 
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.file.FileRegion;
 import org.apache.mina.core.service.DefaultTransportMetadata;
 import org.apache.mina.core.service.TransportMetadata;
 import org.apache.mina.transport.socket.SocketSessionConfig;
@@ -25,6 +27,7 @@ import org.jboss.netty.channel.ChannelConfig;
 import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
 import org.jboss.netty.channel.socket.nio.NioSocketChannel;
 
+import org.kaazing.mina.core.buffer.GatheringBuffer;
 import org.kaazing.mina.core.service.IoProcessorEx;
 import org.kaazing.mina.netty.ChannelIoSession;
 import org.kaazing.mina.netty.socket.SocketChannelIoConnector;
@@ -33,7 +36,7 @@ public class NioSocketChannelIoConnector extends SocketChannelIoConnector {
 
     private static final TransportMetadata NIO_SOCKET_TRANSPORT_METADATA = new DefaultTransportMetadata(
             "Kaazing", "tcp", false, true, InetSocketAddress.class,
-            SocketSessionConfig.class, Object.class);
+            SocketSessionConfig.class, IoBuffer.class, FileRegion.class, GatheringBuffer.class);
 
     public NioSocketChannelIoConnector(NioSocketChannelIoSessionConfig sessionConfig) {
         this(sessionConfig, new NioClientSocketChannelFactory());
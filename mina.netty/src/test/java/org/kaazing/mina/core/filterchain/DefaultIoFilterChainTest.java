@@ -0,0 +1,139 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.core.filterchain;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.mina.core.filterchain.IoFilterAdapter;
+import org.apache.mina.core.filterchain.IoFilterChain;
+import org.apache.mina.core.filterchain.IoFilterChain.Entry;
+import org.apache.mina.core.service.IoHandlerAdapter;
+import org.apache.mina.core.session.IoSession;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.kaazing.mina.core.session.DummySessionEx;
+
+public class DefaultIoFilterChainTest {
+
+    private DummySessionEx session;
+    private IoFilterChain filterChain;
+    private List<String> received;
+
+    @Before
+    public void before() {
+        session = new DummySessionEx();
+        filterChain = session.getFilterChain();
+        received = new ArrayList<>();
+        session.setHandler(new IoHandlerAdapter() {
+            @Override
+            public void messageReceived(IoSession session, Object message) throws Exception {
+                received.add("handler");
+            }
+        });
+    }
+
+    @Test
+    public void shouldFindEntriesByName() {
+        RecordingFilter a = new RecordingFilter("a");
+        RecordingFilter c = new RecordingFilter("c");
+        filterChain.addLast("a", a);
+        filterChain.addLast("c", c);
+
+        assertSame(a, filterChain.get("a"));
+        assertSame(c, filterChain.getEntry("c").getFilter());
+        assertTrue(filterChain.contains("a"));
+        assertFalse(filterChain.contains("b"));
+        assertNull(filterChain.getEntry("head"));
+        assertNull(filterChain.getEntry("tail"));
+    }
+
+    @Test
+    public void shouldKeepFilterOrder() {
+        filterChain.addLast("c", new RecordingFilter("c"));
+        filterChain.addFirst("a", new RecordingFilter("a"));
+        filterChain.addBefore("c", "b", new RecordingFilter("b"));
+        filterChain.addAfter("c", "d", new RecordingFilter("d"));
+
+        assertEquals(asList("a", "b", "c", "d"), names(filterChain.getAll()));
+
+        filterChain.fireMessageReceived(new Object());
+
+        assertEquals(asList("a", "b", "c", "d", "handler"), received);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectDuplicateName() {
+        filterChain.addLast("a", new RecordingFilter("a"));
+        filterChain.addLast("a", new RecordingFilter("a"));
+    }
+
+    @Test
+    public void shouldRemoveAndReAddFilter() {
+        filterChain.addLast("a", new RecordingFilter("a"));
+        filterChain.addLast("b", new RecordingFilter("b"));
+
+        filterChain.remove("a");
+        assertFalse(filterChain.contains("a"));
+
+        filterChain.addLast("a", new RecordingFilter("a"));
+        filterChain.fireMessageReceived(new Object());
+
+        assertEquals(asList("b", "a", "handler"), received);
+    }
+
+    @Test
+    public void shouldClearAllFilters() throws Exception {
+        filterChain.addLast("a", new RecordingFilter("a"));
+        filterChain.addLast("b", new RecordingFilter("b"));
+
+        filterChain.clear();
+
+        assertTrue(filterChain.getAll().isEmpty());
+        filterChain.fireMessageReceived(new Object());
+        assertEquals(asList("handler"), received);
+    }
+
+    private static List<String> names(List<Entry> entries) {
+        List<String> names = new ArrayList<>();
+        for (Entry entry : entries) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+
+    private final class RecordingFilter extends IoFilterAdapter {
+        private final String name;
+
+        RecordingFilter(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void messageReceived(NextFilter nextFilter, IoSession session, Object message) throws Exception {
+            received.add(name);
+            super.messageReceived(nextFilter, session, message);
+        }
+    }
+}
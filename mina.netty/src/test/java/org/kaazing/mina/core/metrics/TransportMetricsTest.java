@@ -0,0 +1,195 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.core.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.CountersManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TransportMetricsTest {
+
+    private TransportMetrics metrics;
+
+    @Before
+    public void before() {
+        metrics = new TransportMetrics(newCountersManager(64 * 1024));
+    }
+
+    @After
+    public void after() {
+        metrics.close();
+    }
+
+    @Test
+    public void shouldNotRecordWhenDisabled() throws Exception {
+        assertFalse(TransportMetrics.NONE.isEnabled());
+        assertSame(TransportLayerMetrics.NONE, TransportMetrics.NONE.layer("tcp"));
+        assertFalse(TransportLayerMetrics.NONE.isEnabled());
+    }
+
+    @Test
+    public void shouldShareLayerByName() throws Exception {
+        TransportLayerMetrics tcp = metrics.layer("tcp");
+
+        assertTrue(tcp.isEnabled());
+        assertSame(tcp, metrics.layer("tcp"));
+    }
+
+    @Test
+    public void shouldCountOtherThanIoThreadsInSharedCounters() throws Exception {
+        TransportLayerMetrics tcp = metrics.layer("tcp");
+
+        tcp.bytesRead(100);
+        tcp.bytesRead(28);
+        tcp.bytesWritten(64);
+        tcp.messageRead();
+        tcp.messageWritten();
+        tcp.messageWritten();
+        tcp.scheduledWriteBytes(64);
+        tcp.scheduledWriteBytes(-48);
+
+        assertEquals(128L, metrics.value("tcp-bytes-read"));
+        assertEquals(64L, metrics.value("tcp-bytes-written"));
+        assertEquals(1L, metrics.value("tcp-messages-read"));
+        assertEquals(2L, metrics.value("tcp-messages-written"));
+        assertEquals(16L, metrics.value("tcp-write-queue-bytes"));
+    }
+
+    @Test
+    public void shouldShareWriteQueueBytesBetweenThreads() throws Exception {
+        final TransportLayerMetrics tcp = metrics.layer("tcp");
+
+        // queued on one thread, completed on another
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 1000; i++) {
+                    tcp.scheduledWriteBytes(10);
+                    tcp.bytesWritten(10);
+                }
+            }
+        };
+        writer.start();
+        for (int i = 0; i < 1000; i++) {
+            tcp.scheduledWriteBytes(-10);
+            tcp.bytesWritten(10);
+        }
+        writer.join();
+
+        assertEquals(0L, metrics.value("tcp-write-queue-bytes"));
+        assertEquals(20000L, metrics.value("tcp-bytes-written"));
+    }
+
+    @Test
+    public void shouldStopRecordingOnceClosed() throws Exception {
+        TransportLayerMetrics tcp = metrics.layer("tcp");
+        tcp.bytesRead(100);
+
+        metrics.close();
+        tcp.bytesRead(28);
+        tcp.decodeTime(2048L);
+        tcp.handshake(2048L, true);
+
+        assertEquals(100L, metrics.value("tcp-bytes-read"));
+        assertEquals(0L, metrics.value("tcp-decode-time-ns-total"));
+        assertEquals(0L, metrics.value("tcp-session-cache-hits"));
+    }
+
+    @Test
+    public void shouldKeepLayersSeparate() throws Exception {
+        metrics.layer("tcp").bytesRead(10);
+        metrics.layer("http").bytesRead(5);
+
+        assertEquals(10L, metrics.value("tcp-bytes-read"));
+        assertEquals(5L, metrics.value("http-bytes-read"));
+    }
+
+    @Test
+    public void shouldRecordDecodeTimeHistogram() throws Exception {
+        TransportLayerMetrics ws = metrics.layer("wsn");
+
+        ws.decodeTime(10L);
+        ws.decodeTime(3000L);
+        ws.decodeTime(Long.MAX_VALUE / 2);
+
+        assertEquals(1L, metrics.value(AgronaTransportLayerMetrics.timeBucketLabel("wsn-decode", 0)));
+        assertEquals(1L, metrics.value(AgronaTransportLayerMetrics.timeBucketLabel("wsn-decode", 1)));
+        assertEquals(1L, metrics.value(AgronaTransportLayerMetrics.timeBucketLabel("wsn-decode",
+                AgronaTransportLayerMetrics.BUCKET_COUNT - 1)));
+        assertEquals(10L + 3000L + Long.MAX_VALUE / 2, metrics.value("wsn-decode-time-ns-total"));
+    }
+
+    @Test
+    public void shouldRecordHandshakes() throws Exception {
+        TransportLayerMetrics ssl = metrics.layer("ssl");
+
+        ssl.handshake(3000L, false);
+        ssl.handshake(10L, true);
+        ssl.handshake(20L, true);
+
+        assertEquals(2L, metrics.value("ssl-session-cache-hits"));
+        assertEquals(1L, metrics.value("ssl-session-cache-misses"));
+        assertEquals(2L, metrics.value(AgronaTransportLayerMetrics.timeBucketLabel("ssl-handshake", 0)));
+        assertEquals(1L, metrics.value(AgronaTransportLayerMetrics.timeBucketLabel("ssl-handshake", 1)));
+        assertEquals(3030L, metrics.value("ssl-handshake-time-ns-total"));
+    }
+
+    @Test
+    public void shouldBucketByPowerOfTwo() throws Exception {
+        assertEquals(0, AgronaTransportLayerMetrics.bucket(0L));
+        assertEquals(0, AgronaTransportLayerMetrics.bucket(2047L));
+        assertEquals(1, AgronaTransportLayerMetrics.bucket(2048L));
+        assertEquals(2, AgronaTransportLayerMetrics.bucket(4096L));
+        assertEquals(AgronaTransportLayerMetrics.BUCKET_COUNT - 1, AgronaTransportLayerMetrics.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldCountSelectorWakeups() throws Exception {
+        metrics.selectorWakeup();
+        metrics.selectorWakeup();
+
+        assertEquals(2L, metrics.value("selector-wakeups"));
+    }
+
+    @Test
+    public void shouldKeepCountingWhenCountersFileIsFull() throws Exception {
+        TransportMetrics small = new TransportMetrics(newCountersManager(4 * 128));
+        try {
+            TransportLayerMetrics tcp = small.layer("tcp");
+
+            tcp.bytesRead(42);
+
+            assertEquals(42L, small.value("tcp-bytes-read"));
+        }
+        finally {
+            small.close();
+        }
+    }
+
+    private static CountersManager newCountersManager(int valuesLength) {
+        return new CountersManager(new UnsafeBuffer(ByteBuffer.allocateDirect(2 * valuesLength)),
+                new UnsafeBuffer(ByteBuffer.allocateDirect(valuesLength)));
+    }
+}
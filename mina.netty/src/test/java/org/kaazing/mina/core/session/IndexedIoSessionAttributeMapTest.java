@@ -0,0 +1,128 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.core.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.apache.mina.core.session.AttributeKey;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexedIoSessionAttributeMapTest {
+
+    private static final TestKey KEY_A = new TestKey();
+    private static final TestKey KEY_B = new TestKey();
+    private static final TestKey KEY_C = new TestKey();
+    private static final AttributeKey ADHOC_KEY = new AttributeKey(IndexedIoSessionAttributeMapTest.class, "adhoc");
+
+    private IndexedIoSessionAttributeMap attributes;
+
+    @Before
+    public void before() {
+        attributes = new IndexedIoSessionAttributeMap();
+    }
+
+    @Test
+    public void shouldAssignSlotsToKeys() {
+        assertTrue(KEY_A.slot() >= 0);
+        assertTrue(KEY_B.slot() > KEY_A.slot());
+    }
+
+    @Test
+    public void shouldSetAndGetSlottedAttributes() {
+        assertNull(attributes.setAttribute(null, KEY_B, "b"));
+        assertNull(attributes.setAttribute(null, KEY_A, "a"));
+        assertNull(attributes.setAttribute(null, KEY_C, "c"));
+
+        assertEquals("a", attributes.getAttribute(null, KEY_A, null));
+        assertEquals("b", attributes.getAttribute(null, KEY_B, null));
+        assertEquals("c", attributes.getAttribute(null, KEY_C, null));
+
+        assertEquals("b", attributes.setAttribute(null, KEY_B, "b2"));
+        assertEquals("b2", attributes.getAttribute(null, KEY_B, null));
+        assertEquals("a", attributes.getAttribute(null, KEY_A, null));
+        assertEquals("c", attributes.getAttribute(null, KEY_C, null));
+    }
+
+    @Test
+    public void shouldReturnDefaultValueWhenAbsent() {
+        assertEquals("default", attributes.getAttribute(null, KEY_A, "default"));
+        assertFalse(attributes.containsAttribute(null, KEY_A));
+    }
+
+    @Test
+    public void shouldRemoveSlottedAttributes() {
+        attributes.setAttribute(null, KEY_A, "a");
+        attributes.setAttribute(null, KEY_B, "b");
+        attributes.setAttribute(null, KEY_C, "c");
+
+        assertEquals("b", attributes.removeAttribute(null, KEY_B));
+        assertFalse(attributes.containsAttribute(null, KEY_B));
+        assertEquals("a", attributes.getAttribute(null, KEY_A, null));
+        assertEquals("c", attributes.getAttribute(null, KEY_C, null));
+
+        assertFalse(attributes.removeAttribute(null, KEY_A, "other"));
+        assertTrue(attributes.removeAttribute(null, KEY_A, "a"));
+        assertEquals("c", attributes.setAttribute(null, KEY_C, null));
+        assertTrue(attributes.getAttributeKeys(null).isEmpty());
+    }
+
+    @Test
+    public void shouldSetIfAbsentAndReplace() {
+        assertNull(attributes.setAttributeIfAbsent(null, KEY_A, "a"));
+        assertEquals("a", attributes.setAttributeIfAbsent(null, KEY_A, "other"));
+
+        assertFalse(attributes.replaceAttribute(null, KEY_A, "other", "a2"));
+        assertTrue(attributes.replaceAttribute(null, KEY_A, "a", "a2"));
+        assertEquals("a2", attributes.getAttribute(null, KEY_A, null));
+    }
+
+    @Test
+    public void shouldStoreKeysWithoutSlotInFallbackMap() {
+        attributes.setAttribute(null, KEY_A, "a");
+        attributes.setAttribute(null, ADHOC_KEY, "adhoc");
+
+        assertEquals("adhoc", attributes.getAttribute(null, ADHOC_KEY, null));
+        assertEquals(new HashSet<Object>(Arrays.asList(KEY_A, ADHOC_KEY)), attributes.getAttributeKeys(null));
+
+        assertEquals("adhoc", attributes.removeAttribute(null, ADHOC_KEY));
+        assertFalse(attributes.containsAttribute(null, ADHOC_KEY));
+    }
+
+    @Test
+    public void shouldSetIfAbsentReplaceAndRemoveKeysWithoutSlot() {
+        assertNull(attributes.setAttributeIfAbsent(null, ADHOC_KEY, "adhoc"));
+        assertEquals("adhoc", attributes.setAttributeIfAbsent(null, ADHOC_KEY, "other"));
+
+        assertFalse(attributes.replaceAttribute(null, ADHOC_KEY, "other", "adhoc2"));
+        assertTrue(attributes.replaceAttribute(null, ADHOC_KEY, "adhoc", "adhoc2"));
+        assertEquals("adhoc2", attributes.getAttribute(null, ADHOC_KEY, null));
+
+        assertFalse(attributes.removeAttribute(null, ADHOC_KEY, "adhoc"));
+        assertTrue(attributes.replaceAttribute(null, ADHOC_KEY, "adhoc2", null));
+        assertFalse(attributes.containsAttribute(null, ADHOC_KEY));
+    }
+
+    private static final class TestKey extends IndexedAttributeKey {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -19,6 +19,7 @@ import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.kaazing.mina.netty.PortUtil.nextPort;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
@@ -34,6 +35,7 @@ import org.apache.mina.core.service.IoHandlerAdapter;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.filter.logging.LoggingFilter;
 import org.jboss.netty.channel.socket.nio.NioServerDatagramChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketOptions;
 import org.jboss.netty.channel.socket.nio.NioWorkerPool;
 import org.junit.After;
 import org.junit.Before;
@@ -114,4 +116,53 @@ public class NioDatagramChannelIoAcceptorIT {
         assertEquals("no handler exceptions", 0, exceptionsCaught.get());
     }
 
+    @Test
+    public void shouldEchoBytesInOrderWithChannelsPerAddress() throws Exception {
+        assumeTrue(NioServerSocketOptions.isDatagramReusePortSupported());
+
+        final AtomicInteger exceptionsCaught = new AtomicInteger();
+        NioDatagramChannelIoAcceptor nioAcceptor = (NioDatagramChannelIoAcceptor) acceptor;
+        nioAcceptor.setReusePort(true);
+        nioAcceptor.setChannelsPerAddress(2);
+        nioAcceptor.setHandler(new IoHandlerAdapter() {
+            @Override
+            public void messageReceived(IoSession session, Object message)
+                    throws Exception {
+                IoBuffer buf = (IoBuffer) message;
+                session.write(buf.duplicate());
+            }
+
+            @Override
+            public void exceptionCaught(IoSession session, Throwable cause) throws Exception {
+                exceptionsCaught.incrementAndGet();
+            }
+        });
+
+        SocketAddress bindAddress = new InetSocketAddress("localhost", nextPort(8100, 100));
+        nioAcceptor.bind(bindAddress);
+
+        try (DatagramSocket otherSocket = new DatagramSocket()) {
+            socket.connect(bindAddress);
+            otherSocket.connect(bindAddress);
+            for (int i = 0; i < 3; i++) {
+                byte[] sendPayload = new byte[] { (byte) i };
+                socket.send(new DatagramPacket(sendPayload, sendPayload.length));
+                otherSocket.send(new DatagramPacket(sendPayload, sendPayload.length));
+            }
+
+            for (DatagramSocket client : Arrays.asList(socket, otherSocket)) {
+                for (int i = 0; i < 3; i++) {
+                    byte[] receivePayload = new byte[1];
+                    client.receive(new DatagramPacket(receivePayload, receivePayload.length));
+                    assertEquals("payload echoed in order", i, receivePayload[0]);
+                }
+            }
+        }
+
+        assertEquals("no handler exceptions", 0, exceptionsCaught.get());
+
+        nioAcceptor.unbind(bindAddress);
+        nioAcceptor.bind(bindAddress);
+    }
+
 }
@@ -27,6 +27,7 @@ import static org.jmock.lib.script.ScriptedAction.perform;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
 
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -56,6 +57,7 @@ import org.jboss.netty.channel.socket.nio.BossPool;
 import org.jboss.netty.channel.socket.nio.NioServerBoss;
 import org.jboss.netty.channel.socket.nio.NioServerBossPool;
 import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketOptions;
 import org.jboss.netty.channel.socket.nio.NioWorker;
 import org.jboss.netty.channel.socket.nio.NioWorkerPool;
 import org.jboss.netty.channel.socket.nio.WorkerPool;
@@ -69,6 +71,8 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import org.kaazing.mina.core.buffer.GatheringBuffer;
+import org.kaazing.mina.core.buffer.IoBufferEx;
 import org.kaazing.mina.core.session.IoSessionEx;
 import org.kaazing.mina.netty.socket.nio.DefaultNioSocketChannelIoSessionConfig;
 import org.kaazing.mina.netty.socket.nio.NioSocketChannelIoAcceptor;
@@ -121,6 +125,22 @@ public class NioSocketChannelIoAcceptorIT {
         acceptor.bind(bindAddress);
     }
 
+    @Test
+    public void shouldBindChannelsPerAddressWithReusePort() throws Exception {
+        assumeTrue(NioServerSocketOptions.isReusePortSupported());
+
+        NioSocketChannelIoAcceptor nioAcceptor = (NioSocketChannelIoAcceptor) acceptor;
+        nioAcceptor.setReusePort(true);
+        nioAcceptor.setChannelsPerAddress(2);
+        nioAcceptor.setHandler(new IoHandlerAdapter());
+
+        SocketAddress bindAddress = new InetSocketAddress("localhost", nextPort(8100, 100));
+        nioAcceptor.bind(bindAddress);
+        socket.connect(bindAddress);
+        nioAcceptor.unbind(bindAddress);
+        nioAcceptor.bind(bindAddress);
+    }
+
     @Test
     // (timeout = 1000)
     public void shouldCountScheduledAndWrittenBytes() throws Exception {
@@ -178,6 +198,55 @@ public class NioSocketChannelIoAcceptorIT {
         assertTrue(format("Got handler exceptions: %s", exceptionsCaught), 0 == exceptionsCaught.size());
     }
 
+    @Test
+    public void shouldCountScheduledAndWrittenBytesForGatheredWrite() throws Exception {
+        final List<Throwable> exceptionsCaught = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch written = new CountDownLatch(1);
+        acceptor.setHandler(new IoHandlerAdapter() {
+
+            @Override
+            public void messageReceived(final IoSession session, Object message) throws Exception {
+                IoBufferEx buf = (IoBufferEx) message;
+                IoBufferEx header = buf.duplicate();
+                header.limit(header.position() + 1);
+                IoBufferEx payload = buf.duplicate();
+                payload.position(payload.position() + 1);
+                session.write(new GatheringBuffer(header, payload)).addListener(new IoFutureListener<WriteFuture>() {
+                    @Override
+                    public void operationComplete(WriteFuture future) {
+                        try {
+                            assertEquals("getScheduledWriteBytes", 0, session.getScheduledWriteBytes());
+                        }
+                        catch (Throwable t) {
+                            exceptionsCaught.add(t);
+                        }
+                        written.countDown();
+                    }
+                });
+            }
+
+            @Override
+            public void exceptionCaught(IoSession session, Throwable cause) throws Exception {
+                exceptionsCaught.add(cause);
+            }
+        });
+
+        SocketAddress bindAddress = new InetSocketAddress("localhost", nextPort(8100, 100));
+        acceptor.bind(bindAddress);
+
+        socket.connect(bindAddress);
+        OutputStream output = socket.getOutputStream();
+        InputStream input = socket.getInputStream();
+        byte[] sendPayload = new byte[]{0x00, 0x01, 0x02};
+        output.write(sendPayload);
+        byte[] receivePayload = new byte[sendPayload.length];
+        input.read(receivePayload);
+        assertTrue("payload echoed", Arrays.equals(sendPayload, receivePayload));
+
+        written.await();
+        assertTrue(format("Got handler exceptions: %s", exceptionsCaught), 0 == exceptionsCaught.size());
+    }
+
     @Test
     // (timeout = 1000)
     public void shouldEchoBytes() throws Exception {
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.mina.netty;
+
+import static org.apache.mina.core.session.IdleStatus.BOTH_IDLE;
+import static org.apache.mina.core.session.IdleStatus.READER_IDLE;
+
+import org.apache.mina.core.filterchain.IoFilterChain;
+import org.apache.mina.core.session.IdleStatus;
+import org.apache.mina.transport.socket.DefaultSocketSessionConfigEx;
+import org.jmock.Expectations;
+import org.jmock.api.Action;
+import org.jmock.api.Invocation;
+import org.jmock.integration.junit4.JUnitRuleMockery;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Rule;
+import org.junit.Test;
+import org.kaazing.mina.core.session.IoSessionConfigEx;
+import org.kaazing.mina.core.session.IoSessionEx;
+
+public class TimingWheelIoSessionIdleTrackerTest {
+
+    @Rule
+    public JUnitRuleMockery context = new JUnitRuleMockery();
+
+    private final IoSessionEx session = context.mock(IoSessionEx.class);
+    private final IoFilterChain filterChain = context.mock(IoFilterChain.class);
+    private final IoSessionConfigEx config = new DefaultSocketSessionConfigEx();
+
+    @Test
+    public void shouldFireReaderIdleWhenNoReads() throws Exception {
+        allowSession(0L, 0L);
+        TimingWheelIoSessionIdleTracker tracker = new TimingWheelIoSessionIdleTracker(0L);
+        tracker.addSession(session);
+        config.setIdleTimeInMillis(READER_IDLE, 1000L);
+
+        tracker.expireTimeouts(999L);
+
+        context.checking(new Expectations() {
+            {
+                oneOf(filterChain).fireSessionIdle(READER_IDLE);
+            }
+        });
+        tracker.expireTimeouts(1100L);
+    }
+
+    @Test
+    public void shouldNotFireReaderIdleAfterInterveningRead() throws Exception {
+        allowSession(800L, 800L);
+        TimingWheelIoSessionIdleTracker tracker = new TimingWheelIoSessionIdleTracker(0L);
+        tracker.addSession(session);
+        config.setIdleTimeInMillis(READER_IDLE, 1000L);
+
+        tracker.expireTimeouts(1100L);
+
+        context.checking(new Expectations() {
+            {
+                oneOf(filterChain).fireSessionIdle(READER_IDLE);
+            }
+        });
+        tracker.expireTimeouts(1900L);
+    }
+
+    @Test
+    public void shouldNotFireAfterSessionRemoved() throws Exception {
+        allowSession(0L, 0L);
+        TimingWheelIoSessionIdleTracker tracker = new TimingWheelIoSessionIdleTracker(0L);
+        tracker.addSession(session);
+        config.setIdleTimeInMillis(BOTH_IDLE, 1000L);
+        tracker.removeSession(session);
+
+        tracker.expireTimeouts(5000L);
+    }
+
+    @Test
+    public void shouldFireBothIdleAfterLongStall() throws Exception {
+        allowSession(0L, 0L);
+        TimingWheelIoSessionIdleTracker tracker = new TimingWheelIoSessionIdleTracker(0L);
+        tracker.addSession(session);
+        config.setIdleTimeInMillis(BOTH_IDLE, 1000L);
+
+        context.checking(new Expectations() {
+            {
+                oneOf(filterChain).fireSessionIdle(BOTH_IDLE);
+            }
+        });
+        long wheelSpanMillis = TimingWheelIoSessionIdleTracker.WHEEL_SIZE * TimingWheelIoSessionIdleTracker.TICK_MILLIS;
+        tracker.expireTimeouts(3 * wheelSpanMillis);
+    }
+
+    @Test(timeout = 5000)
+    public void shouldRescheduleOnceWhenIdleHandlerChangesIdleTime() throws Exception {
+        allowSession(0L, 0L);
+        TimingWheelIoSessionIdleTracker tracker = new TimingWheelIoSessionIdleTracker(0L);
+        tracker.addSession(session);
+        config.setIdleTimeInMillis(READER_IDLE, 1000L);
+
+        context.checking(new Expectations() {
+            {
+                // the handler moves the deadline into the same slot the expired timeout would be rescheduled to
+                oneOf(filterChain).fireSessionIdle(READER_IDLE);
+                will(setIdleTime(READER_IDLE, 2100L));
+            }
+        });
+        tracker.expireTimeouts(1100L);
+
+        context.checking(new Expectations() {
+            {
+                oneOf(filterChain).fireSessionIdle(READER_IDLE);
+            }
+        });
+        tracker.expireTimeouts(2200L);
+    }
+
+    @Test
+    public void shouldNotRescheduleWhenIdleHandlerDisablesIdleTime() throws Exception {
+        allowSession(0L, 0L);
+        TimingWheelIoSessionIdleTracker tracker = new TimingWheelIoSessionIdleTracker(0L);
+        tracker.addSession(session);
+        config.setIdleTimeInMillis(READER_IDLE, 1000L);
+
+        context.checking(new Expectations() {
+            {
+                oneOf(filterChain).fireSessionIdle(READER_IDLE);
+                will(setIdleTime(READER_IDLE, 0L));
+            }
+        });
+        tracker.expireTimeouts(1100L);
+
+        tracker.expireTimeouts(5000L);
+    }
+
+    private Action setIdleTime(final IdleStatus status, final long idleTimeMillis) {
+        return new CustomAction("set idle time") {
+            @Override
+            public Object invoke(Invocation invocation) throws Throwable {
+                config.setIdleTimeInMillis(status, idleTimeMillis);
+                return null;
+            }
+        };
+    }
+
+    private void allowSession(final long lastReadTime, final long lastIoTime) {
+        context.checking(new Expectations() {
+            {
+                allowing(session).getConfig(); will(returnValue(config));
+                allowing(session).getFilterChain(); will(returnValue(filterChain));
+                allowing(session).getIoThread(); will(returnValue(Thread.currentThread()));
+                allowing(session).isClosing(); will(returnValue(false));
+                allowing(session).getLastIoTime(); will(returnValue(lastIoTime));
+                allowing(session).getLastReadTime(); will(returnValue(lastReadTime));
+                allowing(session).getLastWriteTime(); will(returnValue(0L));
+                allowing(session).getLastIdleTime(with(any(IdleStatus.class))); will(returnValue(0L));
+            }
+        });
+    }
+}
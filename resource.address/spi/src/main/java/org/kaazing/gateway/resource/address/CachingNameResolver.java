@@ -0,0 +1,295 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.resource.address;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link NameResolver} that caches the results of a delegate resolver, shared by every resource address
+ * created through a {@link ResourceAddressFactory} (see {@link ResourceAddressFactory#setNameResolver(NameResolver)}).
+ *
+ * Successful lookups are cached for a positive TTL and failed lookups for a (usually shorter) negative TTL.
+ * Once a successful lookup expires the stale addresses continue to be returned while a single refresh runs
+ * on the refresh executor, so connect paths only block on DNS the first time a host is seen.  A refresh that
+ * fails keeps the stale addresses, retrying once the negative TTL has passed.  Concurrent
+ * lookups of a host that is not yet cached share one call to the delegate.
+ */
+public final class CachingNameResolver implements NameResolver {
+
+    private static final int DEFAULT_MAXIMUM_ENTRIES = 4096;
+
+    private final NameResolver delegate;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Executor refreshExecutor;
+    private final int maximumEntries;
+
+    private final ConcurrentMap<String, Entry> entries;
+    private final ConcurrentMap<String, Lookup> lookups;
+
+    private final AtomicLong hits;
+    private final AtomicLong negativeHits;
+    private final AtomicLong misses;
+    private final AtomicLong refreshes;
+    private final AtomicLong refreshFailures;
+    private final AtomicLong failures;
+
+    public CachingNameResolver(NameResolver delegate, long ttlMillis, long negativeTtlMillis, Executor refreshExecutor) {
+        this(delegate, ttlMillis, negativeTtlMillis, refreshExecutor, DEFAULT_MAXIMUM_ENTRIES);
+    }
+
+    public CachingNameResolver(NameResolver delegate, long ttlMillis, long negativeTtlMillis, Executor refreshExecutor,
+                               int maximumEntries) {
+        if (delegate == null) {
+            throw new NullPointerException("delegate");
+        }
+        if (refreshExecutor == null) {
+            throw new NullPointerException("refreshExecutor");
+        }
+        if (ttlMillis < 0 || negativeTtlMillis < 0) {
+            throw new IllegalArgumentException("TTL must not be negative");
+        }
+        if (maximumEntries <= 0) {
+            throw new IllegalArgumentException("maximumEntries must be positive");
+        }
+        this.delegate = delegate;
+        this.ttlNanos = MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = MILLISECONDS.toNanos(negativeTtlMillis);
+        this.refreshExecutor = refreshExecutor;
+        this.maximumEntries = maximumEntries;
+        this.entries = new ConcurrentHashMap<>();
+        this.lookups = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.negativeHits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.refreshes = new AtomicLong();
+        this.refreshFailures = new AtomicLong();
+        this.failures = new AtomicLong();
+    }
+
+    @Override
+    public Collection<InetAddress> getAllByName(String host) throws UnknownHostException {
+        Entry entry = entries.get(host);
+        if (entry != null) {
+            long now = System.nanoTime();
+            if (entry.addresses == null) {
+                if (now - entry.expiresAt < 0) {
+                    negativeHits.incrementAndGet();
+                    throw entry.newUnknownHostException(host);
+                }
+            }
+            else {
+                hits.incrementAndGet();
+                if (now - entry.expiresAt >= 0) {
+                    refresh(host, entry);
+                }
+                return entry.addresses;
+            }
+        }
+
+        misses.incrementAndGet();
+        return lookup(host);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getNegativeHits() {
+        return negativeHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [entries=%d, hits=%d, negativeHits=%d, misses=%d, refreshes=%d, refreshFailures=%d, "
+                + "failures=%d]", getClass().getSimpleName(), entries.size(), hits.get(), negativeHits.get(), misses.get(),
+                refreshes.get(), refreshFailures.get(), failures.get());
+    }
+
+    private Collection<InetAddress> lookup(String host) throws UnknownHostException {
+        Lookup newLookup = new Lookup();
+        Lookup lookup = lookups.putIfAbsent(host, newLookup);
+        if (lookup == null) {
+            try {
+                newLookup.entry = resolve(host);
+            }
+            finally {
+                lookups.remove(host, newLookup);
+                newLookup.done.countDown();
+            }
+            lookup = newLookup;
+        }
+        else {
+            lookup.await();
+        }
+
+        Entry entry = lookup.entry;
+        if (entry == null) {
+            // the resolving thread failed unexpectedly, so fall back to resolving directly
+            return delegate.getAllByName(host);
+        }
+        if (entry.addresses == null) {
+            throw entry.newUnknownHostException(host);
+        }
+        return entry.addresses;
+    }
+
+    private void refresh(final String host, final Entry stale) {
+        if (stale.refreshing.compareAndSet(false, true)) {
+            try {
+                refreshExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            refreshes.incrementAndGet();
+                            cache(host, newEntry(delegate.getAllByName(host)));
+                        }
+                        catch (UnknownHostException e) {
+                            // a transient DNS failure must not replace addresses that were good a TTL ago
+                            refreshFailures.incrementAndGet();
+                            entries.replace(host, stale, new Entry(stale.addresses, null,
+                                    System.nanoTime() + negativeTtlNanos));
+                        }
+                        finally {
+                            stale.refreshing.set(false);
+                        }
+                    }
+                });
+            }
+            catch (RejectedExecutionException e) {
+                // executor shutting down, keep serving the stale entry
+                stale.refreshing.set(false);
+            }
+        }
+    }
+
+    private Entry resolve(String host) {
+        Entry entry;
+        try {
+            entry = newEntry(delegate.getAllByName(host));
+        }
+        catch (UnknownHostException e) {
+            failures.incrementAndGet();
+            entry = new Entry(null, e, System.nanoTime() + negativeTtlNanos);
+        }
+        cache(host, entry);
+        return entry;
+    }
+
+    private Entry newEntry(Collection<InetAddress> addresses) {
+        return new Entry(Collections.unmodifiableList(new ArrayList<>(addresses)), null, System.nanoTime() + ttlNanos);
+    }
+
+    private void cache(String host, Entry entry) {
+        if (entries.size() >= maximumEntries && !entries.containsKey(host)) {
+            purgeExpired();
+            if (entries.size() >= maximumEntries) {
+                // still full of live entries, do not grow unbounded on hostile or unique host names
+                return;
+            }
+        }
+        entries.put(host, entry);
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        for (Iterator<Entry> i = entries.values().iterator(); i.hasNext();) {
+            if (now - i.next().expiresAt >= 0) {
+                i.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Collection<InetAddress> addresses;
+        private final UnknownHostException failure;
+        private final long expiresAt;
+        private final AtomicBoolean refreshing;
+
+        Entry(Collection<InetAddress> addresses, UnknownHostException failure, long expiresAt) {
+            this.addresses = addresses;
+            this.failure = failure;
+            this.expiresAt = expiresAt;
+            this.refreshing = new AtomicBoolean();
+        }
+
+        UnknownHostException newUnknownHostException(String host) {
+            // fresh instance per caller so that stack traces reflect the caller, not the original lookup
+            UnknownHostException e = new UnknownHostException(failure.getMessage() != null ? failure.getMessage() : host);
+            e.initCause(failure);
+            return e;
+        }
+    }
+
+    private static final class Lookup {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Entry entry;
+
+        void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
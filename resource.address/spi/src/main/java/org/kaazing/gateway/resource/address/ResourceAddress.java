@@ -235,6 +235,62 @@ public abstract class ResourceAddress extends SocketAddress implements ResourceO
         }
     }
 
+    /**
+     * Resolves the new path as {@link #resolve(String)} does, and also replaces the identity resolver on every
+     * layer (including transports and alternates) that already has one.  This lets per-session addresses be derived
+     * from a template address built once, without running each layer back through its address factory.
+     */
+    public final ResourceAddress resolve(String newPath, IdentityResolver identityResolver) {
+        if (newPath == null) {
+            throw new NullPointerException("newPath");
+        }
+        URI addressURI = getResource();
+        return resolve(addressURI.getPath(), newPath, identityResolver);
+    }
+
+    private ResourceAddress resolve(String oldPath, String newPath, IdentityResolver identityResolver) {
+        URI addressURI = getResource();
+        boolean shouldResolveNewPath = !oldPath.equals(newPath) && oldPath.equals(addressURI.getPath());
+        if (!shouldResolveNewPath) {
+            // layers below do not share this path, but may still carry an identity resolver
+            newPath = oldPath;
+        }
+
+        ResourceOptions newOptions = FACTORY.newResourceOptions(this);
+        boolean changed = shouldResolveNewPath;
+
+        ResourceAddress transport = getOption(TRANSPORT);
+        if (transport != null) {
+            ResourceAddress newTransport = transport.resolve(oldPath, newPath, identityResolver);
+            if (newTransport != transport) {
+                newOptions.setOption(TRANSPORT, newTransport);
+                changed = true;
+            }
+        }
+
+        ResourceAddress alternate = getOption(ALTERNATE);
+        if (alternate != null) {
+            ResourceAddress newAlternate = alternate.resolve(oldPath, newPath, identityResolver);
+            if (newAlternate != alternate) {
+                newOptions.setOption(ALTERNATE, newAlternate);
+                changed = true;
+            }
+        }
+
+        if (identityResolver != null && identityResolver != this.identityResolver && this.identityResolver != null) {
+            newOptions.setOption(IDENTITY_RESOLVER, identityResolver);
+            changed = true;
+        }
+
+        if (!changed) {
+            return this;
+        }
+
+        String newExternalURI = shouldResolveNewPath ? URIUtils.resolve(getExternalURI(), newPath) : getExternalURI();
+        URI newResourceURI = shouldResolveNewPath ? addressURI.resolve(newPath) : addressURI;
+        return factory.newResourceAddress0(newExternalURI, URIUtils.uriToString(newResourceURI), newOptions);
+    }
+
     @SuppressWarnings("unchecked")
     protected <V> V getOption0(ResourceOption<V> option) {
         if (option instanceof DefaultResourceOption) {
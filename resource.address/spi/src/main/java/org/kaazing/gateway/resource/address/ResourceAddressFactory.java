@@ -37,6 +37,9 @@ public class ResourceAddressFactory {
     // "ws" -> { "wse" -> wse factory...}
     private final Map<String, Map<String, ResourceAddressFactorySpi<?>>> alternateAddressFactories;
 
+    // shared resolver used by all schemes when no explicit RESOLVER option is given, null for the option default
+    private volatile NameResolver nameResolver;
+
     public static ResourceAddressFactory newResourceAddressFactory() {
         return newResourceAddressFactory(currentThread().getContextClassLoader());
     }
@@ -108,6 +111,21 @@ public class ResourceAddressFactory {
         this.alternateAddressFactories = alternateAddressFactories;
     }
 
+    /**
+     * Sets the name resolver used by every scheme of this factory when a resource address is created without
+     * an explicit {@link ResourceAddress#RESOLVER} option, for example a {@link CachingNameResolver} shared
+     * by accept and connect sides of all services.
+     *
+     * @param nameResolver the shared resolver, or null to fall back to the default {@link ResourceAddress#RESOLVER}
+     */
+    public void setNameResolver(NameResolver nameResolver) {
+        this.nameResolver = nameResolver;
+    }
+
+    public NameResolver getNameResolver() {
+        return nameResolver;
+    }
+
     public ResourceAddress newResourceAddress(String location) {
         Map<String, Object> EMPTY_OPTIONS = Collections.emptyMap();
         return newResourceAddress(location, EMPTY_OPTIONS);
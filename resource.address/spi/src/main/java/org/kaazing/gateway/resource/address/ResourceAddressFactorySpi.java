@@ -58,6 +58,20 @@ public abstract class ResourceAddressFactorySpi<T extends ResourceAddress> {
         return addressFactory;
     }
 
+    /**
+     * Returns the resolver for host names, preferring an explicit {@link ResourceAddress#RESOLVER} option,
+     * then the resolver shared through the {@link ResourceAddressFactory}, then the option default.
+     */
+    protected NameResolver getNameResolver(ResourceOptions options) {
+        if (!options.hasOption(RESOLVER) && addressFactory != null) {
+            NameResolver nameResolver = addressFactory.getNameResolver();
+            if (nameResolver != null) {
+                return nameResolver;
+            }
+        }
+        return options.getOption(RESOLVER);
+    }
+
     /**
      * Returns the name of the scheme provided by factories using this
      * service provider.
@@ -0,0 +1,184 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.resource.address;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingNameResolverTest {
+
+    private CountingResolver delegate;
+    private QueuedExecutor executor;
+
+    @Before
+    public void before() {
+        delegate = new CountingResolver();
+        executor = new QueuedExecutor();
+    }
+
+    @Test
+    public void shouldCacheResolvedAddresses() throws Exception {
+        CachingNameResolver resolver = new CachingNameResolver(delegate, 60000, 60000, executor);
+
+        Collection<InetAddress> first = resolver.getAllByName("example.com");
+        Collection<InetAddress> second = resolver.getAllByName("example.com");
+
+        assertEquals(first, second);
+        assertEquals(1, delegate.lookups);
+        assertEquals(1, resolver.getMisses());
+        assertEquals(1, resolver.getHits());
+    }
+
+    @Test
+    public void shouldCacheUnknownHosts() throws Exception {
+        CachingNameResolver resolver = new CachingNameResolver(delegate, 60000, 60000, executor);
+        delegate.unknown = true;
+
+        for (int i = 0; i < 3; i++) {
+            try {
+                resolver.getAllByName("unknown.example.com");
+                fail("expected UnknownHostException");
+            }
+            catch (UnknownHostException e) {
+                // expected
+            }
+        }
+
+        assertEquals(1, delegate.lookups);
+        assertEquals(1, resolver.getFailures());
+        assertEquals(2, resolver.getNegativeHits());
+    }
+
+    @Test
+    public void shouldResolveAgainWhenUnknownHostExpires() throws Exception {
+        CachingNameResolver resolver = new CachingNameResolver(delegate, 60000, 0, executor);
+        delegate.unknown = true;
+        try {
+            resolver.getAllByName("example.com");
+            fail("expected UnknownHostException");
+        }
+        catch (UnknownHostException e) {
+            // expected
+        }
+
+        delegate.unknown = false;
+        resolver.getAllByName("example.com");
+
+        assertEquals(2, delegate.lookups);
+        assertEquals(2, resolver.getMisses());
+    }
+
+    @Test
+    public void shouldServeStaleAddressesWhileRefreshing() throws Exception {
+        CachingNameResolver resolver = new CachingNameResolver(delegate, 0, 0, executor);
+
+        Collection<InetAddress> first = resolver.getAllByName("example.com");
+        delegate.address = InetAddress.getByAddress("example.com", new byte[] {10, 0, 0, 2});
+
+        // expired entry is served while a single refresh is queued
+        assertSame(first, resolver.getAllByName("example.com"));
+        assertSame(first, resolver.getAllByName("example.com"));
+        assertEquals(1, executor.tasks.size());
+        assertEquals(1, delegate.lookups);
+
+        executor.runAll();
+
+        assertEquals(2, delegate.lookups);
+        assertEquals(1, resolver.getRefreshes());
+        assertEquals(Collections.singletonList(delegate.address), new ArrayList<>(resolver.getAllByName("example.com")));
+    }
+
+    @Test
+    public void shouldKeepStaleAddressesWhenRefreshFails() throws Exception {
+        CachingNameResolver resolver = new CachingNameResolver(delegate, 0, 60000, executor);
+
+        Collection<InetAddress> first = resolver.getAllByName("example.com");
+        delegate.unknown = true;
+
+        assertSame(first, resolver.getAllByName("example.com"));
+        executor.runAll();
+
+        assertEquals(1, resolver.getRefreshFailures());
+        assertEquals(0, resolver.getFailures());
+        // the stale addresses are kept, and not refreshed again until the negative TTL has passed
+        assertEquals(first, resolver.getAllByName("example.com"));
+        assertEquals(0, executor.tasks.size());
+        assertEquals(2, delegate.lookups);
+    }
+
+    @Test
+    public void shouldBoundNumberOfEntries() throws Exception {
+        CachingNameResolver resolver = new CachingNameResolver(delegate, 60000, 60000, executor, 2);
+
+        resolver.getAllByName("a.example.com");
+        resolver.getAllByName("b.example.com");
+        resolver.getAllByName("c.example.com");
+
+        assertEquals(2, resolver.size());
+    }
+
+    private static final class CountingResolver implements NameResolver {
+        private int lookups;
+        private boolean unknown;
+        private InetAddress address;
+
+        CountingResolver() {
+            try {
+                address = InetAddress.getByAddress("example.com", new byte[] {10, 0, 0, 1});
+            }
+            catch (UnknownHostException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public Collection<InetAddress> getAllByName(String host) throws UnknownHostException {
+            lookups++;
+            if (unknown) {
+                throw new UnknownHostException(host);
+            }
+            return Collections.singletonList(address);
+        }
+    }
+
+    private static final class QueuedExecutor implements Executor {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+            tasks.clear();
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.kaazing.gateway.resource.address;
 
 import static org.junit.Assert.assertEquals;
 import static org.kaazing.gateway.resource.address.ResourceAddress.ALTERNATE;
+import static org.kaazing.gateway.resource.address.ResourceAddress.IDENTITY_RESOLVER;
 import static org.kaazing.gateway.resource.address.ResourceAddress.NEXT_PROTOCOL;
 import static org.kaazing.gateway.resource.address.ResourceAddress.QUALIFIER;
 import static org.kaazing.gateway.resource.address.ResourceAddress.TRANSPORT;
@@ -26,6 +27,8 @@ import static org.kaazing.gateway.resource.address.ResourceAddressFactory.newRes
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.security.auth.Subject;
+
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -115,6 +118,47 @@ public class ResolveResourceAddressTest {
 
     }
 
+    @Test
+    public void shouldResolveNewPathAndReplaceIdentityResolver() throws Exception {
+        IdentityResolver templateResolver = new TestIdentityResolver("template");
+        IdentityResolver sessionResolver = new TestIdentityResolver("session");
+        address = createTestAddress(templateResolver);
+
+        ResourceAddress result = address.resolve("/newpath", sessionResolver);
+
+        verifyResolvedAddress(address, result, "/path", "/newpath");
+        Assert.assertSame(sessionResolver, result.getOption(IDENTITY_RESOLVER));
+        Assert.assertNull(result.getTransport().getOption(IDENTITY_RESOLVER));
+        Assert.assertSame(templateResolver, address.getOption(IDENTITY_RESOLVER));
+    }
+
+    @Test
+    public void shouldReplaceIdentityResolverOnSamePath() throws Exception {
+        IdentityResolver sessionResolver = new TestIdentityResolver("session");
+        address = createTestAddress(new TestIdentityResolver("template"));
+
+        ResourceAddress result = address.resolve("/path", sessionResolver);
+
+        Assert.assertNotSame(address, result);
+        assertEquals(address.getResource(), result.getResource());
+        Assert.assertSame(sessionResolver, result.getOption(IDENTITY_RESOLVER));
+        Assert.assertSame(address.getTransport(), result.getTransport());
+    }
+
+    @Test
+    public void shouldNotAddIdentityResolverWhenResolvingSamePath() throws Exception {
+        ResourceAddress result = address.resolve("/path", new TestIdentityResolver("session"));
+
+        Assert.assertSame(address, result);
+    }
+
+    private ResourceAddress createTestAddress(IdentityResolver identityResolver) {
+        Map<String, Object> options = new HashMap<>();
+        options.put(TRANSPORT.name(), "test://transport/path");
+        options.put(IDENTITY_RESOLVER.name(), identityResolver);
+        return addressFactory.newResourceAddress("test://opaque/path", options);
+    }
+
     private void verifyResolvedAddress(ResourceAddress source,
                                        ResourceAddress dest,
                                        final String oldPath,
@@ -177,5 +221,17 @@ public class ResolveResourceAddressTest {
         return continueToVerify;
     }
 
+    private static final class TestIdentityResolver extends IdentityResolver {
+        private final String identity;
+
+        TestIdentityResolver(String identity) {
+            this.identity = identity;
+        }
+
+        @Override
+        public String resolve(Subject subject) {
+            return identity;
+        }
+    }
 
 }
@@ -17,7 +17,6 @@ package org.kaazing.gateway.resource.address.tcp;
 
 import static java.lang.Integer.parseInt;
 import static java.lang.String.format;
-import static org.kaazing.gateway.resource.address.ResourceAddress.RESOLVER;
 import static org.kaazing.gateway.resource.address.ResourceAddress.TRANSPORT;
 import static org.kaazing.gateway.resource.address.tcp.TcpResourceAddress.BIND_ADDRESS;
 import static org.kaazing.gateway.resource.address.tcp.TcpResourceAddress.LOGIN_CONTEXT_FACTORY;
@@ -144,7 +143,7 @@ public class TcpResourceAddressFactorySpi extends ResourceAddressFactorySpi<TcpR
         }
 
         // ensure that DNS name is resolved in transport address
-        NameResolver resolver = options.getOption(RESOLVER);
+        NameResolver resolver = getNameResolver(options);
         assert (resolver != null);
         List<TcpResourceAddress> tcpAddresses = new LinkedList<>();
         try {
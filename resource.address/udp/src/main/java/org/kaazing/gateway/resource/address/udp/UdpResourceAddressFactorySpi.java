@@ -16,7 +16,6 @@
 package org.kaazing.gateway.resource.address.udp;
 
 import static java.lang.String.format;
-import static org.kaazing.gateway.resource.address.ResourceAddress.RESOLVER;
 import static org.kaazing.gateway.resource.address.ResourceAddress.TRANSPORT;
 import static org.kaazing.gateway.resource.address.udp.UdpResourceAddress.PADDING_ALIGNMENT;
 import static org.kaazing.gateway.resource.address.udp.UdpResourceAddress.BIND_ADDRESS;
@@ -143,7 +142,7 @@ public class UdpResourceAddressFactorySpi extends ResourceAddressFactorySpi<UdpR
         }
         
         // ensure that DNS name is resolved in transport address
-        NameResolver resolver = options.getOption(RESOLVER);
+        NameResolver resolver = getNameResolver(options);
         assert (resolver != null);
         List<UdpResourceAddress> udpAddresses = new LinkedList<>();
         try {
@@ -43,6 +43,7 @@ public class WsResourceAddress extends ResourceAddress {
     public static final ResourceOption<Long> INACTIVITY_TIMEOUT = new WsInactivityTimeoutOption();
     public static final ResourceOption<String[]> SUPPORTED_PROTOCOLS = new WsSupportedProtocolsOption();
     public static final ResourceOption<String[]> REQUIRED_PROTOCOLS = new WsRequiredProtocolsOption();
+    public static final ResourceOption<Boolean> COMPRESSION_ENABLED = new WsCompressionEnabledOption();
 
     private Boolean codecRequired;
     private Boolean lightweight;
@@ -50,6 +51,7 @@ public class WsResourceAddress extends ResourceAddress {
     private long inactivityTimeout = INACTIVITY_TIMEOUT.defaultValue();
     private String[] supportedProtocols;
     private String[] requiredProtocols = REQUIRED_PROTOCOLS.defaultValue();
+    private boolean compressionEnabled = COMPRESSION_ENABLED.defaultValue();
 
     WsResourceAddress(ResourceAddressFactorySpi factory, String original, URI resource) {
         super(factory, original, resource);
@@ -73,6 +75,8 @@ public class WsResourceAddress extends ResourceAddress {
                     return (V) supportedProtocols;
                 case REQUIRED_PROTOCOLS:
                     return (V) requiredProtocols;
+                case COMPRESSION_ENABLED:
+                    return (V) Boolean.valueOf(compressionEnabled);
             }
         }
         
@@ -103,6 +107,9 @@ public class WsResourceAddress extends ResourceAddress {
                 case REQUIRED_PROTOCOLS:
                     requiredProtocols = (String[]) value;
                     return;
+                case COMPRESSION_ENABLED:
+                    compressionEnabled = (Boolean) value;
+                    return;
             }
         }
 
@@ -113,7 +120,7 @@ public class WsResourceAddress extends ResourceAddress {
 
         protected enum Kind { CODEC_REQUIRED, LIGHTWEIGHT, MAX_MESSAGE_SIZE,
                                      INACTIVITY_TIMEOUT, SUPPORTED_PROTOCOLS,
-                                     REQUIRED_PROTOCOLS }
+                                     REQUIRED_PROTOCOLS, COMPRESSION_ENABLED }
         
         private static final Map<String, ResourceOption<?>> OPTION_NAMES = new HashMap<>();
 
@@ -165,4 +172,10 @@ public class WsResourceAddress extends ResourceAddress {
         }
     }
 
+    private static final class WsCompressionEnabledOption extends WsResourceOption<Boolean> {
+        private WsCompressionEnabledOption() {
+            super(Kind.COMPRESSION_ENABLED, "compressionEnabled", Boolean.FALSE);
+        }
+    }
+
 }
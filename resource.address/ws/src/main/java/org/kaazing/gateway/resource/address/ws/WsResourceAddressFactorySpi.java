@@ -20,6 +20,7 @@ import static org.kaazing.gateway.resource.address.ResourceAddress.ALTERNATE;
 import static org.kaazing.gateway.resource.address.ResourceAddress.BIND_ALTERNATE;
 import static org.kaazing.gateway.resource.address.ResourceFactories.changeSchemeOnly;
 import static org.kaazing.gateway.resource.address.ws.WsResourceAddress.CODEC_REQUIRED;
+import static org.kaazing.gateway.resource.address.ws.WsResourceAddress.COMPRESSION_ENABLED;
 import static org.kaazing.gateway.resource.address.ws.WsResourceAddress.INACTIVITY_TIMEOUT;
 import static org.kaazing.gateway.resource.address.ws.WsResourceAddress.LIGHTWEIGHT;
 import static org.kaazing.gateway.resource.address.ws.WsResourceAddress.MAX_MESSAGE_SIZE;
@@ -115,6 +116,11 @@ public class WsResourceAddressFactorySpi extends ResourceAddressFactorySpi<WsRes
         if (requiredProtocols != null) {
             options.setOption(REQUIRED_PROTOCOLS, requiredProtocols);
         }
+
+        Boolean compressionEnabled = (Boolean) optionsByName.remove(COMPRESSION_ENABLED.name());
+        if (compressionEnabled != null) {
+            options.setOption(COMPRESSION_ENABLED, compressionEnabled);
+        }
     }
 
     @Override
@@ -212,5 +218,6 @@ public class WsResourceAddressFactorySpi extends ResourceAddressFactorySpi<WsRes
         address.setOption0(INACTIVITY_TIMEOUT, options.getOption(INACTIVITY_TIMEOUT));
         address.setOption0(SUPPORTED_PROTOCOLS, options.getOption(SUPPORTED_PROTOCOLS));
         address.setOption0(REQUIRED_PROTOCOLS, options.getOption(REQUIRED_PROTOCOLS));
+        address.setOption0(COMPRESSION_ENABLED, options.getOption(COMPRESSION_ENABLED));
     }
 }
@@ -55,6 +55,9 @@ public class DefaultLoginContextFactory implements LoginContextFactory {
     protected final String name;
     protected final Configuration configuration;
 
+    private final LoginStatistics loginStatistics = new LoginStatistics();
+    private volatile LoginContextCache loginCache;
+
 
     public DefaultLoginContextFactory(String name,
                                       Configuration configuration) {
@@ -70,6 +73,21 @@ public class DefaultLoginContextFactory implements LoginContextFactory {
         return configuration;
     }
 
+    public final LoginStatistics getLoginStatistics() {
+        return loginStatistics;
+    }
+
+    /**
+     * @return the cache of successful logins for this realm, or <code>null</code> if logins are not cached
+     */
+    public final LoginContextCache getLoginCache() {
+        return loginCache;
+    }
+
+    public final void setLoginCache(LoginContextCache loginCache) {
+        this.loginCache = loginCache;
+    }
+
     private DispatchCallbackHandler createDefaultCallbackHandler(final LoginResult loginResult,
                                                                  TypedCallbackHandlerMap additionalCallbacks) {
         DispatchCallbackHandler handler = new DispatchCallbackHandler();
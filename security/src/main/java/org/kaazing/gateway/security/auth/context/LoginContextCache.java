@@ -0,0 +1,296 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.security.auth.context;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.security.auth.login.AppConfigurationEntry;
+import javax.security.auth.login.Configuration;
+import javax.security.auth.login.LoginException;
+
+import org.kaazing.gateway.security.auth.DefaultLoginResult;
+import org.kaazing.gateway.server.spi.security.AuthenticationToken;
+import org.kaazing.gateway.server.spi.security.LoginResult;
+
+/**
+ * Caches successful logins of a realm so that clients presenting the same authentication token again (for example
+ * a reconnect storm of token-authenticated clients) do not have to run the login module chain every time.
+ * <p/>
+ * Entries are keyed by a digest of the authentication token and the remote host, so raw tokens are never retained
+ * as keys. Entries expire after the configured time to live, or earlier if the login result carries a shorter session
+ * timeout, and the least recently used entry is evicted once the maximum size is reached.
+ * <p/>
+ * Each caller is handed its own {@link ResultAwareLoginContext} sharing the cached subject and login result. Logging
+ * out of one of these only releases that caller's share; the underlying login context is logged out once its entry
+ * has been invalidated, expired or evicted and every share has been released.
+ */
+public class LoginContextCache {
+
+    private static final Configuration EMPTY_CONFIGURATION = new Configuration() {
+        @Override
+        public AppConfigurationEntry[] getAppConfigurationEntry(String name) {
+            return new AppConfigurationEntry[0];
+        }
+    };
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final long timeToLive;
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param timeToLive     how long a successful login is reused, in milliseconds
+     * @param maximumEntries maximum number of logins cached before the least recently used is evicted
+     */
+    public LoginContextCache(long timeToLive, final int maximumEntries) {
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("timeToLive must be positive");
+        }
+        if (maximumEntries <= 0) {
+            throw new IllegalArgumentException("maximumEntries must be positive");
+        }
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maximumEntries) {
+                    evictions.incrementAndGet();
+                    eldest.getValue().release();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a login context sharing the cached login for the given key, or <code>null</code> if there is no
+     * unexpired login cached for it.
+     */
+    public ResultAwareLoginContext get(String key) {
+        Entry entry;
+        Entry expiredEntry = null;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.currentTimeMillis() <= 0) {
+                entries.remove(key);
+                expiredEntry = entry;
+                entry = null;
+            }
+            if (entry != null) {
+                entry.retain();
+            }
+        }
+
+        if (expiredEntry != null) {
+            expiredEntry.release();
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return newSharedLoginContext(entry);
+    }
+
+    /**
+     * Caches a successful login for the given key.
+     *
+     * @return the login context the caller should use in place of <code>loginContext</code>, which is
+     *         <code>loginContext</code> itself if the login cannot be shared
+     */
+    public ResultAwareLoginContext put(String key, ResultAwareLoginContext loginContext) {
+        DefaultLoginResult loginResult = loginContext.getLoginResult();
+        if (loginResult == null || loginResult.getType() != LoginResult.Type.SUCCESS ||
+                loginResult.hasLoginAuthorizationAttachment() || loginContext.getSubject() == null) {
+            // challenges and per-login attachments such as session cookies must not be replayed to other clients
+            return loginContext;
+        }
+
+        long expiresIn = timeToLive;
+        Long sessionTimeout = loginResult.getSessionTimeout();
+        if (sessionTimeout != null && sessionTimeout > 0) {
+            expiresIn = Math.min(expiresIn, SECONDS.toMillis(sessionTimeout));
+        }
+
+        // one share for the cache itself, one for the caller
+        Entry entry = new Entry(loginContext, System.currentTimeMillis() + expiresIn);
+        entry.retain();
+
+        Entry oldEntry;
+        synchronized (this) {
+            oldEntry = entries.put(key, entry);
+        }
+        if (oldEntry != null) {
+            oldEntry.release();
+        }
+
+        return newSharedLoginContext(entry);
+    }
+
+    /**
+     * Removes the cached login for the given key, if any, so the next login for it runs the login module chain.
+     */
+    public void invalidate(String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(key);
+        }
+        if (entry != null) {
+            entry.release();
+        }
+    }
+
+    public void clear() {
+        synchronized (this) {
+            for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext();) {
+                iterator.next().release();
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Computes the cache key of a login using the given authentication token from the given remote host.
+     *
+     * @param authToken  the authentication token presented by the client
+     * @param remoteHost the client host made available to login modules, or <code>null</code> if none
+     */
+    public static String newKey(AuthenticationToken authToken, String remoteHost) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        update(digest, authToken.getScheme());
+        for (int i = 0; i < authToken.size(); i++) {
+            update(digest, authToken.get(i));
+        }
+        update(digest, remoteHost);
+
+        byte[] hash = digest.digest();
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0x0f];
+            hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0x0f];
+        }
+        return new String(hex);
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        // length prefix keeps adjacent components from being ambiguous
+        if (value == null) {
+            digest.update(new byte[] { -1, -1, -1, -1 });
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        int length = bytes.length;
+        digest.update(new byte[] { (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length });
+        digest.update(bytes);
+    }
+
+    private static ResultAwareLoginContext newSharedLoginContext(Entry entry) {
+        try {
+            return new SharedLoginContext(entry);
+        } catch (LoginException e) {
+            entry.release();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final ResultAwareLoginContext loginContext;
+        private final long expiresAt;
+        private final AtomicInteger shares = new AtomicInteger(1);
+
+        Entry(ResultAwareLoginContext loginContext, long expiresAt) {
+            this.loginContext = loginContext;
+            this.expiresAt = expiresAt;
+        }
+
+        void retain() {
+            shares.incrementAndGet();
+        }
+
+        void release() {
+            if (shares.decrementAndGet() == 0) {
+                try {
+                    loginContext.logout();
+                } catch (LoginException e) {
+                    // the login modules have nothing left to clean up for this login
+                }
+            }
+        }
+    }
+
+    private static final class SharedLoginContext extends ResultAwareLoginContext {
+        private final Entry entry;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        SharedLoginContext(Entry entry) throws LoginException {
+            super("shared", entry.loginContext.getSubject(), null, EMPTY_CONFIGURATION, entry.loginContext.getLoginResult());
+            this.entry = entry;
+        }
+
+        @Override
+        public void login() throws LoginException {
+            throw new LoginException("Cached login context cannot login again");
+        }
+
+        @Override
+        public void logout() throws LoginException {
+            if (released.compareAndSet(false, true)) {
+                entry.release();
+            }
+        }
+    }
+}
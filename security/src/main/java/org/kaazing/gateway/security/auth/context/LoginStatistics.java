@@ -0,0 +1,111 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.security.auth.context;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the logins of a realm that are run on the login executor: how many are waiting for a thread,
+ * how long they waited, and how long the login module chain took once they ran.
+ */
+public class LoginStatistics {
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong totalQueueTime = new AtomicLong();
+    private final AtomicLong totalLoginTime = new AtomicLong();
+    private final AtomicLong maximumLoginTime = new AtomicLong();
+
+    /**
+     * Records a login submitted to the login executor.
+     */
+    public void loginQueued() {
+        queued.incrementAndGet();
+    }
+
+    /**
+     * Records a login the login executor refused to run.
+     */
+    public void loginRejected() {
+        queued.decrementAndGet();
+        rejected.incrementAndGet();
+    }
+
+    /**
+     * Records a queued login starting to run.
+     *
+     * @param queueTime time spent waiting for a login thread, in nanoseconds
+     */
+    public void loginStarted(long queueTime) {
+        queued.decrementAndGet();
+        started.incrementAndGet();
+        totalQueueTime.addAndGet(queueTime);
+    }
+
+    /**
+     * Records a login having run.
+     *
+     * @param loginTime time spent running the login, in nanoseconds
+     */
+    public void loginCompleted(long loginTime) {
+        completed.incrementAndGet();
+        totalLoginTime.addAndGet(loginTime);
+
+        long maximum;
+        do {
+            maximum = maximumLoginTime.get();
+        } while (loginTime > maximum && !maximumLoginTime.compareAndSet(maximum, loginTime));
+    }
+
+    public long getQueueDepth() {
+        return queued.get();
+    }
+
+    public long getRejectedLogins() {
+        return rejected.get();
+    }
+
+    public long getCompletedLogins() {
+        return completed.get();
+    }
+
+    /**
+     * @return the average time logins waited for a login thread, in milliseconds
+     */
+    public double getAverageQueueTime() {
+        long count = started.get();
+        return count == 0 ? 0 : (double) NANOSECONDS.toMicros(totalQueueTime.get()) / count / 1000;
+    }
+
+    /**
+     * @return the average time logins took to run, in milliseconds
+     */
+    public double getAverageLoginTime() {
+        long count = completed.get();
+        return count == 0 ? 0 : (double) NANOSECONDS.toMicros(totalLoginTime.get()) / count / 1000;
+    }
+
+    /**
+     * @return the longest time a login took to run, in milliseconds
+     */
+    public double getMaximumLoginTime() {
+        return (double) NANOSECONDS.toMicros(maximumLoginTime.get()) / 1000;
+    }
+}
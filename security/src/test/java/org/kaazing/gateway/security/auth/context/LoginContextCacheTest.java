@@ -0,0 +1,152 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.security.auth.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import javax.security.auth.Subject;
+import javax.security.auth.login.AppConfigurationEntry;
+import javax.security.auth.login.Configuration;
+import javax.security.auth.login.LoginException;
+
+import org.junit.Test;
+import org.kaazing.gateway.security.auth.DefaultLoginResult;
+import org.kaazing.gateway.security.auth.token.DefaultAuthenticationToken;
+
+public class LoginContextCacheTest {
+
+    private static final Configuration CONFIGURATION = new Configuration() {
+        @Override
+        public AppConfigurationEntry[] getAppConfigurationEntry(String name) {
+            return new AppConfigurationEntry[0];
+        }
+    };
+
+    @Test
+    public void shouldShareCachedLogin() throws Exception {
+        LoginContextCache cache = new LoginContextCache(60000L, 10);
+        CountingLoginContext loginContext = new CountingLoginContext(new DefaultLoginResult());
+
+        ResultAwareLoginContext first = cache.put("key", loginContext);
+        ResultAwareLoginContext second = cache.get("key");
+
+        assertNotNull(second);
+        assertSame(loginContext.getSubject(), first.getSubject());
+        assertSame(loginContext.getSubject(), second.getSubject());
+        assertSame(loginContext.getLoginResult(), second.getLoginResult());
+        assertEquals(1, cache.getHits());
+        assertNull(cache.get("other"));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void shouldLogoutOnceWhenInvalidatedAndReleased() throws Exception {
+        LoginContextCache cache = new LoginContextCache(60000L, 10);
+        CountingLoginContext loginContext = new CountingLoginContext(new DefaultLoginResult());
+
+        ResultAwareLoginContext first = cache.put("key", loginContext);
+        ResultAwareLoginContext second = cache.get("key");
+
+        first.logout();
+        first.logout();
+        assertEquals(0, loginContext.logouts);
+
+        cache.invalidate("key");
+        assertNull(cache.get("key"));
+        assertEquals(0, loginContext.logouts);
+
+        second.logout();
+        assertEquals(1, loginContext.logouts);
+    }
+
+    @Test
+    public void shouldExpireEntries() throws Exception {
+        LoginContextCache cache = new LoginContextCache(1L, 10);
+        CountingLoginContext loginContext = new CountingLoginContext(new DefaultLoginResult());
+
+        cache.put("key", loginContext).logout();
+        Thread.sleep(10);
+
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+        assertEquals(1, loginContext.logouts);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() throws Exception {
+        LoginContextCache cache = new LoginContextCache(60000L, 2);
+        CountingLoginContext loginContext1 = new CountingLoginContext(new DefaultLoginResult());
+        CountingLoginContext loginContext2 = new CountingLoginContext(new DefaultLoginResult());
+        CountingLoginContext loginContext3 = new CountingLoginContext(new DefaultLoginResult());
+
+        cache.put("key1", loginContext1).logout();
+        cache.put("key2", loginContext2).logout();
+        cache.get("key1").logout();
+        cache.put("key3", loginContext3).logout();
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get("key2"));
+        assertEquals(1, loginContext2.logouts);
+        assertNotNull(cache.get("key1"));
+        assertNotNull(cache.get("key3"));
+    }
+
+    @Test
+    public void shouldNotCacheChallengesOrAttachments() throws Exception {
+        LoginContextCache cache = new LoginContextCache(60000L, 10);
+
+        DefaultLoginResult challenge = new DefaultLoginResult();
+        challenge.challenge("data");
+        CountingLoginContext challenged = new CountingLoginContext(challenge);
+        assertSame(challenged, cache.put("key1", challenged));
+
+        DefaultLoginResult attachment = new DefaultLoginResult();
+        attachment.setAuthorizationAttachment("cookie");
+        CountingLoginContext attached = new CountingLoginContext(attachment);
+        assertSame(attached, cache.put("key2", attached));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldKeyByTokenAndRemoteHost() throws Exception {
+        String key = LoginContextCache.newKey(new DefaultAuthenticationToken("Token", "abc"), "10.0.0.1");
+
+        assertEquals(key, LoginContextCache.newKey(new DefaultAuthenticationToken("Token", "abc"), "10.0.0.1"));
+        assertNotEquals(key, LoginContextCache.newKey(new DefaultAuthenticationToken("Token", "abd"), "10.0.0.1"));
+        assertNotEquals(key, LoginContextCache.newKey(new DefaultAuthenticationToken("Basic", "abc"), "10.0.0.1"));
+        assertNotEquals(key, LoginContextCache.newKey(new DefaultAuthenticationToken("Token", "abc"), "10.0.0.2"));
+        assertNotEquals(key, LoginContextCache.newKey(new DefaultAuthenticationToken("Token", "abc"), null));
+    }
+
+    private static final class CountingLoginContext extends ResultAwareLoginContext {
+        int logouts;
+
+        CountingLoginContext(DefaultLoginResult loginResult) throws LoginException {
+            super("test", new Subject(), null, CONFIGURATION, loginResult);
+        }
+
+        @Override
+        public void logout() throws LoginException {
+            logouts++;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.server.context.resolve;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.kaazing.gateway.server.context.resolve.DefaultServiceContext.BALANCEE_LOAD_MAP_NAME;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import org.kaazing.gateway.service.collections.CollectionsFactory;
+import org.kaazing.gateway.util.GL;
+
+/**
+ * Periodically publishes the session count of a balanced service into the cluster, keyed by each of the
+ * service accept URIs (the balancee URIs), so that balancers can pick the least loaded balancee.
+ * The count is only written to the cluster when it has changed since the last publication.
+ */
+final class BalanceeLoadPublisher implements Runnable {
+
+    private final Collection<String> accepts;
+    private final Map<Long, ?> activeSessions;
+    private final long intervalMillis;
+
+    private Map<String, Integer> loadMap;
+    private ScheduledFuture<?> future;
+    private int publishedSessionCount = -1;
+
+    BalanceeLoadPublisher(Collection<String> accepts, Map<Long, ?> activeSessions, long intervalMillis) {
+        this.accepts = new ArrayList<>(accepts);
+        this.activeSessions = activeSessions;
+        this.intervalMillis = intervalMillis;
+    }
+
+    synchronized void start(CollectionsFactory factory, ScheduledExecutorService scheduler) {
+        if (future == null && intervalMillis > 0) {
+            loadMap = factory.getMap(BALANCEE_LOAD_MAP_NAME);
+            publishedSessionCount = -1;
+            run();
+            future = scheduler.scheduleWithFixedDelay(this, intervalMillis, intervalMillis, MILLISECONDS);
+        }
+    }
+
+    synchronized void stop() {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+            for (String accept : accepts) {
+                loadMap.remove(accept);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void run() {
+        int sessionCount = activeSessions.size();
+        if (sessionCount != publishedSessionCount) {
+            try {
+                for (String accept : accepts) {
+                    loadMap.put(accept, sessionCount);
+                }
+                publishedSessionCount = sessionCount;
+            }
+            catch (RuntimeException e) {
+                // the cluster may be shutting down, try again next time
+                GL.debug(GL.CLUSTER_LOGGER_NAME, "Unable to publish balancee session count: {}", e);
+            }
+        }
+    }
+}
@@ -163,6 +163,13 @@ public class DefaultAcceptOptionsContext extends DefaultOptionsContext implement
         result.put("ws[ws/rfc6455].ws[ws/rfc6455].maxMessageSize", wsMaxMessageSize);
         result.put("ws[ws/draft-7x].ws[ws/draft-7x].maxMessageSize", wsMaxMessageSize);
 
+        String wsCompressionStr = optionsCopy.remove("ws.compression");
+        if (wsCompressionStr != null) {
+            boolean wsCompressionEnabled = isWsCompressionEnabled(wsCompressionStr);
+            result.put("ws.compressionEnabled", wsCompressionEnabled);
+            result.put("ws[ws/rfc6455].ws[ws/rfc6455].compressionEnabled", wsCompressionEnabled);
+        }
+
         int httpKeepaliveTimeout = getHttpKeepaliveTimeout(httpKeepaliveTimeoutStr);
 
         result.put("http[http/1.1].keepAliveTimeout", httpKeepaliveTimeout);
@@ -16,6 +16,7 @@
 package org.kaazing.gateway.server.context.resolve;
 
 import static com.hazelcast.core.LifecycleEvent.LifecycleState.SHUTTING_DOWN;
+import static org.kaazing.gateway.server.context.resolve.DefaultServiceContext.BALANCEE_LOAD_MAP_NAME;
 import static org.kaazing.gateway.server.context.resolve.DefaultServiceContext.BALANCER_MAP_NAME;
 import static org.kaazing.gateway.server.context.resolve.DefaultServiceContext.MEMBERID_BALANCER_MAP_NAME;
 
@@ -748,6 +749,12 @@ public class DefaultClusterContext implements ClusterContext, LogListener {
         Map<String, List<String>> memberBalancedUrisMap = memberIdBalancerUriMap.remove(removedMember);
         if (memberBalancedUrisMap != null) {
             GL.debug(GL.CLUSTER_LOGGER_NAME, "Cleaning up balancer cluster state for member {}", removedMember);
+            Map<String, Integer> balanceeLoadMap = getCollectionsFactory().getMap(BALANCEE_LOAD_MAP_NAME);
+            for (List<String> memberBalancedUris : memberBalancedUrisMap.values()) {
+                for (String memberBalancedUri : memberBalancedUris) {
+                    balanceeLoadMap.remove(memberBalancedUri);
+                }
+            }
             try {
                 for (String key : memberBalancedUrisMap.keySet()) {
                     GL.debug(GL.CLUSTER_LOGGER_NAME, "URI Key: {}", key);
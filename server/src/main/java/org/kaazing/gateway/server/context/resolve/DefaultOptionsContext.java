@@ -151,6 +151,10 @@ class DefaultOptionsContext {
         return serverHeaderEnabled == null || !serverHeaderEnabled.equalsIgnoreCase("disabled");
     }
 
+    static boolean isWsCompressionEnabled(String wsCompressionEnabled) {
+        return wsCompressionEnabled != null && wsCompressionEnabled.trim().equalsIgnoreCase("enabled");
+    }
+
     static String[] getSslProtocols(String sslProtocolsValue) {
         String[] sslProtocols = null;
         if (sslProtocolsValue != null) {
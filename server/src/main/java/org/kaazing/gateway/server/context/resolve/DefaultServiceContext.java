@@ -17,6 +17,7 @@ package org.kaazing.gateway.server.context.resolve;
 
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.kaazing.gateway.resource.address.ResourceAddress.CONNECT_REQUIRES_INIT;
 import static org.kaazing.gateway.resource.address.ResourceAddress.TRANSPORT;
 import static org.kaazing.gateway.resource.address.uri.URIUtils.buildURIAsString;
@@ -27,6 +28,8 @@ import static org.kaazing.gateway.resource.address.uri.URIUtils.getQuery;
 import static org.kaazing.gateway.resource.address.uri.URIUtils.getScheme;
 import static org.kaazing.gateway.resource.address.uri.URIUtils.modifyURIScheme;
 import static org.kaazing.gateway.resource.address.uri.URIUtils.resolve;
+import static org.kaazing.gateway.util.InternalSystemProperty.BALANCEE_LOAD_PUBLISH_INTERVAL;
+import static org.kaazing.gateway.util.Utils.parseTimeInterval;
 
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
@@ -104,6 +107,7 @@ public class DefaultServiceContext implements ServiceContext {
 
     public static final String BALANCER_MAP_NAME = "balancerMap";
     public static final String MEMBERID_BALANCER_MAP_NAME = "memberIdBalancerMap";
+    public static final String BALANCEE_LOAD_MAP_NAME = "balanceeLoadMap";
 
     private static final Charset UTF_8 = Charset.forName("UTF-8");
     private static final String[] EMPTY_ARRAY = new String[]{};
@@ -186,6 +190,7 @@ public class DefaultServiceContext implements ServiceContext {
     private MonitoringEntityFactory monitoringFactory;
     private final RealmsContext realmsContext;
     private Properties configuration;
+    private BalanceeLoadPublisher balanceeLoadPublisher;
 
     @Deprecated
     // Perhaps can be removed, (check management)
@@ -619,6 +624,16 @@ public class DefaultServiceContext implements ServiceContext {
                 }
 
                 memberIdBalancerUriMap.put(localMember, memberBalanceUriMap);
+
+                if (schedulerProvider != null) {
+                    if (balanceeLoadPublisher == null) {
+                        Properties configuration = (this.configuration != null) ? this.configuration : new Properties();
+                        long intervalMillis = parseTimeInterval(BALANCEE_LOAD_PUBLISH_INTERVAL.getProperty(configuration),
+                                MILLISECONDS);
+                        balanceeLoadPublisher = new BalanceeLoadPublisher(accepts, activeSessions, intervalMillis);
+                    }
+                    balanceeLoadPublisher.start(factory, schedulerProvider.getScheduler("balanceeLoad", false));
+                }
             }
         }
         GL.debug(GL.CLUSTER_LOGGER_NAME, "Exit Bind");
@@ -919,6 +934,10 @@ public class DefaultServiceContext implements ServiceContext {
         if (balances != null && balances.size() > 0) {
             CollectionsFactory factory = clusterContext.getCollectionsFactory();
             if (factory != null) {
+                if (balanceeLoadPublisher != null) {
+                    balanceeLoadPublisher.stop();
+                }
+
                 Map<MemberId, Map<String, List<String>>> memberIdBalancerUriMap = factory
                         .getMap(MEMBERID_BALANCER_MAP_NAME);
                 if (memberIdBalancerUriMap == null) {
@@ -46,6 +46,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -55,14 +56,20 @@ import javax.security.auth.login.AppConfigurationEntry;
 import javax.security.auth.login.AppConfigurationEntry.LoginModuleControlFlag;
 import javax.security.auth.login.Configuration;
 
+import org.kaazing.gateway.resource.address.CachingNameResolver;
+import org.kaazing.gateway.resource.address.NameResolver;
+import org.kaazing.gateway.resource.address.ResourceAddress;
 import org.kaazing.gateway.resource.address.ResourceAddressFactory;
 import org.kaazing.gateway.security.AuthenticationContext;
 import org.kaazing.gateway.security.CrossSiteConstraintContext;
+import org.kaazing.gateway.security.LoginContextFactory;
 import org.kaazing.gateway.security.RealmContext;
 import org.kaazing.gateway.security.SecurityContext;
 import org.kaazing.gateway.security.auth.BasicLoginModule;
 import org.kaazing.gateway.security.auth.NegotiateLoginModule;
 import org.kaazing.gateway.security.auth.TimeoutLoginModule;
+import org.kaazing.gateway.security.auth.context.DefaultLoginContextFactory;
+import org.kaazing.gateway.security.auth.context.LoginContextCache;
 import org.kaazing.gateway.server.ConfigurationObserver;
 import org.kaazing.gateway.server.Gateway;
 import org.kaazing.gateway.server.Launcher;
@@ -243,6 +250,9 @@ public class GatewayContextResolver {
         ServiceRegistry servicesByURI = new ServiceRegistry();
         Map<String, Object> dependencyContexts = resolveDependencyContext();
         ResourceAddressFactory resourceAddressFactory = resolveResourceAddressFactories();
+        NameResolver nameResolver = resolveNameResolver(configuration, schedulerProvider);
+        resourceAddressFactory.setNameResolver(nameResolver);
+        Executor loginExecutor = resolveLoginExecutor(configuration, schedulerProvider);
         TransportFactory transportFactory = TransportFactory.newTransportFactory((Map) configuration);
         ServiceFactory serviceFactory = ServiceFactory.newServiceFactory();
         Collection<ServiceContext> services =
@@ -283,6 +293,8 @@ public class GatewayContextResolver {
         injectables.put("mbeanServer", jmxMBeanServer);
         injectables.put("bridgeServiceFactory", bridgeServiceFactory);
         injectables.put("resourceAddressFactory", resourceAddressFactory);
+        injectables.put("nameResolver", nameResolver);
+        injectables.put("loginExecutor", loginExecutor);
         injectables.put("transportFactory", transportFactory);
         injectables.put("expiringState", expiringState);
         gatewayContext.getInjectables().putAll(injectables);
@@ -303,6 +315,26 @@ public class GatewayContextResolver {
         return ResourceAddressFactory.newResourceAddressFactory();
     }
 
+    private NameResolver resolveNameResolver(Properties configuration, SchedulerProvider schedulerProvider) {
+        NameResolver defaultResolver = ResourceAddress.RESOLVER.defaultValue();
+        long ttl = Utils.parseTimeInterval(InternalSystemProperty.DNS_CACHE_TTL.getProperty(configuration),
+                TimeUnit.MILLISECONDS, 0);
+        if (ttl <= 0) {
+            // caching disabled, resolve on every resource address as before
+            return defaultResolver;
+        }
+        long negativeTtl = Utils.parseTimeInterval(InternalSystemProperty.DNS_NEGATIVE_CACHE_TTL.getProperty(configuration),
+                TimeUnit.MILLISECONDS, 0);
+        return new CachingNameResolver(defaultResolver, ttl, negativeTtl,
+                schedulerProvider.getScheduler("dns_resolver", false));
+    }
+
+    private Executor resolveLoginExecutor(Properties configuration, SchedulerProvider schedulerProvider) {
+        int threads = InternalSystemProperty.LOGIN_THREADS.getIntProperty(configuration);
+        int queueCapacity = InternalSystemProperty.LOGIN_QUEUE_CAPACITY.getIntProperty(configuration);
+        return schedulerProvider.getExecutor("loginmodule", threads, queueCapacity);
+    }
+
     private Map<String, DefaultSchemeContext> resolveSchemes(Collection<? extends ServiceContext> serviceContexts,
                                                              Collection<? extends SchemeConfig> schemeConfigs,
                                                              Properties configuration,
@@ -1030,14 +1062,26 @@ public class GatewayContextResolver {
                 updateLoginModuleConfigurationEntries(securityConfig, authType, authenticationContext, configurationEntries,
                         configuration);
 
-                realmContexts.put(name, new DefaultRealmContext(name, description, userPrincipalClasses,
-                        new SingletonConfiguration(name, configurationEntries), authenticationContext));
+                DefaultRealmContext realmContext = new DefaultRealmContext(name, description, userPrincipalClasses,
+                        new SingletonConfiguration(name, configurationEntries), authenticationContext);
+                resolveLoginCache(realmContext, configuration);
+                realmContexts.put(name, realmContext);
             }
         }
 
         return new DefaultRealmsContext(Collections.unmodifiableMap(realmContexts));
     }
 
+    private void resolveLoginCache(RealmContext realmContext, Properties configuration) {
+        long ttl = Utils.parseTimeInterval(InternalSystemProperty.LOGIN_CACHE_TTL.getProperty(configuration),
+                TimeUnit.MILLISECONDS, 0);
+        LoginContextFactory loginContextFactory = realmContext.getLoginContextFactory();
+        if (ttl > 0 && loginContextFactory instanceof DefaultLoginContextFactory) {
+            int maximumSize = InternalSystemProperty.LOGIN_CACHE_MAXIMUM_SIZE.getIntProperty(configuration);
+            ((DefaultLoginContextFactory) loginContextFactory).setLoginCache(new LoginContextCache(ttl, maximumSize));
+        }
+    }
+
     private Map<String, Object> resolveOptions(Properties configuration, SecurityContext securityContext,
         ExpiringState expiringState) {
         Map<String, Object> options = new HashMap<>();
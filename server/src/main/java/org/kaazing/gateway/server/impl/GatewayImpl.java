@@ -17,6 +17,9 @@ package org.kaazing.gateway.server.impl;
 
 import static java.lang.String.format;
 import static org.kaazing.gateway.server.impl.ProductInfoReader.getProductInfoInstance;
+import static org.kaazing.gateway.util.InternalSystemProperty.SSL_SESSION_TICKETS;
+import static org.kaazing.gateway.util.InternalSystemProperty.SSL_SESSION_TICKET_KEY_ROTATION;
+import static org.kaazing.gateway.util.Utils.parseTimeInterval;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -26,6 +29,7 @@ import java.net.URL;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import javax.management.MBeanServer;
 
@@ -74,6 +78,10 @@ final class GatewayImpl implements Gateway {
     private static final String DEFAULT_LOG_DIRECTORY = "log/";
     private static final long DEFAULT_LOG_REFRESH_INTERVAL_MILLIS = 60 * 1000;
 
+    // JSSE (JDK 13 and later) properties for stateless session resumption, see configureSessionTickets
+    private static final String JSSE_SESSION_TICKETS = "jdk.tls.server.enableSessionTicketExtension";
+    private static final String JSSE_SESSION_TICKET_KEY_TIMEOUT = "jdk.tls.server.statelessKeyTimeout";
+
     private static final Logger LOGGER = Launcher.getGatewayStartupLogger();
 
     private Properties env;
@@ -175,6 +183,10 @@ final class GatewayImpl implements Gateway {
                     "Kaazing WebSocket Gateway");
         }
 
+        if (SSL_SESSION_TICKETS.getBooleanProperty(configuration)) {
+            configureSessionTickets(configuration);
+        }
+
         String gatewayHomeProperty = configuration.getProperty(GATEWAY_HOME_PROPERTY);
         if (gatewayHomeProperty == null) {
             throw new IllegalArgumentException(GATEWAY_HOME_PROPERTY + " directory was not specified");
@@ -322,6 +334,19 @@ final class GatewayImpl implements Gateway {
         }
     }
 
+    // JSSE owns the session ticket keys and only offers JVM-wide system properties to enable and rotate them. JSSE
+    // reads these once, so they are set here before the gateway creates any SSLContext, and are never overridden
+    // when set explicitly on the command line.
+    private static void configureSessionTickets(Properties configuration) {
+        long keyRotation = parseTimeInterval(SSL_SESSION_TICKET_KEY_ROTATION.getProperty(configuration), TimeUnit.SECONDS);
+        if (System.getProperty(JSSE_SESSION_TICKETS) == null) {
+            System.setProperty(JSSE_SESSION_TICKETS, "true");
+        }
+        if (System.getProperty(JSSE_SESSION_TICKET_KEY_TIMEOUT) == null) {
+            System.setProperty(JSSE_SESSION_TICKET_KEY_TIMEOUT, Long.toString(keyRotation));
+        }
+    }
+
     private void configureLogging(File configDir, Properties configuration) throws Exception {
         // Allow control over whether or not the Gateway logging external to the Gateway so that customers can configure their
         // own logging when embedding the Gateway
@@ -110,6 +110,12 @@ public class AcceptOptionsTest {
         expectSuccess("tls.transport", "tcp://127.0.0.1:80", "tls.transport", null);
     }
 
+    @Test
+    public void testWsCompressionOption() throws Exception {
+        expectSuccess("ws.compression", "enabled", "ws.compressionEnabled", Boolean.TRUE);
+        expectSuccess("ws.compression", "disabled", "ws.compressionEnabled", Boolean.FALSE);
+    }
+
     @Test
     @Ignore("XSD no longer validates accept-options types")
     public void testWsMaximumMessageSizeOption() throws Exception {
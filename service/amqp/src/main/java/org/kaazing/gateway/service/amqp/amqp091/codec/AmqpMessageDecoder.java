@@ -103,7 +103,8 @@ public class AmqpMessageDecoder extends CumulativeProtocolDecoderEx {
     }
     
     AmqpMessageDecoder(IoBufferAllocatorEx<?> allocator, DecoderState initialState) {
-        super(allocator);
+        // large frames spanning many reads are gathered until complete rather than copied on each read
+        super(allocator, Cumulation.COMPOSITE);
 
         this.currentState = initialState;
         
@@ -241,7 +242,8 @@ public class AmqpMessageDecoder extends CumulativeProtocolDecoderEx {
         if (in.remaining() < payloadSize + 1) {
             // The frame is not complete yet. Reset the buffer to the previously
             // marked position and return false so that we called again when 
-            // more data arrives.
+            // the whole frame has arrived.
+            requireRemaining(session, 7 + payloadSize + 1);
             in.reset();
             
             if (logger.isDebugEnabled()) {
@@ -0,0 +1,132 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.service.broadcast;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.util.ConcurrentHashSet;
+import org.kaazing.mina.core.session.IoSessionEx;
+
+/**
+ * The set of broadcast clients, partitioned by the I/O worker thread each client session is aligned to.
+ * This lets a broadcast message be handed once to each I/O worker, which then writes it to its own local
+ * clients, instead of the receiving thread writing to every client across all workers.
+ * Client sessions that are not aligned to an I/O thread are kept in a separate partition whose writes
+ * are executed directly by the thread that received the message.
+ */
+final class BroadcastClients {
+
+    private final ConcurrentMap<Thread, Partition> partitions;
+    private final Partition unaligned;
+
+    BroadcastClients() {
+        this.partitions = new ConcurrentHashMap<>();
+        this.unaligned = new Partition(IoSessionEx.IMMEDIATE_EXECUTOR);
+    }
+
+    void add(IoSession session) {
+        partitionFor(session).clients.add(session);
+    }
+
+    void remove(IoSession session) {
+        if (unaligned.clients.remove(session)) {
+            return;
+        }
+        for (Partition partition : partitions.values()) {
+            if (partition.clients.remove(session)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the non-empty partitions, each of which should be handed a broadcast message exactly once.
+     */
+    List<Partition> partitions() {
+        List<Partition> result = new ArrayList<>(partitions.size() + 1);
+        if (!unaligned.clients.isEmpty()) {
+            result.add(unaligned);
+        }
+        for (Partition partition : partitions.values()) {
+            if (!partition.clients.isEmpty()) {
+                result.add(partition);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an iterator over the clients of all partitions.
+     */
+    Iterator<IoSession> iterator() {
+        List<IoSession> result = new ArrayList<>();
+        result.addAll(unaligned.clients);
+        for (Partition partition : partitions.values()) {
+            result.addAll(partition.clients);
+        }
+        return result.iterator();
+    }
+
+    private Partition partitionFor(IoSession session) {
+        if (!(session instanceof IoSessionEx)) {
+            return unaligned;
+        }
+
+        IoSessionEx sessionEx = (IoSessionEx) session;
+        Thread ioThread = sessionEx.getIoThread();
+        if (!sessionEx.isIoAligned() || ioThread == IoSessionEx.NO_THREAD || ioThread == IoSessionEx.CURRENT_THREAD) {
+            return unaligned;
+        }
+
+        Partition partition = partitions.get(ioThread);
+        if (partition == null) {
+            Partition newPartition = new Partition(sessionEx.getIoExecutor());
+            partition = partitions.putIfAbsent(ioThread, newPartition);
+            if (partition == null) {
+                partition = newPartition;
+            }
+        }
+        return partition;
+    }
+
+    static final class Partition {
+        private final Executor executor;
+        private final Collection<IoSession> clients;
+        private final Collection<IoSession> readOnlyClients;
+
+        Partition(Executor executor) {
+            this.executor = executor;
+            this.clients = new ConcurrentHashSet<>();
+            this.readOnlyClients = Collections.unmodifiableCollection(clients);
+        }
+
+        Executor getExecutor() {
+            return executor;
+        }
+
+        Collection<IoSession> getClients() {
+            return readOnlyClients;
+        }
+    }
+}
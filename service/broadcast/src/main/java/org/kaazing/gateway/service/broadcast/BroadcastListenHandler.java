@@ -17,12 +17,14 @@ package org.kaazing.gateway.service.broadcast;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.mina.core.buffer.IoBuffer;
 import org.apache.mina.core.service.IoHandlerAdapter;
 import org.apache.mina.core.session.IoSession;
 import org.slf4j.Logger;
 
+import org.kaazing.gateway.service.broadcast.BroadcastClients.Partition;
 import org.kaazing.gateway.transport.BridgeSession;
 import org.kaazing.gateway.transport.LoggingUtils;
 import org.kaazing.gateway.transport.bridge.Message;
@@ -30,13 +32,13 @@ import org.kaazing.gateway.transport.io.filter.IoMessageCodecFilter;
 
 public class BroadcastListenHandler extends IoHandlerAdapter {
 
-    private final Collection<IoSession> clients;
+    private final BroadcastClients clients;
     private final IoMessageCodecFilter codec;
     private final boolean disconnectClientsOnReconnect;
     private final long maximumScheduledWriteBytes;
     private final Logger logger;
 
-	public BroadcastListenHandler(Collection<IoSession> clients, boolean disconnectClientsOnReconnect, long maximumScheduledWriteBytes, Logger logger) {
+	BroadcastListenHandler(BroadcastClients clients, boolean disconnectClientsOnReconnect, long maximumScheduledWriteBytes, Logger logger) {
 		this.clients = clients;
 		this.codec = new IoMessageCodecFilter();
 		this.disconnectClientsOnReconnect = disconnectClientsOnReconnect;
@@ -62,20 +64,23 @@ public class BroadcastListenHandler extends IoHandlerAdapter {
 
     @Override
 	public void messageReceived(IoSession session, Object message) throws Exception {
+        List<Partition> partitions = clients.partitions();
         if (message instanceof IoBuffer) {
 			IoBuffer buf = (IoBuffer) message;
-			for (IoSession client : clients) {
-			    writeOrClose(client, buf);
+			for (Partition partition : partitions) {
+			    // each partition may be written from a different I/O thread, so needs its own buffer position
+			    dispatch(partition, buf.duplicate());
 			}
 			buf.skip(buf.remaining());
 		}
 		else {
 	        if (message instanceof Message) {
+	            // message encoding cache is per thread, so is shared by all clients of a partition
 	            ((Message)message).initCache();
 	        }
 
-			for (IoSession client : clients) {
-			    writeOrClose(client, message);
+			for (Partition partition : partitions) {
+			    dispatch(partition, message);
 			}
 		}
 	}
@@ -85,6 +90,18 @@ public class BroadcastListenHandler extends IoHandlerAdapter {
         LoggingUtils.log(session, logger, cause);
     }
 
+    private void dispatch(Partition partition, final Object message) {
+        final Collection<IoSession> partitionClients = partition.getClients();
+        partition.getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                for (IoSession client : partitionClients) {
+                    writeOrClose(client, message);
+                }
+            }
+        });
+    }
+
     private void writeOrClose(IoSession client, Object message) {
         long scheduledWriteBytes = getScheduledWriteBytes(client);
         if (logger.isDebugEnabled()) {
@@ -18,14 +18,11 @@ package org.kaazing.gateway.service.broadcast;
 import static org.kaazing.gateway.service.broadcast.BroadcastService.OnClientMessage.BROADCAST;
 
 import java.nio.channels.ClosedChannelException;
-import java.util.Collection;
-import java.util.Collections;
 
 import org.apache.mina.core.filterchain.IoFilter;
 import org.apache.mina.core.service.IoHandler;
 import org.apache.mina.core.service.IoHandlerAdapter;
 import org.apache.mina.core.session.IoSession;
-import org.apache.mina.util.ConcurrentHashSet;
 import org.slf4j.Logger;
 import org.kaazing.gateway.service.broadcast.BroadcastService.OnClientMessage;
 import org.kaazing.gateway.transport.LoggingUtils;
@@ -34,7 +31,7 @@ import org.kaazing.gateway.transport.io.filter.IoMessageCodecFilter;
 class BroadcastServiceHandler extends IoHandlerAdapter {
 
     private final IoFilter codec;
-    private final Collection<IoSession> clients;
+    private final BroadcastClients clients;
     private final IoHandler handler;
     private final Logger logger;
     private IoSession connectSession;
@@ -43,8 +40,8 @@ class BroadcastServiceHandler extends IoHandlerAdapter {
     BroadcastServiceHandler(boolean disconnectClientsOnReconnect, long maximumScheduledWriteBytes, OnClientMessage onClientMessage, Logger logger)
             throws Exception {
         this.onClientMessage = onClientMessage;
-        this.clients = new ConcurrentHashSet<>();
-        this.handler = new BroadcastListenHandler(Collections.unmodifiableCollection(clients),
+        this.clients = new BroadcastClients();
+        this.handler = new BroadcastListenHandler(clients,
                 disconnectClientsOnReconnect, maximumScheduledWriteBytes, logger);
         this.codec = new IoMessageCodecFilter();
         this.logger = logger;
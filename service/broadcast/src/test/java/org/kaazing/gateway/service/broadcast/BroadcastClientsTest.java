@@ -0,0 +1,111 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.service.broadcast;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.apache.mina.core.session.IoSession;
+import org.jmock.Expectations;
+import org.jmock.integration.junit4.JUnitRuleMockery;
+import org.junit.Rule;
+import org.junit.Test;
+import org.kaazing.gateway.service.broadcast.BroadcastClients.Partition;
+import org.kaazing.mina.core.session.IoSessionEx;
+
+public class BroadcastClientsTest {
+
+    @Rule
+    public JUnitRuleMockery context = new JUnitRuleMockery();
+
+    @Test
+    public void shouldPartitionClientsByIoThread() {
+        final Thread ioThread1 = new Thread();
+        final Thread ioThread2 = new Thread();
+        final Executor ioExecutor1 = context.mock(Executor.class, "ioExecutor1");
+        final Executor ioExecutor2 = context.mock(Executor.class, "ioExecutor2");
+        final IoSessionEx client1 = alignedSession("client1", ioThread1, ioExecutor1);
+        final IoSessionEx client2 = alignedSession("client2", ioThread1, ioExecutor1);
+        final IoSessionEx client3 = alignedSession("client3", ioThread2, ioExecutor2);
+
+        BroadcastClients clients = new BroadcastClients();
+        clients.add(client1);
+        clients.add(client2);
+        clients.add(client3);
+
+        List<Partition> partitions = clients.partitions();
+        assertEquals(2, partitions.size());
+        Partition partition1 = partitions.get(0).getExecutor() == ioExecutor1 ? partitions.get(0) : partitions.get(1);
+        Partition partition2 = partitions.get(0).getExecutor() == ioExecutor2 ? partitions.get(0) : partitions.get(1);
+        assertSame(ioExecutor1, partition1.getExecutor());
+        assertSame(ioExecutor2, partition2.getExecutor());
+        assertEquals(2, partition1.getClients().size());
+        assertTrue(partition1.getClients().contains(client1));
+        assertTrue(partition1.getClients().contains(client2));
+        assertEquals(1, partition2.getClients().size());
+        assertTrue(partition2.getClients().contains(client3));
+    }
+
+    @Test
+    public void shouldWriteUnalignedClientsImmediately() {
+        final IoSessionEx client = context.mock(IoSessionEx.class);
+        context.checking(new Expectations() {
+            {
+                allowing(client).getIoThread(); will(returnValue(IoSessionEx.NO_THREAD));
+                allowing(client).isIoAligned(); will(returnValue(false));
+            }
+        });
+
+        BroadcastClients clients = new BroadcastClients();
+        clients.add(client);
+
+        List<Partition> partitions = clients.partitions();
+        assertEquals(1, partitions.size());
+        assertSame(IoSessionEx.IMMEDIATE_EXECUTOR, partitions.get(0).getExecutor());
+        assertTrue(partitions.get(0).getClients().contains(client));
+    }
+
+    @Test
+    public void shouldOmitEmptyPartitions() {
+        final Thread ioThread = new Thread();
+        final Executor ioExecutor = context.mock(Executor.class);
+        final IoSession client = alignedSession("client", ioThread, ioExecutor);
+
+        BroadcastClients clients = new BroadcastClients();
+        clients.add(client);
+        clients.remove(client);
+
+        assertTrue(clients.partitions().isEmpty());
+        assertFalse(clients.iterator().hasNext());
+    }
+
+    private IoSessionEx alignedSession(String name, final Thread ioThread, final Executor ioExecutor) {
+        final IoSessionEx session = context.mock(IoSessionEx.class, name);
+        context.checking(new Expectations() {
+            {
+                allowing(session).getIoThread(); will(returnValue(ioThread));
+                allowing(session).getIoExecutor(); will(returnValue(ioExecutor));
+                allowing(session).isIoAligned(); will(returnValue(true));
+            }
+        });
+        return session;
+    }
+}
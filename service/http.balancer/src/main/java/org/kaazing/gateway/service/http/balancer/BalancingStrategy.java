@@ -0,0 +1,124 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.service.http.balancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Strategy used by the balancer to select one of the available balancee URIs, configured by the
+ * "balancing.strategy" service property.
+ */
+enum BalancingStrategy {
+
+    /**
+     * Selects a balancee uniformly at random, ignoring load.
+     */
+    RANDOM("random") {
+        @Override
+        String select(List<String> balanceeURIs, LoadView loads) {
+            return balanceeURIs.get(ThreadLocalRandom.current().nextInt(balanceeURIs.size()));
+        }
+    },
+
+    /**
+     * Selects the balancee with the fewest sessions, breaking ties at random.
+     */
+    LEAST_CONNECTIONS("least-connections") {
+        @Override
+        String select(List<String> balanceeURIs, LoadView loads) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String selected = null;
+            int selectedLoad = Integer.MAX_VALUE;
+            int ties = 0;
+            for (String balanceeURI : balanceeURIs) {
+                int load = loads.getSessionCount(balanceeURI);
+                if (load < selectedLoad) {
+                    selected = balanceeURI;
+                    selectedLoad = load;
+                    ties = 1;
+                }
+                else if (load == selectedLoad && random.nextInt(++ties) == 0) {
+                    // reservoir sampling keeps the choice uniform among equally loaded balancees
+                    selected = balanceeURI;
+                }
+            }
+            return selected;
+        }
+    },
+
+    /**
+     * Selects the less loaded of two balancees chosen at random, which avoids every balancer
+     * herding onto the same least loaded balancee while its published session count is stale.
+     */
+    POWER_OF_TWO_CHOICES("power-of-two-choices") {
+        @Override
+        String select(List<String> balanceeURIs, LoadView loads) {
+            int size = balanceeURIs.size();
+            if (size == 1) {
+                return balanceeURIs.get(0);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            String firstURI = balanceeURIs.get(first);
+            String secondURI = balanceeURIs.get(second);
+            return loads.getSessionCount(secondURI) < loads.getSessionCount(firstURI) ? secondURI : firstURI;
+        }
+    };
+
+    private final String name;
+
+    BalancingStrategy(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Selects one of the given balancee URIs, which must not be empty.
+     */
+    abstract String select(List<String> balanceeURIs, LoadView loads);
+
+    boolean isLoadAware() {
+        return this != RANDOM;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    static BalancingStrategy fromString(String name) {
+        if (name == null) {
+            return RANDOM;
+        }
+        for (BalancingStrategy strategy : values()) {
+            if (strategy.name.equalsIgnoreCase(name.trim())) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unrecognized balancing.strategy: " + name);
+    }
+
+    interface LoadView {
+        /**
+         * Returns the last known session count of the balancee, or 0 if unknown.
+         */
+        int getSessionCount(String balanceeURI);
+    }
+}
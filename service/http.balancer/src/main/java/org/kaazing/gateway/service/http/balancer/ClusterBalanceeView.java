@@ -0,0 +1,137 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.service.http.balancer;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.kaazing.gateway.service.collections.CollectionsFactory;
+import org.kaazing.gateway.service.http.balancer.BalancingStrategy.LoadView;
+import org.kaazing.gateway.util.GL;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+
+/**
+ * Locally cached view of the balancer map and of the session counts published by the balancees, kept up to date
+ * by cluster map entry listeners so that selecting a balancee does not need to read (and lock) the cluster map.
+ */
+final class ClusterBalanceeView implements LoadView {
+
+    private final ConcurrentMap<String, Collection<String>> balancers;
+    private final ConcurrentMap<String, Integer> sessionCounts;
+    private volatile boolean active;
+    private volatile boolean listenersUnsupported;
+
+    ClusterBalanceeView() {
+        this.balancers = new ConcurrentHashMap<>();
+        this.sessionCounts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Starts listening to the cluster maps.
+     *
+     * @return false if the collections factory does not support entry listeners, in which case the view stays inactive
+     */
+    boolean activate(CollectionsFactory factory) {
+        if (active) {
+            return true;
+        }
+        if (listenersUnsupported) {
+            // already found out, don't take the lock and fail again on every request
+            return false;
+        }
+        return activate0(factory);
+    }
+
+    private synchronized boolean activate0(CollectionsFactory factory) {
+        if (!active && !listenersUnsupported) {
+            try {
+                IMap<String, Collection<String>> balancerMap = factory.getMap(HttpBalancerService.BALANCER_MAP_NAME);
+                balancerMap.addEntryListener(new CacheUpdater<>(balancers), true);
+                balancers.putAll(balancerMap);
+
+                IMap<String, Integer> loadMap = factory.getMap(HttpBalancerService.BALANCEE_LOAD_MAP_NAME);
+                loadMap.addEntryListener(new CacheUpdater<>(sessionCounts), true);
+                sessionCounts.putAll(loadMap);
+
+                active = true;
+            }
+            catch (UnsupportedOperationException e) {
+                listenersUnsupported = true;
+                GL.debug(GL.CLUSTER_LOGGER_NAME, "Balancer map listeners not supported, cluster map will be read on each request");
+            }
+        }
+        return active;
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    Collection<String> getBalanceeURIs(String balancerURI) {
+        return balancers.get(balancerURI);
+    }
+
+    @Override
+    public int getSessionCount(String balanceeURI) {
+        Integer sessionCount = sessionCounts.get(balanceeURI);
+        return (sessionCount != null) ? sessionCount : 0;
+    }
+
+    /**
+     * Counts a redirect to the balancee locally, until its next published session count replaces it,
+     * so that this balancer does not keep picking the same balancee between publications.
+     */
+    void balanceeSelected(String balanceeURI) {
+        sessionCounts.computeIfPresent(balanceeURI, (uri, sessionCount) -> sessionCount + 1);
+    }
+
+    private static final class CacheUpdater<V> implements EntryAddedListener<String, V>, EntryUpdatedListener<String, V>,
+            EntryRemovedListener<String, V>, EntryEvictedListener<String, V> {
+
+        private final ConcurrentMap<String, V> cache;
+
+        CacheUpdater(ConcurrentMap<String, V> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<String, V> event) {
+            cache.put(event.getKey(), event.getValue());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<String, V> event) {
+            cache.put(event.getKey(), event.getValue());
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<String, V> event) {
+            cache.remove(event.getKey());
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<String, V> event) {
+            cache.remove(event.getKey());
+        }
+    }
+}
@@ -57,6 +57,9 @@ import org.kaazing.gateway.util.GL;
 public class HttpBalancerService implements Service {
     public static final String BALANCER_MAP_NAME = "balancerMap";
     public static final String MEMBERID_BALANCER_MAP_NAME = "memberIdBalancerMap";
+    public static final String BALANCEE_LOAD_MAP_NAME = "balanceeLoadMap";
+
+    private static final String BALANCING_STRATEGY = "balancing.strategy";
 
     private WsebBalancerServiceHandler wsebHandler;
     private WsnBalancerServiceHandler wsnHandler;
@@ -88,6 +91,7 @@ public class HttpBalancerService implements Service {
         wsebHandler = new WsebBalancerServiceHandler();
         wsebHandler.setAccepts(serviceContext.getAccepts());
         wsebHandler.setClusterContext(clusterContext);
+        wsebHandler.setBalancingStrategy(BalancingStrategy.fromString(serviceContext.getProperties().get(BALANCING_STRATEGY)));
         wsnHandler = new WsnBalancerServiceHandler();
 
         // Register the Gateway's connection capabilities with the handlers so that session counts are tracked
@@ -104,12 +108,11 @@ public class HttpBalancerService implements Service {
                 @Override
                 public void initializeSession(IoSession session, ConnectFuture future) {
                     HttpAcceptSession httpSession = (HttpAcceptSession) session;
-                    List<String> availableBalanceeURIs = wsebHandler.getBalanceeURIs(httpSession.isSecure());
+                    String selectedBalanceeURI = wsebHandler.selectBalanceeURI(httpSession.isSecure());
                     List<String> selectedBalanceeURIs;
-                    if (availableBalanceeURIs.isEmpty()) {
+                    if (selectedBalanceeURI == null) {
                         selectedBalanceeURIs = Collections.emptyList();
                     } else {
-                        String selectedBalanceeURI = availableBalanceeURIs.get((int) (Math.random() * availableBalanceeURIs.size()));
                         selectedBalanceeURIs = new ArrayList<>(1);
                         selectedBalanceeURIs.add(selectedBalanceeURI);
                         GL.debug(GL.CLUSTER_LOGGER_NAME, "HttpBalancerService initializeSession Selected Balancee URI: {}", selectedBalanceeURI);
@@ -39,9 +39,11 @@ import org.kaazing.gateway.util.GL;
 
 
 class WsebBalancerServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
+    private final ClusterBalanceeView balanceeView = new ClusterBalanceeView();
     private Collection<String> accepts;
     private ClusterContext clusterContext;
     private TransportFactory transportFactory;
+    private BalancingStrategy balancingStrategy = BalancingStrategy.RANDOM;
 
     WsebBalancerServiceHandler() {
     }
@@ -66,6 +68,10 @@ class WsebBalancerServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
         this.transportFactory = transportFactory;
     }
 
+    void setBalancingStrategy(BalancingStrategy balancingStrategy) {
+        this.balancingStrategy = balancingStrategy;
+    }
+
     @Override
     protected void doExceptionCaught(HttpAcceptSession session, Throwable cause) throws Exception {
         // trigger sessionClosed to update connection capabilities accordingly
@@ -74,14 +80,13 @@ class WsebBalancerServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
 
     @Override
     protected void doSessionOpened(HttpAcceptSession session) throws Exception {
-        List<String> availableBalanceeURIs = getBalanceeURIs(session.isSecure());
+        String selectedBalanceeURI = selectBalanceeURI(session.isSecure());
 
-        if (availableBalanceeURIs.isEmpty()) {
+        if (selectedBalanceeURI == null) {
             GL.warn(GL.CLUSTER_LOGGER_NAME, "Rejected {} request for URI \"{}\" on session {}: no available balancee URI was found",                        session.getMethod(), session.getRequestURI(), session);
            session.setStatus(HttpStatus.CLIENT_NOT_FOUND);
         } else {
 
-            String selectedBalanceeURI = availableBalanceeURIs.get((int) (Math.random() * availableBalanceeURIs.size()));
             GL.debug(GL.CLUSTER_LOGGER_NAME, "WsebBalancerServiceHandler doSessionOpen Selected Balancee URI: {}", selectedBalanceeURI);
 
             URI requestURI = session.getRequestURI();
@@ -113,6 +118,24 @@ class WsebBalancerServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
         session.close(false);
     }
 
+    /**
+     * Selects one of the available balancee URIs using the configured balancing strategy.
+     *
+     * @return the selected balancee URI, or null if none is available
+     */
+    String selectBalanceeURI(boolean secure) {
+        List<String> availableBalanceeURIs = getBalanceeURIs(secure);
+        if (availableBalanceeURIs.isEmpty()) {
+            return null;
+        }
+
+        String selectedBalanceeURI = balancingStrategy.select(availableBalanceeURIs, balanceeView);
+        if (balancingStrategy.isLoadAware()) {
+            balanceeView.balanceeSelected(selectedBalanceeURI);
+        }
+        return selectedBalanceeURI;
+    }
+
     List<String> getBalanceeURIs(boolean secure) {
         List<String> balanceeURIs = new ArrayList<>();
 
@@ -121,6 +144,18 @@ class WsebBalancerServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
             collectionsFactory = clusterContext.getCollectionsFactory();
         }
 
+        if (accepts != null &&
+            collectionsFactory != null &&
+            balancingStrategy.isLoadAware() &&
+            balanceeView.activate(collectionsFactory)) {
+
+            // Use the locally cached balancer map, avoiding a cluster lock and read for each request
+            for (String balancerAccept : accepts) {
+                addBalanceeURIs(balanceeURIs, balancerAccept, balanceeView.getBalanceeURIs(balancerAccept), secure);
+            }
+            return balanceeURIs;
+        }
+
         if (accepts != null &&
             collectionsFactory != null) {
 
@@ -132,18 +167,7 @@ class WsebBalancerServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
 
                 // For my accept URIs, look up the map to get the balancee URIs for which I am balancing.
                 for (String balancerAccept : accepts) {
-                    Collection<String> balanceesForAccept = balancers.get(balancerAccept);
-                    GL.debug("ha", String.format("Found balancee URIs %s for accept URI %s", balanceesForAccept, balancerAccept));
-
-                    if (balanceesForAccept != null) {
-                        for (String balanceeURI : balanceesForAccept) {
-                            // Pick only clear or secure balancees as appropriate.
-                            Protocol protocol = transportFactory.getProtocol(getScheme(balanceeURI));
-                            if (secure == protocol.isSecure()) {
-                                balanceeURIs.add(balanceeURI);
-                            }
-                        }
-                    }
+                    addBalanceeURIs(balanceeURIs, balancerAccept, balancers.get(balancerAccept), secure);
                 }
             } finally {
                 mapLock.unlock();
@@ -168,6 +192,20 @@ class WsebBalancerServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
         return balanceeURIs;
     }
 
+    private void addBalanceeURIs(List<String> balanceeURIs, String balancerAccept, Collection<String> balanceesForAccept,
+                                 boolean secure) {
+        GL.debug("ha", String.format("Found balancee URIs %s for accept URI %s", balanceesForAccept, balancerAccept));
+
+        if (balanceesForAccept != null) {
+            for (String balanceeURI : balanceesForAccept) {
+                // Pick only clear or secure balancees as appropriate.
+                Protocol protocol = transportFactory.getProtocol(getScheme(balanceeURI));
+                if (secure == protocol.isSecure()) {
+                    balanceeURIs.add(balanceeURI);
+                }
+            }
+        }
+    }
 
     public Lock getLock(String name) {
         return clusterContext.getLock(name);
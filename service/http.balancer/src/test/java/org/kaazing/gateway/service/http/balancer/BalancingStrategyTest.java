@@ -0,0 +1,81 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.service.http.balancer;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.kaazing.gateway.service.http.balancer.BalancingStrategy.LoadView;
+
+public class BalancingStrategyTest {
+
+    private static final List<String> BALANCEES = asList("ws://node1:8001/echo", "ws://node2:8001/echo",
+            "ws://node3:8001/echo");
+
+    @Test
+    public void shouldDefaultToRandom() {
+        assertSame(BalancingStrategy.RANDOM, BalancingStrategy.fromString(null));
+    }
+
+    @Test
+    public void shouldParseStrategyNames() {
+        assertSame(BalancingStrategy.LEAST_CONNECTIONS, BalancingStrategy.fromString("least-connections"));
+        assertSame(BalancingStrategy.POWER_OF_TWO_CHOICES, BalancingStrategy.fromString(" Power-Of-Two-Choices "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownStrategy() {
+        BalancingStrategy.fromString("round-robin");
+    }
+
+    @Test
+    public void leastConnectionsShouldSelectLeastLoadedBalancee() {
+        LoadView loads = loads(10, 3, 7);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("ws://node2:8001/echo", BalancingStrategy.LEAST_CONNECTIONS.select(BALANCEES, loads));
+        }
+    }
+
+    @Test
+    public void powerOfTwoChoicesShouldNeverSelectMostLoadedBalancee() {
+        LoadView loads = loads(10, 3, 7);
+        for (int i = 0; i < 100; i++) {
+            String selected = BalancingStrategy.POWER_OF_TWO_CHOICES.select(BALANCEES, loads);
+            assertNotEquals("ws://node1:8001/echo", selected);
+        }
+    }
+
+    @Test
+    public void powerOfTwoChoicesShouldSelectOnlyBalancee() {
+        List<String> balancees = asList("ws://node1:8001/echo");
+        assertEquals("ws://node1:8001/echo", BalancingStrategy.POWER_OF_TWO_CHOICES.select(balancees, loads(5)));
+    }
+
+    private static LoadView loads(int... sessionCounts) {
+        final Map<String, Integer> loads = new HashMap<>();
+        for (int i = 0; i < sessionCounts.length; i++) {
+            loads.put(BALANCEES.get(i), sessionCounts[i]);
+        }
+        return balanceeURI -> loads.getOrDefault(balanceeURI, 0);
+    }
+}
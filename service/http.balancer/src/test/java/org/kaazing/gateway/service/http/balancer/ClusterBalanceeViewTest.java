@@ -0,0 +1,51 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.service.http.balancer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.kaazing.gateway.service.collections.MemoryCollectionsFactory;
+
+import com.hazelcast.core.IMap;
+
+public class ClusterBalanceeViewTest {
+
+    @Test
+    public void shouldNotRetryActivationWhenListenersUnsupported() {
+        final AtomicInteger getMapCalls = new AtomicInteger();
+        MemoryCollectionsFactory factory = new MemoryCollectionsFactory() {
+            @Override
+            public <K, V> IMap<K, V> getMap(String name) {
+                getMapCalls.incrementAndGet();
+                return super.getMap(name);
+            }
+        };
+
+        ClusterBalanceeView view = new ClusterBalanceeView();
+        assertFalse(view.activate(factory));
+        int callsAfterFirstActivation = getMapCalls.get();
+
+        for (int i = 0; i < 10; i++) {
+            assertFalse(view.activate(factory));
+        }
+        assertFalse(view.isActive());
+        assertEquals(callsAfterFirstActivation, getMapCalls.get());
+    }
+}
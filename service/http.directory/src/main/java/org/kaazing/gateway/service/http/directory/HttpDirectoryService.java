@@ -15,6 +15,9 @@
  */
 package org.kaazing.gateway.service.http.directory;
 
+import static org.kaazing.gateway.service.util.ServiceUtils.getOptionalBooleanProperty;
+import static org.kaazing.gateway.service.util.ServiceUtils.getOptionalDataSizeProperty;
+
 import java.io.File;
 import java.net.URI;
 import java.util.ArrayList;
@@ -51,6 +54,14 @@ public class HttpDirectoryService implements Service {
                 }
             };
 
+    private static final String PROPERTY_ZERO_COPY = "zero-copy";
+    private static final String PROPERTY_FILE_CACHE_SIZE = "file-cache-size";
+    private static final String PROPERTY_FILE_CACHE_ENTRY_SIZE = "file-cache-entry-size";
+    private static final String PROPERTY_FILE_CACHE_GZIP = "file-cache-gzip";
+
+    private static final int PROPERTY_FILE_CACHE_SIZE_DEFAULT = 0;
+    private static final int PROPERTY_FILE_CACHE_ENTRY_SIZE_DEFAULT = 256 * 1024;
+
     private final Logger logger = LoggerFactory.getLogger("service.directory");
 
     private HttpDirectoryServiceHandler handler;
@@ -123,6 +134,16 @@ public class HttpDirectoryService implements Service {
             handler.setIndexes(true);
         }
 
+        handler.setZeroCopy(getOptionalBooleanProperty(properties, PROPERTY_ZERO_COPY, false));
+
+        int fileCacheSize = getOptionalDataSizeProperty(properties, PROPERTY_FILE_CACHE_SIZE, PROPERTY_FILE_CACHE_SIZE_DEFAULT);
+        if (fileCacheSize > 0) {
+            int fileCacheEntrySize = getOptionalDataSizeProperty(properties, PROPERTY_FILE_CACHE_ENTRY_SIZE,
+                    PROPERTY_FILE_CACHE_ENTRY_SIZE_DEFAULT);
+            boolean fileCacheGzip = getOptionalBooleanProperty(properties, PROPERTY_FILE_CACHE_GZIP, false);
+            handler.setFileCache(new HttpFileCache(fileCacheSize, fileCacheEntrySize, fileCacheGzip));
+        }
+
         // Register the Gateway's connection capabilities with the handler so that session counts are tracked
     }
 
@@ -234,6 +255,7 @@ public class HttpDirectoryService implements Service {
         }
         if (handler != null) {
             handler.emptyUrlCacheControlMap();
+            handler.clearFileCache();
         }
     }
 
@@ -15,9 +15,12 @@
  */
 package org.kaazing.gateway.service.http.directory;
 
+import static java.nio.file.StandardOpenOption.READ;
+
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.DateFormat;
@@ -31,6 +34,8 @@ import java.util.TimeZone;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.apache.mina.core.file.DefaultFileRegion;
+import org.apache.mina.core.future.WriteFuture;
 import org.kaazing.gateway.service.ServiceContext;
 import org.kaazing.gateway.service.ServiceProperties;
 import org.kaazing.gateway.service.http.directory.cachecontrol.CacheControlHandler;
@@ -54,6 +59,8 @@ class HttpDirectoryServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
     private String welcomeFile;
     private File errorPagesDir;
     private boolean indexes;
+    private boolean zeroCopy;
+    private HttpFileCache fileCache;
 
     private List<PatternCacheControl> patterns;
     private Map<String, CacheControlHandler> urlCacheControlMap = new ConcurrentHashMap<>();
@@ -105,6 +112,24 @@ class HttpDirectoryServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
         this.indexes = indexes;
     }
 
+    void setZeroCopy(boolean zeroCopy) {
+        this.zeroCopy = zeroCopy;
+    }
+
+    boolean usingZeroCopy() {
+        return zeroCopy;
+    }
+
+    void setFileCache(HttpFileCache fileCache) {
+        this.fileCache = fileCache;
+    }
+
+    void clearFileCache() {
+        if (fileCache != null) {
+            fileCache.clear();
+        }
+    }
+
     void setPatterns(List<PatternCacheControl> patterns) {
         this.patterns = patterns;
     }
@@ -238,11 +263,18 @@ class HttpDirectoryServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
         addCacheControl(session, requestFile, requestPath);
 
         // check to see if the file has been modified since the last request
+        // Note: the cached gzip variant has its own entity tag, either one may be presented
         String etag = HttpUtils.getETagHeaderValue(requestFile);
-        boolean modified = HttpUtils.hasBeenModified(session, etag, requestFile);
+        String gzipEtag = gzipETag(etag);
+        boolean acceptsGzip = fileCache != null && acceptsGzip(session.getReadHeader("Accept-Encoding"));
+        boolean gzipNotModified = acceptsGzip && !HttpUtils.hasBeenModified(session, gzipEtag, requestFile);
+        boolean modified = !gzipNotModified && HttpUtils.hasBeenModified(session, etag, requestFile);
         if (!modified) {
             // file has not been modified so set status and close session
-            session.setWriteHeader("ETag", etag);
+            if (gzipNotModified) {
+                session.setWriteHeader("Vary", "Accept-Encoding");
+            }
+            session.setWriteHeader("ETag", gzipNotModified ? gzipEtag : etag);
             session.setWriteHeader("Last-Modified", RFC822_FORMAT_PATTERN.format(requestFile.lastModified()));
             session.setStatus(HttpStatus.REDIRECT_NOT_MODIFIED);
             session.close(false);
@@ -260,8 +292,38 @@ class HttpDirectoryServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
             session.setWriteHeader("Content-Type", contentType);
         }
 
-        // get io buffer for file
         IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+
+        // hot files are written from cached shared buffers
+        HttpFileCache.CachedFile cachedFile = (fileCache != null) ? fileCache.get(requestFile, allocator) : null;
+        if (cachedFile != null) {
+            IoBufferEx content = cachedFile.getContent();
+            if (cachedFile.hasGzippedContent()) {
+                session.setWriteHeader("Vary", "Accept-Encoding");
+                if (acceptsGzip) {
+                    session.setWriteHeader("ETag", gzipEtag);
+                    session.setWriteHeader("Content-Encoding", "gzip");
+                    content = cachedFile.getGzippedContent();
+                }
+            }
+            session.setWriteHeader(HttpHeaders.HEADER_CONTENT_LENGTH, Integer.toString(content.remaining()));
+            session.write(content);
+            session.close(false);
+            return;
+        }
+
+        // other files are sent without copying their contents when the transport supports it
+        if (zeroCopy && method == HttpMethod.GET) {
+            FileChannel fileChannel = FileChannel.open(requestFile.toPath(), READ);
+            long fileSize = fileChannel.size();
+            session.setWriteHeader(HttpHeaders.HEADER_CONTENT_LENGTH, Long.toString(fileSize));
+            WriteFuture writeFuture = session.write(new DefaultFileRegion(fileChannel, 0, fileSize));
+            writeFuture.addListener(future -> closeQuietly(fileChannel));
+            session.close(false);
+            return;
+        }
+
+        // get io buffer for file
         IoBufferEx buf = HttpUtils.getBufferForFile(allocator, requestFile);
 
         // add content length
@@ -301,6 +363,39 @@ class HttpDirectoryServiceHandler extends IoHandlerAdapter<HttpAcceptSession> {
 
     }
 
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] codingAndParams = coding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(codingAndParams[0].trim())) {
+                for (int i = 1; i < codingAndParams.length; i++) {
+                    if (codingAndParams[i].trim().matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // distinct entity tag for the gzip content coding of a file, so caches never mix up the two representations
+    static String gzipETag(String etag) {
+        int endQuote = etag.lastIndexOf('"');
+        return (endQuote > 0) ? etag.substring(0, endQuote) + "-gzip\"" : etag + "-gzip";
+    }
+
+    private static void closeQuietly(FileChannel fileChannel) {
+        try {
+            fileChannel.close();
+        }
+        catch (IOException e) {
+            // ignore
+        }
+    }
+
     /**
      * Matches the file URL with the most specific pattern and caches this information in a map
      * Sets cache-control and expires headers
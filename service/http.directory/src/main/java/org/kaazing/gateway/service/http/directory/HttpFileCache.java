@@ -0,0 +1,166 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.service.http.directory;
+
+import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_SHARED;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+
+/**
+ * Bounded cache of the contents of hot files served by the directory service, so they are read from disk once
+ * and then written from shared buffers. Entries are invalidated when the last modified time or length of the file
+ * changes, and the least recently used entries are evicted to keep the total size within the configured maximum.
+ */
+final class HttpFileCache {
+
+    // only keep the gzipped contents if they save at least this fraction of the original size
+    private static final double MINIMUM_GZIP_SAVING = 0.1;
+
+    private final long maximumSize;
+    private final long maximumFileSize;
+    private final boolean gzip;
+    private final Map<String, CachedFile> cachedFiles;
+    private long size;
+
+    HttpFileCache(long maximumSize, long maximumFileSize, boolean gzip) {
+        this.maximumSize = maximumSize;
+        this.maximumFileSize = Math.min(maximumFileSize, maximumSize);
+        this.gzip = gzip;
+        this.cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached contents of the file, reading the file if not yet cached or modified since cached.
+     * @param file  the file
+     * @param allocator  the allocator used to wrap newly read contents
+     * @return the cached contents, or null if the file is too large to cache
+     * @throws IOException
+     */
+    CachedFile get(File file, IoBufferAllocatorEx<?> allocator) throws IOException {
+        long length = file.length();
+        if (length > maximumFileSize) {
+            return null;
+        }
+
+        String path = file.getPath();
+        long lastModified = file.lastModified();
+        synchronized (this) {
+            CachedFile cachedFile = cachedFiles.get(path);
+            if (cachedFile != null && cachedFile.lastModified == lastModified && cachedFile.length == length) {
+                return cachedFile;
+            }
+        }
+
+        // read outside the lock, concurrent readers of the same file at worst read it more than once
+        byte[] contents = Files.readAllBytes(file.toPath());
+        if (contents.length > maximumFileSize) {
+            return null;
+        }
+
+        IoBufferEx content = allocator.wrap(ByteBuffer.wrap(contents), FLAG_SHARED);
+        IoBufferEx gzippedContent = null;
+        if (gzip) {
+            byte[] gzipped = gzip(contents);
+            if (gzipped.length < contents.length * (1.0 - MINIMUM_GZIP_SAVING)) {
+                gzippedContent = allocator.wrap(ByteBuffer.wrap(gzipped), FLAG_SHARED);
+            }
+        }
+
+        CachedFile newCachedFile = new CachedFile(lastModified, contents.length, content, gzippedContent);
+        synchronized (this) {
+            CachedFile oldCachedFile = cachedFiles.put(path, newCachedFile);
+            if (oldCachedFile != null) {
+                size -= oldCachedFile.size();
+            }
+            size += newCachedFile.size();
+            evict();
+        }
+        return newCachedFile;
+    }
+
+    synchronized void clear() {
+        cachedFiles.clear();
+        size = 0;
+    }
+
+    // package-private for tests
+    synchronized long size() {
+        return size;
+    }
+
+    private void evict() {
+        for (Iterator<CachedFile> i = cachedFiles.values().iterator(); size > maximumSize && i.hasNext();) {
+            CachedFile eldest = i.next();
+            size -= eldest.size();
+            i.remove();
+        }
+    }
+
+    private static byte[] gzip(byte[] contents) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(contents.length / 2 + 32);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(contents);
+        }
+        return out.toByteArray();
+    }
+
+    static final class CachedFile {
+        private final long lastModified;
+        private final long length;
+        private final IoBufferEx content;
+        private final IoBufferEx gzippedContent;
+
+        private CachedFile(long lastModified, long length, IoBufferEx content, IoBufferEx gzippedContent) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.content = content;
+            this.gzippedContent = gzippedContent;
+        }
+
+        /**
+         * Returns a duplicate of the (shared) file contents, ready to write
+         */
+        IoBufferEx getContent() {
+            return content.duplicate();
+        }
+
+        boolean hasGzippedContent() {
+            return gzippedContent != null;
+        }
+
+        /**
+         * Returns a duplicate of the (shared) gzipped file contents, ready to write
+         */
+        IoBufferEx getGzippedContent() {
+            return gzippedContent.duplicate();
+        }
+
+        private long size() {
+            return length + (gzippedContent != null ? gzippedContent.remaining() : 0);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.service.http.directory;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.kaazing.test.util.ITUtil.createRuleChain;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+import org.kaazing.gateway.server.test.GatewayRule;
+import org.kaazing.gateway.server.test.config.GatewayConfiguration;
+import org.kaazing.gateway.server.test.config.builder.GatewayConfigurationBuilder;
+
+/**
+ * Sends files through the HTTP bridge as file regions written by the TCP transport.
+ */
+public class HttpDirectoryServiceZeroCopyIT {
+
+    private static final String DIRECTORY_SERVICE_ACCEPT = "http://localhost:8000/";
+    private static final File WEB_ROOT = new File("src/test/webapp");
+
+    private final GatewayRule gateway = new GatewayRule() {
+        {
+            // @formatter:off
+            GatewayConfiguration configuration =
+                    new GatewayConfigurationBuilder()
+                        .webRootDirectory(WEB_ROOT)
+                        .service()
+                            .accept(DIRECTORY_SERVICE_ACCEPT)
+                            .type("directory")
+                            .property("directory", "/public")
+                            .property("zero-copy", "true")
+                        .done()
+                    .done();
+            // @formatter:on
+            init(configuration);
+        }
+    };
+
+    @Rule
+    public TestRule chain = createRuleChain(gateway, 10, SECONDS);
+
+    @Test
+    public void shouldSendFileContentsOverPersistentConnection() throws Exception {
+        byte[] expected = Files.readAllBytes(new File(WEB_ROOT, "public/index.html").toPath());
+
+        try (Socket socket = new Socket("localhost", 8000)) {
+            OutputStream output = socket.getOutputStream();
+            DataInputStream input = new DataInputStream(socket.getInputStream());
+
+            // the connection must still be usable after each file region has been written
+            for (int i = 0; i < 2; i++) {
+                output.write(("GET /index.html HTTP/1.1\r\n" +
+                              "Host: localhost:8000\r\n" +
+                              "\r\n").getBytes(US_ASCII));
+                output.flush();
+
+                String headers = readHeaders(input);
+                assertTrue(headers, headers.startsWith("HTTP/1.1 200 OK\r\n"));
+                assertEquals(expected.length, contentLength(headers));
+
+                byte[] content = new byte[expected.length];
+                input.readFully(content);
+                assertArrayEquals(expected, content);
+            }
+        }
+    }
+
+    private static String readHeaders(InputStream input) throws IOException {
+        ByteArrayOutputStream headers = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            int b = input.read();
+            if (b == -1) {
+                throw new IOException("Connection closed while reading headers: " + headers.toString("US-ASCII"));
+            }
+            headers.write(b);
+            matched = (b == (matched % 2 == 0 ? '\r' : '\n')) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+        return headers.toString("US-ASCII");
+    }
+
+    private static int contentLength(String headers) {
+        for (String header : headers.split("\r\n")) {
+            int colon = header.indexOf(':');
+            if (colon != -1 && "Content-Length".equalsIgnoreCase(header.substring(0, colon).trim())) {
+                return Integer.parseInt(header.substring(colon + 1).trim());
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.service.http.directory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.kaazing.mina.core.buffer.SimpleBufferAllocator.BUFFER_ALLOCATOR;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kaazing.gateway.service.http.directory.HttpFileCache.CachedFile;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+
+public class HttpFileCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldCacheFileContents() throws Exception {
+        File file = newFile("a.js", "var a = 1;");
+        HttpFileCache cache = new HttpFileCache(1024, 1024, false);
+
+        CachedFile cachedFile = cache.get(file, BUFFER_ALLOCATOR);
+
+        assertEquals("var a = 1;", toString(cachedFile.getContent()));
+        assertSame(cachedFile, cache.get(file, BUFFER_ALLOCATOR));
+        assertFalse(cachedFile.hasGzippedContent());
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void shouldReturnIndependentDuplicates() throws Exception {
+        File file = newFile("a.js", "var a = 1;");
+        HttpFileCache cache = new HttpFileCache(1024, 1024, false);
+        CachedFile cachedFile = cache.get(file, BUFFER_ALLOCATOR);
+
+        IoBufferEx content = cachedFile.getContent();
+        content.skip(content.remaining());
+
+        assertEquals("var a = 1;", toString(cachedFile.getContent()));
+    }
+
+    @Test
+    public void shouldInvalidateModifiedFile() throws Exception {
+        File file = newFile("a.js", "var a = 1;");
+        HttpFileCache cache = new HttpFileCache(1024, 1024, false);
+        CachedFile cachedFile = cache.get(file, BUFFER_ALLOCATOR);
+
+        Files.write(file.toPath(), "var a = 12;".getBytes(UTF_8));
+        assertTrue(file.setLastModified(file.lastModified() + 2000));
+        CachedFile modifiedFile = cache.get(file, BUFFER_ALLOCATOR);
+
+        assertNotSame(cachedFile, modifiedFile);
+        assertEquals("var a = 12;", toString(modifiedFile.getContent()));
+        assertEquals(11, cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheLargeFile() throws Exception {
+        File file = newFile("large.js", "var large = 1;");
+        HttpFileCache cache = new HttpFileCache(1024, 8, false);
+
+        assertNull(cache.get(file, BUFFER_ALLOCATOR));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() throws Exception {
+        File a = newFile("a.js", "0123456789");
+        File b = newFile("b.js", "0123456789");
+        File c = newFile("c.js", "0123456789");
+        HttpFileCache cache = new HttpFileCache(20, 20, false);
+
+        CachedFile cachedA = cache.get(a, BUFFER_ALLOCATOR);
+        CachedFile cachedB = cache.get(b, BUFFER_ALLOCATOR);
+        assertSame(cachedA, cache.get(a, BUFFER_ALLOCATOR));
+        cache.get(c, BUFFER_ALLOCATOR);
+
+        assertEquals(20, cache.size());
+        assertSame(cachedA, cache.get(a, BUFFER_ALLOCATOR));
+        assertNotSame(cachedB, cache.get(b, BUFFER_ALLOCATOR));
+    }
+
+    @Test
+    public void shouldCacheGzippedContents() throws Exception {
+        StringBuilder contents = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            contents.append("var a").append(i).append(" = ").append(i).append(";\n");
+        }
+        File file = newFile("a.js", contents.toString());
+        HttpFileCache cache = new HttpFileCache(16 * 1024, 16 * 1024, true);
+
+        CachedFile cachedFile = cache.get(file, BUFFER_ALLOCATOR);
+
+        assertTrue(cachedFile.hasGzippedContent());
+        IoBufferEx gzippedContent = cachedFile.getGzippedContent();
+        assertTrue(gzippedContent.remaining() < contents.length());
+        assertEquals(contents.toString(), gunzip(gzippedContent));
+        assertEquals(contents.length() + gzippedContent.remaining(), cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheIncompressibleGzippedContents() throws Exception {
+        File file = newFile("a.js", "a");
+        HttpFileCache cache = new HttpFileCache(1024, 1024, true);
+
+        assertFalse(cache.get(file, BUFFER_ALLOCATOR).hasGzippedContent());
+    }
+
+    @Test
+    public void shouldAcceptGzip() throws Exception {
+        assertTrue(HttpDirectoryServiceHandler.acceptsGzip("gzip"));
+        assertTrue(HttpDirectoryServiceHandler.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertFalse(HttpDirectoryServiceHandler.acceptsGzip(null));
+        assertFalse(HttpDirectoryServiceHandler.acceptsGzip("deflate"));
+        assertFalse(HttpDirectoryServiceHandler.acceptsGzip("gzip;q=0"));
+        assertFalse(HttpDirectoryServiceHandler.acceptsGzip("gzip; q=0.0, deflate"));
+    }
+
+    @Test
+    public void shouldTagGzippedContentSeparately() throws Exception {
+        assertEquals("W/\"0123abcd-gzip\"", HttpDirectoryServiceHandler.gzipETag("W/\"0123abcd\""));
+        assertEquals("\"0123abcd-gzip\"", HttpDirectoryServiceHandler.gzipETag("\"0123abcd\""));
+    }
+
+    private File newFile(String name, String contents) throws IOException {
+        File file = folder.newFile(name);
+        Files.write(file.toPath(), contents.getBytes(UTF_8));
+        return file;
+    }
+
+    private static String toString(IoBufferEx buf) {
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static String gunzip(IoBufferEx buf) throws IOException {
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(bytes);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] chunk = new byte[1024];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+        }
+        return new String(out.toByteArray(), UTF_8);
+    }
+}
@@ -99,4 +99,10 @@ public abstract class AbstractProxyAcceptHandler extends AbstractProxyHandler {
         super.setMaximumPendingBytes(maximumPendingBytes);
         connectHandler.setMaximumPendingBytes(maximumPendingBytes);
     }
+
+    @Override
+    public void setResumePendingBytes(int resumePendingBytes) {
+        super.setResumePendingBytes(resumePendingBytes);
+        connectHandler.setResumePendingBytes(resumePendingBytes);
+    }
 }
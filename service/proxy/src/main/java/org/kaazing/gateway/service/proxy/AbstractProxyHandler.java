@@ -32,6 +32,7 @@ import org.apache.mina.core.session.IoSession;
 import org.apache.mina.core.write.WriteRequest;
 import org.kaazing.gateway.service.ServiceContext;
 import org.kaazing.gateway.service.proxy.ProxyConnectStrategy.Strategy;
+import org.kaazing.gateway.transport.BridgeSession;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
 import org.kaazing.mina.core.buffer.IoBufferEx;
 import org.kaazing.mina.filter.util.WriteRequestFilterEx;
@@ -50,7 +51,7 @@ public abstract class AbstractProxyHandler extends IoHandlerAdapter {
     private ServiceContext serviceContext;
     private int maximumPendingBytes;
     private int maximumTransferredBytes = -1; // default to unlimited
-    private int thresholdPendingBytes;
+    private int resumePendingBytes;
     private int maximumRecoveryInterval = 0;
     private ProxyConnectStrategy connectStrategy;
 
@@ -124,10 +125,22 @@ public abstract class AbstractProxyHandler extends IoHandlerAdapter {
 
     public void setMaximumPendingBytes(int maximumPendingBytes) {
         this.maximumPendingBytes = maximumPendingBytes;
-        thresholdPendingBytes = maximumPendingBytes / 2;
+        resumePendingBytes = maximumPendingBytes / 2;
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug(String.format("Proxy handler %s: maximum.pending.bytes=%d, using resume threshold %d", this,
-                    maximumPendingBytes, thresholdPendingBytes));
+                    maximumPendingBytes, resumePendingBytes));
+        }
+    }
+
+    public void setResumePendingBytes(int resumePendingBytes) {
+        if (resumePendingBytes < 0 || resumePendingBytes > maximumPendingBytes) {
+            throw new IllegalArgumentException(String.format(
+                    "Unexpected value for resume.pending.bytes: %d, must be between 0 and maximum.pending.bytes (%d)",
+                    resumePendingBytes, maximumPendingBytes));
+        }
+        this.resumePendingBytes = resumePendingBytes;
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Proxy handler " + this + ": resume.pending.bytes=" + resumePendingBytes + ".");
         }
     }
 
@@ -221,9 +234,9 @@ public abstract class AbstractProxyHandler extends IoHandlerAdapter {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("[" + session.getId() + "->" + attachedSession.getId() + "] attaching sessions");
         }
-        AttachedSessionManager attachedSessionManager = new AttachedSessionManager(attachedSession);
+        AttachedSessionManager attachedSessionManager = new AttachedSessionManager(session, attachedSession);
         session.setAttribute(ATTACHED_SESSION_KEY, attachedSessionManager);
-        attachedSession.setAttribute(ATTACHED_SESSION_KEY, new AttachedSessionManager(session));
+        attachedSession.setAttribute(ATTACHED_SESSION_KEY, new AttachedSessionManager(attachedSession, session));
         return attachedSessionManager;
     }
 
@@ -242,19 +255,23 @@ public abstract class AbstractProxyHandler extends IoHandlerAdapter {
     }
 
     // This class manages an attached session, that is, the session to which messages received on a source session
-    // will be written. It maintains a total of the number of bytes of messages scheduled for write which
-    // have not yet been written, and suspends reads on the source session when the number of bytes
-    // scheduled for write exceeds the configured maximum.pending.bytes for the service.
+    // will be written. It suspends reads on the source session when the attached session's transport scheduled write bytes
+    // exceed the configured maximum.pending.bytes (high watermark) for the service, and only resumes them once
+    // the scheduled write bytes have drained to resume.pending.bytes (low watermark), so writes are pipelined
+    // without observing each write future in between.
     protected class AttachedSessionManager {
+        private final IoSession sourceSession;
         private final IoSession attachedSession;
-        private final AtomicInteger scheduledWriteBytes = new AtomicInteger(0);
         private final AtomicBoolean readSuspended = new AtomicBoolean(false);
+        private final IoFutureListener<WriteFuture> resumeReadListener = this::resumeReadIfDrained;
+        private volatile WriteFuture lastWriteFuture;
         private final AtomicInteger totalTransferredBytes = new AtomicInteger(0);
 
         // private throughput limit for this session
         private int sessionMaximumTransferredBytes = AbstractProxyHandler.this.maximumTransferredBytes;
 
-        AttachedSessionManager(IoSession attachedSession) {
+        AttachedSessionManager(IoSession sourceSession, IoSession attachedSession) {
+            this.sourceSession = sourceSession;
             this.attachedSession = attachedSession;
         }
 
@@ -268,7 +285,7 @@ public abstract class AbstractProxyHandler extends IoHandlerAdapter {
                 LOGGER.trace("[" + sourceSession.getId() + "->" + attachedSession.getId() + "] proxying message: "
                         + message);
             }
-            final int bytesWritten;
+            int bytesWritten;
             if (message instanceof IoBuffer) {
                 IoBuffer b = (IoBuffer) message;
                 bytesWritten = b.remaining();
@@ -301,46 +318,75 @@ public abstract class AbstractProxyHandler extends IoHandlerAdapter {
                 break;
             }
 
-            int newScheduledWriteBytes = scheduledWriteBytes.addAndGet(bytesWritten);
-            if (newScheduledWriteBytes > maximumPendingBytes) {
+            // Note: the write is issued before checking the watermark so the attached session's scheduled write
+            // bytes already include this message
+            WriteFuture future = attachedSession.write(message);
+            lastWriteFuture = future;
+
+            if (readSuspended.get()) {
+                // observe each write issued while suspended, the last one to complete is guaranteed to resume
+                future.addListener(resumeReadListener);
+            }
+            else {
+                long scheduledWriteBytes = getTransportScheduledWriteBytes(attachedSession);
+                if (scheduledWriteBytes > maximumPendingBytes) {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("[" + sourceSession.getId() + "->" + attachedSession.getId() + ", "
+                                + Thread.currentThread().getName() + "] scheduledWriteBytes " + scheduledWriteBytes
+                                + " exceeds " + maximumPendingBytes + ", suspending reads on " + sourceSession);
+                    }
+                    // KG-2665: handle the fact that AbstractIoSession.suspendRead and resumeRead are not
+                    // thread-safe by guarding with an AtomicBoolean and spinning to make sure the outcome is correct
+                    // when there is a race with resumeRead in the write request future listener. This also requires
+                    // a fix in Mina (KG-2820) to make AbstractIoSession.readSuspended volatile.
+                    while (readSuspended.compareAndSet(false, true)) {
+                        sourceSession.suspendRead();
+                    }
+                    // Add the FutureListener after suspending to ensure the FutureListener sees it is suspended
+                    future.addListener(resumeReadListener);
+                }
+            }
+        }
+
+        private void resumeReadIfDrained(WriteFuture future) {
+            if (!readSuspended.get()) {
+                return;
+            }
+
+            // the most recent write completing means nothing we scheduled is still pending, so always resume
+            // in that case even if the attached session does not account for scheduled write bytes
+            long scheduledWriteBytes = getTransportScheduledWriteBytes(attachedSession);
+            // Use <= to ensure we resume read in case where both values are 0
+            if (scheduledWriteBytes <= resumePendingBytes || future == lastWriteFuture) {
                 if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug("[" + sourceSession.getId() + "->" + attachedSession.getId() + ", "
-                            + Thread.currentThread().getName() + "] scheduledWriteBytes " + newScheduledWriteBytes
-                            + " exceeds " + maximumPendingBytes + ", suspending reads on " + sourceSession);
+                            + Thread.currentThread().getName() + "] scheduledWriteBytes "
+                            + scheduledWriteBytes + " <= " + resumePendingBytes + ", resuming reads on "
+                            + sourceSession);
                 }
-                // KG-2665: handle the fact that AbstractIoSession.suspendRead and resumeRead are not
-                // thread-safe by guarding with an AtomicBoolean and spinning to make sure the outcome is correct
-                // when there is a race with resumeRead in the write request future listener. This also requires
-                // a fix in Mina (KG-2820) to make AbstractIoSession.readSuspended volatile.
-                while (readSuspended.compareAndSet(false, true)) {
-                    sourceSession.suspendRead();
+                // KG-2665: handle race with suspendRead, see above.
+                while (readSuspended.compareAndSet(true, false)) {
+                    sourceSession.resumeRead();
                 }
             }
-            // Add the FutureListener after suspending to ensure the FutureListener sees it is suspended
-            WriteFuture future = attachedSession.write(message);
-            future.addListener(new IoFutureListener<WriteFuture>() {
-                @Override
-                public void operationComplete(WriteFuture future) {
-                    int newScheduledWriteBytes = scheduledWriteBytes.addAndGet(-bytesWritten);
-                    // Use <= to ensure we resume read in case where both values are 0
-                    if (readSuspended.get() && newScheduledWriteBytes <= thresholdPendingBytes) {
-                        if (LOGGER.isDebugEnabled()) {
-                            LOGGER.debug("[" + sourceSession.getId() + "->" + attachedSession.getId() + ", "
-                                    + Thread.currentThread().getName() + "] scheduledWriteBytes "
-                                    + newScheduledWriteBytes + " <= " + thresholdPendingBytes + ", resuming reads on "
-                                    + sourceSession);
-                        }
-                        // KG-2665: handle race with suspendRead, see above.
-                        while (readSuspended.compareAndSet(true, false)) {
-                            sourceSession.resumeRead();
-                        }
-                    }
-                }
-            });
         }
 
     }
 
+    // Bridge sessions (ws, wseb, http, ssl...) account their writes as written as soon as they are flushed to the
+    // parent, so the bytes actually pending are those scheduled on the transport session at the root
+    private static long getTransportScheduledWriteBytes(IoSession attachedSession) {
+        IoSession session = attachedSession;
+        while (session instanceof BridgeSession) {
+            IoSession parent = ((BridgeSession) session).getParent();
+            if (parent == null) {
+                break;
+            }
+            session = parent;
+        }
+        return session.getScheduledWriteBytes();
+    }
+
     protected static class DuplicateBufferFilter extends WriteRequestFilterEx {
 
         private final IoBufferAllocatorEx<?> allocator;
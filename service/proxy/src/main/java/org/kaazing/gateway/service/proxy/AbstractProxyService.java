@@ -37,6 +37,7 @@ import org.kaazing.gateway.util.scheduler.SchedulerProvider;
 public abstract class AbstractProxyService<HandlerType extends AbstractProxyHandler> implements Service {
 
     private static final String PROPERTY_MAXIMUM_PENDING_BYTES = "maximum.pending.bytes";
+    private static final String PROPERTY_RESUME_PENDING_BYTES = "resume.pending.bytes";
     private static final String PROPERTY_MAXIMUM_RECOVERY_INTERVAL = "maximum.recovery.interval";
     private static final String PROPERTY_PREPARED_CONNECTION_COUNT = "prepared.connection.count";
     private static final String PROPERTY_CONNECT_STRATEGY = "connect.strategy";
@@ -65,6 +66,7 @@ public abstract class AbstractProxyService<HandlerType extends AbstractProxyHand
         // lookup service properties
         ServiceProperties properties = serviceContext.getProperties();
         int maximumPendingBytes = getOptionalDataSizeProperty(properties, PROPERTY_MAXIMUM_PENDING_BYTES, PROPERTY_MAXIMUM_PENDING_BYTES_DEFAULT);
+        int resumePendingBytes = getOptionalDataSizeProperty(properties, PROPERTY_RESUME_PENDING_BYTES, maximumPendingBytes / 2);
         int maximumTransferredBytes = getOptionalDataSizeProperty(properties, PROPERTY_MAXIMUM_TRANSFERRED_BYTES, PROPERTY_MAXIMUM_TRANSFERRED_BYTES_DEFAULT);
         int maximumRecoveryInterval = getOptionalIntProperty(properties, PROPERTY_MAXIMUM_RECOVERY_INTERVAL, PROPERTY_MAXIMUM_RECOVERY_INTERVAL_DEFAULT);
         int preparedConnectionCount = getOptionalIntProperty(properties, PROPERTY_PREPARED_CONNECTION_COUNT, PROPERTY_PREPARED_CONNECTION_COUNT_DEFAULT);
@@ -73,6 +75,7 @@ public abstract class AbstractProxyService<HandlerType extends AbstractProxyHand
         handler = createHandler();
         handler.setServiceContext(serviceContext);
         handler.setMaximumPendingBytes(maximumPendingBytes);
+        handler.setResumePendingBytes(resumePendingBytes);
         handler.setMaximumTransferredBytes(maximumTransferredBytes);
         handler.setMaximumRecoveryInterval(maximumRecoveryInterval);
         handler.setPreparedConnectionCount(connectStrategy, preparedConnectionCount, serviceContext.getProcessorCount());
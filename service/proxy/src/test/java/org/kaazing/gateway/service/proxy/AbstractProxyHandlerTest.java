@@ -0,0 +1,164 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.service.proxy;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.future.DefaultWriteFuture;
+import org.apache.mina.core.session.IoSession;
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.jmock.Sequence;
+import org.jmock.lib.legacy.ClassImposteriser;
+import org.junit.Before;
+import org.junit.Test;
+import org.kaazing.gateway.service.proxy.AbstractProxyHandler.AttachedSessionManager;
+import org.kaazing.gateway.transport.BridgeSession;
+import org.kaazing.mina.core.session.IoSessionEx;
+
+public class AbstractProxyHandlerTest {
+
+    private final Mockery context = new Mockery() {{
+        setImposteriser(ClassImposteriser.INSTANCE);
+    }};
+
+    private IoSession source;
+    private IoSession attached;
+    private AttachedSessionManager manager;
+
+    @Before
+    public void setUp() {
+        source = context.mock(IoSession.class, "source");
+        attached = context.mock(IoSession.class, "attached");
+        context.checking(new Expectations() {{
+            allowing(source).getId(); will(returnValue(1L));
+            allowing(attached).getId(); will(returnValue(2L));
+            allowing(source).setAttribute(with(any(Object.class)), with(any(Object.class)));
+            allowing(attached).setAttribute(with(any(Object.class)), with(any(Object.class)));
+        }});
+
+        AbstractProxyHandler handler = new AbstractProxyHandler() { };
+        handler.setMaximumPendingBytes(100);
+        handler.setResumePendingBytes(20);
+        handler.setMaximumTransferredBytes(-1);
+        manager = handler.attachSessions(source, attached);
+    }
+
+    @Test
+    public void shouldNotSuspendReadBelowHighWatermark() throws Exception {
+        final IoBuffer message = IoBuffer.wrap(new byte[50]);
+        final DefaultWriteFuture written = new DefaultWriteFuture(attached);
+
+        context.checking(new Expectations() {{
+            oneOf(attached).write(message); will(returnValue(written));
+            oneOf(attached).getScheduledWriteBytes(); will(returnValue(50L));
+            never(source).suspendRead();
+        }});
+
+        manager.writeMessage(source, message);
+        written.setWritten();
+        context.assertIsSatisfied();
+    }
+
+    @Test
+    public void shouldSuspendReadAboveHighWatermarkAndResumeAtLowWatermark() throws Exception {
+        final IoBuffer message1 = IoBuffer.wrap(new byte[60]);
+        final IoBuffer message2 = IoBuffer.wrap(new byte[60]);
+        final DefaultWriteFuture written1 = new DefaultWriteFuture(attached);
+        final DefaultWriteFuture written2 = new DefaultWriteFuture(attached);
+        final Sequence order = context.sequence("order");
+
+        context.checking(new Expectations() {{
+            oneOf(attached).write(message1); will(returnValue(written1)); inSequence(order);
+            oneOf(attached).getScheduledWriteBytes(); will(returnValue(60L)); inSequence(order);
+            oneOf(attached).write(message2); will(returnValue(written2)); inSequence(order);
+            oneOf(attached).getScheduledWriteBytes(); will(returnValue(120L)); inSequence(order);
+            oneOf(source).suspendRead(); inSequence(order);
+            oneOf(attached).getScheduledWriteBytes(); will(returnValue(10L)); inSequence(order);
+            oneOf(source).resumeRead(); inSequence(order);
+        }});
+
+        manager.writeMessage(source, message1);
+        manager.writeMessage(source, message2);
+        written1.setWritten();
+        written2.setWritten();
+        context.assertIsSatisfied();
+    }
+
+    @Test
+    public void shouldResumeReadWhenLastWriteCompletesAboveLowWatermark() throws Exception {
+        final IoBuffer message = IoBuffer.wrap(new byte[150]);
+        final DefaultWriteFuture written = new DefaultWriteFuture(attached);
+
+        context.checking(new Expectations() {{
+            oneOf(attached).write(message); will(returnValue(written));
+            oneOf(attached).getScheduledWriteBytes(); will(returnValue(150L));
+            oneOf(source).suspendRead();
+            oneOf(attached).getScheduledWriteBytes(); will(returnValue(150L));
+            oneOf(source).resumeRead();
+        }});
+
+        manager.writeMessage(source, message);
+        written.setWritten();
+        context.assertIsSatisfied();
+    }
+
+    @Test
+    public void shouldSuspendReadBehindSlowBridgeSessionWriter() throws Exception {
+        final BridgeSession bridge = context.mock(BridgeSession.class, "bridge");
+        final IoSessionEx transport = context.mock(IoSessionEx.class, "transport");
+        final IoBuffer message1 = IoBuffer.wrap(new byte[60]);
+        final IoBuffer message2 = IoBuffer.wrap(new byte[60]);
+        final DefaultWriteFuture written1 = new DefaultWriteFuture(bridge);
+        final DefaultWriteFuture written2 = new DefaultWriteFuture(bridge);
+        final Sequence order = context.sequence("order");
+
+        context.checking(new Expectations() {{
+            allowing(bridge).getId(); will(returnValue(3L));
+            allowing(bridge).setAttribute(with(any(Object.class)), with(any(Object.class)));
+            allowing(bridge).getParent(); will(returnValue(transport));
+            // the bridge session accounts its writes as written once flushed to the transport session
+            allowing(bridge).getScheduledWriteBytes(); will(returnValue(0L));
+            oneOf(bridge).write(message1); will(returnValue(written1)); inSequence(order);
+            oneOf(transport).getScheduledWriteBytes(); will(returnValue(64L)); inSequence(order);
+            oneOf(bridge).write(message2); will(returnValue(written2)); inSequence(order);
+            oneOf(transport).getScheduledWriteBytes(); will(returnValue(128L)); inSequence(order);
+            oneOf(source).suspendRead(); inSequence(order);
+            oneOf(transport).getScheduledWriteBytes(); will(returnValue(64L)); inSequence(order);
+            oneOf(source).resumeRead(); inSequence(order);
+        }});
+
+        AbstractProxyHandler handler = new AbstractProxyHandler() { };
+        handler.setMaximumPendingBytes(100);
+        handler.setResumePendingBytes(20);
+        handler.setMaximumTransferredBytes(-1);
+        AttachedSessionManager bridgeManager = handler.attachSessions(source, bridge);
+
+        bridgeManager.writeMessage(source, message1);
+        bridgeManager.writeMessage(source, message2);
+        // still above the low watermark, reads stay suspended
+        written1.setWritten();
+        // most recent write completed, reads resume
+        written2.setWritten();
+        context.assertIsSatisfied();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectResumePendingBytesAboveMaximumPendingBytes() throws Exception {
+        AbstractProxyHandler handler = new AbstractProxyHandler() { };
+        handler.setMaximumPendingBytes(100);
+        handler.setResumePendingBytes(101);
+    }
+}
@@ -20,6 +20,9 @@ import java.util.Properties;
 import javax.annotation.Resource;
 
 import org.apache.mina.core.service.IoAcceptor;
+import org.apache.mina.transport.socket.DefaultDatagramSessionConfigEx;
+import org.jboss.netty.channel.socket.nio.NioWorker;
+import org.jboss.netty.channel.socket.nio.WorkerPool;
 import org.kaazing.gateway.resource.address.ResourceAddressFactory;
 import org.kaazing.gateway.transport.BridgeServiceFactory;
 import org.kaazing.gateway.transport.SocketAddressFactory;
@@ -33,6 +36,7 @@ public class MulticastAcceptor extends AbstractBioAcceptor<MulticastAddress> {
 
     private BridgeServiceFactory bridgeServiceFactory;
     private ResourceAddressFactory resourceAddressFactory;
+    private WorkerPool<NioWorker> workerPool;
 
 
     @Resource(name = "bridgeServiceFactory")
@@ -45,6 +49,14 @@ public class MulticastAcceptor extends AbstractBioAcceptor<MulticastAddress> {
         this.resourceAddressFactory = factory;
     }
 
+    /**
+     * Sets the NIO worker pool reading the multicast channels, shared with the other NIO transports.
+     * When not set, the channels are read by a dedicated worker.
+     */
+    public void setWorkerPool(WorkerPool<NioWorker> workerPool) {
+        this.workerPool = workerPool;
+    }
+
     @Override
     protected ResourceAddressFactory initResourceAddressFactory() {
         return resourceAddressFactory;
@@ -63,7 +75,7 @@ public class MulticastAcceptor extends AbstractBioAcceptor<MulticastAddress> {
 
     @Override
 	protected IoAcceptor initAcceptor() {
-		MulticastAcceptorImpl acceptor = new MulticastAcceptorImpl();
+		MulticastAcceptorImpl acceptor = new MulticastAcceptorImpl(new DefaultDatagramSessionConfigEx(), null, workerPool);
         String property = configuration.getProperty("org.kaazing.gateway.transport.udp.READ_BUFFER_SIZE");
         if (property != null) {
         	int readBufferSize = Integer.parseInt(property);
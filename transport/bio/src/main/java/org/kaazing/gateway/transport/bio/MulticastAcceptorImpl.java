@@ -16,12 +16,7 @@
 package org.kaazing.gateway.transport.bio;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.InetSocketAddress;
-import java.net.MulticastSocket;
-import java.net.NetworkInterface;
 import java.net.SocketAddress;
-import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -39,6 +34,15 @@ import org.apache.mina.core.session.IoSession;
 import org.apache.mina.core.session.IoSessionRecycler;
 import org.apache.mina.transport.socket.DatagramSessionConfigEx;
 import org.apache.mina.transport.socket.DefaultDatagramSessionConfigEx;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ExceptionEvent;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.socket.DatagramChannel;
+import org.jboss.netty.channel.socket.nio.NioWorker;
+import org.jboss.netty.channel.socket.nio.WorkerPool;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
 import org.kaazing.mina.core.buffer.IoBufferEx;
 import org.kaazing.mina.core.future.BindFuture;
@@ -61,6 +65,7 @@ public class MulticastAcceptorImpl extends AbstractIoAcceptorEx {
     
     private final ConcurrentMap<SocketAddress, Handle> boundHandles;
 	private final MulticastProcessor processor;
+	private final MulticastChannelFactory channelFactory;
 	
     private IoSessionRecycler sessionRecycler = DEFAULT_RECYCLER;
 
@@ -73,10 +78,18 @@ public class MulticastAcceptorImpl extends AbstractIoAcceptorEx {
     }
     
     public MulticastAcceptorImpl(IoSessionConfigEx sessionConfig, Executor executor) {
+        this(sessionConfig, executor, null);
+    }
+
+    /**
+     * @param workerPool  the NIO worker pool reading the multicast channels, or null to use a dedicated worker
+     */
+    public MulticastAcceptorImpl(IoSessionConfigEx sessionConfig, Executor executor, WorkerPool<NioWorker> workerPool) {
 		super(sessionConfig, executor);
 		
 		boundHandles = new ConcurrentHashMap<>();
 		processor = new MulticastProcessor();
+		channelFactory = new MulticastChannelFactory(workerPool);
 	}
 
     @Override
@@ -130,6 +143,7 @@ public class MulticastAcceptorImpl extends AbstractIoAcceptorEx {
 	                logger.debug("Bound to resource: " + localAddress);
 	            }
 	            catch (IOException e) {
+	                boundHandles.remove(localAddress, handle);
 	                String error = "Unable to bind to resource: " + localAddress + " cause: " + e.getMessage();
 	                logger.error(error);
 	                throw new RuntimeException(error);
@@ -185,6 +199,8 @@ public class MulticastAcceptorImpl extends AbstractIoAcceptorEx {
 				e.printStackTrace();
 			}
 		}
+
+		channelFactory.dispose();
 		
 		// TODO: remove return for 2.0.0-RCx upgrade
 		return null;
@@ -236,7 +252,7 @@ public class MulticastAcceptorImpl extends AbstractIoAcceptorEx {
             }
 
             // If a new session needs to be created.
-            MulticastSession newSession = new MulticastSession(this, processor, handle.socket, handle.localAddress, remoteAddress);
+            MulticastSession newSession = new MulticastSession(this, processor, handle.channel, handle.localAddress, remoteAddress);
             sessionRecycler.put(newSession);
             session = newSession;
         }
@@ -258,75 +274,62 @@ public class MulticastAcceptorImpl extends AbstractIoAcceptorEx {
 		return sessionRecycler;
 	}
 
-	private class Handle implements Runnable {
+	private class Handle extends SimpleChannelUpstreamHandler {
 
-		private final MulticastSocket socket;
-		private final SocketAddress localAddress;
-		private final InetSocketAddress groupAddress;
-		private final NetworkInterface device;
+		private final MulticastAddress localAddress;
+		private volatile DatagramChannel channel;
 		
-		public Handle(MulticastAddress localAddress) throws IOException {
+		public Handle(MulticastAddress localAddress) {
 			this.localAddress = localAddress;
-			this.socket = new MulticastSocket(new InetSocketAddress(localAddress.getGroupAddress(), localAddress.getBindPort()));
-			this.groupAddress = new InetSocketAddress(localAddress.getGroupAddress(), 0);
-			this.device = localAddress.getDevice();
 		}
 
 		@Override
-		public void run() {
-			while (socket.isBound()) {
-				try {
-					// blocking read or exception on close
-					byte[] buf = new byte[socket.getReceiveBufferSize()];
-					DatagramPacket packet = new DatagramPacket(buf, buf.length);
-					socket.receive(packet);
-
-					// recycle session if necessary
-					SocketAddress remoteAddress = packet.getSocketAddress();
-					IoSessionEx session = newSession(remoteAddress, localAddress);
-
-					// verify session can receive messages
-					if (!session.isReadSuspended()) {
-						// prepare message
-						byte[] data = packet.getData();
-						int offset = packet.getOffset();
-						int length = packet.getLength();
-						IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
-                        IoBufferEx message = allocator.wrap(ByteBuffer.wrap(data, offset, length));
-						
-						// deliver message
-						session.getFilterChain().fireMessageReceived(message);
-					}
-				} 
-				catch (IOException e) {
-					if (socket.isClosed()) {
-						// socket closed, so close sessions for this local address
-						Set<IoSession> managedSessions = new HashSet<>(getManagedSessions().values());
-						for (IoSession managedSession : managedSessions) {
-							if (localAddress.equals(managedSession.getLocalAddress())) {
-								managedSession.close(true);
-							}
-						}
-
-						Handle h = boundHandles.remove(localAddress);
-						if (h != this) {
-							throw new IllegalStateException("Duplicate local address binding");
-						}
-					}
-					break;
+		public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+			// recycle session if necessary
+			SocketAddress remoteAddress = e.getRemoteAddress();
+			IoSessionEx session = newSession(remoteAddress, localAddress);
+
+			// verify session can receive messages
+			if (!session.isReadSuspended()) {
+				// prepare message (NioWorker.readUdp already copied the datagram into its own buffer, so wrap it as is)
+				ChannelBuffer buf = (ChannelBuffer) e.getMessage();
+				IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+				IoBufferEx message = allocator.wrap(buf.toByteBuffer());
+
+				// deliver message
+				session.getFilterChain().fireMessageReceived(message);
+			}
+		}
+
+		@Override
+		public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e) throws Exception {
+			logger.debug("Exception caught on resource: " + localAddress, e.getCause());
+		}
+
+		@Override
+		public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+			// channel closed, so close sessions for this local address
+			Set<IoSession> managedSessions = new HashSet<>(getManagedSessions().values());
+			for (IoSession managedSession : managedSessions) {
+				if (localAddress.equals(managedSession.getLocalAddress())) {
+					managedSession.close(true);
 				}
 			}
+
+			Handle h = boundHandles.remove(localAddress);
+			if (h != this) {
+				throw new IllegalStateException("Duplicate local address binding");
+			}
 		}
 		
 		public void bind() throws IOException {
-			socket.joinGroup(groupAddress, device);
-			executeWorker(this);
+			channel = channelFactory.joinGroup(localAddress, this);
 		}
 		
 		public void unbind() throws IOException {
-			if (!socket.isClosed()) {
-				socket.leaveGroup(groupAddress, device);
-				socket.close();
+			DatagramChannel channel = this.channel;
+			if (channel != null) {
+				MulticastChannelFactory.leaveGroup(channel, localAddress);
 			}
 		}
 		
@@ -359,7 +362,7 @@ public class MulticastAcceptorImpl extends AbstractIoAcceptorEx {
 		
 		@Override
 		public void remove(MulticastSession session) {
-			session.getSocket().close();
+			session.getChannel().close();
 			
 	        getSessionRecycler().remove(session);
 	        getListeners().fireSessionDestroyed(session);
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.bio;
+
+import static java.lang.String.format;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.jboss.netty.channel.Channels.pipeline;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelHandler;
+import org.jboss.netty.channel.FixedReceiveBufferSizePredictor;
+import org.jboss.netty.channel.socket.DatagramChannel;
+import org.jboss.netty.channel.socket.DatagramChannelConfig;
+import org.jboss.netty.channel.socket.nio.NioClientDatagramChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioWorker;
+import org.jboss.netty.channel.socket.nio.NioWorkerPool;
+import org.jboss.netty.channel.socket.nio.WorkerPool;
+import org.jboss.netty.util.ExternalResourceReleasable;
+
+/**
+ * Opens the non-blocking datagram channels joined to multicast groups, which are then read by the selector
+ * of an NIO worker. Each worker receives into a single pooled buffer, so only the bytes of each received
+ * datagram are copied out for the session.
+ */
+final class MulticastChannelFactory {
+
+    // large enough for any datagram, as the receive buffer is pooled per worker rather than allocated per datagram
+    private static final int MAXIMUM_DATAGRAM_SIZE = 65536;
+
+    private final WorkerPool<NioWorker> workerPool;
+    private final boolean releaseWorkerPool;
+    private final NioClientDatagramChannelFactory channelFactory;
+
+    /**
+     * @param workerPool  the (shared) NIO worker pool running the channels, or null to run them on a single
+     *                    worker owned by this factory
+     */
+    MulticastChannelFactory(WorkerPool<NioWorker> workerPool) {
+        this.releaseWorkerPool = (workerPool == null);
+        this.workerPool = releaseWorkerPool ? new NioWorkerPool(newCachedThreadPool(), 1) : workerPool;
+        this.channelFactory = new NioClientDatagramChannelFactory(this.workerPool);
+    }
+
+    DatagramChannel joinGroup(MulticastAddress address, ChannelHandler handler) throws IOException {
+        DatagramChannel channel = channelFactory.newChannel(pipeline(handler));
+        DatagramChannelConfig config = channel.getConfig();
+        config.setReuseAddress(true);
+        config.setReceiveBufferSizePredictor(new FixedReceiveBufferSizePredictor(MAXIMUM_DATAGRAM_SIZE));
+
+        InetSocketAddress bindAddress = new InetSocketAddress(address.getGroupAddress(), address.getBindPort());
+        ChannelFuture bound = channel.bind(bindAddress).awaitUninterruptibly();
+        if (!bound.isSuccess()) {
+            channel.close();
+            throw new IOException(format("Unable to bind to %s", bindAddress), bound.getCause());
+        }
+
+        InetSocketAddress groupAddress = new InetSocketAddress(address.getGroupAddress(), 0);
+        ChannelFuture joined = channel.joinGroup(groupAddress, address.getDevice()).awaitUninterruptibly();
+        if (!joined.isSuccess()) {
+            channel.close();
+            throw new IOException(format("Unable to join group %s", address), joined.getCause());
+        }
+
+        return channel;
+    }
+
+    static void leaveGroup(DatagramChannel channel, MulticastAddress address) {
+        if (channel.isOpen()) {
+            InetSocketAddress groupAddress = new InetSocketAddress(address.getGroupAddress(), 0);
+            channel.leaveGroup(groupAddress, address.getDevice());
+            channel.close();
+        }
+    }
+
+    void dispose() {
+        // note: a shared worker pool is left to its owner
+        if (releaseWorkerPool) {
+            workerPool.shutdown();
+            if (workerPool instanceof ExternalResourceReleasable) {
+                ((ExternalResourceReleasable) workerPool).releaseExternalResources();
+            }
+        }
+    }
+}
@@ -20,6 +20,8 @@ import java.util.Properties;
 import javax.annotation.Resource;
 
 import org.apache.mina.core.service.IoConnector;
+import org.jboss.netty.channel.socket.nio.NioWorker;
+import org.jboss.netty.channel.socket.nio.WorkerPool;
 import org.kaazing.gateway.resource.address.ResourceAddressFactory;
 import org.kaazing.gateway.transport.BridgeServiceFactory;
 import org.kaazing.gateway.transport.SocketAddressFactory;
@@ -35,6 +37,8 @@ public class MulticastConnector extends AbstractBioConnector<MulticastAddress> {
         super(LoggerFactory.getLogger("transport.bio"));
     }
 
+    private WorkerPool<NioWorker> workerPool;
+
     @Resource(name = "bridgeServiceFactory")
     public void setBridgeServiceFactory(BridgeServiceFactory bridgeServiceFactory) {
         this.bridgeServiceFactory = bridgeServiceFactory;
@@ -45,6 +49,14 @@ public class MulticastConnector extends AbstractBioConnector<MulticastAddress> {
         this.resourceAddressFactory = factory;
     }
 
+    /**
+     * Sets the NIO worker pool reading the multicast channels, shared with the other NIO transports.
+     * When not set, the channels are read by a dedicated worker.
+     */
+    public void setWorkerPool(WorkerPool<NioWorker> workerPool) {
+        this.workerPool = workerPool;
+    }
+
     @Override
     protected ResourceAddressFactory initResourceAddressFactory() {
         return resourceAddressFactory;
@@ -68,7 +80,7 @@ public class MulticastConnector extends AbstractBioConnector<MulticastAddress> {
 
     @Override
 	protected IoConnector initConnector() {
-		MulticastConnectorImpl connector = new MulticastConnectorImpl(resourceAddressFactory);
+		MulticastConnectorImpl connector = new MulticastConnectorImpl(resourceAddressFactory, workerPool);
         String property = configuration.getProperty("org.kaazing.gateway.transport.udp.READ_BUFFER_SIZE");
         if (property != null) {
         	int readBufferSize = Integer.parseInt(property);
@@ -18,10 +18,7 @@ package org.kaazing.gateway.transport.bio;
 import static java.lang.String.format;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
 import java.net.InetAddress;
-import java.net.InetSocketAddress;
-import java.net.MulticastSocket;
 import java.net.NetworkInterface;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
@@ -42,6 +39,15 @@ import org.apache.mina.core.session.IoSessionInitializer;
 import org.apache.mina.transport.socket.DatagramSessionConfigEx;
 import org.apache.mina.transport.socket.DefaultDatagramSessionConfigEx;
 import org.apache.mina.util.ConcurrentHashSet;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ExceptionEvent;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.socket.DatagramChannel;
+import org.jboss.netty.channel.socket.nio.NioWorker;
+import org.jboss.netty.channel.socket.nio.WorkerPool;
 import org.kaazing.gateway.resource.address.ResourceAddress;
 import org.kaazing.gateway.resource.address.ResourceAddressFactory;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
@@ -59,15 +65,24 @@ public class MulticastConnectorImpl extends AbstractIoConnectorEx {
     private final ConcurrentMap<SocketAddress, Handle> boundHandles;
 	private final MulticastProcessor processor;
 	private final AtomicInteger nextId;
+	private final MulticastChannelFactory channelFactory;
 
     private ResourceAddressFactory resourceAddressFactory;
 	
     public MulticastConnectorImpl(ResourceAddressFactory resourceAddressFactory) {
+        this(resourceAddressFactory, null);
+    }
+
+    /**
+     * @param workerPool  the NIO worker pool reading the multicast channels, or null to use a dedicated worker
+     */
+    public MulticastConnectorImpl(ResourceAddressFactory resourceAddressFactory, WorkerPool<NioWorker> workerPool) {
         super(new DefaultDatagramSessionConfigEx(), null);
         this.resourceAddressFactory = resourceAddressFactory;
         processor = new MulticastProcessor();
 		boundHandles = new ConcurrentHashMap<>();
 		this.nextId = new AtomicInteger();
+		this.channelFactory = new MulticastChannelFactory(workerPool);
 	}
 
 	@Override
@@ -88,8 +103,8 @@ public class MulticastConnectorImpl extends AbstractIoConnectorEx {
 			
 			if (handle == null) {
 				handle = newHandle;
-				handle.joinGroup();
 			}
+			handle.joinGroup();
 			
 			// generate unique identifier for client session
 			InetAddress groupAddress = remoteMulticastAddress.getGroupAddress();
@@ -112,6 +127,7 @@ public class MulticastConnectorImpl extends AbstractIoConnectorEx {
 		for (Handle handle : boundHandles.values()) {
 			handle.leaveGroup();
 		}
+		channelFactory.dispose();
 		
 		return null;
 	}
@@ -126,65 +142,53 @@ public class MulticastConnectorImpl extends AbstractIoConnectorEx {
         return (DatagramSessionConfigEx) super.getSessionConfig();
     }
 
-	private class Handle implements Runnable {
+	private class Handle extends SimpleChannelUpstreamHandler {
 
-		private final MulticastSocket socket;
 		private final MulticastAddress remoteAddress;
-		private final InetSocketAddress groupAddress;
-		private final NetworkInterface device;
 		private final Set<IoSessionEx> dispatchSessions;
+		private volatile DatagramChannel channel;
 		
-		public Handle(MulticastAddress remoteAddress) throws IOException {
+		public Handle(MulticastAddress remoteAddress) {
 			this.remoteAddress = remoteAddress;
-			this.socket = new MulticastSocket(new InetSocketAddress(remoteAddress.getGroupAddress(), remoteAddress.getBindPort()));
-			this.groupAddress = new InetSocketAddress(remoteAddress.getGroupAddress(), 0);
-			this.device = remoteAddress.getDevice();
 			this.dispatchSessions = new ConcurrentHashSet<>();
 		}
 
 		@Override
-		public void run() {
-			while (socket.isBound()) {
-				try {
-					// blocking read or exception on close
-					byte[] buf = new byte[socket.getReceiveBufferSize()];
-					DatagramPacket packet = new DatagramPacket(buf, buf.length);
-					socket.receive(packet);
+		public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+			if (!dispatchSessions.isEmpty()) {
+				// prepare message (NioWorker.readUdp already copied the datagram into its own buffer, so wrap it as is)
+				ChannelBuffer buf = (ChannelBuffer) e.getMessage();
+				ByteBuffer message = buf.toByteBuffer();
 
-					if (!dispatchSessions.isEmpty()) {
-						// prepare message
-						byte[] data = packet.getData();
-						int offset = packet.getOffset();
-						int length = packet.getLength();
-						ByteBuffer message = ByteBuffer.wrap(data, offset, length);
-	
-						for (IoSessionEx dispatchSession : dispatchSessions) {
-							// verify session can receive messages
-							if (!dispatchSession.isReadSuspended()) {
-								// deliver message
-							    IoBufferAllocatorEx<?> allocator = dispatchSession.getBufferAllocator();
-								dispatchSession.getFilterChain().fireMessageReceived(allocator.wrap(message.duplicate()));
-							}
-						}
+				for (IoSessionEx dispatchSession : dispatchSessions) {
+					// verify session can receive messages
+					if (!dispatchSession.isReadSuspended()) {
+						// deliver message
+					    IoBufferAllocatorEx<?> allocator = dispatchSession.getBufferAllocator();
+						dispatchSession.getFilterChain().fireMessageReceived(allocator.wrap(message.duplicate()));
 					}
-				} 
-				catch (IOException e) {
-					if (socket.isClosed()) {
-						// socket closed, so close sessions for this local address
-						for (IoSession dispatchSession : dispatchSessions) {
-							if (remoteAddress.equals(dispatchSession.getRemoteAddress())) {
-								dispatchSession.close(true);
-							}
-						}
+				}
+			}
+		}
 
-						Handle h = boundHandles.remove(remoteAddress);
-						if (h != this) {
-							throw new IllegalStateException("Duplicate local address binding");
-						}
-					}
-					break;
+		@Override
+		public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e) throws Exception {
+			logger.debug("Exception caught on resource: " + remoteAddress, e.getCause());
+		}
+
+		@Override
+		public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+			// channel closed, so close sessions for this remote address
+			for (IoSession dispatchSession : dispatchSessions) {
+				if (remoteAddress.equals(dispatchSession.getRemoteAddress())) {
+					dispatchSession.close(true);
 				}
 			}
+
+			Handle h = boundHandles.remove(remoteAddress);
+			if (h != this) {
+				throw new IllegalStateException("Duplicate local address binding");
+			}
 		}
 
 		public ConnectFuture connect(SocketAddress localAddress, IoSessionInitializer<? extends ConnectFuture> sessionInitializer) {
@@ -192,7 +196,7 @@ public class MulticastConnectorImpl extends AbstractIoConnectorEx {
             String uri = format("udp://%s:%d", multicastAddress.getGroupAddress().getHostAddress(),
                     multicastAddress.getBindPort());
             ResourceAddress resourceAddress = resourceAddressFactory.newResourceAddress(uri);
-            final MulticastSession newSession = new MulticastSession(MulticastConnectorImpl.this, processor, socket,
+            final MulticastSession newSession = new MulticastSession(MulticastConnectorImpl.this, processor, channel,
                     resourceAddress, remoteAddress);
 
             DefaultConnectFuture connectFuture = new DefaultConnectFuture();
@@ -209,15 +213,17 @@ public class MulticastConnectorImpl extends AbstractIoConnectorEx {
             return connectFuture;
 		}
 		
-		public void joinGroup() throws IOException {
-			socket.joinGroup(groupAddress, device);
-			executeWorker(this);
+		public synchronized void joinGroup() throws IOException {
+			// joined by the first connect, which concurrent connects to the same group wait for
+			if (channel == null) {
+				channel = channelFactory.joinGroup(remoteAddress, this);
+			}
 		}
 		
 		public void leaveGroup() throws IOException {
-			if (!socket.isClosed()) {
-				socket.leaveGroup(groupAddress, device);
-				socket.close();
+			DatagramChannel channel = this.channel;
+			if (channel != null) {
+				MulticastChannelFactory.leaveGroup(channel, remoteAddress);
 			}
 		}
 	}
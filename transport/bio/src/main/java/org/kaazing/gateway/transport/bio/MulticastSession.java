@@ -15,7 +15,6 @@
  */
 package org.kaazing.gateway.transport.bio;
 
-import java.net.MulticastSocket;
 import java.net.SocketAddress;
 
 import org.apache.mina.core.buffer.IoBuffer;
@@ -25,6 +24,7 @@ import org.apache.mina.core.service.TransportMetadata;
 import org.apache.mina.transport.socket.DatagramSessionConfig;
 import org.apache.mina.transport.socket.DatagramSessionConfigEx;
 import org.apache.mina.transport.socket.DefaultDatagramSessionConfigEx;
+import org.jboss.netty.channel.socket.DatagramChannel;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
 import org.kaazing.mina.core.buffer.SimpleBufferAllocator;
 import org.kaazing.mina.core.service.IoProcessorEx;
@@ -42,21 +42,21 @@ class MulticastSession extends AbstractIoSessionEx {
 
 	private final IoServiceEx service;
 	private final IoProcessorEx<MulticastSession> processor;
-	private final MulticastSocket socket;
+	private final DatagramChannel channel;
 	private final SocketAddress localAddress;
 	private final SocketAddress remoteAddress;
 	private final DatagramSessionConfigEx config;
 	private final IoBufferAllocatorEx<?> allocator;
 	
-	public MulticastSession(IoServiceEx service, IoProcessorEx<MulticastSession> processor, MulticastSocket socket, SocketAddress localAddress, SocketAddress remoteAddress) {
-	    this(0, service, processor, socket, localAddress, remoteAddress);
+	public MulticastSession(IoServiceEx service, IoProcessorEx<MulticastSession> processor, DatagramChannel channel, SocketAddress localAddress, SocketAddress remoteAddress) {
+	    this(0, service, processor, channel, localAddress, remoteAddress);
 	}
 	
-    public MulticastSession(int ioLayer, IoServiceEx service, IoProcessorEx<MulticastSession> processor, MulticastSocket socket, SocketAddress localAddress, SocketAddress remoteAddress) {
+    public MulticastSession(int ioLayer, IoServiceEx service, IoProcessorEx<MulticastSession> processor, DatagramChannel channel, SocketAddress localAddress, SocketAddress remoteAddress) {
 	    super(ioLayer, IoSessionEx.CURRENT_THREAD, IoSessionEx.IMMEDIATE_EXECUTOR, service.getThreadLocalWriteRequest(ioLayer));
 		this.service = service;
 		this.processor = processor;
-		this.socket = socket;
+		this.channel = channel;
 		this.localAddress = localAddress;
 		this.remoteAddress = remoteAddress;
 		this.config = new DefaultDatagramSessionConfigEx();
@@ -103,8 +103,8 @@ class MulticastSession extends AbstractIoSessionEx {
 		return TRANSPORT_METADATA;
 	}
 
-	public MulticastSocket getSocket() {
-		return socket;
+	public DatagramChannel getChannel() {
+		return channel;
 	}
 
 }
@@ -616,6 +616,10 @@ public class DefaultHttpSession extends AbstractBridgeSession<DefaultHttpSession
         // if there is no content length specified, is chunking necessary?
         // well, yes usually.  but if you are a wrapped response at the httpxe layer and a legacy client, then no.
         // why? because the content is length-encoded already.
+        // HTTP/2 streams delimit content with DATA frames, so never need chunking either.
+        if (getParent() instanceof Http2StreamSession) {
+            return false;
+        }
 
         ResourceAddress address = getLocalAddress().getTransport();
         return address != null &&
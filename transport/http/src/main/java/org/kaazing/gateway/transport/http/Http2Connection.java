@@ -0,0 +1,922 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http;
+
+import static java.lang.String.format;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.DEFAULT_HEADER_TABLE_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.DEFAULT_INITIAL_WINDOW_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.DEFAULT_MAX_FRAME_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_ACK;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_END_HEADERS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_END_STREAM;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_PADDED;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_PRIORITY;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLOW_CONTROL_ERROR;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FRAME_SIZE_ERROR;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.INTERNAL_ERROR;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.MAX_MAX_FRAME_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.MAX_WINDOW_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.NO_ERROR;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.PROTOCOL_ERROR;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.REFUSED_STREAM;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.ENHANCE_YOUR_CALM;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.SETTINGS_ENABLE_PUSH;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.SETTINGS_HEADER_TABLE_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.SETTINGS_INITIAL_WINDOW_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.SETTINGS_MAX_CONCURRENT_STREAMS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.SETTINGS_MAX_FRAME_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.SETTINGS_MAX_HEADER_LIST_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.STREAM_CLOSED;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_CONTINUATION;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_DATA;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_GOAWAY;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_HEADERS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_PING;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_PRIORITY;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_PUSH_PROMISE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_RST_STREAM;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_SETTINGS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_WINDOW_UPDATE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.mina.core.file.FileRegion;
+import org.apache.mina.core.filterchain.IoFilterChain;
+import org.apache.mina.core.future.IoFutureListener;
+import org.apache.mina.core.future.WriteFuture;
+import org.apache.mina.core.service.IoHandler;
+import org.apache.mina.filter.codec.ProtocolDecoderException;
+import org.kaazing.gateway.transport.LoggingUtils;
+import org.kaazing.gateway.transport.http.bridge.HttpContentMessage;
+import org.kaazing.gateway.transport.http.bridge.HttpRequestMessage;
+import org.kaazing.gateway.transport.http.bridge.HttpResponseMessage;
+import org.kaazing.gateway.transport.http.bridge.filter.HpackDecoder;
+import org.kaazing.gateway.transport.http.bridge.filter.HpackEncoder;
+import org.kaazing.gateway.transport.http.bridge.filter.Http2FrameDecoder;
+import org.kaazing.gateway.transport.http.bridge.filter.Http2FrameEncoder;
+import org.kaazing.gateway.transport.http.bridge.filter.Http2HeadersCodec;
+import org.kaazing.gateway.transport.http.bridge.filter.Http2ProtocolException;
+import org.kaazing.gateway.transport.http.bridge.filter.HttpGzipEncoder;
+import org.kaazing.gateway.transport.http.bridge.filter.HttpProtocolDecoderException;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+import org.kaazing.mina.core.service.IoServiceEx;
+import org.kaazing.mina.core.session.IoSessionEx;
+import org.slf4j.Logger;
+
+/**
+ * The server side of an HTTP/2 connection (RFC 7540) on a TCP or SSL session. Each request stream is
+ * delivered on its own {@link Http2StreamSession} to the http bridge handler, so the accept filters,
+ * {@link DefaultHttpSession} and the services above see the same messages as for HTTP/1.1.
+ *
+ * Server push is not used, and stream priorities are ignored. All methods run on the I/O thread
+ * of the connection.
+ */
+final class Http2Connection implements Http2FrameDecoder.Listener {
+
+    static final byte[] PREFACE = "PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    // limits the memory a client can make us hold for a header block split into CONTINUATION frames
+    private static final int MAX_HEADER_BLOCK_SIZE = 65536;
+
+    // limits the decoded size of a header list, which HPACK lets a small header block inflate far beyond
+    private static final int MAX_HEADER_LIST_SIZE = 65536;
+
+    private final IoSessionEx session;
+    private final IoServiceEx service;
+    private final IoHandler handler;
+    private final Http2StreamProcessor processor;
+    private final Logger logger;
+    private final int maxConcurrentStreams;
+    private final boolean secure;
+
+    private final IoBufferAllocatorEx<?> allocator;
+    private final Http2FrameDecoder frameDecoder;
+    private final Http2FrameEncoder frameEncoder;
+    private final HpackDecoder hpackDecoder;
+    private final HpackEncoder hpackEncoder;
+    private final Map<Integer, Http2StreamSession> streams;
+
+    private int lastStreamId;
+    private int peerInitialWindowSize = DEFAULT_INITIAL_WINDOW_SIZE;
+    private int peerMaxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+    private int sendWindow = DEFAULT_INITIAL_WINDOW_SIZE;
+    private int receiveWindowConsumed;
+
+    // header block spanning a HEADERS frame and its CONTINUATION frames
+    private int headersStreamId;
+    private boolean headersEndStream;
+    private ByteBuffer headerBlock;
+
+    private boolean goAwayReceived;
+    private boolean closed;
+
+    Http2Connection(IoSessionEx session, IoServiceEx service, IoHandler handler, Http2StreamProcessor processor,
+            Logger logger, int maxConcurrentStreams, boolean secure) {
+        this.session = session;
+        this.service = service;
+        this.handler = handler;
+        this.processor = processor;
+        this.logger = logger;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.secure = secure;
+        this.allocator = session.getBufferAllocator();
+        this.frameDecoder = new Http2FrameDecoder(DEFAULT_MAX_FRAME_SIZE);
+        this.frameEncoder = new Http2FrameEncoder(allocator);
+        this.hpackDecoder = new HpackDecoder(DEFAULT_HEADER_TABLE_SIZE, MAX_HEADER_LIST_SIZE);
+        this.hpackEncoder = new HpackEncoder(DEFAULT_HEADER_TABLE_SIZE);
+        this.streams = new LinkedHashMap<>();
+    }
+
+    /**
+     * Sends the server connection preface, called once the client connection preface has been received.
+     */
+    void start() {
+        session.write(frameEncoder.settings(SETTINGS_MAX_CONCURRENT_STREAMS, maxConcurrentStreams,
+                SETTINGS_MAX_HEADER_LIST_SIZE, MAX_HEADER_LIST_SIZE));
+    }
+
+    void messageReceived(IoBufferEx buf) {
+        if (closed) {
+            return;
+        }
+
+        try {
+            frameDecoder.decode(buf.buf(), this);
+        }
+        catch (Http2ProtocolException e) {
+            connectionError(e.getErrorCode(), e);
+        }
+        catch (ProtocolDecoderException e) {
+            connectionError(PROTOCOL_ERROR, e);
+        }
+    }
+
+    /**
+     * Closes every stream when the connection is closed.
+     */
+    void sessionClosed() {
+        closed = true;
+        for (Http2StreamSession stream : new ArrayList<>(streams.values())) {
+            stream.close(true);
+        }
+        streams.clear();
+    }
+
+    @Override
+    public void frameReceived(int type, int flags, int streamId, ByteBuffer payload) throws ProtocolDecoderException {
+        if (closed) {
+            return;
+        }
+
+        try {
+            if (headersStreamId != 0 && type != TYPE_CONTINUATION) {
+                throw new Http2ProtocolException("Expected CONTINUATION frame for stream " + headersStreamId);
+            }
+
+            switch (type) {
+            case TYPE_DATA:
+                onData(flags, streamId, payload);
+                break;
+            case TYPE_HEADERS:
+                onHeaders(flags, streamId, payload);
+                break;
+            case TYPE_PRIORITY:
+                onPriority(streamId, payload);
+                break;
+            case TYPE_RST_STREAM:
+                onRstStream(streamId, payload);
+                break;
+            case TYPE_SETTINGS:
+                onSettings(flags, streamId, payload);
+                break;
+            case TYPE_PUSH_PROMISE:
+                throw new Http2ProtocolException("PUSH_PROMISE received by server");
+            case TYPE_PING:
+                onPing(flags, streamId, payload);
+                break;
+            case TYPE_GOAWAY:
+                onGoAway(streamId);
+                break;
+            case TYPE_WINDOW_UPDATE:
+                onWindowUpdate(streamId, payload);
+                break;
+            case TYPE_CONTINUATION:
+                onContinuation(flags, streamId, payload);
+                break;
+            default:
+                // unknown frame types must be ignored
+                break;
+            }
+        }
+        catch (Http2ProtocolException e) {
+            if (e.isConnectionError()) {
+                throw e;
+            }
+            // stream errors only affect the stream, the connection carries on
+            if (logger.isDebugEnabled()) {
+                logger.debug(format("Resetting HTTP/2 stream %d on %s: %s", e.getStreamId(), session, e.getMessage()));
+            }
+            resetStream(e.getStreamId(), e.getErrorCode());
+        }
+    }
+
+    private void onData(int flags, int streamId, ByteBuffer payload) throws ProtocolDecoderException {
+        if (streamId == 0) {
+            throw new Http2ProtocolException("DATA frame on stream 0");
+        }
+
+        // flow control covers the whole payload, including padding; connection credit is returned as soon as
+        // the frame is handed to its stream, since the stream window bounds what is held for a slow reader
+        int length = payload.remaining();
+        receiveWindowConsumed += length;
+        if (receiveWindowConsumed > DEFAULT_INITIAL_WINDOW_SIZE) {
+            throw new Http2ProtocolException("Connection flow control window exceeded", FLOW_CONTROL_ERROR);
+        }
+        if (receiveWindowConsumed >= DEFAULT_INITIAL_WINDOW_SIZE / 2) {
+            session.write(frameEncoder.windowUpdate(0, receiveWindowConsumed));
+            receiveWindowConsumed = 0;
+        }
+
+        removePadding(flags, payload);
+
+        Http2StreamSession stream = streams.get(streamId);
+        if (stream == null) {
+            if (streamId > lastStreamId) {
+                throw new Http2ProtocolException("DATA frame on idle stream " + streamId);
+            }
+            throw new Http2ProtocolException("DATA frame on closed stream", STREAM_CLOSED, streamId);
+        }
+        if (stream.remoteClosed) {
+            throw new Http2ProtocolException("DATA frame on half-closed stream", STREAM_CLOSED, streamId);
+        }
+
+        boolean endStream = (flags & FLAG_END_STREAM) != 0;
+        stream.receiveWindowConsumed += length;
+        if (stream.receiveWindowConsumed > DEFAULT_INITIAL_WINDOW_SIZE) {
+            throw new Http2ProtocolException("Stream flow control window exceeded", FLOW_CONTROL_ERROR, streamId);
+        }
+
+        // padding, and content buffered for the request, are consumed straight away
+        stream.receiveWindowCredit += length - payload.remaining();
+        if (stream.bufferedRequest != null) {
+            if (payload.remaining() > stream.bufferedContent.remaining()) {
+                throw new Http2ProtocolException("Request content exceeds content-length", PROTOCOL_ERROR, streamId);
+            }
+            stream.receiveWindowCredit += payload.remaining();
+            stream.bufferedContent.put(payload);
+        }
+        else if (payload.hasRemaining()) {
+            // copy, since the received buffer may be reused once this frame has been handled
+            ByteBuffer content = allocator.allocate(payload.remaining());
+            int offset = content.position();
+            content.put(payload);
+            content.limit(content.position());
+            content.position(offset);
+            HttpContentMessage message = new HttpContentMessage(allocator.wrap(content), false);
+            if (stream.isReadSuspended() || stream.receivedContent != null) {
+                // held until reads resume, the stream window bounds how much the client can send meanwhile
+                if (stream.receivedContent == null) {
+                    stream.receivedContent = new ArrayDeque<>();
+                }
+                stream.receivedContent.add(message);
+            }
+            else {
+                stream.receiveWindowCredit += message.length();
+                stream.getFilterChain().fireMessageReceived(message);
+            }
+        }
+
+        if (endStream) {
+            remoteEnd(stream);
+        }
+        else {
+            creditStream(stream);
+        }
+    }
+
+    private void onHeaders(int flags, int streamId, ByteBuffer payload) throws ProtocolDecoderException {
+        if (streamId == 0 || (streamId & 1) == 0) {
+            throw new Http2ProtocolException("HEADERS frame on invalid stream " + streamId);
+        }
+
+        removePadding(flags, payload);
+        if ((flags & FLAG_PRIORITY) != 0) {
+            if (payload.remaining() < 5) {
+                throw new Http2ProtocolException("HEADERS frame too short for priority", FRAME_SIZE_ERROR);
+            }
+            payload.position(payload.position() + 5);
+        }
+
+        headersStreamId = streamId;
+        headersEndStream = (flags & FLAG_END_STREAM) != 0;
+        headerBlock = ByteBuffer.allocate(Math.max(payload.remaining(), 256));
+        headerBlock.put(payload);
+
+        if ((flags & FLAG_END_HEADERS) != 0) {
+            headersComplete();
+        }
+    }
+
+    private void onContinuation(int flags, int streamId, ByteBuffer payload) throws ProtocolDecoderException {
+        if (headersStreamId == 0 || streamId != headersStreamId) {
+            throw new Http2ProtocolException("Unexpected CONTINUATION frame on stream " + streamId);
+        }
+
+        if (payload.remaining() > headerBlock.remaining()) {
+            int required = headerBlock.position() + payload.remaining();
+            if (required > MAX_HEADER_BLOCK_SIZE) {
+                throw new Http2ProtocolException("Header block too large", ENHANCE_YOUR_CALM);
+            }
+            ByteBuffer newHeaderBlock = ByteBuffer.allocate(Math.min(Math.max(required, headerBlock.capacity() * 2), MAX_HEADER_BLOCK_SIZE));
+            headerBlock.flip();
+            newHeaderBlock.put(headerBlock);
+            headerBlock = newHeaderBlock;
+        }
+        headerBlock.put(payload);
+
+        if ((flags & FLAG_END_HEADERS) != 0) {
+            headersComplete();
+        }
+    }
+
+    private void headersComplete() throws ProtocolDecoderException {
+        int streamId = headersStreamId;
+        ByteBuffer block = headerBlock;
+        headersStreamId = 0;
+        headerBlock = null;
+
+        // always decode, the dynamic table must stay in step with the client even if the stream is refused
+        final List<String> fields = new ArrayList<>();
+        block.flip();
+        boolean withinLimit = hpackDecoder.decode(block, new HpackDecoder.Listener() {
+            @Override
+            public void header(String name, String value) {
+                fields.add(name);
+                fields.add(value);
+            }
+        });
+
+        Http2StreamSession stream = streams.get(streamId);
+        if (stream != null) {
+            // trailers, which must end the stream, are not passed on
+            if (stream.remoteClosed) {
+                throw new Http2ProtocolException("HEADERS frame on half-closed stream", STREAM_CLOSED, streamId);
+            }
+            if (!headersEndStream) {
+                throw new Http2ProtocolException("Trailers without END_STREAM", PROTOCOL_ERROR, streamId);
+            }
+            if (!withinLimit) {
+                throw new Http2ProtocolException("Header list too large", ENHANCE_YOUR_CALM, streamId);
+            }
+            remoteEnd(stream);
+            return;
+        }
+
+        if (streamId <= lastStreamId) {
+            throw new Http2ProtocolException("HEADERS frame on closed stream " + streamId, STREAM_CLOSED);
+        }
+        lastStreamId = streamId;
+
+        if (streams.size() >= maxConcurrentStreams) {
+            throw new Http2ProtocolException("Maximum concurrent streams exceeded", REFUSED_STREAM, streamId);
+        }
+
+        if (!withinLimit) {
+            writeErrorResponse(streamId, HttpStatus.CLIENT_REQUEST_HEADER_FIELDS_TOO_LARGE);
+            return;
+        }
+
+        HttpRequestMessage httpRequest;
+        int contentLength;
+        try {
+            httpRequest = Http2HeadersCodec.decodeRequest(fields, streamId, secure);
+            contentLength = Http2HeadersCodec.bufferedContentLength(httpRequest, streamId);
+        }
+        catch (Http2ProtocolException e) {
+            throw e;
+        }
+        catch (HttpProtocolDecoderException e) {
+            writeErrorResponse(streamId, e.getHttpStatus());
+            return;
+        }
+        catch (Exception e) {
+            writeErrorResponse(streamId, HttpStatus.CLIENT_BAD_REQUEST);
+            return;
+        }
+
+        stream = new Http2StreamSession(this, streamId, session, service, processor, handler, peerInitialWindowSize);
+        streams.put(streamId, stream);
+
+        IoFilterChain filterChain = stream.getFilterChain();
+        filterChain.fireSessionCreated();
+        filterChain.fireSessionOpened();
+
+        if (headersEndStream) {
+            stream.remoteClosed = true;
+            httpRequest.setContent(new HttpContentMessage(allocator.wrap(allocator.allocate(0)), true));
+            filterChain.fireMessageReceived(httpRequest);
+        }
+        else if (contentLength >= 0) {
+            // as for HTTP/1.1, small fixed length content is delivered with the request
+            stream.bufferedRequest = httpRequest;
+            stream.bufferedContent = ByteBuffer.allocate(contentLength);
+        }
+        else {
+            httpRequest.setContent(new HttpContentMessage(allocator.wrap(allocator.allocate(0)), false));
+            filterChain.fireMessageReceived(httpRequest);
+        }
+    }
+
+    private void onPriority(int streamId, ByteBuffer payload) throws Http2ProtocolException {
+        if (streamId == 0) {
+            throw new Http2ProtocolException("PRIORITY frame on stream 0");
+        }
+        if (payload.remaining() != 5) {
+            throw new Http2ProtocolException("Invalid PRIORITY frame length", FRAME_SIZE_ERROR, streamId);
+        }
+    }
+
+    private void onRstStream(int streamId, ByteBuffer payload) throws Http2ProtocolException {
+        if (streamId == 0 || streamId > lastStreamId) {
+            throw new Http2ProtocolException("RST_STREAM frame on idle stream " + streamId);
+        }
+        if (payload.remaining() != 4) {
+            throw new Http2ProtocolException("Invalid RST_STREAM frame length", FRAME_SIZE_ERROR);
+        }
+        Http2StreamSession stream = streams.get(streamId);
+        if (stream != null) {
+            stream.reset = true;
+            stream.close(true);
+        }
+    }
+
+    private void onSettings(int flags, int streamId, ByteBuffer payload) throws Http2ProtocolException {
+        if (streamId != 0) {
+            throw new Http2ProtocolException("SETTINGS frame on stream " + streamId);
+        }
+        if ((flags & FLAG_ACK) != 0) {
+            if (payload.hasRemaining()) {
+                throw new Http2ProtocolException("SETTINGS acknowledgement with payload", FRAME_SIZE_ERROR);
+            }
+            return;
+        }
+        if (payload.remaining() % 6 != 0) {
+            throw new Http2ProtocolException("Invalid SETTINGS frame length", FRAME_SIZE_ERROR);
+        }
+
+        while (payload.hasRemaining()) {
+            int identifier = payload.getShort() & 0xffff;
+            int value = payload.getInt();
+            switch (identifier) {
+            case SETTINGS_HEADER_TABLE_SIZE:
+                hpackEncoder.setMaxTableSize(value < 0 ? Integer.MAX_VALUE : value);
+                break;
+            case SETTINGS_ENABLE_PUSH:
+                if (value != 0 && value != 1) {
+                    throw new Http2ProtocolException("Invalid SETTINGS_ENABLE_PUSH " + value);
+                }
+                break;
+            case SETTINGS_INITIAL_WINDOW_SIZE:
+                if (value < 0) {
+                    throw new Http2ProtocolException("Invalid SETTINGS_INITIAL_WINDOW_SIZE", FLOW_CONTROL_ERROR);
+                }
+                int delta = value - peerInitialWindowSize;
+                peerInitialWindowSize = value;
+                for (Http2StreamSession stream : streams.values()) {
+                    if ((long) stream.sendWindow + delta > MAX_WINDOW_SIZE) {
+                        throw new Http2ProtocolException("Stream flow control window overflow", FLOW_CONTROL_ERROR);
+                    }
+                    stream.sendWindow += delta;
+                }
+                break;
+            case SETTINGS_MAX_FRAME_SIZE:
+                if (value < DEFAULT_MAX_FRAME_SIZE || value > MAX_MAX_FRAME_SIZE) {
+                    throw new Http2ProtocolException("Invalid SETTINGS_MAX_FRAME_SIZE " + value);
+                }
+                peerMaxFrameSize = value;
+                break;
+            default:
+                // SETTINGS_MAX_CONCURRENT_STREAMS and SETTINGS_MAX_HEADER_LIST_SIZE do not constrain a server
+                // that never pushes and whose response headers are small, unknown settings must be ignored
+                break;
+            }
+        }
+
+        session.write(frameEncoder.settingsAck());
+        flushBlockedStreams();
+    }
+
+    private void onPing(int flags, int streamId, ByteBuffer payload) throws Http2ProtocolException {
+        if (streamId != 0) {
+            throw new Http2ProtocolException("PING frame on stream " + streamId);
+        }
+        if (payload.remaining() != 8) {
+            throw new Http2ProtocolException("Invalid PING frame length", FRAME_SIZE_ERROR);
+        }
+        if ((flags & FLAG_ACK) == 0) {
+            session.write(frameEncoder.pingAck(payload));
+        }
+    }
+
+    private void onGoAway(int streamId) throws Http2ProtocolException {
+        if (streamId != 0) {
+            throw new Http2ProtocolException("GOAWAY frame on stream " + streamId);
+        }
+        // let streams in progress complete, then close
+        goAwayReceived = true;
+        if (streams.isEmpty()) {
+            session.close(false);
+        }
+    }
+
+    private void onWindowUpdate(int streamId, ByteBuffer payload) throws Http2ProtocolException {
+        if (payload.remaining() != 4) {
+            throw new Http2ProtocolException("Invalid WINDOW_UPDATE frame length", FRAME_SIZE_ERROR);
+        }
+        int increment = payload.getInt() & 0x7fffffff;
+        if (increment == 0) {
+            throw new Http2ProtocolException("WINDOW_UPDATE with zero increment", PROTOCOL_ERROR, streamId);
+        }
+
+        if (streamId == 0) {
+            if ((long) sendWindow + increment > MAX_WINDOW_SIZE) {
+                throw new Http2ProtocolException("Connection flow control window overflow", FLOW_CONTROL_ERROR);
+            }
+            sendWindow += increment;
+            flushBlockedStreams();
+        }
+        else {
+            Http2StreamSession stream = streams.get(streamId);
+            if (stream != null) {
+                if ((long) stream.sendWindow + increment > MAX_WINDOW_SIZE) {
+                    throw new Http2ProtocolException("Stream flow control window overflow", FLOW_CONTROL_ERROR, streamId);
+                }
+                stream.sendWindow += increment;
+                if (stream.pendingData != null) {
+                    processor.flush(stream);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a message from the stream session as frames.
+     *
+     * @return false if the message could not be written completely because of flow control, in which case
+     *         the rest is written when the client opens the flow control window
+     */
+    boolean write(Http2StreamSession stream, Object message, WriteFuture future) {
+        if (closed || stream.reset) {
+            stream.pendingData = null;
+            stream.pendingFuture = null;
+            future.setException(new IOException(format("HTTP/2 stream %d closed", stream.getStreamId())));
+            return true;
+        }
+
+        if (stream.pendingData != null) {
+            return flushData(stream);
+        }
+
+        if (message instanceof HttpResponseMessage) {
+            return writeResponse(stream, (HttpResponseMessage) message, future);
+        }
+
+        ByteBuffer data;
+        boolean endStream;
+        if (message instanceof HttpContentMessage) {
+            HttpContentMessage httpContent = (HttpContentMessage) message;
+            data = Http2HeadersCodec.encodeContent(httpContent, allocator).buf().duplicate();
+            endStream = httpContent.isComplete();
+        }
+        else if (message instanceof IoBufferEx) {
+            data = ((IoBufferEx) message).buf().duplicate();
+            endStream = false;
+        }
+        else if (message instanceof FileRegion) {
+            // transport metadata for streams excludes file regions, so they are always converted to buffers
+            throw new IllegalStateException("Unexpected file region on HTTP/2 stream");
+        }
+        else {
+            throw new IllegalStateException("Don't know how to handle message of type '" + message.getClass().getName() + "'.");
+        }
+
+        if (stream.endStreamSent) {
+            // e.g. the empty final content following a complete response
+            if (data.hasRemaining()) {
+                future.setException(new IOException(format("HTTP/2 stream %d already ended", stream.getStreamId())));
+            }
+            else {
+                future.setWritten();
+            }
+            return true;
+        }
+
+        stream.pendingData = data;
+        stream.pendingEndStream = endStream;
+        stream.pendingFuture = future;
+        return flushData(stream);
+    }
+
+    private boolean writeResponse(Http2StreamSession stream, HttpResponseMessage httpResponse, WriteFuture future) {
+        int streamId = stream.getStreamId();
+        HttpContentMessage httpContent = httpResponse.getContent();
+        boolean interim = httpResponse.getStatus().code() < 200;
+        boolean complete = !interim && (httpContent == null || httpContent.isComplete());
+        boolean gzipped = httpResponse.isBlockPadding();
+        boolean hasBody = !httpResponse.isContentExcluded() && (gzipped || (httpContent != null && httpContent.length() > 0));
+        boolean endStream = complete && !hasBody;
+
+        byte[] block = hpackEncoder.encode(Http2HeadersCodec.encodeResponse(httpResponse));
+        WriteFuture headersFuture = session.write(frameEncoder.headers(streamId, block, endStream, peerMaxFrameSize));
+        if (interim) {
+            completeOnWrite(headersFuture, future);
+            return true;
+        }
+
+        stream.headersSent = true;
+        if (!hasBody) {
+            completeOnWrite(headersFuture, future);
+            if (endStream) {
+                stream.endStreamSent = true;
+                localEnd(stream);
+            }
+            return true;
+        }
+
+        ByteBuffer data = (httpContent != null) ? Http2HeadersCodec.encodeContent(httpContent, allocator).buf() : null;
+        if (gzipped) {
+            // gzip framing starts with the response, as for HTTP/1.1
+            byte[] gzipStart = HttpGzipEncoder.GZIP_START_OF_FRAME_BYTES;
+            ByteBuffer gzippedData = ByteBuffer.allocate(gzipStart.length + (data != null ? data.remaining() : 0));
+            gzippedData.put(gzipStart);
+            if (data != null) {
+                gzippedData.put(data.duplicate());
+            }
+            gzippedData.flip();
+            data = gzippedData;
+        }
+        else {
+            data = data.duplicate();
+        }
+
+        stream.pendingData = data;
+        stream.pendingEndStream = complete;
+        stream.pendingFuture = future;
+        return flushData(stream);
+    }
+
+    private boolean flushData(Http2StreamSession stream) {
+        int streamId = stream.getStreamId();
+        ByteBuffer data = stream.pendingData;
+        WriteFuture lastWrite = null;
+        while (data.hasRemaining()) {
+            int length = Math.min(Math.min(data.remaining(), peerMaxFrameSize), Math.min(stream.sendWindow, sendWindow));
+            if (length <= 0) {
+                // blocked until WINDOW_UPDATE
+                return false;
+            }
+            ByteBuffer payload = data.duplicate();
+            payload.limit(payload.position() + length);
+            data.position(data.position() + length);
+
+            boolean endStream = stream.pendingEndStream && !data.hasRemaining();
+            session.write(frameEncoder.dataHeader(streamId, length, endStream));
+            lastWrite = session.write(allocator.wrap(payload));
+            stream.sendWindow -= length;
+            sendWindow -= length;
+            stream.endStreamSent = endStream;
+        }
+
+        if (stream.pendingEndStream && !stream.endStreamSent) {
+            lastWrite = session.write(frameEncoder.dataHeader(streamId, 0, true));
+            stream.endStreamSent = true;
+        }
+
+        WriteFuture future = stream.pendingFuture;
+        stream.pendingData = null;
+        stream.pendingFuture = null;
+        if (lastWrite != null) {
+            completeOnWrite(lastWrite, future);
+        }
+        else {
+            future.setWritten();
+        }
+
+        if (stream.endStreamSent) {
+            localEnd(stream);
+        }
+        return true;
+    }
+
+    private void flushBlockedStreams() {
+        for (Http2StreamSession stream : new ArrayList<>(streams.values())) {
+            if (sendWindow <= 0) {
+                break;
+            }
+            if (stream.pendingData != null) {
+                processor.flush(stream);
+            }
+        }
+    }
+
+    /**
+     * Called by the stream processor when a stream session is closed.
+     */
+    void remove(Http2StreamSession stream) {
+        int streamId = stream.getStreamId();
+        streams.remove(streamId);
+        stream.receivedContent = null;
+        stream.remoteEndPending = false;
+
+        if (stream.pendingFuture != null) {
+            stream.pendingFuture.setException(new IOException(format("HTTP/2 stream %d closed", streamId)));
+            stream.pendingFuture = null;
+            stream.pendingData = null;
+        }
+
+        if (!closed && !stream.reset) {
+            if (!stream.endStreamSent) {
+                if (stream.headersSent) {
+                    // the response ends when the HTTP session closes without completing its content
+                    session.write(frameEncoder.dataHeader(streamId, 0, true));
+                    stream.endStreamSent = true;
+                }
+                else {
+                    session.write(frameEncoder.rstStream(streamId, INTERNAL_ERROR));
+                    stream.reset = true;
+                }
+            }
+            if (!stream.remoteClosed && !stream.reset) {
+                // the response is complete, so the rest of the request is not needed
+                session.write(frameEncoder.rstStream(streamId, NO_ERROR));
+                stream.reset = true;
+            }
+        }
+
+        if (goAwayReceived && streams.isEmpty() && !closed) {
+            session.close(false);
+        }
+    }
+
+    /**
+     * Called by the stream processor when reads are resumed on a stream session, delivering the content
+     * received while they were suspended and returning flow control credit for it.
+     */
+    void consume(Http2StreamSession stream) {
+        ArrayDeque<HttpContentMessage> receivedContent = stream.receivedContent;
+        if (receivedContent != null) {
+            while (!stream.isReadSuspended() && !receivedContent.isEmpty()) {
+                HttpContentMessage message = receivedContent.poll();
+                stream.receiveWindowCredit += message.length();
+                stream.getFilterChain().fireMessageReceived(message);
+            }
+            if (!receivedContent.isEmpty()) {
+                return;
+            }
+            stream.receivedContent = null;
+        }
+
+        if (stream.remoteEndPending) {
+            if (!stream.isReadSuspended()) {
+                stream.remoteEndPending = false;
+                remoteEnd(stream);
+            }
+        }
+        else if (!closed && !stream.reset) {
+            creditStream(stream);
+        }
+    }
+
+    // stream credit is returned once the HTTP session has consumed the content, so a session with suspended
+    // reads stops its client sending on that stream, without holding up the other streams on the connection
+    private void creditStream(Http2StreamSession stream) {
+        if (!stream.remoteClosed && !stream.isReadSuspended()
+                && stream.receiveWindowCredit >= DEFAULT_INITIAL_WINDOW_SIZE / 2) {
+            session.write(frameEncoder.windowUpdate(stream.getStreamId(), stream.receiveWindowCredit));
+            stream.receiveWindowConsumed -= stream.receiveWindowCredit;
+            stream.receiveWindowCredit = 0;
+        }
+    }
+
+    private void remoteEnd(Http2StreamSession stream) {
+        stream.remoteClosed = true;
+        if (stream.isReadSuspended() || stream.receivedContent != null) {
+            // the end of the request follows the content still to be delivered
+            stream.remoteEndPending = true;
+            return;
+        }
+
+        IoFilterChain filterChain = stream.getFilterChain();
+        HttpRequestMessage httpRequest = stream.bufferedRequest;
+        if (httpRequest != null) {
+            ByteBuffer content = stream.bufferedContent;
+            stream.bufferedRequest = null;
+            stream.bufferedContent = null;
+            if (content.hasRemaining()) {
+                resetStream(stream.getStreamId(), PROTOCOL_ERROR);
+                return;
+            }
+            content.flip();
+            httpRequest.setContent(new HttpContentMessage(allocator.wrap(content), true));
+            filterChain.fireMessageReceived(httpRequest);
+        }
+        else {
+            filterChain.fireMessageReceived(new HttpContentMessage(allocator.wrap(allocator.allocate(0)), true));
+        }
+
+        if (stream.endStreamSent) {
+            closeLater(stream);
+        }
+    }
+
+    private void localEnd(Http2StreamSession stream) {
+        if (stream.remoteClosed) {
+            closeLater(stream);
+        }
+    }
+
+    // closes the stream session once the current write, such as the final content of the HTTP session, is done
+    private void closeLater(final Http2StreamSession stream) {
+        stream.getIoExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                stream.close(false);
+            }
+        });
+    }
+
+    private void resetStream(int streamId, int errorCode) {
+        session.write(frameEncoder.rstStream(streamId, errorCode));
+        Http2StreamSession stream = streams.get(streamId);
+        if (stream != null) {
+            stream.reset = true;
+            stream.close(true);
+        }
+    }
+
+    private void writeErrorResponse(int streamId, HttpStatus status) {
+        List<String> fields = new ArrayList<>(2);
+        fields.add(":status");
+        fields.add(Integer.toString(status.code()));
+        byte[] block = hpackEncoder.encode(fields);
+        session.write(frameEncoder.headers(streamId, block, true, peerMaxFrameSize));
+    }
+
+    private void connectionError(int errorCode, Throwable cause) {
+        if (logger.isDebugEnabled()) {
+            String message = format("HTTP/2 connection error %d, closing connection: %s", errorCode, cause);
+            LoggingUtils.log(session, logger, message, cause);
+        }
+        closed = true;
+        session.write(frameEncoder.goAway(lastStreamId, errorCode));
+        session.close(false);
+    }
+
+    private void removePadding(int flags, ByteBuffer payload) throws Http2ProtocolException {
+        if ((flags & FLAG_PADDED) != 0) {
+            if (!payload.hasRemaining()) {
+                throw new Http2ProtocolException("Padded frame without pad length", FRAME_SIZE_ERROR);
+            }
+            int padLength = payload.get() & 0xff;
+            if (padLength > payload.remaining()) {
+                throw new Http2ProtocolException("Pad length exceeds frame payload");
+            }
+            payload.limit(payload.limit() - padLength);
+        }
+    }
+
+    private static void completeOnWrite(WriteFuture parentFuture, final WriteFuture future) {
+        parentFuture.addListener(new IoFutureListener<WriteFuture>() {
+            @Override
+            public void operationComplete(WriteFuture parentFuture) {
+                if (parentFuture.isWritten()) {
+                    future.setWritten();
+                }
+                else {
+                    future.setException(parentFuture.getException());
+                }
+            }
+        });
+    }
+}
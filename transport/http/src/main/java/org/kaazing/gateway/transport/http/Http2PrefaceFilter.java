@@ -0,0 +1,123 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http;
+
+import static org.kaazing.gateway.transport.http.Http2Connection.PREFACE;
+
+import java.nio.ByteBuffer;
+
+import org.apache.mina.core.service.IoHandler;
+import org.kaazing.gateway.transport.IoFilterAdapter;
+import org.kaazing.gateway.transport.SslUtils;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+import org.kaazing.mina.core.session.IoSessionEx;
+import org.slf4j.Logger;
+
+/**
+ * Detects the HTTP/2 client connection preface at the start of an http/1.1 connection, either h2c with
+ * prior knowledge or h2 after TLS with ALPN. When the preface is received, the HTTP/1.1 bridge filters are
+ * removed and all further bytes are handed to an {@link Http2Connection}. Otherwise this filter removes
+ * itself, passing on any bytes it held back, and the connection carries on as HTTP/1.1.
+ *
+ * One instance per session.
+ */
+final class Http2PrefaceFilter extends IoFilterAdapter<IoSessionEx> {
+
+    static final String FILTER_NAME = "http#h2-preface";
+
+    private final HttpAcceptor acceptor;
+    private final IoHandler handler;
+    private final Http2StreamProcessor processor;
+    private final Logger logger;
+    private final int maxConcurrentStreams;
+
+    private int matched;
+    private Http2Connection connection;
+
+    Http2PrefaceFilter(HttpAcceptor acceptor, IoHandler handler, Http2StreamProcessor processor, Logger logger,
+            int maxConcurrentStreams) {
+        this.acceptor = acceptor;
+        this.handler = handler;
+        this.processor = processor;
+        this.logger = logger;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    @Override
+    protected void doMessageReceived(NextFilter nextFilter, IoSessionEx session, Object message) throws Exception {
+        if (connection != null) {
+            connection.messageReceived((IoBufferEx) message);
+            return;
+        }
+
+        IoBufferEx buf = (IoBufferEx) message;
+        ByteBuffer bytes = buf.buf();
+        int position = bytes.position();
+        int limit = bytes.limit();
+        int held = matched;
+        while (matched < PREFACE.length && position < limit) {
+            if (bytes.get(position) != PREFACE[matched]) {
+                notHttp2(nextFilter, session, buf, held);
+                return;
+            }
+            position++;
+            matched++;
+        }
+
+        if (matched < PREFACE.length) {
+            // partial preface, wait for more
+            return;
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("HTTP/2 connection preface received on %s", session));
+        }
+
+        acceptor.removeBridgeFilters(session.getFilterChain());
+        connection = new Http2Connection(session, acceptor, handler, processor, logger, maxConcurrentStreams,
+                SslUtils.isSecure(session));
+        connection.start();
+
+        if (position < limit) {
+            bytes.position(position);
+            connection.messageReceived(buf);
+        }
+    }
+
+    @Override
+    protected void doSessionClosed(NextFilter nextFilter, IoSessionEx session) throws Exception {
+        if (connection != null) {
+            connection.sessionClosed();
+        }
+        super.doSessionClosed(nextFilter, session);
+    }
+
+    private void notHttp2(NextFilter nextFilter, IoSessionEx session, IoBufferEx buf, int held) throws Exception {
+        session.getFilterChain().remove(this);
+        if (held > 0) {
+            // replay the bytes held back from previous messages
+            IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+            ByteBuffer heldBytes = allocator.allocate(held);
+            int offset = heldBytes.position();
+            heldBytes.put(PREFACE, 0, held);
+            heldBytes.limit(heldBytes.position());
+            heldBytes.position(offset);
+            nextFilter.messageReceived(session, allocator.wrap(heldBytes));
+        }
+        nextFilter.messageReceived(session, buf);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http;
+
+import org.apache.mina.core.write.WriteRequest;
+import org.apache.mina.core.write.WriteRequestQueue;
+import org.kaazing.mina.core.service.AbstractIoProcessor;
+
+/**
+ * Writes the messages of HTTP/2 stream sessions out as frames on their connection, see
+ * {@link Http2Connection#write(Http2StreamSession, Object, org.apache.mina.core.future.WriteFuture)}.
+ */
+final class Http2StreamProcessor extends AbstractIoProcessor<Http2StreamSession> {
+
+    @Override
+    protected void add0(Http2StreamSession session) {
+        // Do nothing
+    }
+
+    @Override
+    protected void flush0(Http2StreamSession session) {
+        Http2Connection connection = session.getConnection();
+        WriteRequestQueue writeRequestQueue = session.getWriteRequestQueue();
+        do {
+            // a write request blocked by flow control resumes from where it stopped
+            WriteRequest request = session.getCurrentWriteRequest();
+            if (request == null) {
+                request = writeRequestQueue.poll(session);
+                if (request == null) {
+                    break;
+                }
+                session.setCurrentWriteRequest(request);
+            }
+
+            if (!connection.write(session, request.getMessage(), request.getFuture())) {
+                break;
+            }
+            session.setCurrentWriteRequest(null);
+        } while (true);
+    }
+
+    @Override
+    protected void remove0(Http2StreamSession session) {
+        session.getConnection().remove(session);
+        session.getFilterChain().fireSessionClosed();
+    }
+
+    @Override
+    protected void updateTrafficControl0(Http2StreamSession session) {
+        if (!session.isWriteSuspended()) {
+            flush(session);
+        }
+
+        if (!session.isReadSuspended()) {
+            session.getConnection().consume(session);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        // Do nothing
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return false;
+    }
+
+    @Override
+    public boolean isDisposing() {
+        return false;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http;
+
+import static org.kaazing.gateway.transport.BridgeSession.LOCAL_ADDRESS;
+import static org.kaazing.gateway.transport.BridgeSession.NEXT_PROTOCOL_KEY;
+import static org.kaazing.gateway.transport.BridgeSession.REMOTE_ADDRESS;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+import org.apache.mina.core.future.WriteFuture;
+import org.apache.mina.core.service.IoHandler;
+import org.kaazing.gateway.transport.DefaultTransportMetadata;
+import org.kaazing.gateway.transport.IoSessionAdapterEx;
+import org.kaazing.gateway.transport.http.bridge.HttpContentMessage;
+import org.kaazing.gateway.transport.http.bridge.HttpRequestMessage;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.service.IoServiceEx;
+import org.kaazing.mina.core.session.IoSessionEx;
+
+/**
+ * A virtual session for one HTTP/2 stream. It stands in for the TCP (or SSL) session that an HTTP/1.1
+ * request arrives on, so the http accept filters and the bridge handler see one request per parent
+ * session, exactly as for HTTP/1.1 without pipelining.
+ */
+final class Http2StreamSession extends IoSessionAdapterEx {
+
+    private static final DefaultTransportMetadata TRANSPORT_METADATA = new DefaultTransportMetadata("h2");
+
+    private final Http2Connection connection;
+    private final int streamId;
+    private final IoSessionEx parent;
+
+    // flow control, in bytes
+    int sendWindow;
+    int receiveWindowConsumed;
+    int receiveWindowCredit;  // consumed by the session, not yet returned in a WINDOW_UPDATE
+
+    // stream state
+    boolean remoteClosed;
+    boolean headersSent;
+    boolean endStreamSent;
+    boolean reset;
+
+    // request content delivered with the request once complete (declared small content-length)
+    HttpRequestMessage bufferedRequest;
+    ByteBuffer bufferedContent;
+
+    // request content received while reads are suspended, and whether the request ended after it
+    ArrayDeque<HttpContentMessage> receivedContent;
+    boolean remoteEndPending;
+
+    // DATA remaining from the current write request, blocked by flow control
+    ByteBuffer pendingData;
+    boolean pendingEndStream;
+    WriteFuture pendingFuture;
+
+    Http2StreamSession(Http2Connection connection, int streamId, IoSessionEx parent, IoServiceEx service,
+            Http2StreamProcessor processor, IoHandler handler, int sendWindow) {
+        super(parent.getIoThread(), parent.getIoExecutor(), service, processor, service.getSessionDataStructureFactory());
+        this.connection = connection;
+        this.streamId = streamId;
+        this.parent = parent;
+        this.sendWindow = sendWindow;
+
+        setLocalAddress(parent.getLocalAddress());
+        setRemoteAddress(parent.getRemoteAddress());
+        setHandler(handler);
+        setTransportMetadata(TRANSPORT_METADATA);
+        LOCAL_ADDRESS.set(this, LOCAL_ADDRESS.get(parent));
+        REMOTE_ADDRESS.set(this, REMOTE_ADDRESS.get(parent));
+        NEXT_PROTOCOL_KEY.set(this, NEXT_PROTOCOL_KEY.get(parent));
+        setSubject(parent.getSubject());
+    }
+
+    @Override
+    public IoBufferAllocatorEx<?> getBufferAllocator() {
+        return parent.getBufferAllocator();
+    }
+
+    Http2Connection getConnection() {
+        return connection;
+    }
+
+    int getStreamId() {
+        return streamId;
+    }
+
+    IoSessionEx getParent() {
+        return parent;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%s #%d, stream %d)", getClass().getSimpleName(), getId(), streamId);
+    }
+}
@@ -20,8 +20,10 @@ import static org.kaazing.gateway.resource.address.http.HttpResourceAddress.INJE
 import static org.kaazing.gateway.transport.http.HttpHeaders.HEADER_CONTENT_LENGTH;
 import static org.kaazing.gateway.transport.http.HttpUtils.formatDateHeader;
 
+import java.io.IOException;
 import java.util.Queue;
 
+import org.apache.mina.core.file.FileRegion;
 import org.apache.mina.core.filterchain.IoFilterChain;
 import org.apache.mina.core.filterchain.IoFilterChain.Entry;
 import org.apache.mina.core.future.CloseFuture;
@@ -206,7 +208,10 @@ public class HttpAcceptProcessor extends BridgeAcceptProcessor<DefaultHttpSessio
                         session.setGzipped(isGzipped);
                         // Use add last to make sure it doesn't get in front of TrafficShapingFilter (which
                         // automatically re-adds itself when the filter chain is cleared)
-                        filterChain.addLast(codec.getName(), codec.getFilter());
+                        // Note: HTTP/2 streams have no codec filter, their content is encoded by the connection
+                        if (codec != null) {
+                            filterChain.addLast(codec.getName(), codec.getFilter());
+                        }
                     }
 
                     if (logging != null) {
@@ -293,6 +298,26 @@ public class HttpAcceptProcessor extends BridgeAcceptProcessor<DefaultHttpSessio
         }
     }
 
+    @Override
+    protected WriteFuture flushNow(DefaultHttpSession session, IoSessionEx parent, FileRegion region,
+            IoFilterChain filterChain, WriteRequest request) throws IOException {
+        // same commit handling as for buffers
+        CommitFuture commitFuture = session.commit();
+        if (!commitFuture.isCommitted()) {
+            session.suspendWrite();
+            commitFuture.addListener(WRITE_RESUMER);
+            return null;
+        }
+
+        // file contents can only be sent verbatim, and only by transports that support file regions
+        // (not SSL for example), otherwise fall back to writing the contents as a buffer
+        boolean verbatim = !session.isChunked() && !session.isGzipped();
+        if (verbatim && parent.getTransportMetadata().getEnvelopeTypes().contains(FileRegion.class)) {
+            return flushNowInternal(parent, region, null, filterChain, request);
+        }
+        return super.flushNow(session, parent, region, filterChain, request);
+    }
+
     private static final class WriteResumer implements IoFutureListener<CommitFuture> {
         @Override
         public void operationComplete(CommitFuture future) {
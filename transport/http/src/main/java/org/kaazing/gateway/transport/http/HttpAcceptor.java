@@ -41,7 +41,11 @@ import static org.kaazing.gateway.transport.http.HttpStatus.CLIENT_NOT_FOUND;
 import static org.kaazing.gateway.transport.http.bridge.filter.HttpNextProtocolHeaderFilter.PROTOCOL_HTTPXE_1_1;
 import static org.kaazing.gateway.transport.http.bridge.filter.HttpProtocolFilter.PROTOCOL_HTTP_1_1;
 import static org.kaazing.gateway.transport.http.resource.HttpDynamicResourceFactory.newHttpDynamicResourceFactory;
+import static org.kaazing.gateway.transport.http.HttpAcceptFilter.CODEC;
+import static org.kaazing.gateway.util.InternalSystemProperty.HTTP2_ENABLED;
+import static org.kaazing.gateway.util.InternalSystemProperty.HTTP2_MAX_CONCURRENT_STREAMS;
 import static org.kaazing.gateway.util.InternalSystemProperty.HTTPXE_SPECIFICATION;
+import static org.kaazing.gateway.util.InternalSystemProperty.HTTP_FLYWEIGHT_HEADERS;
 
 import java.io.IOException;
 import java.net.SocketAddress;
@@ -52,6 +56,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import javax.annotation.Resource;
 import javax.security.auth.Subject;
@@ -113,6 +118,7 @@ public class HttpAcceptor extends AbstractBridgeAcceptor<DefaultHttpSession, Htt
     public static final AttributeKey SERVICE_REGISTRATION_KEY = new AttributeKey(HttpAcceptor.class, "serviceRegistration");
 
     public static final TypedAttributeKey<Boolean> HTTPXE_SPEC_KEY = new TypedAttributeKey<>(HttpAcceptor.class, "httpxeSpec");
+    public static final TypedAttributeKey<Boolean> FLYWEIGHT_HEADERS_KEY = new TypedAttributeKey<>(HttpAcceptor.class, "flyweightHeaders");
     static final TypedAttributeKey<DefaultHttpSession> SESSION_KEY = new TypedAttributeKey<>(HttpAcceptor.class, "session");
 	public static final AttributeKey BALANCEES_KEY = new AttributeKey(HttpAcceptor.class, "balancees");
 
@@ -126,17 +132,29 @@ public class HttpAcceptor extends AbstractBridgeAcceptor<DefaultHttpSession, Htt
 
     private SchedulerProvider schedulerProvider;
 
+    private Executor loginExecutor;
+
 	private ExpiringState expiringState;
 
     private Properties configuration;
 
     private boolean httpxeSpecCompliant;
+    private boolean flyweightHeaders;
+    private boolean http2Enabled;
+    private int http2MaxConcurrentStreams;
+
+    private final Http2StreamProcessor http2StreamProcessor = new Http2StreamProcessor();
 
     @Resource(name = "schedulerProvider")
     public void setSchedulerProvider(SchedulerProvider provider) {
         this.schedulerProvider = provider;
     }
 
+    @Resource(name = "loginExecutor")
+    public void setLoginExecutor(Executor loginExecutor) {
+        this.loginExecutor = loginExecutor;
+    }
+
     @Resource(name = "expiringState")
     public void setExpiringState(ExpiringState expiringState) {
         this.expiringState = expiringState;
@@ -146,6 +164,9 @@ public class HttpAcceptor extends AbstractBridgeAcceptor<DefaultHttpSession, Htt
     public void setConfiguration(Properties configuration) {
         this.configuration = configuration;
         httpxeSpecCompliant = HTTPXE_SPECIFICATION.getBooleanProperty(configuration);
+        flyweightHeaders = HTTP_FLYWEIGHT_HEADERS.getBooleanProperty(configuration);
+        http2Enabled = HTTP2_ENABLED.getBooleanProperty(configuration);
+        http2MaxConcurrentStreams = HTTP2_MAX_CONCURRENT_STREAMS.getIntProperty(configuration);
     }
 
     public HttpAcceptor() {
@@ -336,6 +357,7 @@ public class HttpAcceptor extends AbstractBridgeAcceptor<DefaultHttpSession, Htt
         @Override
         protected void doSessionCreated(IoSessionEx session) throws Exception {
             HTTPXE_SPEC_KEY.set(session, httpxeSpecCompliant);
+            FLYWEIGHT_HEADERS_KEY.set(session, flyweightHeaders);
             IoFilterChain filterChain = session.getFilterChain();
             addBridgeFilters(filterChain);
         }
@@ -561,7 +583,18 @@ public class HttpAcceptor extends AbstractBridgeAcceptor<DefaultHttpSession, Htt
         Set<HttpAcceptFilter> acceptFilters = acceptFiltersByProtocol.get(nextProtocol);
         assert (acceptFilters != null && !acceptFilters.isEmpty());
 
+        // HTTP/2 streams carry decoded messages, and their persistence is the connection's concern
+        boolean http2Stream = transport instanceof Http2StreamSession;
+        if (http2Enabled && !http2Stream && PROTOCOL_HTTP_1_1.equals(nextProtocol)) {
+            chain.addLast(Http2PrefaceFilter.FILTER_NAME,
+                    new Http2PrefaceFilter(this, bridgeHandler, http2StreamProcessor, logger, http2MaxConcurrentStreams));
+        }
+
         for (HttpAcceptFilter acceptFilter : acceptFilters) {
+            if (http2Stream && (acceptFilter == CODEC || acceptFilter == PERSISTENCE)) {
+                continue;
+            }
+
             switch (acceptFilter) {
             case NEXT_ADDRESS:
                 chain.addLast(acceptFilter.filterName(), httpNextAddress);
@@ -577,6 +610,7 @@ public class HttpAcceptor extends AbstractBridgeAcceptor<DefaultHttpSession, Htt
                 // One instance of HttpSubjectSecurityFilter per session
                 HttpSubjectSecurityFilter filter = new HttpSubjectSecurityFilter(LoggerFactory.getLogger(SECURITY_LOGGER_NAME), expiringState);
                 filter.setSchedulerProvider(schedulerProvider);
+                filter.setLoginExecutor(loginExecutor);
                 chain.addLast(acceptFilter.filterName(), filter);
                 break;
             default:
@@ -16,19 +16,20 @@
 package org.kaazing.gateway.transport.http;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
-import java.util.NavigableSet;
 import java.util.Set;
-import java.util.concurrent.ConcurrentNavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.kaazing.gateway.resource.address.Comparators;
 import org.kaazing.gateway.resource.address.ResourceAddress;
 import org.kaazing.gateway.resource.address.uri.URIUtils;
 import org.kaazing.gateway.transport.Bindings;
 import org.kaazing.gateway.transport.http.HttpBindings.HttpBinding;
+import org.kaazing.gateway.transport.http.HttpPathRouter.Route;
 
 /**
  *
@@ -163,7 +164,16 @@ public class HttpBindings extends Bindings<HttpBinding> {
 
         };
 
-        private final ConcurrentNavigableMap<String, Binding> bindingsByPath;
+        private static final Comparator<Route<Binding>> ROUTE_PATH_ASCENDING = new Comparator<Route<Binding>>() {
+
+            @Override
+            public int compare(Route<Binding> route1, Route<Binding> route2) {
+                return PATH_ASCENDING.compare(route1.path, route2.path);
+            }
+
+        };
+
+        private final HttpPathRouter<Binding> bindingsByPath;
 
         @Override
         public int hashCode() {
@@ -188,16 +198,18 @@ public class HttpBindings extends Bindings<HttpBinding> {
         
         @Override
         public String toString() {
-            Iterator<Entry<String,Binding>> i = bindingsByPath.entrySet().iterator();
-            if (! i.hasNext())
+            List<Route<Binding>> routes = new ArrayList<>(bindingsByPath.routes());
+            if (routes.isEmpty())
                 return super.toString();
 
+            Collections.sort(routes, ROUTE_PATH_ASCENDING);
+            Iterator<Route<Binding>> i = routes.iterator();
             StringBuilder sb = new StringBuilder();
             sb.append("(\n");
             for (;;) {
-                Entry<String, Binding> e = i.next();
-                String key = e.getKey();
-                Binding value = e.getValue();
+                Route<Binding> e = i.next();
+                String key = e.path;
+                Binding value = e.value;
                 sb.append("    ").append(key);
                 sb.append('=');
                 sb.append(value);
@@ -214,7 +226,7 @@ public class HttpBindings extends Bindings<HttpBinding> {
 
         HttpBinding(ResourceAddress bindAddress) {
             super(bindAddress);
-            bindingsByPath = new ConcurrentSkipListMap<>(PATH_ASCENDING);
+            bindingsByPath = new HttpPathRouter<>();
         }
         
         boolean isEmpty() {
@@ -226,17 +238,7 @@ public class HttpBindings extends Bindings<HttpBinding> {
         }
 
         Binding get(String path)  {
-            NavigableSet<String> paths = bindingsByPath.navigableKeySet();
-            NavigableSet<String> candidatePaths = paths.headSet(path, true);
-
-            for (Iterator<String> $i = candidatePaths.descendingIterator(); $i.hasNext(); ) {
-                String candidatePath = $i.next();
-                if (path.startsWith(candidatePath)) {
-                    return bindingsByPath.get(candidatePath);
-                }
-            }
-            
-            return null;
+            return bindingsByPath.match(path);
         }
 
         Binding put(String path, Binding binding)  {
@@ -0,0 +1,284 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes request paths to the values bound at path prefixes, choosing the longest bound path that the
+ * request path starts with. Paths that differ only by trailing slashes are the same binding.
+ *
+ * Lookups are lock free and their cost depends only on the length of the request path, not on the number
+ * of bound paths: a request for exactly a bound path, such as a WSEB per-session upstream or downstream path,
+ * is a single hash lookup, and any other request walks a radix trie of the bound paths. Updates are
+ * serialized, and publish new trie nodes only once they are complete.
+ */
+final class HttpPathRouter<V> {
+
+    private final Map<String, Route<V>> routesByKey;
+    private final Node<V> root;
+
+    HttpPathRouter() {
+        routesByKey = new ConcurrentHashMap<>();
+        root = new Node<>("", null, null);
+    }
+
+    boolean isEmpty() {
+        return routesByKey.isEmpty();
+    }
+
+    int size() {
+        return routesByKey.size();
+    }
+
+    /**
+     * Returns the routes in no particular order.
+     */
+    Collection<Route<V>> routes() {
+        return routesByKey.values();
+    }
+
+    /**
+     * Returns the value bound at the path, or at an equivalent path with different trailing slashes.
+     */
+    V get(String path) {
+        Route<V> route = routesByKey.get(key(path));
+        return (route != null) ? route.value : null;
+    }
+
+    /**
+     * Returns the value bound at the longest path that is a prefix of the request path.
+     */
+    V match(String path) {
+        Route<V> route = routesByKey.get(key(path));
+        if (route != null && path.startsWith(route.path)) {
+            return route.value;
+        }
+
+        Node<V> node = root;
+        route = root.route;
+        int position = 0;
+        while (position < path.length()) {
+            Map<Character, Node<V>> children = node.children;
+            if (children == null) {
+                break;
+            }
+            Node<V> child = children.get(path.charAt(position));
+            if (child == null || !path.startsWith(child.label, position)) {
+                break;
+            }
+            position += child.label.length();
+            node = child;
+            Route<V> candidate = child.route;
+            if (candidate != null) {
+                route = candidate;
+            }
+        }
+        return (route != null) ? route.value : null;
+    }
+
+    /**
+     * Binds the value at the path unless an equivalent path is already bound.
+     *
+     * @return the value already bound, or null if the value was bound
+     */
+    synchronized V putIfAbsent(String path, V value) {
+        String key = key(path);
+        Route<V> existing = routesByKey.get(key);
+        if (existing != null) {
+            return existing.value;
+        }
+
+        Route<V> route = new Route<>(path, value);
+        insert(route);
+        routesByKey.put(key, route);
+        return null;
+    }
+
+    /**
+     * Unbinds the value, if it is bound at the path or at an equivalent path.
+     */
+    synchronized boolean remove(String path, V value) {
+        String key = key(path);
+        Route<V> route = routesByKey.get(key);
+        if (route == null || route.value != value) {
+            return false;
+        }
+
+        routesByKey.remove(key);
+        delete(route.path);
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return routesByKey.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof HttpPathRouter)) {
+            return false;
+        }
+        HttpPathRouter<?> that = (HttpPathRouter<?>) o;
+        return this.routesByKey.equals(that.routesByKey);
+    }
+
+    private void insert(Route<V> route) {
+        String path = route.path;
+        Node<V> node = root;
+        int position = 0;
+        while (position < path.length()) {
+            char c = path.charAt(position);
+            Node<V> child = (node.children != null) ? node.children.get(c) : null;
+            if (child == null) {
+                node.addChild(new Node<>(path.substring(position), route, null));
+                return;
+            }
+
+            String label = child.label;
+            int common = commonPrefixLength(label, path, position);
+            if (common == label.length()) {
+                node = child;
+                position += common;
+                continue;
+            }
+
+            // split the edge, building the replacement subtree before publishing it
+            Node<V> tail = new Node<>(label.substring(common), child.route, child.children);
+            Node<V> split = new Node<>(label.substring(0, common), null, null);
+            split.addChild(tail);
+            position += common;
+            if (position == path.length()) {
+                split.route = route;
+            }
+            else {
+                split.addChild(new Node<>(path.substring(position), route, null));
+            }
+            node.addChild(split);
+            return;
+        }
+        node.route = route;
+    }
+
+    private void delete(String path) {
+        List<Node<V>> ancestors = new ArrayList<>();
+        Node<V> node = root;
+        int position = 0;
+        while (position < path.length()) {
+            ancestors.add(node);
+            node = node.children.get(path.charAt(position));
+            position += node.label.length();
+        }
+        node.route = null;
+
+        if (node == root) {
+            return;
+        }
+        Node<V> parent = ancestors.get(ancestors.size() - 1);
+        Map<Character, Node<V>> children = node.children;
+        if (children == null || children.isEmpty()) {
+            parent.children.remove(node.label.charAt(0));
+            // the parent may now be a pass-through node
+            if (parent != root && parent.route == null && parent.children.size() == 1) {
+                Node<V> grandparent = ancestors.get(ancestors.size() - 2);
+                grandparent.addChild(merge(parent));
+            }
+        }
+        else if (children.size() == 1) {
+            parent.addChild(merge(node));
+        }
+    }
+
+    // replaces a node that has no route and a single child by a node with the combined label
+    private static <V> Node<V> merge(Node<V> node) {
+        Node<V> child = node.children.values().iterator().next();
+        return new Node<>(node.label + child.label, child.route, child.children);
+    }
+
+    private static int commonPrefixLength(String label, String path, int position) {
+        int length = Math.min(label.length(), path.length() - position);
+        int common = 0;
+        while (common < length && label.charAt(common) == path.charAt(position + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    // paths that differ only by trailing slashes are the same binding, e.g. "/echo" and "/echo/"
+    private static String key(String path) {
+        int end = path.length();
+        while (end > 1 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return (end == path.length()) ? path : path.substring(0, end);
+    }
+
+    static final class Route<V> {
+        final String path;
+        final V value;
+
+        Route(String path, V value) {
+            this.path = path;
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return key(path).hashCode() * 31 + value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Route)) {
+                return false;
+            }
+            Route<?> that = (Route<?>) o;
+            return key(this.path).equals(key(that.path)) && this.value.equals(that.value);
+        }
+    }
+
+    private static final class Node<V> {
+        final String label;
+        volatile Route<V> route;
+        volatile Map<Character, Node<V>> children;
+
+        Node(String label, Route<V> route, Map<Character, Node<V>> children) {
+            this.label = label;
+            this.route = route;
+            this.children = children;
+        }
+
+        void addChild(Node<V> child) {
+            Map<Character, Node<V>> children = this.children;
+            if (children == null) {
+                children = new ConcurrentHashMap<>();
+                children.put(child.label.charAt(0), child);
+                this.children = children;
+            }
+            else {
+                children.put(child.label.charAt(0), child);
+            }
+        }
+    }
+}
@@ -61,6 +61,7 @@ public enum HttpStatus {
     CLIENT_REQUEST_RANGE_NOT_SATISFIABLE(416, "Request Range Not Satisfiable"),
     CLIENT_EXPECTATION_FAILED(417, "Expectation Failed"),
     CLIENT_UPGRADE_REQUIRED(426, "Upgrade Required"),
+    CLIENT_REQUEST_HEADER_FIELDS_TOO_LARGE(431, "Request Header Fields Too Large"),
 
     // 5xx
     SERVER_INTERNAL_ERROR(500, "Internal Error"),
@@ -152,6 +152,14 @@ public abstract class HttpStartMessage extends HttpMessage {
 		headers.putAll(newHeaders);
 	}
 
+	/**
+	 * Uses the given map as the headers of this message without copying it. The map must order header names
+	 * the same way as {@link #createHeaders()}, and must not be shared with any other message.
+	 */
+	public void adoptHeaders(Map<String, List<String>> newHeaders) {
+		headers = newHeaders;
+	}
+
 	public void putHeaders(Map<String, List<String>> newHeaders) {
 		Map<String, List<String>> headers = getHeaders(true);
 		headers.putAll(newHeaders);
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.COMPRESSION_ERROR;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes HPACK header blocks (RFC 7541). One decoder is used per HTTP/2 connection, since the dynamic
+ * table is shared by every header block the peer sends.
+ */
+public final class HpackDecoder {
+
+    public interface Listener {
+        void header(String name, String value) throws Http2ProtocolException;
+    }
+
+    // per-field overhead counted towards the header list size (RFC 7540, Section 6.5.2)
+    private static final int HEADER_FIELD_OVERHEAD = 32;
+
+    private final HpackHeaderTable table;
+    private final int maxTableSize;
+    private final int maxHeaderListSize;
+
+    public HpackDecoder(int maxTableSize) {
+        this(maxTableSize, Integer.MAX_VALUE);
+    }
+
+    public HpackDecoder(int maxTableSize, int maxHeaderListSize) {
+        this.table = new HpackHeaderTable(maxTableSize);
+        this.maxTableSize = maxTableSize;
+        this.maxHeaderListSize = maxHeaderListSize;
+    }
+
+    /**
+     * Decodes a complete header block, reporting each header field in order. Once the decoded header list
+     * exceeds the maximum size no further fields are reported, but the rest of the block is still decoded
+     * so the dynamic table stays in step with the peer.
+     *
+     * @return false if the decoded header list exceeded the maximum size
+     * @throws Http2ProtocolException with COMPRESSION_ERROR if the block cannot be decoded
+     */
+    public boolean decode(ByteBuffer block, Listener listener) throws Http2ProtocolException {
+        boolean sizeUpdateAllowed = true;
+        long headerListSize = 0;
+        while (block.hasRemaining()) {
+            int b = block.get(block.position()) & 0xff;
+            if ((b & 0x80) != 0) {
+                // indexed header field
+                int index = decodeInteger(block, 7);
+                String name = table.name(index);
+                if (name == null) {
+                    throw new Http2ProtocolException("Invalid HPACK index " + index, COMPRESSION_ERROR);
+                }
+                String value = table.value(index);
+                headerListSize = header(name, value, headerListSize, listener);
+                sizeUpdateAllowed = false;
+            }
+            else if ((b & 0x40) != 0) {
+                // literal header field with incremental indexing
+                String name = decodeName(block, 6);
+                String value = decodeString(block);
+                table.add(name, value);
+                headerListSize = header(name, value, headerListSize, listener);
+                sizeUpdateAllowed = false;
+            }
+            else if ((b & 0x20) != 0) {
+                // dynamic table size update, only permitted at the start of a header block
+                int newSize = decodeInteger(block, 5);
+                if (!sizeUpdateAllowed || newSize > maxTableSize) {
+                    throw new Http2ProtocolException("Invalid HPACK dynamic table size update", COMPRESSION_ERROR);
+                }
+                table.setMaxSize(newSize);
+            }
+            else {
+                // literal header field without indexing, or never indexed
+                String name = decodeName(block, 4);
+                String value = decodeString(block);
+                headerListSize = header(name, value, headerListSize, listener);
+                sizeUpdateAllowed = false;
+            }
+        }
+        return headerListSize <= maxHeaderListSize;
+    }
+
+    private long header(String name, String value, long headerListSize, Listener listener)
+            throws Http2ProtocolException {
+        if (headerListSize <= maxHeaderListSize) {
+            headerListSize += name.length() + value.length() + HEADER_FIELD_OVERHEAD;
+            if (headerListSize <= maxHeaderListSize) {
+                listener.header(name, value);
+            }
+        }
+        return headerListSize;
+    }
+
+    private String decodeName(ByteBuffer block, int prefix) throws Http2ProtocolException {
+        int index = decodeInteger(block, prefix);
+        if (index == 0) {
+            return decodeString(block);
+        }
+        String name = table.name(index);
+        if (name == null) {
+            throw new Http2ProtocolException("Invalid HPACK index " + index, COMPRESSION_ERROR);
+        }
+        return name;
+    }
+
+    private static String decodeString(ByteBuffer block) throws Http2ProtocolException {
+        if (!block.hasRemaining()) {
+            throw new Http2ProtocolException("Truncated HPACK string literal", COMPRESSION_ERROR);
+        }
+        boolean huffman = (block.get(block.position()) & 0x80) != 0;
+        int length = decodeInteger(block, 7);
+        if (length > block.remaining()) {
+            throw new Http2ProtocolException("Truncated HPACK string literal", COMPRESSION_ERROR);
+        }
+        byte[] octets = new byte[length];
+        block.get(octets);
+        if (huffman) {
+            try {
+                octets = HpackHuffman.decode(octets, 0, length);
+            }
+            catch (IllegalArgumentException e) {
+                throw new Http2ProtocolException(e.getMessage(), COMPRESSION_ERROR);
+            }
+        }
+        return new String(octets, ISO_8859_1);
+    }
+
+    static int decodeInteger(ByteBuffer block, int prefix) throws Http2ProtocolException {
+        int mask = (1 << prefix) - 1;
+        int value = block.get() & mask;
+        if (value < mask) {
+            return value;
+        }
+        for (int shift = 0; shift < 28; shift += 7) {
+            if (!block.hasRemaining()) {
+                throw new Http2ProtocolException("Truncated HPACK integer", COMPRESSION_ERROR);
+            }
+            int b = block.get() & 0xff;
+            value += (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new Http2ProtocolException("HPACK integer overflow", COMPRESSION_ERROR);
+    }
+}
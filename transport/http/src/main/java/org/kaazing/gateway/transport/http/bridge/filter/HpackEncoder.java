@@ -0,0 +1,143 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Encodes HPACK header blocks (RFC 7541). One encoder is used per HTTP/2 connection. Header fields are
+ * added to the dynamic table so that repeated response headers shrink to a single byte, except for
+ * credentials, which are never indexed, and values that change on every response.
+ */
+public final class HpackEncoder {
+
+    private static final Set<String> NEVER_INDEXED = new HashSet<>(Arrays.asList(
+            "authorization", "cookie", "proxy-authorization", "set-cookie"));
+
+    private static final Set<String> NOT_INDEXED = new HashSet<>(Arrays.asList(
+            "content-length", "date", "etag", "last-modified", "location"));
+
+    private final HpackHeaderTable table;
+    private final int maxTableSize;
+    private int pendingTableSize = -1;
+
+    private byte[] block = new byte[256];
+    private int blockLength;
+
+    public HpackEncoder(int maxTableSize) {
+        this.table = new HpackHeaderTable(maxTableSize);
+        this.maxTableSize = maxTableSize;
+    }
+
+    /**
+     * Applies the peer's SETTINGS_HEADER_TABLE_SIZE, signalled at the start of the next header block.
+     */
+    public void setMaxTableSize(int peerMaxTableSize) {
+        int newSize = Math.min(peerMaxTableSize, maxTableSize);
+        if (newSize != table.maxSize()) {
+            table.setMaxSize(newSize);
+            pendingTableSize = newSize;
+        }
+    }
+
+    /**
+     * Encodes a header block.
+     *
+     * @param fields alternating lower case header names and values, pseudo-headers first
+     */
+    public byte[] encode(List<String> fields) {
+        blockLength = 0;
+        if (pendingTableSize != -1) {
+            encodeInteger(0x20, 5, pendingTableSize);
+            pendingTableSize = -1;
+        }
+        for (int i = 0; i + 1 < fields.size(); i += 2) {
+            encodeHeader(fields.get(i), fields.get(i + 1));
+        }
+        return Arrays.copyOf(block, blockLength);
+    }
+
+    private void encodeHeader(String name, String value) {
+        if (NEVER_INDEXED.contains(name)) {
+            int index = table.find(name, value);
+            encodeLiteral(0x10, 4, Math.abs(index), name, value);
+            return;
+        }
+
+        int index = table.find(name, value);
+        if (index > 0) {
+            encodeInteger(0x80, 7, index);
+        }
+        else if (NOT_INDEXED.contains(name)) {
+            encodeLiteral(0x00, 4, -index, name, value);
+        }
+        else {
+            encodeLiteral(0x40, 6, -index, name, value);
+            table.add(name, value);
+        }
+    }
+
+    private void encodeLiteral(int pattern, int prefix, int nameIndex, String name, String value) {
+        encodeInteger(pattern, prefix, nameIndex);
+        if (nameIndex == 0) {
+            encodeString(name);
+        }
+        encodeString(value);
+    }
+
+    private void encodeString(String value) {
+        byte[] octets = value.getBytes(ISO_8859_1);
+        int huffmanLength = HpackHuffman.encodedLength(octets);
+        if (huffmanLength < octets.length) {
+            encodeInteger(0x80, 7, huffmanLength);
+            ensureCapacity(huffmanLength);
+            blockLength = HpackHuffman.encode(octets, block, blockLength);
+        }
+        else {
+            encodeInteger(0x00, 7, octets.length);
+            ensureCapacity(octets.length);
+            System.arraycopy(octets, 0, block, blockLength, octets.length);
+            blockLength += octets.length;
+        }
+    }
+
+    private void encodeInteger(int pattern, int prefix, int value) {
+        ensureCapacity(6);
+        int mask = (1 << prefix) - 1;
+        if (value < mask) {
+            block[blockLength++] = (byte) (pattern | value);
+            return;
+        }
+        block[blockLength++] = (byte) (pattern | mask);
+        value -= mask;
+        while (value >= 0x80) {
+            block[blockLength++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        block[blockLength++] = (byte) value;
+    }
+
+    private void ensureCapacity(int required) {
+        if (blockLength + required > block.length) {
+            block = Arrays.copyOf(block, Math.max(block.length * 2, blockLength + required));
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The HPACK header table (RFC 7541, Section 2.3), the fixed static table followed by a size bounded
+ * dynamic table in which index 62 is the most recently added entry.
+ */
+final class HpackHeaderTable {
+
+    static final int ENTRY_OVERHEAD = 32;
+
+    private static final String[][] STATIC_TABLE = {
+        { ":authority", "" },
+        { ":method", "GET" },
+        { ":method", "POST" },
+        { ":path", "/" },
+        { ":path", "/index.html" },
+        { ":scheme", "http" },
+        { ":scheme", "https" },
+        { ":status", "200" },
+        { ":status", "204" },
+        { ":status", "206" },
+        { ":status", "304" },
+        { ":status", "400" },
+        { ":status", "404" },
+        { ":status", "500" },
+        { "accept-charset", "" },
+        { "accept-encoding", "gzip, deflate" },
+        { "accept-language", "" },
+        { "accept-ranges", "" },
+        { "accept", "" },
+        { "access-control-allow-origin", "" },
+        { "age", "" },
+        { "allow", "" },
+        { "authorization", "" },
+        { "cache-control", "" },
+        { "content-disposition", "" },
+        { "content-encoding", "" },
+        { "content-language", "" },
+        { "content-length", "" },
+        { "content-location", "" },
+        { "content-range", "" },
+        { "content-type", "" },
+        { "cookie", "" },
+        { "date", "" },
+        { "etag", "" },
+        { "expect", "" },
+        { "expires", "" },
+        { "from", "" },
+        { "host", "" },
+        { "if-match", "" },
+        { "if-modified-since", "" },
+        { "if-none-match", "" },
+        { "if-range", "" },
+        { "if-unmodified-since", "" },
+        { "last-modified", "" },
+        { "link", "" },
+        { "location", "" },
+        { "max-forwards", "" },
+        { "proxy-authenticate", "" },
+        { "proxy-authorization", "" },
+        { "range", "" },
+        { "referer", "" },
+        { "refresh", "" },
+        { "retry-after", "" },
+        { "server", "" },
+        { "set-cookie", "" },
+        { "strict-transport-security", "" },
+        { "transfer-encoding", "" },
+        { "user-agent", "" },
+        { "vary", "" },
+        { "via", "" },
+        { "www-authenticate", "" }
+    };
+
+    static final int STATIC_TABLE_LENGTH = STATIC_TABLE.length;
+
+    // lowest static index for each name, entries with the same name are adjacent
+    private static final Map<String, Integer> STATIC_NAME_INDEX;
+    static {
+        Map<String, Integer> staticNameIndex = new HashMap<>();
+        for (int i = STATIC_TABLE.length - 1; i >= 0; i--) {
+            staticNameIndex.put(STATIC_TABLE[i][0], i + 1);
+        }
+        STATIC_NAME_INDEX = staticNameIndex;
+    }
+
+    private String[] names;
+    private String[] values;
+    private int oldest;
+    private int length;
+    private int size;
+    private int maxSize;
+
+    HpackHeaderTable(int maxSize) {
+        this.names = new String[16];
+        this.values = new String[16];
+        this.maxSize = maxSize;
+    }
+
+    int length() {
+        return STATIC_TABLE_LENGTH + length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int maxSize() {
+        return maxSize;
+    }
+
+    void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        evict(0);
+    }
+
+    /**
+     * Returns the name at the given one based index, or null if there is no such entry.
+     */
+    String name(int index) {
+        if (index <= 0) {
+            return null;
+        }
+        if (index <= STATIC_TABLE_LENGTH) {
+            return STATIC_TABLE[index - 1][0];
+        }
+        int dynamicIndex = index - STATIC_TABLE_LENGTH;
+        return (dynamicIndex <= length) ? names[slot(dynamicIndex)] : null;
+    }
+
+    /**
+     * Returns the value at the given one based index, or null if there is no such entry.
+     */
+    String value(int index) {
+        if (index <= 0) {
+            return null;
+        }
+        if (index <= STATIC_TABLE_LENGTH) {
+            return STATIC_TABLE[index - 1][1];
+        }
+        int dynamicIndex = index - STATIC_TABLE_LENGTH;
+        return (dynamicIndex <= length) ? values[slot(dynamicIndex)] : null;
+    }
+
+    /**
+     * Adds an entry to the dynamic table, evicting the oldest entries to make room. An entry larger
+     * than the maximum size empties the table and is not added.
+     */
+    void add(String name, String value) {
+        int entrySize = entrySize(name, value);
+        if (entrySize > maxSize) {
+            evict(maxSize);
+            return;
+        }
+        evict(entrySize);
+        if (length == names.length) {
+            grow();
+        }
+        int slot = (oldest + length) % names.length;
+        names[slot] = name;
+        values[slot] = value;
+        length++;
+        size += entrySize;
+    }
+
+    /**
+     * Finds the index of an entry with the given name and value, returning the positive index of an
+     * exact match, else the negated index of an entry with the same name, else zero.
+     */
+    int find(String name, String value) {
+        int nameIndex = 0;
+        Integer staticIndex = STATIC_NAME_INDEX.get(name);
+        if (staticIndex != null) {
+            nameIndex = staticIndex;
+            for (int i = staticIndex; i <= STATIC_TABLE_LENGTH && name.equals(STATIC_TABLE[i - 1][0]); i++) {
+                if (value.equals(STATIC_TABLE[i - 1][1])) {
+                    return i;
+                }
+            }
+        }
+        for (int i = 1; i <= length; i++) {
+            int slot = slot(i);
+            if (name.equals(names[slot])) {
+                if (value.equals(values[slot])) {
+                    return STATIC_TABLE_LENGTH + i;
+                }
+                if (nameIndex == 0) {
+                    nameIndex = STATIC_TABLE_LENGTH + i;
+                }
+            }
+        }
+        return -nameIndex;
+    }
+
+    static int entrySize(String name, String value) {
+        return name.length() + value.length() + ENTRY_OVERHEAD;
+    }
+
+    private int slot(int dynamicIndex) {
+        return (oldest + length - dynamicIndex) % names.length;
+    }
+
+    private void evict(int required) {
+        while (length > 0 && size + required > maxSize) {
+            size -= entrySize(names[oldest], values[oldest]);
+            names[oldest] = null;
+            values[oldest] = null;
+            oldest = (oldest + 1) % names.length;
+            length--;
+        }
+    }
+
+    private void grow() {
+        String[] newNames = new String[names.length * 2];
+        String[] newValues = new String[values.length * 2];
+        for (int i = 0; i < length; i++) {
+            int slot = (oldest + i) % names.length;
+            newNames[i] = names[slot];
+            newValues[i] = values[slot];
+        }
+        names = newNames;
+        values = newValues;
+        oldest = 0;
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FRAME_SIZE_ERROR;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.HEADER_LENGTH;
+
+import java.nio.ByteBuffer;
+
+import org.apache.mina.filter.codec.ProtocolDecoderException;
+
+/**
+ * Splits the bytes received on an HTTP/2 connection into frames. Partial frames are retained until
+ * the rest of the frame arrives; the payload passed to the listener is only valid for the duration
+ * of the callback.
+ */
+public final class Http2FrameDecoder {
+
+    public interface Listener {
+        void frameReceived(int type, int flags, int streamId, ByteBuffer payload) throws ProtocolDecoderException;
+    }
+
+    private final int maxFrameSize;
+    private ByteBuffer partial;
+
+    public Http2FrameDecoder(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+    }
+
+    public void decode(ByteBuffer in, Listener listener) throws ProtocolDecoderException {
+        if (partial != null) {
+            if (!fill(in)) {
+                return;
+            }
+            ByteBuffer frame = partial;
+            partial = null;
+            frame.flip();
+            decodeFrame(frame, listener);
+        }
+
+        while (in.remaining() >= HEADER_LENGTH) {
+            int length = frameLength(in);
+            if (in.remaining() < HEADER_LENGTH + length) {
+                break;
+            }
+            ByteBuffer frame = in.slice();
+            frame.limit(HEADER_LENGTH + length);
+            in.position(in.position() + HEADER_LENGTH + length);
+            decodeFrame(frame, listener);
+        }
+
+        if (in.hasRemaining()) {
+            int capacity = (in.remaining() >= HEADER_LENGTH) ? HEADER_LENGTH + frameLength(in) : HEADER_LENGTH;
+            partial = ByteBuffer.allocate(capacity);
+            partial.put(in);
+        }
+    }
+
+    // copies bytes into the partial frame, growing it once the frame header is known
+    private boolean fill(ByteBuffer in) throws Http2ProtocolException {
+        if (partial.capacity() == HEADER_LENGTH) {
+            transfer(in, partial);
+            if (partial.hasRemaining()) {
+                return false;
+            }
+            partial.flip();
+            int length = frameLength(partial);
+            ByteBuffer frame = ByteBuffer.allocate(HEADER_LENGTH + length);
+            frame.put(partial);
+            partial = frame;
+        }
+        transfer(in, partial);
+        return !partial.hasRemaining();
+    }
+
+    private int frameLength(ByteBuffer buf) throws Http2ProtocolException {
+        int position = buf.position();
+        int length = ((buf.get(position) & 0xff) << 16) | ((buf.get(position + 1) & 0xff) << 8) | (buf.get(position + 2) & 0xff);
+        if (length > maxFrameSize) {
+            throw new Http2ProtocolException("Frame size " + length + " exceeds maximum " + maxFrameSize, FRAME_SIZE_ERROR);
+        }
+        return length;
+    }
+
+    private static void decodeFrame(ByteBuffer frame, Listener listener) throws ProtocolDecoderException {
+        frame.position(3);
+        int type = frame.get() & 0xff;
+        int flags = frame.get() & 0xff;
+        int streamId = frame.getInt() & 0x7fffffff;
+        listener.frameReceived(type, flags, streamId, frame.slice());
+    }
+
+    private static void transfer(ByteBuffer from, ByteBuffer to) {
+        int count = Math.min(from.remaining(), to.remaining());
+        ByteBuffer slice = from.slice();
+        slice.limit(count);
+        to.put(slice);
+        from.position(from.position() + count);
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_ACK;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_END_HEADERS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_END_STREAM;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.HEADER_LENGTH;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_CONTINUATION;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_DATA;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_GOAWAY;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_HEADERS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_PING;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_RST_STREAM;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_SETTINGS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_WINDOW_UPDATE;
+
+import java.nio.ByteBuffer;
+
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+
+/**
+ * Builds the HTTP/2 frames written by the server side of a connection.
+ */
+public final class Http2FrameEncoder {
+
+    private final IoBufferAllocatorEx<?> allocator;
+
+    public Http2FrameEncoder(IoBufferAllocatorEx<?> allocator) {
+        this.allocator = allocator;
+    }
+
+    /**
+     * Encodes a SETTINGS frame.
+     *
+     * @param settings alternating setting identifiers and values
+     */
+    public IoBufferEx settings(int... settings) {
+        ByteBuffer buf = allocate(settings.length / 2 * 6);
+        int offset = buf.position();
+        putHeader(buf, settings.length / 2 * 6, TYPE_SETTINGS, 0, 0);
+        for (int i = 0; i + 1 < settings.length; i += 2) {
+            buf.putShort((short) settings[i]);
+            buf.putInt(settings[i + 1]);
+        }
+        return wrap(buf, offset);
+    }
+
+    public IoBufferEx settingsAck() {
+        ByteBuffer buf = allocate(0);
+        int offset = buf.position();
+        putHeader(buf, 0, TYPE_SETTINGS, FLAG_ACK, 0);
+        return wrap(buf, offset);
+    }
+
+    public IoBufferEx pingAck(ByteBuffer opaqueData) {
+        ByteBuffer buf = allocate(8);
+        int offset = buf.position();
+        putHeader(buf, 8, TYPE_PING, FLAG_ACK, 0);
+        buf.put(opaqueData.duplicate());
+        return wrap(buf, offset);
+    }
+
+    public IoBufferEx goAway(int lastStreamId, int errorCode) {
+        ByteBuffer buf = allocate(8);
+        int offset = buf.position();
+        putHeader(buf, 8, TYPE_GOAWAY, 0, 0);
+        buf.putInt(lastStreamId);
+        buf.putInt(errorCode);
+        return wrap(buf, offset);
+    }
+
+    public IoBufferEx rstStream(int streamId, int errorCode) {
+        ByteBuffer buf = allocate(4);
+        int offset = buf.position();
+        putHeader(buf, 4, TYPE_RST_STREAM, 0, streamId);
+        buf.putInt(errorCode);
+        return wrap(buf, offset);
+    }
+
+    public IoBufferEx windowUpdate(int streamId, int increment) {
+        ByteBuffer buf = allocate(4);
+        int offset = buf.position();
+        putHeader(buf, 4, TYPE_WINDOW_UPDATE, 0, streamId);
+        buf.putInt(increment);
+        return wrap(buf, offset);
+    }
+
+    /**
+     * Encodes a header block as a HEADERS frame followed by as many CONTINUATION frames as the peer's
+     * maximum frame size requires.
+     */
+    public IoBufferEx headers(int streamId, byte[] block, boolean endStream, int maxFrameSize) {
+        int frames = Math.max(1, (block.length + maxFrameSize - 1) / maxFrameSize);
+        ByteBuffer buf = allocator.allocate(frames * HEADER_LENGTH + block.length);
+        int offset = buf.position();
+        int written = 0;
+        int type = TYPE_HEADERS;
+        int flags = endStream ? FLAG_END_STREAM : 0;
+        do {
+            int length = Math.min(maxFrameSize, block.length - written);
+            boolean last = written + length == block.length;
+            putHeader(buf, length, type, last ? flags | FLAG_END_HEADERS : flags, streamId);
+            buf.put(block, written, length);
+            written += length;
+            type = TYPE_CONTINUATION;
+            flags = 0;
+        } while (written < block.length);
+        return wrap(buf, offset);
+    }
+
+    /**
+     * Encodes the frame header of a DATA frame, the payload is written separately so that it is not copied.
+     */
+    public IoBufferEx dataHeader(int streamId, int length, boolean endStream) {
+        ByteBuffer buf = allocate(0);
+        int offset = buf.position();
+        putHeader(buf, length, TYPE_DATA, endStream ? FLAG_END_STREAM : 0, streamId);
+        return wrap(buf, offset);
+    }
+
+    private ByteBuffer allocate(int payloadLength) {
+        return allocator.allocate(HEADER_LENGTH + payloadLength);
+    }
+
+    private IoBufferEx wrap(ByteBuffer buf, int offset) {
+        buf.limit(buf.position());
+        buf.position(offset);
+        return allocator.wrap(buf);
+    }
+
+    static void putHeader(ByteBuffer buf, int length, int type, int flags, int streamId) {
+        buf.put((byte) (length >>> 16));
+        buf.put((byte) (length >>> 8));
+        buf.put((byte) length);
+        buf.put((byte) type);
+        buf.put((byte) flags);
+        buf.putInt(streamId & 0x7fffffff);
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static org.kaazing.gateway.transport.http.HttpHeaders.HEADER_CONTENT_LENGTH;
+import static org.kaazing.gateway.transport.http.HttpHeaders.HEADER_HOST;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.PROTOCOL_ERROR;
+import static org.kaazing.gateway.transport.http.bridge.filter.HttpRequestDecodingState.MAXIMUM_NON_STREAMING_CONTENT_LENGTH;
+import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_NONE;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.mina.filter.codec.ProtocolDecoderException;
+import org.kaazing.gateway.transport.http.HttpCookie;
+import org.kaazing.gateway.transport.http.HttpMethod;
+import org.kaazing.gateway.transport.http.HttpStatus;
+import org.kaazing.gateway.transport.http.HttpVersion;
+import org.kaazing.gateway.transport.http.bridge.HttpContentMessage;
+import org.kaazing.gateway.transport.http.bridge.HttpHeaderNameComparator;
+import org.kaazing.gateway.transport.http.bridge.HttpRequestMessage;
+import org.kaazing.gateway.transport.http.bridge.HttpResponseMessage;
+import org.kaazing.gateway.transport.http.bridge.filter.HttpMessageEncoder.HttpContentMessageEncoder;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+
+/**
+ * Maps HTTP/2 header blocks onto the HTTP/1.1 request and response messages used by the rest of the
+ * http transport, so that an HTTP/2 stream is indistinguishable from an HTTP/1.1 request above it.
+ */
+public final class Http2HeadersCodec {
+
+    private static final Set<String> CONNECTION_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-connection", "transfer-encoding", "upgrade"));
+
+    private Http2HeadersCodec() {
+        // utility class
+    }
+
+    /**
+     * Creates the request for a decoded header block.
+     *
+     * @param fields alternating header names and values in the order they were received
+     * @throws Http2ProtocolException if the header block is malformed, which resets the stream
+     * @throws HttpProtocolDecoderException if the request is well formed but cannot be served
+     */
+    public static HttpRequestMessage decodeRequest(List<String> fields, int streamId, boolean secure) throws Exception {
+        String method = null;
+        String path = null;
+        String scheme = null;
+        String authority = null;
+        StringBuilder cookie = null;
+        Map<String, List<String>> headers = new TreeMap<>(HttpHeaderNameComparator.INSTANCE);
+
+        boolean regularHeaders = false;
+        for (int i = 0; i + 1 < fields.size(); i += 2) {
+            String name = fields.get(i);
+            String value = fields.get(i + 1);
+            if (!name.equals(name.toLowerCase(Locale.ROOT))) {
+                throw new Http2ProtocolException("Upper case header name " + name, PROTOCOL_ERROR, streamId);
+            }
+
+            if (name.startsWith(":")) {
+                if (regularHeaders) {
+                    throw new Http2ProtocolException("Pseudo-header " + name + " after regular header", PROTOCOL_ERROR, streamId);
+                }
+                switch (name) {
+                case ":method":
+                    method = pseudoHeader(name, method, value, streamId);
+                    break;
+                case ":path":
+                    path = pseudoHeader(name, path, value, streamId);
+                    break;
+                case ":scheme":
+                    scheme = pseudoHeader(name, scheme, value, streamId);
+                    break;
+                case ":authority":
+                    authority = pseudoHeader(name, authority, value, streamId);
+                    break;
+                default:
+                    throw new Http2ProtocolException("Unexpected pseudo-header " + name, PROTOCOL_ERROR, streamId);
+                }
+                continue;
+            }
+
+            regularHeaders = true;
+            if (CONNECTION_HEADERS.contains(name) || ("te".equals(name) && !"trailers".equals(value))) {
+                throw new Http2ProtocolException("Connection-specific header " + name, PROTOCOL_ERROR, streamId);
+            }
+            if ("cookie".equals(name)) {
+                // cookie crumbs may be split across header fields (RFC 7540, Section 8.1.2.5)
+                cookie = (cookie == null) ? new StringBuilder(value) : cookie.append("; ").append(value);
+                continue;
+            }
+            List<String> values = headers.get(name);
+            if (values == null) {
+                values = new ArrayList<>(1);
+                headers.put(name, values);
+            }
+            values.add(value);
+        }
+
+        if (method == null || scheme == null || path == null || path.isEmpty()) {
+            throw new Http2ProtocolException("Missing request pseudo-header", PROTOCOL_ERROR, streamId);
+        }
+
+        HttpMethod httpMethod;
+        try {
+            httpMethod = HttpMethod.valueOf(method);
+        }
+        catch (IllegalArgumentException e) {
+            throw new HttpProtocolDecoderException(HttpStatus.SERVER_NOT_IMPLEMENTED);
+        }
+
+        URI requestURI;
+        try {
+            requestURI = HttpRequestLineDecodingState.parseRequestURI(path);
+        }
+        catch (ProtocolDecoderException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new HttpProtocolDecoderException(e.getMessage(), HttpStatus.CLIENT_BAD_REQUEST);
+        }
+
+        if (authority != null && !headers.containsKey(HEADER_HOST)) {
+            List<String> host = new ArrayList<>(1);
+            host.add(authority);
+            headers.put(HEADER_HOST, host);
+        }
+
+        List<String> cookieValues = null;
+        if (cookie != null) {
+            cookieValues = new ArrayList<>(1);
+            cookieValues.add(cookie.toString());
+            headers.put("cookie", cookieValues);
+        }
+        Set<HttpCookie> cookies = HttpRequestDecodingState.parseCookies(cookieValues);
+
+        return HttpRequestDecodingState.newHttpRequest(httpMethod, requestURI, HttpVersion.HTTP_1_1, headers, cookies, secure);
+    }
+
+    /**
+     * Returns the declared length of request content small enough to be delivered with the request,
+     * as HTTP/1.1 does for fixed length content, otherwise -1 indicating that content is streamed.
+     */
+    public static int bufferedContentLength(HttpRequestMessage httpRequest, int streamId) throws Http2ProtocolException {
+        String contentLength = httpRequest.getHeader(HEADER_CONTENT_LENGTH);
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            long length = Long.parseLong(contentLength);
+            if (length < 0) {
+                throw new NumberFormatException(contentLength);
+            }
+            return (length < MAXIMUM_NON_STREAMING_CONTENT_LENGTH) ? (int) length : -1;
+        }
+        catch (NumberFormatException e) {
+            throw new Http2ProtocolException("Invalid content length: " + contentLength, PROTOCOL_ERROR, streamId);
+        }
+    }
+
+    /**
+     * Encodes the status, headers and cookies of a response as alternating lower case header names
+     * and values, dropping the headers that HTTP/2 does not permit.
+     */
+    public static List<String> encodeResponse(HttpResponseMessage httpResponse) {
+        List<String> fields = new ArrayList<>();
+        fields.add(":status");
+        fields.add(Integer.toString(httpResponse.getStatus().code()));
+
+        for (Map.Entry<String, List<String>> entry : httpResponse.getHeaders().entrySet()) {
+            String name = entry.getKey().toLowerCase(Locale.ROOT);
+            List<String> values = entry.getValue();
+            if (values == null || CONNECTION_HEADERS.contains(name)) {
+                continue;
+            }
+            for (String value : values) {
+                fields.add(name);
+                fields.add(value);
+            }
+        }
+
+        for (HttpCookie cookie : httpResponse.getCookies()) {
+            fields.add("set-cookie");
+            fields.add(encodeCookie(cookie));
+        }
+
+        HttpContentMessage content = httpResponse.getContent();
+        if (!httpResponse.hasHeader(HEADER_CONTENT_LENGTH) && !httpResponse.isContentLengthImplicit() &&
+                content != null && content.isComplete() && !httpResponse.isBlockPadding()) {
+            switch (httpResponse.getStatus()) {
+            case INFO_SWITCHING_PROTOCOLS:
+            case REDIRECT_NOT_MODIFIED:
+                break;
+            default:
+                fields.add("content-length");
+                fields.add(Integer.toString(content.length()));
+                break;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the DATA frame payload for response content, applying the same gzip framing as HTTP/1.1.
+     */
+    public static IoBufferEx encodeContent(HttpContentMessage httpContent, IoBufferAllocatorEx<?> allocator) {
+        if (httpContent.isGzipped()) {
+            return HttpContentMessageEncoder.GZIPPED.encode(allocator, httpContent, FLAG_NONE);
+        }
+        return httpContent.asBuffer();
+    }
+
+    private static String encodeCookie(HttpCookie cookie) {
+        StringBuilder value = new StringBuilder();
+        value.append(cookie.getName()).append('=').append(cookie.getValue());
+        if (cookie.getComment() != null) {
+            value.append("; Comment=").append(cookie.getComment());
+        }
+        if (cookie.getDomain() != null) {
+            value.append("; Domain=").append(cookie.getDomain());
+        }
+        if (cookie.getMaxAge() > 0) {
+            value.append("; Max-Age=").append(cookie.getMaxAge());
+        }
+        if (cookie.getPath() != null) {
+            value.append("; Path=").append(cookie.getPath());
+        }
+        if (cookie.isSecure()) {
+            value.append("; Secure");
+        }
+        if (cookie.getVersion() > 0) {
+            value.append("; Version=").append(cookie.getVersion());
+        }
+        return value.toString();
+    }
+
+    private static String pseudoHeader(String name, String current, String value, int streamId)
+            throws Http2ProtocolException {
+        if (current != null) {
+            throw new Http2ProtocolException("Duplicate pseudo-header " + name, PROTOCOL_ERROR, streamId);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.PROTOCOL_ERROR;
+
+import org.apache.mina.filter.codec.ProtocolDecoderException;
+
+/**
+ * This exception class should be used for any HTTP/2 protocol violation. A stream id of zero
+ * indicates a connection error, which is answered with GOAWAY, otherwise only the stream is reset.
+ */
+public class Http2ProtocolException extends ProtocolDecoderException {
+
+    private static final long serialVersionUID = -2467262380578497745L;
+
+    private final int errorCode;
+    private final int streamId;
+
+    public Http2ProtocolException(String msg) {
+        this(msg, PROTOCOL_ERROR, 0);
+    }
+
+    public Http2ProtocolException(String msg, int errorCode) {
+        this(msg, errorCode, 0);
+    }
+
+    public Http2ProtocolException(String msg, int errorCode, int streamId) {
+        super(msg);
+        this.errorCode = errorCode;
+        this.streamId = streamId;
+    }
+
+    public int getErrorCode() {
+        return errorCode;
+    }
+
+    public int getStreamId() {
+        return streamId;
+    }
+
+    public boolean isConnectionError() {
+        return streamId == 0;
+    }
+}
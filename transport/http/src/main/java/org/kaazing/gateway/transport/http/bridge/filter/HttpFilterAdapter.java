@@ -15,6 +15,7 @@
  */
 package org.kaazing.gateway.transport.http.bridge.filter;
 
+import org.apache.mina.core.file.FileRegion;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.core.write.WriteRequest;
 import org.kaazing.gateway.transport.http.bridge.HttpContentMessage;
@@ -54,6 +55,12 @@ public class HttpFilterAdapter<S extends IoSession> extends WriteRequestFilterEx
     public void filterWrite(NextFilter nextFilter, IoSession session, WriteRequest writeRequest) throws Exception {
 
         Object message = writeRequest.getMessage();
+        if (message instanceof FileRegion) {
+            // verbatim HTTP content, already framed by a preceding response with Content-Length
+            nextFilter.filterWrite(session, writeRequest);
+            return;
+        }
+
         HttpMessage httpMessage = (HttpMessage) message;
         switch (httpMessage.getKind()) {
         case REQUEST:
@@ -0,0 +1,445 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.kaazing.gateway.transport.http.bridge.HttpHeaderNameComparator;
+
+/**
+ * Request headers decoded without building a String per header name and value.
+ * <p>
+ * The raw bytes of each header line are copied once into a single array owned by this map, and only the
+ * name and value offsets are recorded. Well-known header names sent in their canonical case resolve to
+ * interned constants, and values are decoded (and split on commas) only when {@link #get(Object)} asks for them.
+ * Any other use of the map, such as iteration or adding a new header, converts it to an ordinary
+ * {@link TreeMap} ordered by {@link HttpHeaderNameComparator}, which is then used from there on.
+ */
+final class HttpFlyweightHeaders extends AbstractMap<String, List<String>> {
+
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String[] WELL_KNOWN_HEADER_NAMES = {
+        "Accept",
+        "Accept-Charset",
+        "Accept-Encoding",
+        "Accept-Language",
+        "Authorization",
+        "Cache-Control",
+        "Connection",
+        "Content-Length",
+        "Content-Type",
+        "Cookie",
+        "DNT",
+        "Host",
+        "If-Modified-Since",
+        "If-None-Match",
+        "Origin",
+        "Pragma",
+        "Referer",
+        "Sec-WebSocket-Extensions",
+        "Sec-WebSocket-Key",
+        "Sec-WebSocket-Protocol",
+        "Sec-WebSocket-Version",
+        "Upgrade",
+        "User-Agent",
+        "X-Accept-Commands",
+        "X-Forwarded-For",
+        "X-Next-Protocol",
+        "X-Origin",
+        "X-Requested-With",
+        "X-Sequence-No",
+        "X-WebSocket-Extensions",
+        "X-WebSocket-Protocol",
+        "X-WebSocket-Version"
+    };
+
+    private static final WellKnownName[][] WELL_KNOWN_NAMES_BY_LENGTH;
+    static {
+        Map<String, Boolean> wellKnownNames = new TreeMap<>();
+        for (String name : WELL_KNOWN_HEADER_NAMES) {
+            wellKnownNames.put(name, Boolean.FALSE);
+        }
+        for (String name : HttpHeaderDecodingState.COMMA_SEPARATED_HEADERS) {
+            wellKnownNames.put(name, Boolean.TRUE);
+        }
+
+        int maxLength = 0;
+        for (String name : wellKnownNames.keySet()) {
+            maxLength = Math.max(maxLength, name.length());
+        }
+
+        WellKnownName[][] namesByLength = new WellKnownName[maxLength + 1][0];
+        for (Map.Entry<String, Boolean> entry : wellKnownNames.entrySet()) {
+            String name = entry.getKey();
+            WellKnownName[] names = namesByLength[name.length()];
+            names = Arrays.copyOf(names, names.length + 1);
+            names[names.length - 1] = new WellKnownName(name, entry.getValue());
+            namesByLength[name.length()] = names;
+        }
+        WELL_KNOWN_NAMES_BY_LENGTH = namesByLength;
+    }
+
+    private static final int INITIAL_BYTES = 512;
+    private static final int INITIAL_LINES = 16;
+
+    private byte[] bytes = new byte[INITIAL_BYTES];
+    private int length;
+
+    // name start, name end, value start and value end of each header line
+    private int[] offsets = new int[INITIAL_LINES * 4];
+    private String[] names = new String[INITIAL_LINES];
+    private boolean[] commaSeparated = new boolean[INITIAL_LINES];
+    private List<String>[] values = newValues(INITIAL_LINES);
+    private int lines;
+
+    private int nameStart;
+    private int nameEnd;
+    private String name;
+    private boolean nameCommaSeparated;
+
+    private Map<String, List<String>> materialized;
+
+    /**
+     * Records the name of the next header line.
+     *
+     * @return false if the name is surrounded by whitespace or is not US-ASCII
+     */
+    boolean appendName(IoBuffer buffer) {
+        nameStart = length;
+        nameEnd = append(buffer);
+
+        if (isWhitespace(bytes[nameStart]) || isWhitespace(bytes[nameEnd - 1])) {
+            return false;
+        }
+        for (int i = nameStart; i < nameEnd; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+
+        name = null;
+        nameCommaSeparated = false;
+        int nameLength = nameEnd - nameStart;
+        if (nameLength < WELL_KNOWN_NAMES_BY_LENGTH.length) {
+            for (WellKnownName wellKnownName : WELL_KNOWN_NAMES_BY_LENGTH[nameLength]) {
+                if (equalsIgnoreCase(nameStart, nameEnd, wellKnownName.bytes)) {
+                    // only intern an exact match so the header name is seen as sent
+                    if (equals(nameStart, nameEnd, wellKnownName.bytes)) {
+                        name = wellKnownName.name;
+                    }
+                    nameCommaSeparated = wellKnownName.commaSeparated;
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records a value for the header name last passed to {@link #appendName(IoBuffer)}.
+     */
+    void appendValue(IoBuffer buffer) {
+        int valueStart = length;
+        int valueEnd = append(buffer);
+
+        if (lines == names.length) {
+            int capacity = lines * 2;
+            offsets = Arrays.copyOf(offsets, capacity * 4);
+            names = Arrays.copyOf(names, capacity);
+            commaSeparated = Arrays.copyOf(commaSeparated, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        offsets[lines * 4] = nameStart;
+        offsets[lines * 4 + 1] = nameEnd;
+        offsets[lines * 4 + 2] = valueStart;
+        offsets[lines * 4 + 3] = valueEnd;
+        names[lines] = name;
+        commaSeparated[lines] = nameCommaSeparated;
+        lines++;
+    }
+
+    @Override
+    public List<String> get(Object key) {
+        if (materialized != null) {
+            return materialized.get(key);
+        }
+
+        int line = (key instanceof String) ? firstLine((String) key) : -1;
+        return (line != -1) ? values(line) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (materialized != null) {
+            return materialized.containsKey(key);
+        }
+
+        return (key instanceof String) && firstLine((String) key) != -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return (materialized != null) ? materialized.isEmpty() : lines == 0;
+    }
+
+    @Override
+    public int size() {
+        if (materialized != null) {
+            return materialized.size();
+        }
+
+        int size = 0;
+        for (int line = 0; line < lines; line++) {
+            if (firstLine(line) == line) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public List<String> put(String key, List<String> value) {
+        // the decoder writes back header values it canonicalized in place, no need to materialize for that
+        if (materialized == null && key != null) {
+            int line = firstLine(key);
+            if (line != -1 && values[line] == value) {
+                return value;
+            }
+        }
+
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public List<String> remove(Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        materialize().clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return materialize().keySet();
+    }
+
+    @Override
+    public Collection<List<String>> values() {
+        return materialize().values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<String>>> entrySet() {
+        return materialize().entrySet();
+    }
+
+    private Map<String, List<String>> materialize() {
+        if (materialized == null) {
+            Map<String, List<String>> headers = new TreeMap<>(HttpHeaderNameComparator.INSTANCE);
+            for (int line = 0; line < lines; line++) {
+                if (firstLine(line) == line) {
+                    headers.put(name(line), values(line));
+                }
+            }
+
+            materialized = headers;
+            bytes = null;
+            offsets = null;
+            names = null;
+            commaSeparated = null;
+            values = null;
+        }
+        return materialized;
+    }
+
+    private int append(IoBuffer buffer) {
+        int remaining = buffer.remaining();
+        if (length + remaining > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + remaining));
+        }
+        buffer.get(bytes, length, remaining);
+        length += remaining;
+        return length;
+    }
+
+    private String name(int line) {
+        String name = names[line];
+        if (name == null) {
+            int start = offsets[line * 4];
+            int end = offsets[line * 4 + 1];
+            name = new String(bytes, start, end - start, US_ASCII);
+            names[line] = name;
+        }
+        return name;
+    }
+
+    private List<String> values(int line) {
+        List<String> lineValues = values[line];
+        if (lineValues == null) {
+            lineValues = new ArrayList<>();
+            for (int nextLine = line; nextLine < lines; nextLine++) {
+                if (nextLine == line || sameName(nextLine, line)) {
+                    int start = offsets[nextLine * 4 + 2];
+                    int end = offsets[nextLine * 4 + 3];
+                    if (commaSeparated[line]) {
+                        addSeparatedValues(lineValues, start, end);
+                    }
+                    else {
+                        lineValues.add(new String(bytes, start, end - start, UTF_8));
+                    }
+                }
+            }
+            values[line] = lineValues;
+        }
+        return lineValues;
+    }
+
+    // same as trimming each element of value.split(","), including the removal of trailing empty elements
+    private void addSeparatedValues(List<String> values, int start, int end) {
+        int limit = end;
+        while (limit > start && bytes[limit - 1] == ',') {
+            limit--;
+        }
+
+        if (limit == start && limit != end) {
+            return;
+        }
+
+        int from = start;
+        for (int i = start; i <= limit; i++) {
+            if (i == limit || bytes[i] == ',') {
+                int valueStart = from;
+                int valueEnd = i;
+                while (valueStart < valueEnd && isWhitespace(bytes[valueStart])) {
+                    valueStart++;
+                }
+                while (valueEnd > valueStart && isWhitespace(bytes[valueEnd - 1])) {
+                    valueEnd--;
+                }
+                values.add(new String(bytes, valueStart, valueEnd - valueStart, UTF_8));
+                from = i + 1;
+            }
+        }
+    }
+
+    private int firstLine(String key) {
+        for (int line = 0; line < lines; line++) {
+            int start = offsets[line * 4];
+            int end = offsets[line * 4 + 1];
+            if (end - start == key.length() && equalsIgnoreCase(start, end, key)) {
+                return line;
+            }
+        }
+        return -1;
+    }
+
+    private int firstLine(int line) {
+        for (int previousLine = 0; previousLine < line; previousLine++) {
+            if (sameName(previousLine, line)) {
+                return previousLine;
+            }
+        }
+        return line;
+    }
+
+    private boolean sameName(int line, int otherLine) {
+        int start = offsets[line * 4];
+        int end = offsets[line * 4 + 1];
+        int otherStart = offsets[otherLine * 4];
+        int otherEnd = offsets[otherLine * 4 + 1];
+        if (start == otherStart) {
+            // folded header lines share the same name bytes
+            return true;
+        }
+        if (end - start != otherEnd - otherStart) {
+            return false;
+        }
+        for (int i = start, j = otherStart; i < end; i++, j++) {
+            if (toLowerCase(bytes[i]) != toLowerCase(bytes[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equalsIgnoreCase(int start, int end, String key) {
+        for (int i = start; i < end; i++) {
+            char c = key.charAt(i - start);
+            if (c > 0x7f || toLowerCase(bytes[i]) != toLowerCase((byte) c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equalsIgnoreCase(int start, int end, byte[] name) {
+        for (int i = start; i < end; i++) {
+            if (toLowerCase(bytes[i]) != toLowerCase(name[i - start])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equals(int start, int end, byte[] name) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] != name[i - start]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte toLowerCase(byte b) {
+        return (b >= 'A' && b <= 'Z') ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    // consistent with String.trim()
+    private static boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String>[] newValues(int capacity) {
+        return new List[capacity];
+    }
+
+    private static final class WellKnownName {
+        private final String name;
+        private final byte[] bytes;
+        private final boolean commaSeparated;
+
+        WellKnownName(String name, boolean commaSeparated) {
+            this.name = name;
+            this.bytes = name.getBytes(US_ASCII);
+            this.commaSeparated = commaSeparated;
+        }
+    }
+}
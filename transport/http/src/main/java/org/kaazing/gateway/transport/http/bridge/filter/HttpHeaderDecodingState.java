@@ -40,7 +40,7 @@ import org.kaazing.mina.filter.codec.statemachine.ConsumeToCrLfDecodingState;
 import org.kaazing.mina.filter.codec.statemachine.ConsumeToTerminatorDecodingState;
 
 public abstract class HttpHeaderDecodingState extends DecodingStateMachine {
-    private static final Set<String> COMMA_SEPARATED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    static final Set<String> COMMA_SEPARATED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
     static {
         COMMA_SEPARATED_HEADERS.add("Accept-Ranges");
         COMMA_SEPARATED_HEADERS.add("Accept");
@@ -91,6 +91,7 @@ public abstract class HttpHeaderDecodingState extends DecodingStateMachine {
 
     // use list to preserve header value ordering
     private Map<String, List<String>> headers;
+    private HttpFlyweightHeaders flyweightHeaders;
     private String lastHeaderName;
 
     private final DecodingState FIND_EMPTY_LINE = new CrLfDecodingState() {
@@ -115,6 +116,12 @@ public abstract class HttpHeaderDecodingState extends DecodingStateMachine {
             if (buffer == null || !buffer.hasRemaining()) {
                 throw new ProtocolDecoderException("Invalid header name in the request");
             }
+            if (flyweightHeaders != null) {
+                if (!flyweightHeaders.appendName(buffer)) {
+                    throw new HttpProtocolDecoderException(CLIENT_BAD_REQUEST);
+                }
+                return AFTER_READ_HEADER_NAME;
+            }
             lastHeaderName = buffer.getString(asciiDecoder);
             if (!lastHeaderName.trim().equals(lastHeaderName)) {
                 throw new HttpProtocolDecoderException(CLIENT_BAD_REQUEST);
@@ -134,6 +141,11 @@ public abstract class HttpHeaderDecodingState extends DecodingStateMachine {
         @Override
         protected DecodingState finishDecode(IoBuffer buffer,
                                              ProtocolDecoderOutput out) throws Exception {
+            if (flyweightHeaders != null) {
+                flyweightHeaders.appendValue(buffer);
+                return AFTER_READ_HEADER_VALUE;
+            }
+
             String value = buffer.getString(utf8Decoder);
             List<String> values = headers.get(lastHeaderName);
             if (values == null) {
@@ -180,7 +192,20 @@ public abstract class HttpHeaderDecodingState extends DecodingStateMachine {
     protected void destroy() throws Exception {
     }
 
+    /**
+     * Creates the map for the headers of the next message. Subclasses may return an
+     * {@link #createFlyweightHeaders() flyweight} map to defer decoding of header names and values.
+     */
+    protected Map<String, List<String>> createHeaders() {
+        return new TreeMap<>(HttpHeaderNameComparator.INSTANCE);
+    }
+
+    protected final Map<String, List<String>> createFlyweightHeaders() {
+        return new HttpFlyweightHeaders();
+    }
+
     private void initHeaders() {
-        headers = new TreeMap<>(HttpHeaderNameComparator.INSTANCE);
+        headers = createHeaders();
+        flyweightHeaders = (headers instanceof HttpFlyweightHeaders) ? (HttpFlyweightHeaders) headers : null;
     }
 }
@@ -51,6 +51,9 @@ import org.kaazing.gateway.security.auth.DefaultLoginResult;
 import org.kaazing.gateway.security.auth.InetAddressCallbackHandler;
 import org.kaazing.gateway.security.auth.LoginResultCallbackHandler;
 import org.kaazing.gateway.security.auth.YesLoginModule;
+import org.kaazing.gateway.security.auth.context.DefaultLoginContextFactory;
+import org.kaazing.gateway.security.auth.context.LoginContextCache;
+import org.kaazing.gateway.security.auth.context.LoginStatistics;
 import org.kaazing.gateway.security.auth.context.ResultAwareLoginContext;
 import org.kaazing.gateway.server.spi.security.AuthenticationToken;
 import org.kaazing.gateway.server.spi.security.AuthenticationTokenCallback;
@@ -391,6 +394,11 @@ public abstract class HttpLoginSecurityFilter extends HttpBaseSecurityFilter {
                     log("Login failed.", e);
                 }
 
+                // the login modules now reject this token, so stop accepting it from the login cache
+                if (realms.length == 1) {
+                    invalidateCachedLogin(session, httpRequest, authToken, realm);
+                }
+
                 // login failed, but additional challenges were provided
                 if (loginContext != null && loginContext.getLoginResult().getType() == LoginResult.Type.CHALLENGE) {
                     String challenge = sendChallengeResponse(nextFilter, session, httpRequest, loginContext.getLoginResult(), realms, realmIndex, loginContexts);
@@ -410,6 +418,10 @@ public abstract class HttpLoginSecurityFilter extends HttpBaseSecurityFilter {
         if (loginOK) {
             // store information into the session
             try {
+                if (loginContext != LOGIN_CONTEXT_OK && realms.length == 1) {
+                    loginContext = cacheLogin(session, httpRequest, authToken, realm, loginContext);
+                }
+
                 loginContexts[realmIndex] = loginContext;
 
                 // remember login context
@@ -434,6 +446,102 @@ public abstract class HttpLoginSecurityFilter extends HttpBaseSecurityFilter {
         return loginOK;
     }
 
+    /**
+     * Reuses a cached successful login for the presented authentication token, so that the login module chain need not
+     * run again. Only single realm logins are cached, as later realms in a chain see the subjects of earlier realms.
+     *
+     * @return true iff a cached login authorizes the request, in which case its login context and subject are set
+     */
+    protected boolean loginFromCache(IoSession session,
+                                     HttpRequestMessage httpRequest,
+                                     AuthenticationToken authToken,
+                                     HttpRealmInfo[] realms,
+                                     int realmIndex) {
+        LoginContextCache loginCache = getLoginCache(realms[realmIndex]);
+        if (loginCache == null || realms.length != 1 || authTokenIsMissing(authToken)) {
+            return false;
+        }
+
+        URI remoteAddress;
+        try {
+            remoteAddress = getRemoteAddress(session, httpRequest);
+        } catch (IllegalStateException e) {
+            // let the login module chain report the malformed Forwarded header
+            return false;
+        }
+
+        ResultAwareLoginContext loginContext =
+                loginCache.get(LoginContextCache.newKey(authToken, remoteAddress != null ? remoteAddress.getHost() : null));
+        if (loginContext == null) {
+            return false;
+        }
+
+        ResourceAddress address = httpRequest.getLocalAddress();
+        Collection<String> requireRoles = asList(address.getOption(HttpResourceAddress.REQUIRED_ROLES));
+        if (!isSubjectAuthorized(loginContext.getSubject(), requireRoles)) {
+            try {
+                loginContext.logout();
+            } catch (LoginException e) {
+                // releasing a cached login does not fail
+            }
+            return false;
+        }
+
+        httpRequest.setLoginContext(loginContext);
+        httpRequest.setSubject(loginContext.getSubject());
+
+        if (loggerEnabled()) {
+            log("Login succeeded from login cache; [%s].", authToken);
+        }
+        return true;
+    }
+
+    private ResultAwareLoginContext cacheLogin(IoSession session,
+                                               HttpRequestMessage httpRequest,
+                                               AuthenticationToken authToken,
+                                               HttpRealmInfo realm,
+                                               ResultAwareLoginContext loginContext) {
+        LoginContextCache loginCache = getLoginCache(realm);
+        if (loginCache == null || authTokenIsMissing(authToken)) {
+            return loginContext;
+        }
+
+        URI remoteAddress = getRemoteAddress(session, httpRequest);
+        String key = LoginContextCache.newKey(authToken, remoteAddress != null ? remoteAddress.getHost() : null);
+        return loginCache.put(key, loginContext);
+    }
+
+    private void invalidateCachedLogin(IoSession session,
+                                       HttpRequestMessage httpRequest,
+                                       AuthenticationToken authToken,
+                                       HttpRealmInfo realm) {
+        LoginContextCache loginCache = getLoginCache(realm);
+        if (loginCache == null || authTokenIsMissing(authToken)) {
+            return;
+        }
+
+        URI remoteAddress;
+        try {
+            remoteAddress = getRemoteAddress(session, httpRequest);
+        } catch (IllegalStateException e) {
+            // nothing was cached for a malformed Forwarded header
+            return;
+        }
+        loginCache.invalidate(LoginContextCache.newKey(authToken, remoteAddress != null ? remoteAddress.getHost() : null));
+    }
+
+    protected static LoginContextCache getLoginCache(HttpRealmInfo realm) {
+        LoginContextFactory loginContextFactory = realm.getLoginContextFactory();
+        return loginContextFactory instanceof DefaultLoginContextFactory
+                ? ((DefaultLoginContextFactory) loginContextFactory).getLoginCache() : null;
+    }
+
+    protected static LoginStatistics getLoginStatistics(HttpRealmInfo realm) {
+        LoginContextFactory loginContextFactory = realm.getLoginContextFactory();
+        return loginContextFactory instanceof DefaultLoginContextFactory
+                ? ((DefaultLoginContextFactory) loginContextFactory).getLoginStatistics() : null;
+    }
+
     private boolean isSubjectAuthorized(Subject subject, Collection<String> requiredRoles) {
         if (isSubjectAutomaticallyAuthorized(subject, requiredRoles)) {
             return true;
@@ -485,6 +593,17 @@ public abstract class HttpLoginSecurityFilter extends HttpBaseSecurityFilter {
                                                  = new AuthenticationTokenCallbackHandler(authToken);
         callbackHandlerMap.put(AuthenticationTokenCallback.class, authenticationTokenCallbackHandler);
 
+        URI remoteAddress = getRemoteAddress(session, httpRequest);
+        if (remoteAddress != null) {
+            populateRemoteAddress(callbackHandlerMap, remoteAddress);
+        }
+    }
+
+    /**
+     * Returns the address of the client made available to login modules, taken from the Forwarded header if present,
+     * otherwise from the tcp transport of the session, or <code>null</code> if it is not known.
+     */
+    private URI getRemoteAddress(IoSession session, HttpRequestMessage httpRequest) {
         String forwarded = httpRequest.getHeader(HEADER_FORWARDED);
         if (forwarded != null) {
             Matcher matcher = PATTERN_HEADER_FORWARDED.matcher(forwarded.toLowerCase());
@@ -518,18 +637,15 @@ public abstract class HttpLoginSecurityFilter extends HttpBaseSecurityFilter {
             // In for=unknown, Gateway does not register the InetAddressCallback. If a LoginModule uses
             // InetAddressCallback to retrieve the remote InetAddress, then it will detect it's absence and
             // throw an exception that will result in a 403 response.
-            if (!ipAddress.equals(HEADER_FORWARDED_UNKNOWN_VALUE)) {
-                URI uri = URI.create(format(FORWARDED_URI, ipAddress));
-                populateRemoteAddress(callbackHandlerMap, uri);
-            }
-        } else {
-            ResourceAddress resourceAddress = REMOTE_ADDRESS.get(session);
-            ResourceAddress tcpResourceAddress = resourceAddress.findTransport("tcp");
-            if (tcpResourceAddress != null) {
-                URI resource = tcpResourceAddress.getResource();
-                populateRemoteAddress(callbackHandlerMap, resource);
+            if (ipAddress.equals(HEADER_FORWARDED_UNKNOWN_VALUE)) {
+                return null;
             }
+            return URI.create(format(FORWARDED_URI, ipAddress));
         }
+
+        ResourceAddress resourceAddress = REMOTE_ADDRESS.get(session);
+        ResourceAddress tcpResourceAddress = resourceAddress.findTransport("tcp");
+        return tcpResourceAddress != null ? tcpResourceAddress.getResource() : null;
     }
 
     private void populateRemoteAddress(TypedCallbackHandlerMap callbackHandlerMap, URI resource) {
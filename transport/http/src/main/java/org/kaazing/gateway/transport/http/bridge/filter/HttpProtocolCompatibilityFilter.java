@@ -610,7 +610,7 @@ public class HttpProtocolCompatibilityFilter extends HttpFilterAdapter<IoSession
         return isApiPath(session.getRequestURI().getPath());
     }
 
-    private static boolean isRevalidateWebSocketRequest(HttpRequestMessage message) {
+    static boolean isRevalidateWebSocketRequest(HttpRequestMessage message) {
         return isRevalidateWebSocketPath(message.getRequestURI().getPath());
     }
     private static boolean isRevalidateWebSocketRequest(HttpAcceptSession session) {
@@ -18,6 +18,7 @@ package org.kaazing.gateway.transport.http.bridge.filter;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.filter.codec.statemachine.DecodingState;
 import org.kaazing.gateway.transport.SslUtils;
+import org.kaazing.gateway.transport.http.HttpAcceptor;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
 import org.kaazing.mina.core.session.IoSessionEx;
 
@@ -27,7 +28,8 @@ public class HttpRequestDecoder extends HttpMessageDecoder {
 	protected DecodingState initDecodingState(IoSession session) {
         IoSessionEx sessionEx = (IoSessionEx) session;
         IoBufferAllocatorEx<?> allocator = sessionEx.getBufferAllocator();
-		return new HttpRequestDecodingState(allocator, SslUtils.isSecure(session));
+		boolean flyweightHeaders = HttpAcceptor.FLYWEIGHT_HEADERS_KEY.get(session, Boolean.FALSE);
+		return new HttpRequestDecodingState(allocator, SslUtils.isSecure(session), flyweightHeaders);
 	}
 
 }
@@ -49,13 +49,12 @@ import org.kaazing.mina.filter.codec.statemachine.FixedLengthDecodingState;
 
 
 public class HttpRequestDecodingState extends DecodingStateMachine {
-    private static final int MAXIMUM_NON_STREAMING_CONTENT_LENGTH = 4096;
+    static final int MAXIMUM_NON_STREAMING_CONTENT_LENGTH = 4096;
     private static final String HEADER_WEBSOCKET_KEY1 = "Sec-WebSocket-Key1";
     private static final String HEADER_HOST = "Host";
     private static final String HEADER_ORIGIN = "Origin";
     private static final String HEADER_REFERER = "Referer";
     private static final String QUERY_PARAM_DEFAULT_CONTENT_TYPE = ".kct";
-    private final List<String> NULL_ORIGIN;
 
     private static final DecodingState READ_CONTENT = new DecodingState() {
         @Override
@@ -100,73 +99,7 @@ public class HttpRequestDecodingState extends DecodingStateMachine {
 					.get(3);
 			Set<HttpCookie> cookies = (Set<HttpCookie>) childProducts.get(4);
 
-            final HttpRequestMessage httpRequest = new HttpRequestMessage();
-			List<String> hostHeaderValues = headers.get(HEADER_HOST);
-            if (requestURI.isAbsolute()) {
-                httpRequest.setAbsoluteRequestURI(requestURI);
-                String expectedHostHeader = requestURI.getHost()
-                        + (requestURI.getPort() == -1 ? "" : ":" + requestURI.getPort());
-
-                if (hostHeaderValues != null) {
-                    String gotHostHeader = hostHeaderValues.get(0);
-                    if (!expectedHostHeader.equals(gotHostHeader)) {
-                        String msg = String.format("Request URI %s is in absolute-form, hence expecting Host header %s, but got %s",
-                                requestURI, expectedHostHeader, gotHostHeader);
-                        throw new HttpProtocolDecoderException(msg, HttpStatus.CLIENT_BAD_REQUEST);
-
-                    }
-                } else {
-                    hostHeaderValues = new ArrayList<>(1);
-                    headers.put(HEADER_HOST, hostHeaderValues);
-                    hostHeaderValues.add(expectedHostHeader);
-                }
-
-                String query = requestURI.getQuery();
-                requestURI = (query == null)
-                    ? URI.create(requestURI.getPath())
-                    : URI.create(requestURI.getPath() + "?" + query);
-            }   
-
-			// KG-1469 Canonicalize Host header to make hostname lowercase to ensure correct lookup in service registry
-			if (hostHeaderValues != null) {
-			    int size = hostHeaderValues.size();
-			    for (int i = 0; i<size; i++) {
-    			    String hostPort = hostHeaderValues.get(i);
-    			    String hostPortLC = hostPort.toLowerCase();
-    			    if (!hostPortLC.equals(hostPort)) {
-    			        hostHeaderValues.set(i, hostPortLC);
-    			        headers.put(HEADER_HOST, hostHeaderValues);
-    			    }
-			    }
-			}
-			
-			// KG-1474 Canonicalize hostname portion of Origin and Referer headers to lowercase to avoid spurious same origin rejection
-			// by HttpCrossSiteFilter due to use of mixed case client-side WebSocket connect URI
-
-			try { 
-   				canonicalizeURIHeaders(headers, HEADER_ORIGIN);
-
-			} catch (IllegalArgumentException iae) {
-				// KG-5521: If the Origin value is malformed/unrecognized, treat it as "null".  This
-				// follows the instructions of Section 6.1 of RFC 6454.
-				headers.put(HEADER_ORIGIN, NULL_ORIGIN);
-			}
-
-			canonicalizeURIHeaders(headers, HEADER_REFERER);
-			
-			httpRequest.setSecure(secure);
-			httpRequest.setMethod(method);
-			httpRequest.setRequestURI(requestURI);
-			httpRequest.setVersion(version);
-			httpRequest.setHeaders(headers);
-			httpRequest.setCookies(cookies);
-           
-	        // default the content-type based on query parameter for XDR which cannot specify content-type request header
-	        String contentTypeHeader = httpRequest.getHeader(HEADER_CONTENT_TYPE);
-	        String contentTypeParam = httpRequest.removeParameter(QUERY_PARAM_DEFAULT_CONTENT_TYPE);
-	        if (contentTypeHeader == null && contentTypeParam != null) {
-	            httpRequest.setHeader(HEADER_CONTENT_TYPE, contentTypeParam);
-	        }
+            final HttpRequestMessage httpRequest = newHttpRequest(method, requestURI, version, headers, cookies, secure);
 
             if ((version == HttpVersion.HTTP_1_1) && isChunked(httpRequest)) {
                 httpRequest.setContent(new HttpContentMessage(allocator.wrap(allocator.allocate(0)), false));
@@ -282,6 +215,11 @@ public class HttpRequestDecodingState extends DecodingStateMachine {
 	};
 
 	private final DecodingState READ_HEADERS = new HttpHeaderDecodingState(allocator) {
+		@Override
+		protected Map<String, List<String>> createHeaders() {
+		    return flyweightHeaders ? createFlyweightHeaders() : super.createHeaders();
+		}
+
 		@Override
 		@SuppressWarnings("unchecked")
 		protected DecodingState finishDecode(List<Object> childProducts,
@@ -320,12 +258,19 @@ public class HttpRequestDecodingState extends DecodingStateMachine {
 	};
 
 	private final boolean secure;
+	private final boolean flyweightHeaders;
 
 	public HttpRequestDecodingState(IoBufferAllocatorEx<?> allocator, boolean secure) {
+	    this(allocator, secure, false);
+	}
+
+	/**
+	 * @param flyweightHeaders whether to defer decoding of header names and values until they are looked up
+	 */
+	public HttpRequestDecodingState(IoBufferAllocatorEx<?> allocator, boolean secure, boolean flyweightHeaders) {
 	    super(allocator);
-        this.NULL_ORIGIN = new ArrayList<>(1);
-        this.NULL_ORIGIN.add("null"); 
 		this.secure = secure;
+		this.flyweightHeaders = flyweightHeaders;
 	}
 
 	@Override
@@ -352,7 +297,90 @@ public class HttpRequestDecodingState extends DecodingStateMachine {
 		return null;
 	}
 	
-	private void canonicalizeURIHeaders(Map<String, List<String>> headers, String... headerNames) {
+    /**
+     * Builds the request for a decoded request line and headers, canonicalizing the Host, Origin and Referer headers.
+     */
+    static HttpRequestMessage newHttpRequest(HttpMethod method, URI requestURI, HttpVersion version,
+            Map<String, List<String>> headers, Set<HttpCookie> cookies, boolean secure) throws ProtocolDecoderException {
+        HttpRequestMessage httpRequest = new HttpRequestMessage();
+        List<String> hostHeaderValues = headers.get(HEADER_HOST);
+        if (requestURI.isAbsolute()) {
+            httpRequest.setAbsoluteRequestURI(requestURI);
+            String expectedHostHeader = requestURI.getHost()
+                    + (requestURI.getPort() == -1 ? "" : ":" + requestURI.getPort());
+
+            if (hostHeaderValues != null) {
+                String gotHostHeader = hostHeaderValues.get(0);
+                if (!expectedHostHeader.equals(gotHostHeader)) {
+                    String msg = String.format("Request URI %s is in absolute-form, hence expecting Host header %s, but got %s",
+                            requestURI, expectedHostHeader, gotHostHeader);
+                    throw new HttpProtocolDecoderException(msg, HttpStatus.CLIENT_BAD_REQUEST);
+
+                }
+            } else {
+                hostHeaderValues = new ArrayList<>(1);
+                headers.put(HEADER_HOST, hostHeaderValues);
+                hostHeaderValues.add(expectedHostHeader);
+            }
+
+            String query = requestURI.getQuery();
+            requestURI = (query == null)
+                ? URI.create(requestURI.getPath())
+                : URI.create(requestURI.getPath() + "?" + query);
+        }
+
+        // KG-1469 Canonicalize Host header to make hostname lowercase to ensure correct lookup in service registry
+        if (hostHeaderValues != null) {
+            int size = hostHeaderValues.size();
+            for (int i = 0; i<size; i++) {
+                String hostPort = hostHeaderValues.get(i);
+                String hostPortLC = hostPort.toLowerCase();
+                if (!hostPortLC.equals(hostPort)) {
+                    hostHeaderValues.set(i, hostPortLC);
+                    headers.put(HEADER_HOST, hostHeaderValues);
+                }
+            }
+        }
+
+        // KG-1474 Canonicalize hostname portion of Origin and Referer headers to lowercase to avoid spurious same origin rejection
+        // by HttpCrossSiteFilter due to use of mixed case client-side WebSocket connect URI
+
+        try {
+            canonicalizeURIHeaders(headers, HEADER_ORIGIN);
+
+        } catch (IllegalArgumentException iae) {
+            // KG-5521: If the Origin value is malformed/unrecognized, treat it as "null".  This
+            // follows the instructions of Section 6.1 of RFC 6454.
+            List<String> nullOrigin = new ArrayList<>(1);
+            nullOrigin.add("null");
+            headers.put(HEADER_ORIGIN, nullOrigin);
+        }
+
+        canonicalizeURIHeaders(headers, HEADER_REFERER);
+
+        httpRequest.setSecure(secure);
+        httpRequest.setMethod(method);
+        httpRequest.setRequestURI(requestURI);
+        httpRequest.setVersion(version);
+        if (headers instanceof HttpFlyweightHeaders) {
+            // decoded for this request only, so no need to copy
+            httpRequest.adoptHeaders(headers);
+        }
+        else {
+            httpRequest.setHeaders(headers);
+        }
+        httpRequest.setCookies(cookies);
+
+        // default the content-type based on query parameter for XDR which cannot specify content-type request header
+        String contentTypeHeader = httpRequest.getHeader(HEADER_CONTENT_TYPE);
+        String contentTypeParam = httpRequest.removeParameter(QUERY_PARAM_DEFAULT_CONTENT_TYPE);
+        if (contentTypeHeader == null && contentTypeParam != null) {
+            httpRequest.setHeader(HEADER_CONTENT_TYPE, contentTypeParam);
+        }
+        return httpRequest;
+    }
+
+	private static void canonicalizeURIHeaders(Map<String, List<String>> headers, String... headerNames) {
 	    for (String headerName : headerNames) {
             List<String> headerValues = headers.get(headerName);
             if (headerValues != null) {
@@ -381,7 +409,7 @@ public class HttpRequestDecodingState extends DecodingStateMachine {
 		}
 	}
 
-    private Set<HttpCookie> parseCookies(List<String> cookieHeaderValues) {
+    static Set<HttpCookie> parseCookies(List<String> cookieHeaderValues) {
         // parse cookies
         Set<HttpCookie> cookies = new HashSet<>();
         if (cookieHeaderValues != null && !cookieHeaderValues.isEmpty()) {
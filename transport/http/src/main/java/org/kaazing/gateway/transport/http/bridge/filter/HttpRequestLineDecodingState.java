@@ -120,29 +120,8 @@ public abstract class HttpRequestLineDecodingState extends DecodingStateMachine
             // extract the request string from the byte buffer
             String request = buffer.getString(utf8Decoder);
 
-            // check the length of the request
-            if(request.length() > MAX_HTTP_URI_LENGTH_ALLOWED) {
-                throw new HttpProtocolDecoderException(HttpStatus.CLIENT_REQUEST_URI_TOO_LONG);
-            }
-
-            // handle special case of leading double slash
-            // to avoid mistakenly parsing the URI as having an authority
-            request = MULTIPLE_LEADING_SLASHES.matcher(request).replaceAll(SINGLE_SLASH);
+            URI requestURI = parseRequestURI(request);
 
-            // parse request as URI
-            URI requestURI = new URI(request);
-            
-            // canonicalize slashes in request path
-            String path = requestURI.getPath();
-            String canonicalPath = MULTIPLE_SLASHES.matcher(path).replaceAll(SINGLE_SLASH);
-            if (!path.equals(canonicalPath)) {
-                String scheme = requestURI.getScheme();
-                String authority = requestURI.getAuthority();
-                String query = requestURI.getQuery();
-                String fragment = requestURI.getFragment();
-                requestURI = new URI(scheme, authority, canonicalPath, query, fragment);
-            }
-            
             // output the canonical request URI
             out.write(requestURI);
             
@@ -151,6 +130,32 @@ public abstract class HttpRequestLineDecodingState extends DecodingStateMachine
 
     };
 
+    static URI parseRequestURI(String request) throws Exception {
+        // check the length of the request
+        if(request.length() > MAX_HTTP_URI_LENGTH_ALLOWED) {
+            throw new HttpProtocolDecoderException(HttpStatus.CLIENT_REQUEST_URI_TOO_LONG);
+        }
+
+        // handle special case of leading double slash
+        // to avoid mistakenly parsing the URI as having an authority
+        request = MULTIPLE_LEADING_SLASHES.matcher(request).replaceAll(SINGLE_SLASH);
+
+        // parse request as URI
+        URI requestURI = new URI(request);
+
+        // canonicalize slashes in request path
+        String path = requestURI.getPath();
+        String canonicalPath = MULTIPLE_SLASHES.matcher(path).replaceAll(SINGLE_SLASH);
+        if (!path.equals(canonicalPath)) {
+            String scheme = requestURI.getScheme();
+            String authority = requestURI.getAuthority();
+            String query = requestURI.getQuery();
+            String fragment = requestURI.getFragment();
+            requestURI = new URI(scheme, authority, canonicalPath, query, fragment);
+        }
+        return requestURI;
+    }
+
     private final DecodingState AFTER_READ_URI = new LinearWhitespaceSkippingState() {
         @Override
         protected DecodingState finishDecode(int skippedBytes) throws Exception {
@@ -16,12 +16,15 @@
 package org.kaazing.gateway.transport.http.bridge.filter;
 
 import static org.kaazing.gateway.transport.http.HttpHeaders.HEADER_SEC_CHALLENGE_IDENTITY;
+import static org.kaazing.gateway.transport.http.bridge.filter.HttpProtocolCompatibilityFilter.isRevalidateWebSocketRequest;
 
 import java.security.Principal;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 
@@ -37,12 +40,14 @@ import org.kaazing.gateway.resource.address.http.HttpResourceAddress;
 import org.kaazing.gateway.security.TypedCallbackHandlerMap;
 import org.kaazing.gateway.security.auth.DefaultLoginResult;
 import org.kaazing.gateway.security.auth.NamedSubjectCallbackHandler;
+import org.kaazing.gateway.security.auth.context.LoginStatistics;
 import org.kaazing.gateway.security.auth.context.ResultAwareLoginContext;
 import org.kaazing.gateway.security.auth.token.DefaultAuthenticationToken;
 import org.kaazing.gateway.server.spi.security.ExpiringState;
 import org.kaazing.gateway.server.spi.security.NamedSubjectCallback;
 import org.kaazing.gateway.transport.http.DefaultHttpSession;
 import org.kaazing.gateway.transport.http.HttpCookie;
+import org.kaazing.gateway.transport.http.HttpStatus;
 import org.kaazing.gateway.transport.http.bridge.HttpMessage;
 import org.kaazing.gateway.transport.http.bridge.HttpRequestMessage;
 import org.kaazing.gateway.transport.http.bridge.HttpResponseMessage;
@@ -69,6 +74,8 @@ public class HttpSubjectSecurityFilter extends HttpLoginSecurityFilter {
 
     private ScheduledExecutorService scheduler;
 
+    private Executor loginExecutor;
+
     public HttpSubjectSecurityFilter() {
         this(null, null);
     }
@@ -89,6 +96,13 @@ public class HttpSubjectSecurityFilter extends HttpLoginSecurityFilter {
         this.scheduler = provider.getScheduler("loginmodule", false);
     }
 
+    /**
+     * Sets the dedicated executor running LoginContext.login(), if not set logins run on the shared scheduler.
+     */
+    public void setLoginExecutor(Executor loginExecutor) {
+        this.loginExecutor = loginExecutor;
+    }
+
     // --------------------------------------------------------
     // Security code for subject-security LEGACY
 
@@ -368,6 +382,14 @@ public class HttpSubjectSecurityFilter extends HttpLoginSecurityFilter {
             authToken.setScheme(expectedChallengeScheme);
         }
 
+        // Reconnecting clients presenting the same token reuse the cached login without queueing for a login thread,
+        // but revalidation must reach the login modules, so that a revoked token is noticed
+        if (realmIndex == 0 && !isRevalidateWebSocketRequest(httpRequest)
+                && loginFromCache(session, httpRequest, authToken, realms, realmIndex)) {
+            super.doMessageReceived(nextFilter, session, message);
+            return;
+        }
+
         // Suspend incoming events into this filter. Will resume after LoginContext.login() completion
         suspendIncoming(session);
 
@@ -380,8 +402,24 @@ public class HttpSubjectSecurityFilter extends HttpLoginSecurityFilter {
         }
 
         // Schedule LoginContext.login() execution using a separate thread
-        LoginContextTask loginContextTask = new LoginContextTask(nextFilter, session, httpRequest, authToken, additionalCallbacks, realms, realmIndex, loginContexts);
-        scheduler.execute(loginContextTask);
+        LoginStatistics loginStatistics = getLoginStatistics(realm);
+        LoginContextTask loginContextTask = new LoginContextTask(nextFilter, session, httpRequest, authToken, additionalCallbacks, realms, realmIndex, loginContexts, loginStatistics);
+        if (loginStatistics != null) {
+            loginStatistics.loginQueued();
+        }
+        try {
+            Executor executor = (loginExecutor != null) ? loginExecutor : scheduler;
+            executor.execute(loginContextTask);
+        } catch (RejectedExecutionException e) {
+            if (loginStatistics != null) {
+                loginStatistics.loginRejected();
+            }
+            if (loggerIsEnabled) {
+                logger.trace("Login rejected because too many logins are waiting to run.");
+            }
+            writeResponse(HttpStatus.SERVER_SERVICE_UNAVAILABLE, nextFilter, session, httpRequest);
+            super.resumeIncoming(session);
+        }
     }
 
     private Subject findNamedSubject(String name, HttpRealmInfo[] realms, int realmIndex, LoginContext[] loginContexts) {
@@ -418,10 +456,13 @@ public class HttpSubjectSecurityFilter extends HttpLoginSecurityFilter {
         private final HttpRealmInfo[] realms;
         private final int realmStartAt;
         private final LoginContext[] loginContexts;
+        private final LoginStatistics loginStatistics;
+        private final long queuedAt;
 
         LoginContextTask(NextFilter nextFilter, IoSession session, HttpRequestMessage httpRequest,
                          DefaultAuthenticationToken authToken, TypedCallbackHandlerMap additionalCallbacks,
-                         HttpRealmInfo[] realms, int realmIndex, LoginContext[] loginContexts) {
+                         HttpRealmInfo[] realms, int realmIndex, LoginContext[] loginContexts,
+                         LoginStatistics loginStatistics) {
             this.nextFilter = nextFilter;
             this.session = session;
             this.httpRequest = httpRequest;
@@ -431,6 +472,8 @@ public class HttpSubjectSecurityFilter extends HttpLoginSecurityFilter {
             this.realms = realms;
             this.realmStartAt = realmIndex;
             this.loginContexts = loginContexts != null ? loginContexts : new LoginContext[realms.length];
+            this.loginStatistics = loginStatistics;
+            this.queuedAt = System.nanoTime();
         }
 
         @Override
@@ -440,11 +483,20 @@ public class HttpSubjectSecurityFilter extends HttpLoginSecurityFilter {
                         (System.currentTimeMillis() - createdTime) , session);
             }
 
+            long startedAt = System.nanoTime();
+            if (loginStatistics != null) {
+                loginStatistics.loginStarted(startedAt - queuedAt);
+            }
+
             boolean succeeded = true;
             for (int realmIndex = realmStartAt; succeeded && realmIndex < realms.length; realmIndex++) {
                 succeeded &= login(nextFilter, session, httpRequest, authToken, additionalCallbacks, realms, realmIndex, loginContexts);
             }
 
+            if (loginStatistics != null) {
+                loginStatistics.loginCompleted(System.nanoTime() - startedAt);
+            }
+
             //
             try {
                 if (succeeded) {
@@ -0,0 +1,352 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.DEFAULT_HEADER_TABLE_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.DEFAULT_MAX_FRAME_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_ACK;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_END_HEADERS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_END_STREAM;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.SETTINGS_MAX_CONCURRENT_STREAMS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.SETTINGS_MAX_HEADER_LIST_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_DATA;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_HEADERS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_RST_STREAM;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_SETTINGS;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_WINDOW_UPDATE;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.apache.mina.core.filterchain.IoFilterAdapter;
+import org.apache.mina.core.service.IoHandlerAdapter;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.core.write.WriteRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.kaazing.gateway.transport.http.bridge.HttpContentMessage;
+import org.kaazing.gateway.transport.http.bridge.HttpRequestMessage;
+import org.kaazing.gateway.transport.http.bridge.HttpResponseMessage;
+import org.kaazing.gateway.transport.http.bridge.filter.HpackDecoder;
+import org.kaazing.gateway.transport.http.bridge.filter.HpackEncoder;
+import org.kaazing.gateway.transport.http.bridge.filter.Http2FrameDecoder;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+import org.kaazing.mina.core.session.DummySessionEx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class Http2ConnectionTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Http2ConnectionTest.class);
+
+    private Queue<Runnable> tasks;
+    private DummySessionEx session;
+    private IoBufferAllocatorEx<?> allocator;
+    private List<IoBufferEx> written;
+    private StreamHandler handler;
+    private HpackEncoder hpackEncoder;
+    private Http2Connection connection;
+
+    @Before
+    public void setUp() {
+        // tasks run on the I/O thread after the current operation, as for a real I/O executor
+        tasks = new ArrayDeque<>();
+        session = new DummySessionEx(Thread.currentThread(), new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                tasks.add(task);
+            }
+        });
+        allocator = session.getBufferAllocator();
+        written = new ArrayList<>();
+        session.getFilterChain().addLast("written", new IoFilterAdapter() {
+            @Override
+            public void filterWrite(NextFilter nextFilter, IoSession session, WriteRequest writeRequest) throws Exception {
+                written.add((IoBufferEx) writeRequest.getMessage());
+                super.filterWrite(nextFilter, session, writeRequest);
+            }
+        });
+        handler = new StreamHandler();
+        hpackEncoder = new HpackEncoder(DEFAULT_HEADER_TABLE_SIZE);
+        connection = new Http2Connection(session, session.getService(), handler, new Http2StreamProcessor(), LOGGER,
+                100, false);
+    }
+
+    @Test
+    public void shouldAdvertiseSettingsOnStart() throws Exception {
+        connection.start();
+
+        List<Frame> frames = writtenFrames();
+        assertEquals(1, frames.size());
+        Frame settings = frames.get(0);
+        assertEquals(TYPE_SETTINGS, settings.type);
+        assertEquals(0, settings.flags);
+        assertEquals(SETTINGS_MAX_CONCURRENT_STREAMS, settings.payload.getShort());
+        assertEquals(100, settings.payload.getInt());
+        assertEquals(SETTINGS_MAX_HEADER_LIST_SIZE, settings.payload.getShort());
+        assertTrue(settings.payload.getInt() > 0);
+        assertFalse(settings.payload.hasRemaining());
+    }
+
+    @Test
+    public void shouldAcknowledgeSettings() throws Exception {
+        connection.messageReceived(frame(TYPE_SETTINGS, 0, 0, new byte[0]));
+
+        List<Frame> frames = writtenFrames();
+        assertEquals(1, frames.size());
+        assertEquals(TYPE_SETTINGS, frames.get(0).type);
+        assertEquals(FLAG_ACK, frames.get(0).flags);
+    }
+
+    @Test
+    public void shouldCloseStreamOnceRequestAndResponseComplete() throws Exception {
+        connection.messageReceived(headers(1, true, ":method", "GET", ":scheme", "http", ":path", "/path",
+                ":authority", "localhost:8000"));
+
+        assertNotNull(handler.stream);
+        assertEquals(1, handler.received.size());
+        HttpRequestMessage httpRequest = (HttpRequestMessage) handler.received.get(0);
+        assertEquals("/path", httpRequest.getRequestURI().getPath());
+        assertTrue(httpRequest.getContent().isComplete());
+
+        HttpResponseMessage httpResponse = new HttpResponseMessage();
+        httpResponse.setVersion(HttpVersion.HTTP_1_1);
+        httpResponse.setStatus(HttpStatus.SUCCESS_NO_CONTENT);
+        handler.stream.write(httpResponse);
+        runTasks();
+
+        List<Frame> frames = writtenFrames();
+        assertEquals(1, frames.size());
+        assertEquals(TYPE_HEADERS, frames.get(0).type);
+        assertEquals(FLAG_END_STREAM | FLAG_END_HEADERS, frames.get(0).flags);
+        assertEquals(asList(":status", "204"), decodeHeaders(frames.get(0)));
+        assertTrue(handler.closed);
+    }
+
+    @Test
+    public void shouldCloseStreamWhenReset() throws Exception {
+        connection.messageReceived(headers(1, false, ":method", "POST", ":scheme", "http", ":path", "/path",
+                ":authority", "localhost:8000"));
+        assertNotNull(handler.stream);
+        assertFalse(handler.closed);
+
+        connection.messageReceived(frame(TYPE_RST_STREAM, 0, 1, new byte[] { 0, 0, 0, 0x8 }));
+
+        assertTrue(handler.closed);
+        assertTrue(writtenFrames().isEmpty());
+    }
+
+    @Test
+    public void shouldWithholdStreamCreditWhileReadsSuspended() throws Exception {
+        connection.messageReceived(headers(1, false, ":method", "POST", ":scheme", "http", ":path", "/path",
+                ":authority", "localhost:8000"));
+        assertEquals(1, handler.received.size());
+
+        handler.stream.suspendRead();
+        connection.messageReceived(frame(TYPE_DATA, 0, 1, new byte[DEFAULT_MAX_FRAME_SIZE]));
+        connection.messageReceived(frame(TYPE_DATA, 0, 1, new byte[DEFAULT_MAX_FRAME_SIZE]));
+
+        // connection credit is returned, stream credit is not, and nothing is delivered
+        List<Frame> frames = writtenFrames();
+        assertEquals(1, frames.size());
+        assertEquals(TYPE_WINDOW_UPDATE, frames.get(0).type);
+        assertEquals(0, frames.get(0).streamId);
+        assertEquals(2 * DEFAULT_MAX_FRAME_SIZE, frames.get(0).payload.getInt());
+        assertEquals(1, handler.received.size());
+
+        handler.stream.resumeRead();
+
+        assertEquals(3, handler.received.size());
+        assertEquals(DEFAULT_MAX_FRAME_SIZE, ((HttpContentMessage) handler.received.get(1)).length());
+        assertEquals(DEFAULT_MAX_FRAME_SIZE, ((HttpContentMessage) handler.received.get(2)).length());
+        frames = writtenFrames();
+        assertEquals(1, frames.size());
+        assertEquals(TYPE_WINDOW_UPDATE, frames.get(0).type);
+        assertEquals(1, frames.get(0).streamId);
+        assertEquals(2 * DEFAULT_MAX_FRAME_SIZE, frames.get(0).payload.getInt());
+    }
+
+    @Test
+    public void shouldReturnStreamCreditAsContentIsConsumed() throws Exception {
+        connection.messageReceived(headers(1, false, ":method", "POST", ":scheme", "http", ":path", "/path",
+                ":authority", "localhost:8000"));
+
+        connection.messageReceived(frame(TYPE_DATA, 0, 1, new byte[DEFAULT_MAX_FRAME_SIZE]));
+        assertTrue(writtenFrames().isEmpty());
+        connection.messageReceived(frame(TYPE_DATA, 0, 1, new byte[DEFAULT_MAX_FRAME_SIZE]));
+
+        List<Frame> frames = writtenFrames();
+        assertEquals(2, frames.size());
+        assertEquals(TYPE_WINDOW_UPDATE, frames.get(0).type);
+        assertEquals(0, frames.get(0).streamId);
+        assertEquals(TYPE_WINDOW_UPDATE, frames.get(1).type);
+        assertEquals(1, frames.get(1).streamId);
+        assertEquals(2 * DEFAULT_MAX_FRAME_SIZE, frames.get(1).payload.getInt());
+        assertEquals(3, handler.received.size());
+    }
+
+    @Test
+    public void shouldDeliverEndOfRequestAfterContentHeldWhileReadsSuspended() throws Exception {
+        connection.messageReceived(headers(1, false, ":method", "POST", ":scheme", "http", ":path", "/path",
+                ":authority", "localhost:8000"));
+
+        handler.stream.suspendRead();
+        connection.messageReceived(frame(TYPE_DATA, 0, 1, new byte[10]));
+        connection.messageReceived(frame(TYPE_DATA, FLAG_END_STREAM, 1, new byte[0]));
+        assertEquals(1, handler.received.size());
+
+        handler.stream.resumeRead();
+
+        assertEquals(3, handler.received.size());
+        HttpContentMessage content = (HttpContentMessage) handler.received.get(1);
+        assertEquals(10, content.length());
+        assertFalse(content.isComplete());
+        assertTrue(((HttpContentMessage) handler.received.get(2)).isComplete());
+    }
+
+    @Test
+    public void shouldRejectRequestWithHeaderListTooLarge() throws Exception {
+        // one large header field, then references to its dynamic table entry
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 4000; i++) {
+            value.append('a');
+        }
+        List<String> fields = new ArrayList<>(asList(":method", "GET", ":scheme", "http", ":path", "/path",
+                ":authority", "localhost:8000"));
+        for (int i = 0; i < 20; i++) {
+            fields.add("x-large");
+            fields.add(value.toString());
+        }
+        connection.messageReceived(headers(1, true, fields.toArray(new String[fields.size()])));
+
+        assertEquals(null, handler.stream);
+        List<Frame> frames = writtenFrames();
+        assertEquals(1, frames.size());
+        assertEquals(TYPE_HEADERS, frames.get(0).type);
+        assertEquals(asList(":status", "431"), decodeHeaders(frames.get(0)));
+
+        // the connection carries on
+        connection.messageReceived(headers(3, true, ":method", "GET", ":scheme", "http", ":path", "/path",
+                ":authority", "localhost:8000"));
+        assertNotNull(handler.stream);
+    }
+
+    private void runTasks() {
+        for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+            task.run();
+        }
+    }
+
+    private IoBufferEx headers(int streamId, boolean endStream, String... fields) {
+        byte[] block = hpackEncoder.encode(asList(fields));
+        int flags = FLAG_END_HEADERS | (endStream ? FLAG_END_STREAM : 0);
+        return frame(TYPE_HEADERS, flags, streamId, block);
+    }
+
+    private IoBufferEx frame(int type, int flags, int streamId, byte[] payload) {
+        ByteBuffer frame = ByteBuffer.allocate(9 + payload.length);
+        frame.put((byte) (payload.length >>> 16));
+        frame.putShort((short) payload.length);
+        frame.put((byte) type);
+        frame.put((byte) flags);
+        frame.putInt(streamId);
+        frame.put(payload);
+        frame.flip();
+        return allocator.wrap(frame);
+    }
+
+    private List<Frame> writtenFrames() throws Exception {
+        int length = 0;
+        for (IoBufferEx buf : written) {
+            length += buf.remaining();
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        for (IoBufferEx buf : written) {
+            bytes.put(buf.buf().duplicate());
+        }
+        bytes.flip();
+        written.clear();
+
+        final List<Frame> frames = new ArrayList<>();
+        new Http2FrameDecoder(DEFAULT_MAX_FRAME_SIZE).decode(bytes, new Http2FrameDecoder.Listener() {
+            @Override
+            public void frameReceived(int type, int flags, int streamId, ByteBuffer payload) {
+                ByteBuffer copy = ByteBuffer.allocate(payload.remaining());
+                copy.put(payload).flip();
+                frames.add(new Frame(type, flags, streamId, copy));
+            }
+        });
+        assertFalse(bytes.hasRemaining());
+        return frames;
+    }
+
+    private static List<String> decodeHeaders(Frame frame) throws Exception {
+        final List<String> fields = new ArrayList<>();
+        new HpackDecoder(DEFAULT_HEADER_TABLE_SIZE).decode(frame.payload, new HpackDecoder.Listener() {
+            @Override
+            public void header(String name, String value) {
+                fields.add(name);
+                fields.add(value);
+            }
+        });
+        return fields;
+    }
+
+    private static final class Frame {
+        final int type;
+        final int flags;
+        final int streamId;
+        final ByteBuffer payload;
+
+        Frame(int type, int flags, int streamId, ByteBuffer payload) {
+            this.type = type;
+            this.flags = flags;
+            this.streamId = streamId;
+            this.payload = payload;
+        }
+    }
+
+    private static final class StreamHandler extends IoHandlerAdapter {
+        final List<Object> received = new ArrayList<>();
+        IoSession stream;
+        boolean closed;
+
+        @Override
+        public void sessionCreated(IoSession session) {
+            stream = session;
+        }
+
+        @Override
+        public void messageReceived(IoSession session, Object message) {
+            received.add(message);
+        }
+
+        @Override
+        public void sessionClosed(IoSession session) {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.kaazing.gateway.transport.http.Http2Connection.PREFACE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_SETTINGS;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.mina.core.filterchain.IoFilterAdapter;
+import org.apache.mina.core.service.IoHandlerAdapter;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.core.write.WriteRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+import org.kaazing.mina.core.session.DummySessionEx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class Http2PrefaceFilterTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Http2PrefaceFilterTest.class);
+
+    private DummySessionEx session;
+    private List<Object> received;
+    private List<IoBufferEx> written;
+
+    @Before
+    public void setUp() {
+        session = new DummySessionEx();
+        received = new ArrayList<>();
+        written = new ArrayList<>();
+        session.getFilterChain().addLast(Http2PrefaceFilter.FILTER_NAME, new Http2PrefaceFilter(new HttpAcceptor(),
+                new IoHandlerAdapter(), new Http2StreamProcessor(), LOGGER, 100));
+        session.getFilterChain().addLast("received", new IoFilterAdapter() {
+            @Override
+            public void messageReceived(NextFilter nextFilter, IoSession session, Object message) throws Exception {
+                received.add(message);
+            }
+
+            @Override
+            public void filterWrite(NextFilter nextFilter, IoSession session, WriteRequest writeRequest) throws Exception {
+                written.add((IoBufferEx) writeRequest.getMessage());
+                super.filterWrite(nextFilter, session, writeRequest);
+            }
+        });
+    }
+
+    @Test
+    public void shouldPassOnHttp11AndRemoveItself() throws Exception {
+        IoBufferEx request = buffer("GET / HTTP/1.1\r\nHost: localhost:8000\r\n\r\n");
+        session.getFilterChain().fireMessageReceived(request);
+
+        assertEquals(1, received.size());
+        assertSame(request, received.get(0));
+        assertNull(session.getFilterChain().get(Http2PrefaceFilter.FILTER_NAME));
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    public void shouldReplayBytesHeldForPartialPreface() throws Exception {
+        session.getFilterChain().fireMessageReceived(buffer("PRI "));
+        assertTrue(received.isEmpty());
+
+        session.getFilterChain().fireMessageReceived(buffer("/ HTTP/1.1\r\n\r\n"));
+
+        assertEquals(2, received.size());
+        assertEquals("PRI ", string((IoBufferEx) received.get(0)));
+        assertEquals("/ HTTP/1.1\r\n\r\n", string((IoBufferEx) received.get(1)));
+        assertNull(session.getFilterChain().get(Http2PrefaceFilter.FILTER_NAME));
+    }
+
+    @Test
+    public void shouldStartHttp2ConnectionOnPreface() throws Exception {
+        String preface = new String(PREFACE, US_ASCII);
+        session.getFilterChain().fireMessageReceived(buffer(preface.substring(0, 10)));
+        session.getFilterChain().fireMessageReceived(buffer(preface.substring(10)));
+
+        assertTrue(received.isEmpty());
+        assertEquals(1, written.size());
+        assertEquals(TYPE_SETTINGS, written.get(0).buf().get(3));
+
+        // frames following the preface go to the connection, here an empty SETTINGS frame to be acknowledged
+        written.clear();
+        session.getFilterChain().fireMessageReceived(session.getBufferAllocator().wrap(
+                ByteBuffer.wrap(new byte[] { 0, 0, 0, TYPE_SETTINGS, 0, 0, 0, 0, 0 })));
+
+        assertTrue(received.isEmpty());
+        assertEquals(1, written.size());
+        assertEquals(TYPE_SETTINGS, written.get(0).buf().get(3));
+    }
+
+    private IoBufferEx buffer(String text) {
+        return session.getBufferAllocator().wrap(ByteBuffer.wrap(text.getBytes(US_ASCII)));
+    }
+
+    private static String string(IoBufferEx buf) {
+        ByteBuffer bytes = buf.buf().duplicate();
+        byte[] array = new byte[bytes.remaining()];
+        bytes.get(array);
+        return new String(array, US_ASCII);
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HttpPathRouterTest {
+
+    @Test
+    public void shouldMatchLongestBoundPrefix() throws Exception {
+        HttpPathRouter<String> router = new HttpPathRouter<>();
+        router.putIfAbsent("/", "root");
+        router.putIfAbsent("/echo", "echo");
+        router.putIfAbsent("/echo/;e/ub/abc", "upstream");
+
+        assertEquals("root", router.match("/"));
+        assertEquals("root", router.match("/other"));
+        assertEquals("echo", router.match("/echo"));
+        assertEquals("echo", router.match("/echo/;e/cb"));
+        assertEquals("upstream", router.match("/echo/;e/ub/abc"));
+        assertEquals("echo", router.match("/echo/;e/ub/xyz"));
+        // as before, bound paths match as string prefixes
+        assertEquals("echo", router.match("/echoes"));
+    }
+
+    @Test
+    public void shouldNotMatchWithoutBoundPrefix() throws Exception {
+        HttpPathRouter<String> router = new HttpPathRouter<>();
+        router.putIfAbsent("/echo", "echo");
+
+        assertNull(router.match("/"));
+        assertNull(router.match("/ech"));
+        assertNull(router.match("/other"));
+    }
+
+    @Test
+    public void shouldTreatTrailingSlashesAsSamePath() throws Exception {
+        HttpPathRouter<String> router = new HttpPathRouter<>();
+        assertNull(router.putIfAbsent("/echo/", "echo"));
+        assertEquals("echo", router.putIfAbsent("/echo", "other"));
+
+        assertEquals("echo", router.get("/echo"));
+        assertEquals("echo", router.match("/echo/"));
+        assertEquals("echo", router.match("/echo/x"));
+        // "/echo/" is not a prefix of "/echo"
+        assertNull(router.match("/echo"));
+
+        assertTrue(router.remove("/echo", "echo"));
+        assertTrue(router.isEmpty());
+    }
+
+    @Test
+    public void shouldSplitAndMergeEdges() throws Exception {
+        HttpPathRouter<String> router = new HttpPathRouter<>();
+        router.putIfAbsent("/abcd", "abcd");
+        router.putIfAbsent("/abxy", "abxy");
+        router.putIfAbsent("/ab", "ab");
+        assertEquals(3, router.size());
+
+        assertEquals("abcd", router.match("/abcd/1"));
+        assertEquals("abxy", router.match("/abxy/1"));
+        assertEquals("ab", router.match("/abz"));
+
+        assertTrue(router.remove("/ab", "ab"));
+        assertNull(router.match("/abz"));
+        assertEquals("abcd", router.match("/abcd/1"));
+
+        assertTrue(router.remove("/abcd", "abcd"));
+        assertNull(router.match("/abcd/1"));
+        assertEquals("abxy", router.match("/abxy/1"));
+
+        router.putIfAbsent("/a", "a");
+        assertEquals("a", router.match("/abcd"));
+        assertEquals("abxy", router.match("/abxy"));
+    }
+
+    @Test
+    public void shouldOnlyRemoveBoundValue() throws Exception {
+        HttpPathRouter<String> router = new HttpPathRouter<>();
+        router.putIfAbsent("/echo", "echo");
+
+        assertFalse(router.remove("/echo", "other"));
+        assertFalse(router.remove("/other", "echo"));
+        assertEquals("echo", router.match("/echo"));
+    }
+
+    @Test
+    public void shouldRouteManySessionPaths() throws Exception {
+        HttpPathRouter<String> router = new HttpPathRouter<>();
+        router.putIfAbsent("/echo", "echo");
+        String[] upstreams = new String[10000];
+        String[] downstreams = new String[10000];
+        for (int i = 0; i < 10000; i++) {
+            upstreams[i] = "u" + i;
+            downstreams[i] = "d" + i;
+            router.putIfAbsent("/echo/;e/ub/" + i, upstreams[i]);
+            router.putIfAbsent("/echo/;e/db/" + i, downstreams[i]);
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(upstreams[i], router.match("/echo/;e/ub/" + i));
+            assertEquals(downstreams[i], router.match("/echo/;e/db/" + i));
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(router.remove("/echo/;e/ub/" + i, upstreams[i]));
+            assertTrue(router.remove("/echo/;e/db/" + i, downstreams[i]));
+        }
+        assertEquals(1, router.size());
+        assertEquals("echo", router.match("/echo/;e/ub/1"));
+    }
+
+    @Test
+    public void shouldCompareRoutes() throws Exception {
+        HttpPathRouter<String> router1 = new HttpPathRouter<>();
+        HttpPathRouter<String> router2 = new HttpPathRouter<>();
+        router1.putIfAbsent("/a", "a");
+        router1.putIfAbsent("/b", "b");
+        router2.putIfAbsent("/b/", "b");
+        router2.putIfAbsent("/a", "a");
+
+        assertEquals(router1, router2);
+        assertEquals(router1.hashCode(), router2.hashCode());
+    }
+}
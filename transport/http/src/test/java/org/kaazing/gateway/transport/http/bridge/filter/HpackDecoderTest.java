@@ -0,0 +1,159 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.kaazing.gateway.transport.http.bridge.filter.HpackHuffmanTest.bytes;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class HpackDecoderTest {
+
+    @Test
+    public void shouldDecodeInteger() throws Exception {
+        // RFC 7541, Appendix C.1.2
+        ByteBuffer block = ByteBuffer.wrap(bytes("1f9a0a"));
+        assertEquals(1337, HpackDecoder.decodeInteger(block, 5));
+        assertEquals(0, block.remaining());
+    }
+
+    @Test
+    public void shouldDecodeRequestsWithoutHuffman() throws Exception {
+        // RFC 7541, Appendix C.3
+        HpackDecoder decoder = new HpackDecoder(4096);
+
+        assertEquals(asList(":method", "GET", ":scheme", "http", ":path", "/", ":authority", "www.example.com"),
+                decode(decoder, "828684410f7777772e6578616d706c652e636f6d"));
+        assertEquals(asList(":method", "GET", ":scheme", "http", ":path", "/", ":authority", "www.example.com",
+                "cache-control", "no-cache"),
+                decode(decoder, "828684be58086e6f2d6361636865"));
+        assertEquals(asList(":method", "GET", ":scheme", "https", ":path", "/index.html", ":authority", "www.example.com",
+                "custom-key", "custom-value"),
+                decode(decoder, "828785bf400a637573746f6d2d6b65790c637573746f6d2d76616c7565"));
+    }
+
+    @Test
+    public void shouldDecodeRequestsWithHuffman() throws Exception {
+        // RFC 7541, Appendix C.4
+        HpackDecoder decoder = new HpackDecoder(4096);
+
+        assertEquals(asList(":method", "GET", ":scheme", "http", ":path", "/", ":authority", "www.example.com"),
+                decode(decoder, "828684418cf1e3c2e5f23a6ba0ab90f4ff"));
+        assertEquals(asList(":method", "GET", ":scheme", "http", ":path", "/", ":authority", "www.example.com",
+                "cache-control", "no-cache"),
+                decode(decoder, "828684be5886a8eb10649cbf"));
+        assertEquals(asList(":method", "GET", ":scheme", "https", ":path", "/index.html", ":authority", "www.example.com",
+                "custom-key", "custom-value"),
+                decode(decoder, "828785bf408825a849e95ba97d7f8925a849e95bb8e8b4bf"));
+    }
+
+    @Test
+    public void shouldRoundTripWithEncoder() throws Exception {
+        HpackEncoder encoder = new HpackEncoder(4096);
+        HpackDecoder decoder = new HpackDecoder(4096);
+
+        List<String> fields = asList(":status", "200", "content-type", "text/html", "set-cookie", "a=b",
+                "x-custom", "Some Value", "content-length", "1234");
+        byte[] first = encoder.encode(fields);
+        byte[] second = encoder.encode(fields);
+
+        assertEquals(fields, decode(decoder, first));
+        assertEquals(fields, decode(decoder, second));
+        // indexed fields are shorter the second time round
+        assertTrue(second.length < first.length);
+    }
+
+    @Test(expected = Http2ProtocolException.class)
+    public void shouldRejectIndexZero() throws Exception {
+        decode(new HpackDecoder(4096), "80");
+    }
+
+    @Test(expected = Http2ProtocolException.class)
+    public void shouldRejectIndexBeyondTable() throws Exception {
+        decode(new HpackDecoder(4096), "be");
+    }
+
+    @Test(expected = Http2ProtocolException.class)
+    public void shouldRejectTableSizeUpdateAboveMaximum() throws Exception {
+        // dynamic table size update to 4097
+        decode(new HpackDecoder(4096), "3fe21f");
+    }
+
+    @Test(expected = Http2ProtocolException.class)
+    public void shouldRejectTableSizeUpdateAfterHeader() throws Exception {
+        decode(new HpackDecoder(4096), "8220");
+    }
+
+    @Test
+    public void shouldStopReportingFieldsBeyondMaxHeaderListSize() throws Exception {
+        HpackDecoder decoder = new HpackDecoder(4096, 1024);
+
+        // one literal with incremental indexing of a 100 byte value, then 20 references to it
+        StringBuilder hex = new StringBuilder("40017864");
+        for (int i = 0; i < 100; i++) {
+            hex.append("61");
+        }
+        for (int i = 0; i < 20; i++) {
+            hex.append("be");
+        }
+
+        final List<String> fields = new ArrayList<>();
+        boolean withinLimit = decoder.decode(ByteBuffer.wrap(bytes(hex.toString())), new HpackDecoder.Listener() {
+            @Override
+            public void header(String name, String value) {
+                fields.add(name);
+            }
+        });
+
+        assertFalse(withinLimit);
+        // each field counts 1 + 100 + 32 octets, so only 7 fit in 1024
+        assertEquals(7, fields.size());
+
+        // the dynamic table is still in step for the next block
+        assertEquals(asList(":method", "GET", "x", repeat('a', 100)), decode(decoder, "82be"));
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder value = new StringBuilder(count);
+        for (int i = 0; i < count; i++) {
+            value.append(c);
+        }
+        return value.toString();
+    }
+
+    private static List<String> decode(HpackDecoder decoder, String hex) throws Exception {
+        return decode(decoder, bytes(hex));
+    }
+
+    private static List<String> decode(HpackDecoder decoder, byte[] block) throws Exception {
+        final List<String> fields = new ArrayList<>();
+        decoder.decode(ByteBuffer.wrap(block), new HpackDecoder.Listener() {
+            @Override
+            public void header(String name, String value) {
+                fields.add(name);
+                fields.add(value);
+            }
+        });
+        return fields;
+    }
+}
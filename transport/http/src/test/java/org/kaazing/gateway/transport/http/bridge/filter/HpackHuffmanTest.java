@@ -0,0 +1,78 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HpackHuffmanTest {
+
+    // RFC 7541, Appendix C.4.1
+    private static final byte[] WWW_EXAMPLE_COM = bytes("f1e3c2e5f23a6ba0ab90f4ff");
+
+    @Test
+    public void shouldEncodeExample() throws Exception {
+        byte[] source = "www.example.com".getBytes(US_ASCII);
+        assertEquals(WWW_EXAMPLE_COM.length, HpackHuffman.encodedLength(source));
+
+        byte[] target = new byte[WWW_EXAMPLE_COM.length];
+        assertEquals(target.length, HpackHuffman.encode(source, target, 0));
+        assertArrayEquals(WWW_EXAMPLE_COM, target);
+    }
+
+    @Test
+    public void shouldDecodeExample() throws Exception {
+        byte[] decoded = HpackHuffman.decode(WWW_EXAMPLE_COM, 0, WWW_EXAMPLE_COM.length);
+        assertEquals("www.example.com", new String(decoded, US_ASCII));
+    }
+
+    @Test
+    public void shouldRoundTripAllOctets() throws Exception {
+        byte[] source = new byte[1024];
+        new Random(7541).nextBytes(source);
+
+        byte[] target = new byte[HpackHuffman.encodedLength(source)];
+        HpackHuffman.encode(source, target, 0);
+
+        assertArrayEquals(source, HpackHuffman.decode(target, 0, target.length));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPaddingLongerThanSevenBits() throws Exception {
+        byte[] padding = { (byte) 0xff, (byte) 0xff };
+        HpackHuffman.decode(padding, 0, padding.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectPaddingNotMostSignificantBitsOfEos() throws Exception {
+        // '0' is 00000, followed by padding that is not all ones
+        byte[] source = { (byte) 0x00 };
+        HpackHuffman.decode(source, 0, source.length);
+    }
+
+    static byte[] bytes(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.DEFAULT_MAX_FRAME_SIZE;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FLAG_END_STREAM;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.FRAME_SIZE_ERROR;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_DATA;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_PING;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.TYPE_SETTINGS;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class Http2FrameDecoderTest {
+
+    @Test
+    public void shouldDecodeFramesInOneBuffer() throws Exception {
+        ByteBuffer in = ByteBuffer.allocate(64);
+        putFrame(in, TYPE_SETTINGS, 0, 0, new byte[0]);
+        putFrame(in, TYPE_DATA, FLAG_END_STREAM, 1, "hello".getBytes());
+        in.flip();
+
+        List<String> frames = decode(new Http2FrameDecoder(DEFAULT_MAX_FRAME_SIZE), in);
+
+        assertEquals(2, frames.size());
+        assertEquals("4/0/0:", frames.get(0));
+        assertEquals("0/1/1:hello", frames.get(1));
+    }
+
+    @Test
+    public void shouldDecodeFrameSplitAcrossBuffers() throws Exception {
+        ByteBuffer in = ByteBuffer.allocate(64);
+        putFrame(in, TYPE_PING, 0, 0, "12345678".getBytes());
+        putFrame(in, TYPE_DATA, 0, 3, "world".getBytes());
+        in.flip();
+
+        Http2FrameDecoder decoder = new Http2FrameDecoder(DEFAULT_MAX_FRAME_SIZE);
+        List<String> frames = new ArrayList<>();
+        // one byte at a time, splitting both frame headers and payloads
+        while (in.hasRemaining()) {
+            ByteBuffer fragment = in.slice();
+            fragment.limit(1);
+            in.position(in.position() + 1);
+            frames.addAll(decode(decoder, fragment));
+        }
+
+        assertEquals(2, frames.size());
+        assertEquals("6/0/0:12345678", frames.get(0));
+        assertEquals("0/0/3:world", frames.get(1));
+    }
+
+    @Test
+    public void shouldRejectFrameLargerThanMaximum() throws Exception {
+        ByteBuffer in = ByteBuffer.allocate(Http2Frame.HEADER_LENGTH);
+        Http2FrameEncoder.putHeader(in, DEFAULT_MAX_FRAME_SIZE + 1, TYPE_DATA, 0, 1);
+        in.flip();
+
+        try {
+            decode(new Http2FrameDecoder(DEFAULT_MAX_FRAME_SIZE), in);
+            fail("Http2ProtocolException expected");
+        }
+        catch (Http2ProtocolException e) {
+            assertEquals(FRAME_SIZE_ERROR, e.getErrorCode());
+        }
+    }
+
+    private static void putFrame(ByteBuffer out, int type, int flags, int streamId, byte[] payload) {
+        Http2FrameEncoder.putHeader(out, payload.length, type, flags, streamId);
+        out.put(payload);
+    }
+
+    private static List<String> decode(Http2FrameDecoder decoder, ByteBuffer in) throws Exception {
+        final List<String> frames = new ArrayList<>();
+        decoder.decode(in, new Http2FrameDecoder.Listener() {
+            @Override
+            public void frameReceived(int type, int flags, int streamId, ByteBuffer payload) {
+                byte[] bytes = new byte[payload.remaining()];
+                payload.get(bytes);
+                frames.add(type + "/" + flags + "/" + streamId + ":" + new String(bytes));
+            }
+        });
+        return frames;
+    }
+}
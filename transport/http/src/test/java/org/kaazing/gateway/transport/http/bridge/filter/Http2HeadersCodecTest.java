@@ -0,0 +1,141 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.kaazing.gateway.transport.http.bridge.filter.Http2Frame.PROTOCOL_ERROR;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.kaazing.gateway.transport.http.HttpMethod;
+import org.kaazing.gateway.transport.http.HttpStatus;
+import org.kaazing.gateway.transport.http.HttpVersion;
+import org.kaazing.gateway.transport.http.bridge.HttpRequestMessage;
+import org.kaazing.gateway.transport.http.bridge.HttpResponseMessage;
+
+public class Http2HeadersCodecTest {
+
+    @Test
+    public void shouldDecodeRequest() throws Exception {
+        List<String> fields = asList(":method", "POST", ":scheme", "https", ":path", "/echo?x=1",
+                ":authority", "example.com:443", "content-type", "text/plain", "cookie", "a=1", "cookie", "b=2");
+
+        HttpRequestMessage httpRequest = Http2HeadersCodec.decodeRequest(fields, 1, true);
+
+        assertEquals(HttpMethod.POST, httpRequest.getMethod());
+        assertEquals(HttpVersion.HTTP_1_1, httpRequest.getVersion());
+        assertEquals("/echo?x=1", httpRequest.getRequestURI().toString());
+        assertEquals("example.com:443", httpRequest.getHeader("Host"));
+        assertEquals("text/plain", httpRequest.getHeader("Content-Type"));
+        assertEquals("a=1; b=2", httpRequest.getHeader("Cookie"));
+        assertEquals(2, httpRequest.getCookies().size());
+        assertTrue(httpRequest.isSecure());
+    }
+
+    @Test
+    public void shouldRejectUpperCaseHeaderName() throws Exception {
+        assertStreamError(asList(":method", "GET", ":scheme", "http", ":path", "/", "Host", "example.com"));
+    }
+
+    @Test
+    public void shouldRejectPseudoHeaderAfterRegularHeader() throws Exception {
+        assertStreamError(asList(":method", "GET", ":scheme", "http", "host", "example.com", ":path", "/"));
+    }
+
+    @Test
+    public void shouldRejectDuplicatePseudoHeader() throws Exception {
+        assertStreamError(asList(":method", "GET", ":method", "GET", ":scheme", "http", ":path", "/"));
+    }
+
+    @Test
+    public void shouldRejectMissingPath() throws Exception {
+        assertStreamError(asList(":method", "GET", ":scheme", "http", ":authority", "example.com"));
+    }
+
+    @Test
+    public void shouldRejectConnectionHeader() throws Exception {
+        assertStreamError(asList(":method", "GET", ":scheme", "http", ":path", "/", "connection", "keep-alive"));
+    }
+
+    @Test
+    public void shouldAcceptTeTrailers() throws Exception {
+        List<String> fields = asList(":method", "GET", ":scheme", "http", ":path", "/", "te", "trailers");
+        HttpRequestMessage httpRequest = Http2HeadersCodec.decodeRequest(fields, 1, false);
+        assertEquals("trailers", httpRequest.getHeader("TE"));
+        assertFalse(httpRequest.isSecure());
+    }
+
+    @Test
+    public void shouldRejectUnknownMethod() throws Exception {
+        List<String> fields = asList(":method", "BREW", ":scheme", "http", ":path", "/pot");
+        try {
+            Http2HeadersCodec.decodeRequest(fields, 1, false);
+            fail("HttpProtocolDecoderException expected");
+        }
+        catch (HttpProtocolDecoderException e) {
+            assertEquals(HttpStatus.SERVER_NOT_IMPLEMENTED, e.getHttpStatus());
+        }
+    }
+
+    @Test
+    public void shouldBufferSmallContentLength() throws Exception {
+        List<String> fields = asList(":method", "POST", ":scheme", "http", ":path", "/", "content-length", "12");
+        HttpRequestMessage httpRequest = Http2HeadersCodec.decodeRequest(fields, 1, false);
+        assertEquals(12, Http2HeadersCodec.bufferedContentLength(httpRequest, 1));
+
+        fields = asList(":method", "POST", ":scheme", "http", ":path", "/", "content-length", "1000000");
+        httpRequest = Http2HeadersCodec.decodeRequest(fields, 1, false);
+        assertEquals(-1, Http2HeadersCodec.bufferedContentLength(httpRequest, 1));
+    }
+
+    @Test(expected = Http2ProtocolException.class)
+    public void shouldRejectNegativeContentLength() throws Exception {
+        List<String> fields = asList(":method", "POST", ":scheme", "http", ":path", "/", "content-length", "-1");
+        HttpRequestMessage httpRequest = Http2HeadersCodec.decodeRequest(fields, 1, false);
+        Http2HeadersCodec.bufferedContentLength(httpRequest, 1);
+    }
+
+    @Test
+    public void shouldEncodeResponseWithoutConnectionHeaders() throws Exception {
+        HttpResponseMessage httpResponse = new HttpResponseMessage();
+        httpResponse.setVersion(HttpVersion.HTTP_1_1);
+        httpResponse.setStatus(HttpStatus.SUCCESS_OK);
+        httpResponse.setHeader("Content-Type", "text/plain");
+        httpResponse.setHeader("Connection", "close");
+        httpResponse.setHeader("Transfer-Encoding", "chunked");
+
+        List<String> fields = Http2HeadersCodec.encodeResponse(httpResponse);
+
+        assertEquals(asList(":status", "200", "content-type", "text/plain"), fields);
+    }
+
+    private static void assertStreamError(List<String> fields) throws Exception {
+        try {
+            Http2HeadersCodec.decodeRequest(fields, 3, false);
+            fail("Http2ProtocolException expected");
+        }
+        catch (Http2ProtocolException e) {
+            assertEquals(PROTOCOL_ERROR, e.getErrorCode());
+            assertEquals(3, e.getStreamId());
+            assertFalse(e.isConnectionError());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.http.bridge.filter;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.junit.Test;
+import org.kaazing.gateway.transport.http.bridge.HttpHeaderNameComparator;
+
+public class HttpFlyweightHeadersTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Test
+    public void shouldLookupHeaderIgnoringCase() throws Exception {
+        HttpFlyweightHeaders headers = new HttpFlyweightHeaders();
+        append(headers, "Host", "example.com");
+        append(headers, "x-custom", "value");
+
+        assertEquals(singletonList("example.com"), headers.get("host"));
+        assertEquals(singletonList("value"), headers.get("X-Custom"));
+        assertTrue(headers.containsKey("X-CUSTOM"));
+        assertNull(headers.get("Origin"));
+        assertEquals(2, headers.size());
+    }
+
+    @Test
+    public void shouldInternWellKnownHeaderNames() throws Exception {
+        HttpFlyweightHeaders headers = new HttpFlyweightHeaders();
+        append(headers, "Content-Type", "text/plain");
+        append(headers, "content-length", "0");
+
+        List<String> names = new ArrayList<>(headers.keySet());
+        assertSame("Content-Type", names.get(0));
+        assertEquals("content-length", names.get(1));
+    }
+
+    @Test
+    public void shouldOrderHeaderNamesLikeEagerDecoding() throws Exception {
+        HttpFlyweightHeaders headers = new HttpFlyweightHeaders();
+        append(headers, "Upgrade", "websocket");
+        append(headers, "Connection", "Upgrade");
+        append(headers, "Sec-WebSocket-Key", "dGhlIHNhbXBsZSBub25jZQ==");
+        append(headers, "Host", "example.com");
+
+        assertEquals(asList("Upgrade", "Sec-WebSocket-Key", "Host", "Connection"), new ArrayList<>(headers.keySet()));
+    }
+
+    @Test
+    public void shouldMergeRepeatedHeaders() throws Exception {
+        HttpFlyweightHeaders headers = new HttpFlyweightHeaders();
+        append(headers, "Host", "example.com");
+        append(headers, "host", "example.net");
+
+        assertEquals(asList("example.com", "example.net"), headers.get("Host"));
+        assertEquals(1, headers.size());
+        assertEquals("Host", headers.keySet().iterator().next());
+    }
+
+    @Test
+    public void shouldSplitCommaSeparatedHeadersLikeStringSplit() throws Exception {
+        String[] values = { "gzip, deflate", "a,,b", "a, ,", ",", "", " a " };
+        for (String value : values) {
+            HttpFlyweightHeaders headers = new HttpFlyweightHeaders();
+            append(headers, "Accept-Encoding", value);
+
+            List<String> expected = new ArrayList<>();
+            for (String separatedValue : value.split(",")) {
+                expected.add(separatedValue.trim());
+            }
+            assertEquals(value, expected, headers.get("accept-encoding"));
+        }
+    }
+
+    @Test
+    public void shouldDecodeValuesAsUtf8() throws Exception {
+        HttpFlyweightHeaders headers = new HttpFlyweightHeaders();
+        append(headers, "X-Name", "caf\u00e9");
+
+        assertEquals(singletonList("caf\u00e9"), headers.get("X-Name"));
+    }
+
+    @Test
+    public void shouldReturnSameValuesUntilReplaced() throws Exception {
+        HttpFlyweightHeaders headers = new HttpFlyweightHeaders();
+        append(headers, "Host", "EXAMPLE.com");
+
+        List<String> values = headers.get("Host");
+        values.set(0, "example.com");
+        assertSame(values, headers.put("Host", values));
+        assertSame(values, headers.get("Host"));
+
+        headers.put("Origin", singletonList("http://example.com"));
+        assertSame(values, headers.get("Host"));
+        assertEquals(2, headers.size());
+
+        headers.remove("host");
+        assertFalse(headers.containsKey("Host"));
+    }
+
+    @Test
+    public void shouldRejectHeaderNamesWithSurroundingWhitespace() throws Exception {
+        HttpFlyweightHeaders headers = new HttpFlyweightHeaders();
+
+        assertFalse(headers.appendName(IoBuffer.wrap("Host ".getBytes(UTF_8))));
+        assertFalse(headers.appendName(IoBuffer.wrap(" Host".getBytes(UTF_8))));
+        assertTrue(headers.appendName(IoBuffer.wrap("Host".getBytes(UTF_8))));
+    }
+
+    @Test
+    public void shouldEqualEagerlyDecodedHeaders() throws Exception {
+        HttpFlyweightHeaders headers = new HttpFlyweightHeaders();
+        append(headers, "Host", "example.com");
+        append(headers, "Accept", "text/html, */*");
+
+        Map<String, List<String>> expected = new TreeMap<>(HttpHeaderNameComparator.INSTANCE);
+        expected.put("Host", singletonList("example.com"));
+        expected.put("Accept", asList("text/html", "*/*"));
+
+        assertEquals(expected, headers);
+        assertEquals(headers, expected);
+        assertEquals(expected.hashCode(), headers.hashCode());
+    }
+
+    private static void append(HttpFlyweightHeaders headers, String name, String value) {
+        assertTrue(headers.appendName(IoBuffer.wrap(name.getBytes(UTF_8))));
+        headers.appendValue(IoBuffer.wrap(value.getBytes(UTF_8)));
+    }
+}
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 
@@ -29,6 +30,7 @@ import org.apache.mina.core.buffer.IoBuffer;
 import org.apache.mina.filter.codec.ProtocolCodecException;
 import org.apache.mina.filter.codec.ProtocolDecoder;
 import org.junit.Test;
+import org.kaazing.gateway.transport.http.HttpAcceptor;
 import org.kaazing.gateway.transport.http.bridge.HttpContentMessage;
 import org.kaazing.gateway.transport.http.bridge.HttpRequestMessage;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
@@ -435,4 +437,57 @@ public class HttpRequestDecoderTest {
         assertFalse(in.hasRemaining());
     }
 
+    @Test
+    public void shouldDecodeHttpRequestWithFlyweightHeaders() throws Exception {
+        ProtocolCodecSessionEx session = new ProtocolCodecSessionEx();
+        HttpAcceptor.FLYWEIGHT_HEADERS_KEY.set(session, true);
+        ProtocolDecoder decoder = new HttpRequestDecoder();
+        IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+
+        ByteBuffer in = ByteBuffer.wrap(("GET /echo HTTP/1.1\r\n" +
+                                         "Host: eXample.com\r\n" +
+                                         "Origin: http://LOCALHOST:8000\r\n" +
+                                         "Sec-WebSocket-Extensions: x-kaazing-foo; a=1; b=2, x-kaazing-bar\r\n" +
+                                         "sec-websocket-extensions: x-kaazing-baz\r\n" +
+                                         "Cookie: name=value\r\n" +
+                                         "X-Custom: a, b\r\n" +
+                                         "\r\n").getBytes());
+
+        IoBufferEx buf = allocator.wrap(in);
+        decoder.decode(session, (IoBuffer) buf, session.getDecoderOutput());
+
+        assertFalse(session.getDecoderOutputQueue().isEmpty());
+
+        HttpRequestMessage request = (HttpRequestMessage) session.getDecoderOutputQueue().poll();
+        assertEquals("/echo", request.getRequestURI().toASCIIString());
+        assertEquals(Collections.singletonList("example.com"), request.getHeaderValues("Host"));
+        assertEquals(Collections.singletonList("http://localhost:8000"), request.getHeaderValues("Origin"));
+        assertEquals(Arrays.asList("x-kaazing-foo; a=1; b=2", "x-kaazing-bar", "x-kaazing-baz"),
+                request.getHeaderValues("Sec-WebSocket-Extensions"));
+        assertEquals("a, b", request.getHeader("x-custom"));
+        assertEquals(1, request.getCookies().size());
+        assertEquals(Arrays.asList("X-Custom", "Sec-WebSocket-Extensions", "Origin", "Host", "Cookie"),
+                new ArrayList<>(request.getHeaderNames()));
+
+        assertTrue(session.getDecoderOutputQueue().isEmpty());
+        decoder.finishDecode(session, session.getDecoderOutput());
+
+        assertTrue(session.getDecoderOutputQueue().isEmpty());
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test(expected = ProtocolCodecException.class)
+    public void shouldRejectHeaderNameWithTrailingWhitespaceWithFlyweightHeaders() throws Exception {
+        ProtocolCodecSessionEx session = new ProtocolCodecSessionEx();
+        HttpAcceptor.FLYWEIGHT_HEADERS_KEY.set(session, true);
+        ProtocolDecoder decoder = new HttpRequestDecoder();
+        IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+
+        ByteBuffer in = ByteBuffer.wrap(("GET /echo HTTP/1.1\r\n" +
+                                         "Host : example.com\r\n" +
+                                         "\r\n").getBytes());
+
+        decoder.decode(session, (IoBuffer) allocator.wrap(in), session.getDecoderOutput());
+    }
+
 }
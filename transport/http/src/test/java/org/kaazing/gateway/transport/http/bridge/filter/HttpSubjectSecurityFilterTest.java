@@ -17,6 +17,7 @@ package org.kaazing.gateway.transport.http.bridge.filter;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 import java.net.URI;
 import java.security.Principal;
@@ -53,7 +54,9 @@ import org.kaazing.gateway.security.LoginContextFactory;
 import org.kaazing.gateway.security.TypedCallbackHandlerMap;
 import org.kaazing.gateway.security.auth.DefaultLoginResult;
 import org.kaazing.gateway.security.auth.context.DefaultLoginContextFactory;
+import org.kaazing.gateway.security.auth.context.LoginContextCache;
 import org.kaazing.gateway.security.auth.context.ResultAwareLoginContext;
+import org.kaazing.gateway.security.auth.token.DefaultAuthenticationToken;
 import org.kaazing.gateway.server.spi.security.LoginResult;
 import org.kaazing.gateway.transport.http.HttpMethod;
 import org.kaazing.gateway.transport.http.HttpStatus;
@@ -461,6 +464,170 @@ public class HttpSubjectSecurityFilterTest {
         context.assertIsSatisfied();
     }
 
+    @Test
+    public void filterShouldPassThroughFromLoginCacheWithoutLoggingIn() throws Exception {
+        Mockery context = new Mockery() {
+            {
+                setImposteriser(ClassImposteriser.INSTANCE);
+                setThreadingPolicy(new Synchroniser());
+            }
+        };
+        context.setThreadingPolicy(new Synchroniser());
+        final NextFilter nextFilter = context.mock(NextFilter.class);
+        final IoSessionEx session = context.mock(IoSessionEx.class);
+        final ResourceAddress address = context.mock(ResourceAddress.class);
+
+        final HttpRequestMessage message = new HttpRequestMessage();
+        message.setMethod(HttpMethod.GET);
+        message.setVersion(HttpVersion.HTTP_1_1);
+        message.setRequestURI(URI.create(BASE_URI));
+        message.addHeader("Connection", "Upgrade");
+        message.addHeader("Upgrade", "WebSocket");
+        message.addHeader("Host", "localhost:8000");
+        message.addHeader("Forwarded", "for=127.0.0.1");
+        message.addHeader("Authorization", "Token gobbledegook");
+        message.setLocalAddress(address);
+
+        final ResultAwareLoginContext cachedLoginContext = context.mock(ResultAwareLoginContext.class);
+        final LoginContextFactory loginContextFactory = context.mock(DefaultLoginContextFactory.class);
+
+        final Set<Principal> principals = new HashSet<>();
+        principals.add(AUTHORIZED_PRINCIPAL);
+        final Subject subject = new Subject(false, principals, Collections.EMPTY_SET, Collections.EMPTY_SET);
+        final DefaultLoginResult loginResult = new DefaultLoginResult();
+        loginResult.success();
+
+        final HttpSubjectSecurityFilter filter = new HttpSubjectSecurityFilter();
+        filter.setSchedulerProvider(new SchedulerProvider());
+
+        context.checking(new Expectations() {
+            {
+                allowing(address).getOption(HttpResourceAddress.REALMS);
+                final HttpRealmInfo[] realms = new HttpRealmInfo[1];
+                realms[0] = new DefaultHttpRealmInfo("demo", "Application Token", null, new String[]{"foo"},  new String[]{}, new String[]{}, loginContextFactory, null);
+                will(returnValue(realms));
+
+                allowing(address).getOption(HttpResourceAddress.REQUIRED_ROLES);
+                will(returnValue(new String[]{"AUTHORIZED"}));
+
+                allowing(session).getSubject();
+
+                allowing(cachedLoginContext).getLoginResult();
+                will(returnValue(loginResult));
+                allowing(cachedLoginContext).getSubject();
+                will(returnValue(subject));
+
+                // the cached login is reused, so neither the login module chain nor a login thread is needed
+                never(loginContextFactory).createLoginContext(with(any(TypedCallbackHandlerMap.class)));
+                never(session).suspendRead();
+
+                oneOf(nextFilter).messageReceived(session, message);
+            }
+        });
+
+        // setLoginCache is final, so it sets the cache on the mocked factory itself
+        LoginContextCache loginCache = new LoginContextCache(60000L, 16);
+        ((DefaultLoginContextFactory) loginContextFactory).setLoginCache(loginCache);
+        String key = LoginContextCache.newKey(new DefaultAuthenticationToken("Token", "gobbledegook"), "127.0.0.1");
+        loginCache.put(key, cachedLoginContext).logout();
+
+        filter.messageReceived(nextFilter, session, message);
+        assertNotNull(message.getLoginContext());
+        assertSame(subject, message.getSubject());
+        assertEquals(1L, loginCache.getHits());
+        context.assertIsSatisfied();
+    }
+
+    @Test
+    public void filterShouldLoginAndInvalidateCachedLoginWhenCachedSubjectLacksRequiredRoles() throws Exception {
+        Mockery context = new Mockery() {
+            {
+                setImposteriser(ClassImposteriser.INSTANCE);
+                setThreadingPolicy(new Synchroniser());
+            }
+        };
+        context.setThreadingPolicy(new Synchroniser());
+        final NextFilter nextFilter = context.mock(NextFilter.class);
+        final IoSessionEx session = context.mock(IoSessionEx.class);
+        final ResourceAddress address = context.mock(ResourceAddress.class);
+
+        final HttpRequestMessage message = new HttpRequestMessage();
+        message.setMethod(HttpMethod.GET);
+        message.setVersion(HttpVersion.HTTP_1_1);
+        message.setRequestURI(URI.create(BASE_URI));
+        message.addHeader("Connection", "Upgrade");
+        message.addHeader("Upgrade", "WebSocket");
+        message.addHeader("Host", "localhost:8000");
+        message.addHeader("Forwarded", "for=127.0.0.1");
+        message.addHeader("Authorization", "Token gobbledegook");
+        message.setLocalAddress(address);
+
+        final ResultAwareLoginContext cachedLoginContext = context.mock(ResultAwareLoginContext.class, "cachedLoginContext");
+        final ResultAwareLoginContext loginContext = context.mock(ResultAwareLoginContext.class, "loginContext");
+        final LoginContextFactory loginContextFactory = context.mock(DefaultLoginContextFactory.class);
+
+        // the roles granted when the login was cached have since been revoked
+        final Subject subject = new Subject(false, Collections.EMPTY_SET, Collections.EMPTY_SET, Collections.EMPTY_SET);
+        final DefaultLoginResult loginResult = new DefaultLoginResult();
+        loginResult.success();
+
+        final HttpSubjectSecurityFilter filter = new HttpSubjectSecurityFilter();
+        filter.setSchedulerProvider(new SchedulerProvider());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        context.checking(new Expectations() {
+            {
+                allowing(address).getOption(HttpResourceAddress.REALMS);
+                final HttpRealmInfo[] realms = new HttpRealmInfo[1];
+                realms[0] = new DefaultHttpRealmInfo("demo", "Application Token", null, new String[]{"foo"},  new String[]{}, new String[]{}, loginContextFactory, null);
+                will(returnValue(realms));
+
+                allowing(address).getOption(HttpResourceAddress.REQUIRED_ROLES);
+                will(returnValue(new String[]{"AUTHORIZED"}));
+
+                allowing(session).getSubject();
+
+                allowing(cachedLoginContext).getLoginResult();
+                will(returnValue(loginResult));
+                allowing(cachedLoginContext).getSubject();
+                will(returnValue(subject));
+
+                // the cached login is not reused, so the login module chain runs and now rejects the token
+                oneOf(loginContextFactory).createLoginContext(with(aNonNull(TypedCallbackHandlerMap.class)));
+                will(returnValue(loginContext));
+                oneOf(session).suspendRead();
+                oneOf(loginContext).login();
+                will(throwException(new LoginException()));
+                oneOf(loginContext).getLoginResult();
+                will(returnValue(new DefaultLoginResult()));
+                oneOf(nextFilter).filterWrite(with(same(session)),
+                        with(writeRequest(withStatus(HttpStatus.CLIENT_FORBIDDEN))));
+                will(VoidAction.INSTANCE);
+
+                // invalidating the rejected token releases the cached login
+                oneOf(cachedLoginContext).logout();
+
+                never(nextFilter).messageReceived(session, message);
+                oneOf(session).getIoExecutor();
+                will(returnValue(HTTP_SUBJECT_SECURITY_FILTER_TEST_EXECUTOR));
+                oneOf(session).resumeRead();
+                will(new LoginContextTaskDoneAction(latch, "login context task done"));
+            }
+        });
+
+        // setLoginCache is final, so it sets the cache on the mocked factory itself
+        LoginContextCache loginCache = new LoginContextCache(60000L, 16);
+        ((DefaultLoginContextFactory) loginContextFactory).setLoginCache(loginCache);
+        String key = LoginContextCache.newKey(new DefaultAuthenticationToken("Token", "gobbledegook"), "127.0.0.1");
+        loginCache.put(key, cachedLoginContext).logout();
+
+        filter.messageReceived(nextFilter, session, message);
+        latch.await(2000, TimeUnit.MILLISECONDS);
+        assertEquals(0, loginCache.size());
+        context.assertIsSatisfied();
+    }
+
     @Test
     public void filterShouldEndChainWhenLoginFailsHard() throws Exception {
         Mockery context = new Mockery() {
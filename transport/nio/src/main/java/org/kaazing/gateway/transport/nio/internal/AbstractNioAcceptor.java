@@ -37,7 +37,6 @@ import javax.annotation.Resource;
 
 import org.apache.mina.core.future.IoFuture;
 import org.apache.mina.core.service.IoHandler;
-import org.apache.mina.core.session.DefaultIoSessionDataStructureFactory;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.core.session.IoSessionInitializer;
 import org.kaazing.gateway.resource.address.Comparators;
@@ -58,6 +57,7 @@ import org.kaazing.mina.core.future.DefaultUnbindFuture;
 import org.kaazing.mina.core.future.UnbindFuture;
 import org.kaazing.mina.core.service.IoAcceptorEx;
 import org.kaazing.mina.core.service.IoProcessorEx;
+import org.kaazing.mina.core.session.IndexedIoSessionDataStructureFactory;
 import org.kaazing.mina.core.session.IoSessionEx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -147,7 +147,7 @@ public abstract class AbstractNioAcceptor implements BridgeAcceptor {
 
     protected final void init() {
         acceptor = initAcceptor(null);
-        acceptor.setSessionDataStructureFactory(new DefaultIoSessionDataStructureFactory());
+        acceptor.setSessionDataStructureFactory(new IndexedIoSessionDataStructureFactory());
         final IoProcessorEx<IoSessionAdapterEx> tcpBridgeProcessor = new NioAcceptorTcpBridgeProcessor(this.acceptor);
         tcpBridgeHandler = new NioAcceptorTcpBridgeHandler(bindings, acceptor, resourceAddressFactory, bridgeServiceFactory, logger, getTransportName(), tcpBridgeProcessor);
         acceptor.setHandler(new NioAcceptorBridgeAcceptHandler(this, // TODO maybe this reference could be removed
@@ -18,6 +18,7 @@ package org.kaazing.gateway.transport.nio.internal.datagram;
 import static org.kaazing.gateway.resource.address.udp.UdpResourceAddress.PADDING_ALIGNMENT;
 import static org.kaazing.gateway.util.InternalSystemProperty.TCP_MINIMUM_READ_BUFFER_SIZE;
 import static org.kaazing.gateway.util.InternalSystemProperty.TCP_MAXIMUM_READ_BUFFER_SIZE;
+import static org.kaazing.gateway.util.InternalSystemProperty.UDP_ACCEPTOR_COUNT;
 import static org.kaazing.gateway.util.InternalSystemProperty.UDP_IDLE_TIMEOUT;
 
 import org.apache.mina.core.future.IoFuture;
@@ -26,6 +27,7 @@ import org.apache.mina.core.session.IdleStatus;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.core.session.IoSessionInitializer;
 import org.jboss.netty.channel.socket.nio.NioServerDatagramChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketOptions;
 import org.jboss.netty.channel.socket.nio.NioWorker;
 import org.jboss.netty.channel.socket.nio.WorkerPool;
 import org.kaazing.gateway.resource.address.ResourceAddress;
@@ -46,8 +48,6 @@ import javax.annotation.Resource;
 import java.net.InetAddress;
 import java.util.Properties;
 
-import static java.util.concurrent.Executors.newCachedThreadPool;
-
 public class NioDatagramAcceptor extends AbstractNioAcceptor {
 
     private static final String LOGGER_NAME = String.format("transport.%s.accept", NioProtocol.UDP.name().toLowerCase());
@@ -78,11 +78,26 @@ public class NioDatagramAcceptor extends AbstractNioAcceptor {
     @Override
     protected IoAcceptorEx initAcceptor(final IoSessionInitializer<? extends IoFuture> initializer) {
 	    DatagramChannelIoSessionConfig config = new DefaultDatagramChannelIoSessionConfig();
+        int acceptorCount = UDP_ACCEPTOR_COUNT.getIntProperty(configuration);
+        if (acceptorCount > 1 && !NioServerSocketOptions.isDatagramReusePortSupported()) {
+            logger.warn("ACCEPTOR_COUNT setting for UDP acceptor ignored because SO_REUSEPORT is not supported: {}",
+                    acceptorCount);
+            acceptorCount = 1;
+        }
+
         WorkerPool<NioWorker> workerPool = tcpAcceptor.initWorkerPool(logger, "UDP acceptor: {}", configuration);
-        NioServerDatagramChannelFactory channelFactory = new NioServerDatagramChannelFactory(newCachedThreadPool(), 1, workerPool);
+        // with several sockets, each boss (reader) is paired with a worker running the sessions of its socket
+        NioServerDatagramChannelFactory channelFactory = new NioServerDatagramChannelFactory(
+                tcpAcceptor.initBossExecutor(acceptorCount), acceptorCount, workerPool);
         NioDatagramChannelIoAcceptor acceptor = new NioDatagramChannelIoAcceptor(config, channelFactory);
         acceptor.setIoSessionInitializer(initializer);
 
+        if (acceptorCount > 1) {
+            acceptor.setReusePort(true);
+            acceptor.setChannelsPerAddress(acceptorCount);
+            logger.debug("ACCEPTOR_COUNT setting for UDP acceptor: {}", acceptorCount);
+        }
+
         String readBufferSize = configuration.getProperty("org.kaazing.gateway.transport.udp.READ_BUFFER_SIZE");
         if (readBufferSize != null) {
             acceptor.getSessionConfig().setReadBufferSize(Integer.parseInt(readBufferSize));
@@ -126,6 +141,8 @@ public class NioDatagramAcceptor extends AbstractNioAcceptor {
             acceptor.setConfiguration(new Properties());
             acceptor.setResourceAddressFactory(resourceAddressFactory);
             acceptor.setBridgeServiceFactory(bridgeServiceFactory);
+            // read the multicast group on the shared NIO workers rather than on a dedicated thread
+            acceptor.setWorkerPool(tcpAcceptor.initWorkerPool(logger, "UDP multicast acceptor: {}", configuration));
             acceptor.bind(address, handler, initializer);
         } else {
             super.bind(address, handler, initializer);
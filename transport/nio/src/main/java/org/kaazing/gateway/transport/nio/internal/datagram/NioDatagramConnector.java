@@ -144,6 +144,8 @@ public class NioDatagramConnector extends AbstractNioConnector {
             connector.setConfiguration(getProperties());
             connector.setResourceAddressFactory(resourceAddressFactory);
             connector.setBridgeServiceFactory(bridgeServiceFactory);
+            // read the multicast group on the shared NIO workers rather than on a dedicated thread
+            connector.setWorkerPool(tcpAcceptor.initWorkerPool(logger, "UDP multicast connector: {}", getConfiguration()));
             return connector.connect(address, handler, initializer);
         } else {
             return super.connect(address, handler, initializer);
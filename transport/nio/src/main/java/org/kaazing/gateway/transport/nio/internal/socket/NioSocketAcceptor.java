@@ -17,6 +17,7 @@ package org.kaazing.gateway.transport.nio.internal.socket;
 
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static org.kaazing.gateway.util.InternalSystemProperty.DEBUG_NIOWORKER_POOL;
+import static org.kaazing.gateway.util.InternalSystemProperty.TCP_ACCEPTOR_COUNT;
 import static org.kaazing.gateway.util.InternalSystemProperty.TCP_BACKLOG;
 import static org.kaazing.gateway.util.InternalSystemProperty.TCP_IP_TOS;
 import static org.kaazing.gateway.util.InternalSystemProperty.TCP_KEEP_ALIVE;
@@ -37,8 +38,10 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -54,6 +57,7 @@ import org.jboss.netty.channel.ExceptionEvent;
 import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
 import org.jboss.netty.channel.socket.Worker;
 import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketOptions;
 import org.jboss.netty.channel.socket.nio.NioSocketChannel;
 import org.jboss.netty.channel.socket.nio.NioWorker;
 import org.jboss.netty.channel.socket.nio.WorkerPool;
@@ -123,6 +127,8 @@ public class NioSocketAcceptor extends AbstractNioAcceptor {
 
     }
 
+    private static final ThreadLocal<NioWorker> BOSS_WORKER = new VicariousThreadLocal<>();
+
     private final AtomicReference<DistributedNioWorkerPool> currentWorkerPool = new AtomicReference<>();
 
     public NioSocketAcceptor(Properties configuration, TcpExtensionFactory extensionFactory) {
@@ -185,17 +191,31 @@ public class NioSocketAcceptor extends AbstractNioAcceptor {
         String linger = TCP_SO_LINGER.getProperty(configuration);
         String ipTypeOfService = TCP_IP_TOS.getProperty(configuration);
 
+        int acceptorCount = TCP_ACCEPTOR_COUNT.getIntProperty(configuration);
+        if (acceptorCount > 1 && !NioServerSocketOptions.isReusePortSupported()) {
+            logger.warn("ACCEPTOR_COUNT setting for TCP acceptor ignored because SO_REUSEPORT is not supported: {}",
+                    acceptorCount);
+            acceptorCount = 1;
+        }
+
         NioSocketChannelIoAcceptor acceptor;
 
         WorkerPool<NioWorker> workerPool = initWorkerPool(logger, "TCP acceptor: {}", configuration);
 		NioServerSocketChannelFactory serverChannelFactory = new NioServerSocketChannelFactory(
-				Executors.newCachedThreadPool(),
+				initBossExecutor(acceptorCount),
+				acceptorCount,
 				workerPool);
         acceptor = new NioSocketChannelIoAcceptor(new DefaultNioSocketChannelIoSessionConfig(),
                                                   serverChannelFactory,
                                                   new AffinityIoAcceptorChannelHandlerFactory());
     	acceptor.setIoSessionInitializer(initializer);
 
+        if (acceptorCount > 1) {
+            acceptor.setReusePort(true);
+            acceptor.setChannelsPerAddress(acceptorCount);
+            logger.debug("ACCEPTOR_COUNT setting for TCP acceptor: {}", acceptorCount);
+        }
+
         // KG-8210: avoid hang on gateway shutdown, plus we don't want quiesce or unbind to disconnect everyone!
         acceptor.setCloseOnDeactivation(false);
 
@@ -267,6 +287,17 @@ public class NioSocketAcceptor extends AbstractNioAcceptor {
     }
 
 
+    /**
+     * Creates the executor running the boss threads of an acceptor with the given number of bosses, which
+     * must be called after {@link #initWorkerPool(Logger, String, Properties)}. When there are several bosses,
+     * each is paired with a worker so the channels it creates stay on the worker of the socket they came from.
+     */
+    public ExecutorService initBossExecutor(int bossCount) {
+        return (bossCount > 1)
+                ? newCachedThreadPool(new BossWorkerAffinityThreadFactory(currentWorkerPool.get().workers))
+                : newCachedThreadPool();
+    }
+
     public Worker[] getWorkers() {
         // KG-10074: if only non-TCP binds, worker pool may not yet be initialized (causing NPE below)
         initIfNecessary();
@@ -295,6 +326,11 @@ public class NioSocketAcceptor extends AbstractNioAcceptor {
         	workerPool = new DistributedNioWorkerPool(newCachedThreadPool(), workerCount) {
 	        	@Override
 	        	public NioWorker nextWorker() {
+	        		NioWorker bossWorker = BOSS_WORKER.get();
+	        		if (bossWorker != null) {
+	        		    // acceptor boss paired with a worker (see TCP_ACCEPTOR_COUNT and UDP_ACCEPTOR_COUNT)
+	        		    return bossWorker;
+	        		}
 	        		NioWorker worker = CURRENT_WORKER.get();
 	        		if (worker == null) {
 	        			Thread currentThread = Thread.currentThread();
@@ -479,6 +515,31 @@ public class NioSocketAcceptor extends AbstractNioAcceptor {
 
     }
 
+    // pairs each new (boss) thread with the next worker in turn, so that the boss running on that thread
+    // hands its accepted channels to that worker rather than to the least loaded one
+    private static final class BossWorkerAffinityThreadFactory implements ThreadFactory {
+
+        private final ThreadFactory threadFactory = Executors.defaultThreadFactory();
+        private final NioWorker[] workers;
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        BossWorkerAffinityThreadFactory(NioWorker[] workers) {
+            this.workers = workers;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final NioWorker worker = workers[threadCount.getAndIncrement() % workers.length];
+            return threadFactory.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    BOSS_WORKER.set(worker);
+                    runnable.run();
+                }
+            });
+        }
+    }
+
     private static class AffinityIoAcceptorChannelHandlerFactory extends SimpleChannelUpstreamHandler {
 
         private static final String MSG = "Exception caught in AffinityIoAcceptorChannelHandlerFactory.";
@@ -17,18 +17,25 @@ package org.kaazing.gateway.transport;
 
 import static java.lang.String.format;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.mina.core.file.FileRegion;
 import org.apache.mina.core.filterchain.IoFilterChain;
 import org.apache.mina.core.future.IoFutureListener;
 import org.apache.mina.core.future.WriteFuture;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.core.write.WriteRequest;
 import org.apache.mina.core.write.WriteRequestQueue;
+import org.kaazing.gateway.transport.bridge.MessageBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
@@ -151,6 +158,32 @@ public abstract class AbstractBridgeProcessor<T extends AbstractBridgeSession<?,
                     }
                 }
             }
+            else if (message instanceof FileRegion) {
+                FileRegion region = (FileRegion) message;
+                try {
+                    long remaining = region.getRemainingBytes();
+
+                    if (parent.isClosing()) {
+                        break;
+                    }
+
+                    // flush the file region out to the parent
+                    WriteFuture flushFuture = flushNow(session, parent, region, filterChain, request);
+                    if (flushFuture == null) {
+                        break;
+                    }
+
+                    if (shouldAccountForWrittenBytes(session)) {
+                        session.increaseWrittenBytes((int) Math.min(remaining, Integer.MAX_VALUE), System.currentTimeMillis());
+                    }
+                }
+                catch (Exception e) {
+                    request.getFuture().setException(e);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(format("Exception while writing file region '%s'.", region), e);
+                    }
+                }
+            }
             else {
                 throw new IllegalStateException("Don't know how to handle message of type '" + message.getClass().getName() + "'.  Are you missing a protocol encoder?");
             }
@@ -171,12 +204,57 @@ public abstract class AbstractBridgeProcessor<T extends AbstractBridgeSession<?,
 	    return flushNowInternal(parent, parentBuf, buf, filterChain, request);
 	}
 
+    /**
+     * Flushes a file region out to the parent. Parent sessions are not assumed to support file regions,
+     * so by default the region contents are read into a buffer and flushed as such.
+     */
+    protected WriteFuture flushNow(T session, IoSessionEx parent, FileRegion region, IoFilterChain filterChain,
+            WriteRequest request) throws IOException {
+        IoBufferEx buf = toBuffer(session.getBufferAllocator(), region);
+        return flushNow(session, parent, buf, filterChain, request);
+    }
+
+    protected static IoBufferEx toBuffer(IoBufferAllocatorEx<?> allocator, FileRegion region) throws IOException {
+        long remaining = region.getRemainingBytes();
+        if (remaining > Integer.MAX_VALUE) {
+            throw new IOException(format("File region too large to buffer: %d bytes", remaining));
+        }
+
+        IoBufferEx buf = allocator.wrap(allocator.allocate((int) remaining));
+        ByteBuffer nioBuf = buf.buf();
+        int pos = nioBuf.position();
+        FileChannel fileChannel = region.getFileChannel();
+        long position = region.getPosition();
+        while (nioBuf.hasRemaining()) {
+            int read = fileChannel.read(nioBuf, position);
+            if (read == -1) {
+                throw new EOFException(format("File region truncated at position %d", position));
+            }
+            position += read;
+        }
+        nioBuf.position(pos);
+        return buf;
+    }
+
 	protected static WriteFuture flushNowInternal(IoSessionEx parent, Object message, IoBufferEx resetBuf, IoFilterChain filterChain, WriteRequest request) {
 		WriteFuture parentFuture = parent.write(message);
 		attachMessageSentInternal(filterChain, resetBuf, request, parentFuture);
 		return parentFuture;
 	}
 
+    /**
+     * Flushes a batch of messages out to the parent as a single write, completing each of the batched write
+     * requests (resetting the corresponding buffer, if any) once that write completes.
+     */
+    protected static WriteFuture flushNowInternal(IoSessionEx parent, MessageBatch<?> batch, List<IoBufferEx> resetBufs,
+            IoFilterChain filterChain, List<WriteRequest> requests) {
+        WriteFuture parentFuture = parent.write(batch);
+        for (int i = 0; i < requests.size(); i++) {
+            attachMessageSentInternal(filterChain, resetBufs.get(i), requests.get(i), parentFuture);
+        }
+        return parentFuture;
+    }
+
 	private static void setFutureWritten(IoFilterChain filterChain, WriteFuture future) {
         try {
             future.setWritten();
@@ -188,7 +266,9 @@ public abstract class AbstractBridgeProcessor<T extends AbstractBridgeSession<?,
     private static void attachMessageSentInternal(final IoFilterChain filterChain, final IoBufferEx resetBuf, final WriteRequest request, WriteFuture future) {
         if (future.isDone()) {
 			if (future.isWritten()) {
-			    resetBuf.reset();
+			    if (resetBuf != null) {
+			        resetBuf.reset();
+			    }
                 // Complete the future without firing the (largely useless) messageSent event, to gain performance
 			    setFutureWritten(filterChain, request.getFuture());
 				//filterChain.fireMessageSent(request);
@@ -200,7 +280,9 @@ public abstract class AbstractBridgeProcessor<T extends AbstractBridgeSession<?,
 				@Override
 				public void operationComplete(WriteFuture parentFuture) {
 					if (parentFuture.isWritten()) {
-		                resetBuf.reset();
+		                if (resetBuf != null) {
+		                    resetBuf.reset();
+		                }
                         // Complete the future without firing the (largely useless) messageSent event, to gain performance
 		                setFutureWritten(filterChain, request.getFuture());
 		                //filterChain.fireMessageSent(request);
@@ -25,12 +25,13 @@ import org.apache.mina.core.write.WriteRequest;
 
 public abstract class AbstractInboundEventFilter extends IoFilterAdapter {
 
-    private final TypedAttributeKey<Queue<InboundEvent>> inboundEventsKey = 
-                        new TypedAttributeKey<>(getClass(), "inboundEvents");
+    // one key for all instances, since these filters are created per connection
+    private static final TypedAttributeKey<Queue<InboundEvent>> INBOUND_EVENTS_KEY =
+                        new TypedAttributeKey<>(AbstractInboundEventFilter.class, "inboundEvents");
 
     @Override
     public void sessionCreated(NextFilter nextFilter, IoSession session) throws Exception {
-        Queue<InboundEvent> inboundEvents = inboundEventsKey.get(session);
+        Queue<InboundEvent> inboundEvents = INBOUND_EVENTS_KEY.get(session);
         if (inboundEvents != null) {
             inboundEvents.add(new SessionCreatedEvent());
         }
@@ -41,7 +42,7 @@ public abstract class AbstractInboundEventFilter extends IoFilterAdapter {
 
     @Override
     public void sessionOpened(NextFilter nextFilter, IoSession session) throws Exception {
-        Queue<InboundEvent> inboundEvents = inboundEventsKey.get(session);
+        Queue<InboundEvent> inboundEvents = INBOUND_EVENTS_KEY.get(session);
         if (inboundEvents != null) {
             inboundEvents.add(new SessionOpenedEvent());
         }
@@ -64,7 +65,7 @@ public abstract class AbstractInboundEventFilter extends IoFilterAdapter {
 
     @Override
     public void messageReceived(NextFilter nextFilter, IoSession session, Object message) throws Exception {
-        Queue<InboundEvent> inboundEvents = inboundEventsKey.get(session);
+        Queue<InboundEvent> inboundEvents = INBOUND_EVENTS_KEY.get(session);
         if (inboundEvents != null) {
             inboundEvents.add(new MessageReceivedEvent(message));
         }
@@ -75,7 +76,7 @@ public abstract class AbstractInboundEventFilter extends IoFilterAdapter {
 
     @Override
     public void messageSent(NextFilter nextFilter, IoSession session, WriteRequest writeRequest) throws Exception {
-        Queue<InboundEvent> inboundEvents = inboundEventsKey.get(session);
+        Queue<InboundEvent> inboundEvents = INBOUND_EVENTS_KEY.get(session);
         if (inboundEvents != null) {
             inboundEvents.add(new MessageSentEvent(writeRequest));
         }
@@ -86,7 +87,7 @@ public abstract class AbstractInboundEventFilter extends IoFilterAdapter {
 
     @Override
     public void sessionClosed(NextFilter nextFilter, IoSession session) throws Exception {
-        Queue<InboundEvent> inboundEvents = inboundEventsKey.get(session);
+        Queue<InboundEvent> inboundEvents = INBOUND_EVENTS_KEY.get(session);
         if (inboundEvents != null) {
             inboundEvents.add(new SessionClosedEvent());
         }
@@ -96,10 +97,10 @@ public abstract class AbstractInboundEventFilter extends IoFilterAdapter {
     }
 
     protected Queue<InboundEvent> suspendInboundEvents(NextFilter nextFilter, IoSession session) throws Exception {
-        Queue<InboundEvent> inboundEvents = inboundEventsKey.get(session);
+        Queue<InboundEvent> inboundEvents = INBOUND_EVENTS_KEY.get(session);
         if (inboundEvents == null) {
             Queue<InboundEvent> newInboundEvents = new ConcurrentLinkedQueue<>();
-            inboundEvents = inboundEventsKey.setIfAbsent(session, newInboundEvents);
+            inboundEvents = INBOUND_EVENTS_KEY.setIfAbsent(session, newInboundEvents);
             if (inboundEvents == null) {
                 inboundEvents = newInboundEvents;
             }
@@ -108,7 +109,7 @@ public abstract class AbstractInboundEventFilter extends IoFilterAdapter {
     }
 
     protected void flushInboundEvents(NextFilter nextFilter, IoSession session) throws Exception {
-        Queue<InboundEvent> inboundEvents = inboundEventsKey.remove(session);
+        Queue<InboundEvent> inboundEvents = INBOUND_EVENTS_KEY.remove(session);
         if (inboundEvents != null) {
             for (InboundEvent inboundEvent : inboundEvents) {
                 inboundEvent.flush(nextFilter, session);
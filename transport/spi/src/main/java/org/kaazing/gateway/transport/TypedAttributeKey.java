@@ -15,12 +15,12 @@
  */
 package org.kaazing.gateway.transport;
 
-import java.io.Serializable;
-
 import org.apache.mina.core.session.IoSession;
 
+import org.kaazing.mina.core.session.IndexedAttributeKey;
+
 @SuppressWarnings("unchecked")
-public class TypedAttributeKey<T> implements Serializable {
+public class TypedAttributeKey<T> extends IndexedAttributeKey {
     /**
      * The serial version UID
      */
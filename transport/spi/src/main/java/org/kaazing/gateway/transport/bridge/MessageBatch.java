@@ -0,0 +1,76 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.bridge;
+
+import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_SHARED;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+
+/**
+ * MessageBatch groups messages that are ready to be written together, so that a protocol encoder can
+ * encode them into a single buffer and the transport writes them as a single unit (e.g. one HTTP chunk).
+ */
+public class MessageBatch<T extends Message> extends Message {
+
+    private final List<T> messages;
+
+    public MessageBatch() {
+        this.messages = new ArrayList<>(4);
+    }
+
+    public void add(T message) {
+        messages.add(message);
+    }
+
+    public List<T> getMessages() {
+        return messages;
+    }
+
+    public int size() {
+        return messages.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BATCH: %s", messages);
+    }
+
+    /**
+     * Joins the buffers encoded for each message of a batch into a single buffer.
+     */
+    public static IoBufferEx join(IoBufferAllocatorEx<?> allocator, IoBufferEx[] encoded, int flags) {
+        int len = 0;
+        for (IoBufferEx buf : encoded) {
+            len += buf.remaining();
+        }
+
+        ByteBuffer joined = allocator.allocate(len, flags & ~FLAG_SHARED);
+        int offset = joined.position();
+        for (IoBufferEx buf : encoded) {
+            // duplicate so that shared or cached encodings are left untouched
+            joined.put(buf.buf().duplicate());
+        }
+        joined.flip();
+        joined.position(offset);
+
+        return allocator.wrap(joined, flags & ~FLAG_SHARED);
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.kaazing.gateway.transport.sse;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.mina.core.filterchain.IoFilterChain;
@@ -24,6 +26,7 @@ import org.apache.mina.core.session.IoSession;
 import org.apache.mina.core.write.WriteRequest;
 import org.apache.mina.core.write.WriteRequestQueue;
 import org.kaazing.gateway.transport.BridgeAcceptProcessor;
+import org.kaazing.gateway.transport.bridge.MessageBatch;
 import org.kaazing.gateway.transport.http.HttpAcceptSession;
 import org.kaazing.gateway.transport.sse.bridge.SseMessage;
 import org.kaazing.gateway.transport.sse.bridge.filter.SseBuffer;
@@ -35,7 +38,21 @@ import org.kaazing.mina.core.write.DefaultWriteRequestEx;
 public class SseAcceptProcessor extends BridgeAcceptProcessor<SseSession> {
 
     private static final CheckInitialPadding CHECK_INITIAL_PADDING = new CheckInitialPadding();
-    private static final WriteRequest RECONNECT_REQUEST = new DefaultWriteRequestEx(new Object());
+    static final WriteRequest RECONNECT_REQUEST = new DefaultWriteRequestEx(new Object());
+
+    private final int coalesceBytes;
+
+    public SseAcceptProcessor() {
+        this(0);
+    }
+
+    /**
+     * @param coalesceBytes  maximum number of bytes of ready events written to the parent as a single
+     *                       HTTP chunk, or 0 to write each event separately
+     */
+    public SseAcceptProcessor(int coalesceBytes) {
+        this.coalesceBytes = coalesceBytes;
+    }
 
     @Override
     protected void removeInternal(SseSession session) {
@@ -133,6 +150,7 @@ public class SseAcceptProcessor extends BridgeAcceptProcessor<SseSession> {
             Object message = request.getMessage();
             if (message instanceof IoBufferEx) {
                 IoBufferEx buf = (IoBufferEx) message;
+                List<WriteRequest> requests = null;
                 try {
                     // hold current remaining bytes so we know how much was
                     // written
@@ -157,30 +175,41 @@ public class SseAcceptProcessor extends BridgeAcceptProcessor<SseSession> {
                     // writing data to the parent during this interim state
                     // resulting in a WriteToClosedSessionException and losing data
 
-                    // convert from session+buffer to message
-                    if (buf instanceof SseBuffer) {
-                        // reuse previously constructed message if available
-                        SseBuffer sseBuffer = (SseBuffer)buf;
-                        SseMessage sseMessage = sseBuffer.getMessage();
-                        if (sseMessage == null) {
-                            // cache newly constructed message (atomic update)
-                            SseMessage newSseMessage = new SseMessage();
-                            newSseMessage.setData(buf);
-                            if (sseBuffer.isAutoCache()) {
-                                // buffer is cached on parent, continue with derived caching
-                                newSseMessage.initCache();
-                            }
-                            boolean wasUpdated = sseBuffer.setMessage(newSseMessage);
-                            sseMessage = wasUpdated ? newSseMessage : sseBuffer.getMessage();
+                    // gather any further buffers that are ready so they are written out as a single chunk
+                    MessageBatch<SseMessage> batch = null;
+                    List<IoBufferEx> bufs = null;
+                    while (remaining < coalesceBytes) {
+                        WriteRequest nextRequest = writeRequestQueue.poll(session);
+                        if (nextRequest == null) {
+                            break;
+                        }
+                        if (!isCoalescable(nextRequest)) {
+                            // handled by the next iteration
+                            currentWriteRequest = nextRequest;
+                            break;
                         }
+                        if (batch == null) {
+                            batch = new MessageBatch<>();
+                            bufs = new ArrayList<>();
+                            requests = new ArrayList<>();
+                            batch.add(asSseMessage(buf));
+                            bufs.add(buf);
+                            requests.add(request);
+                        }
+                        IoBufferEx nextBuf = (IoBufferEx) nextRequest.getMessage();
+                        remaining += nextBuf.remaining();
+                        batch.add(asSseMessage(nextBuf));
+                        bufs.add(nextBuf);
+                        requests.add(nextRequest);
+                    }
+
+                    if (batch == null) {
                         // flush the buffer out to the session
-                        lastWrite = flushNowInternal(parent, sseMessage, sseBuffer, filterChain, request);
+                        lastWrite = flushNowInternal(parent, asSseMessage(buf), buf, filterChain, request);
                     }
                     else {
-                        SseMessage sseMessage = new SseMessage();
-                        sseMessage.setData(buf);
-                        // flush the buffer out to the session
-                        lastWrite = flushNowInternal(parent, sseMessage, buf, filterChain, request);
+                        // flush the batched messages out to the session
+                        lastWrite = flushNowInternal(parent, batch, bufs, filterChain, requests);
                     }
 
                     // increment session written bytes
@@ -206,7 +235,14 @@ public class SseAcceptProcessor extends BridgeAcceptProcessor<SseSession> {
                     // write close to message close
                  }
                 catch (Exception e) {
-                    request.getFuture().setException(e);
+                    if (requests != null) {
+                        for (WriteRequest batchedRequest : requests) {
+                            batchedRequest.getFuture().setException(e);
+                        }
+                    }
+                    else {
+                        request.getFuture().setException(e);
+                    }
                 }
             }
             else {
@@ -216,6 +252,36 @@ public class SseAcceptProcessor extends BridgeAcceptProcessor<SseSession> {
         while (true);
     }
 
+    private static SseMessage asSseMessage(IoBufferEx buf) {
+        // convert from session+buffer to message
+        if (buf instanceof SseBuffer) {
+            // reuse previously constructed message if available
+            SseBuffer sseBuffer = (SseBuffer)buf;
+            SseMessage sseMessage = sseBuffer.getMessage();
+            if (sseMessage == null) {
+                // cache newly constructed message (atomic update)
+                SseMessage newSseMessage = new SseMessage();
+                newSseMessage.setData(buf);
+                if (sseBuffer.isAutoCache()) {
+                    // buffer is cached on parent, continue with derived caching
+                    newSseMessage.initCache();
+                }
+                boolean wasUpdated = sseBuffer.setMessage(newSseMessage);
+                sseMessage = wasUpdated ? newSseMessage : sseBuffer.getMessage();
+            }
+            return sseMessage;
+        }
+
+        SseMessage sseMessage = new SseMessage();
+        sseMessage.setData(buf);
+        return sseMessage;
+    }
+
+    private static boolean isCoalescable(WriteRequest request) {
+        Object message = request.getMessage();
+        return request != RECONNECT_REQUEST && message instanceof IoBufferEx && ((IoBufferEx) message).hasRemaining();
+    }
+
     private static void checkInitialPadding(HttpAcceptSession session) {
         // check to see if we need to add a padding message to the end of
         // the sent messages
@@ -19,9 +19,11 @@ import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.mina.core.session.IdleStatus.WRITER_IDLE;
 import static org.kaazing.gateway.resource.address.ResourceAddress.TRANSPORT;
+import static org.kaazing.gateway.util.InternalSystemProperty.SSE_COALESCE_BYTES;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Properties;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -89,6 +91,8 @@ public class SseAcceptor extends AbstractBridgeAcceptor<SseSession, Binding> {
     private static final TypedAttributeKey<ResourceAddress> NEXT_PROTOCOL_RESOURCE_ADDRESS =
              new TypedAttributeKey<>(SseAcceptor.class, "nextProtocolResourceAddress");
 
+    private static final TypedAttributeKey<SseSession> SSE_SESSION_KEY = new TypedAttributeKey<>(SseAcceptor.class, "sseSession");
+
     private static final String CODEC_FILTER = SseProtocol.NAME + "#codec";
 
     // TODO: make these settings available via configuration, with a reasonable default
@@ -102,6 +106,12 @@ public class SseAcceptor extends AbstractBridgeAcceptor<SseSession, Binding> {
 
     private BridgeServiceFactory bridgeServiceFactory;
     private ResourceAddressFactory resourceAddressFactory;
+    private Properties configuration;
+
+    @Resource(name = "configuration")
+    public void setConfiguration(Properties configuration) {
+        this.configuration = configuration;
+    }
 
     @Resource(name = "bridgeServiceFactory")
     public void setBridgeServiceFactory(BridgeServiceFactory bridgeServiceFactory) {
@@ -152,7 +162,8 @@ public class SseAcceptor extends AbstractBridgeAcceptor<SseSession, Binding> {
 
     @Override
     protected IoProcessorEx<SseSession> initProcessor() {
-        return new SseAcceptProcessor();
+        int coalesceBytes = (configuration != null) ? SSE_COALESCE_BYTES.getIntProperty(configuration) : 0;
+        return new SseAcceptProcessor(coalesceBytes);
     }
 
     @Override
@@ -222,8 +233,6 @@ public class SseAcceptor extends AbstractBridgeAcceptor<SseSession, Binding> {
 
     }
     private IoHandler bridgeHandler = new IoHandlerAdapter<HttpAcceptSession>() {
-
-        private final TypedAttributeKey<SseSession> SSE_SESSION_KEY = new TypedAttributeKey<>(SseAcceptor.class, "sseSession");
         @Override
         protected void doSessionOpened(HttpAcceptSession httpSession) throws Exception {
             IoFilterChain filterChain = httpSession.getFilterChain();
@@ -21,11 +21,13 @@ import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_ZERO_COPY;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.util.List;
 
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.filter.codec.ProtocolEncoder;
 import org.apache.mina.filter.codec.ProtocolEncoderOutput;
 import org.kaazing.gateway.transport.bridge.CachingMessageEncoder;
+import org.kaazing.gateway.transport.bridge.MessageBatch;
 import org.kaazing.gateway.transport.bridge.MessageEncoder;
 import org.kaazing.gateway.transport.http.bridge.filter.HttpGzipEncoder;
 import org.kaazing.gateway.transport.sse.bridge.SseMessage;
@@ -77,14 +79,26 @@ public class SseEncoder implements ProtocolEncoder {
 
     @Override
     public void encode(IoSession session, Object message, ProtocolEncoderOutput out) throws Exception {
-        SseMessage sseMessage = (SseMessage)message;
+        if (message instanceof MessageBatch) {
+            // encode each event of the batch and write them out as a single buffer
+            List<?> sseMessages = ((MessageBatch<?>)message).getMessages();
+            IoBufferEx[] bufs = new IoBufferEx[sseMessages.size()];
+            for (int i = 0; i < bufs.length; i++) {
+                bufs[i] = encode((SseMessage)sseMessages.get(i));
+            }
+            out.write(MessageBatch.join(allocator, bufs, FLAG_ZERO_COPY));
+        }
+        else {
+            out.write(encode((SseMessage)message));
+        }
+    }
+
+    private IoBufferEx encode(SseMessage sseMessage) {
         if (sseMessage.hasCache()) {
-            IoBufferEx buf = cachingEncoder.encode(encoder, sseMessage, allocator, FLAG_SHARED | FLAG_ZERO_COPY);
-            out.write(buf);
+            return cachingEncoder.encode(encoder, sseMessage, allocator, FLAG_SHARED | FLAG_ZERO_COPY);
         }
         else {
-            IoBufferEx buf = doEncode(allocator, FLAG_ZERO_COPY, sseMessage);
-            out.write(buf);
+            return doEncode(allocator, FLAG_ZERO_COPY, sseMessage);
         }
     }
 
@@ -219,6 +233,7 @@ public class SseEncoder implements ProtocolEncoder {
                 data.limit(limit);
                 data.position(dataEndAt + 1);
                 buf.put(LINEFEED_BYTE);
+                dataEndAt = data.indexOf(LINEFEED_BYTE);
             }
             buf.put(DATA_BYTES);
             buf.put(COLON_BYTE);
@@ -0,0 +1,225 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.sse;
+
+import static java.lang.Thread.currentThread;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.kaazing.mina.core.session.IoSessionEx.IMMEDIATE_EXECUTOR;
+
+import java.nio.ByteBuffer;
+
+import org.apache.mina.core.service.IoHandler;
+import org.apache.mina.core.session.DefaultIoSessionDataStructureFactory;
+import org.apache.mina.core.write.WriteRequest;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.jmock.Expectations;
+import org.jmock.integration.junit4.JUnitRuleMockery;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.kaazing.gateway.resource.address.ResourceAddress;
+import org.kaazing.gateway.resource.address.ResourceAddressFactory;
+import org.kaazing.gateway.transport.DefaultTransportMetadata;
+import org.kaazing.gateway.transport.bridge.MessageBatch;
+import org.kaazing.gateway.transport.http.HttpAcceptSession;
+import org.kaazing.gateway.transport.sse.bridge.SseMessage;
+import org.kaazing.gateway.transport.sse.bridge.filter.SseBuffer;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+import org.kaazing.mina.core.buffer.SimpleBufferAllocator;
+import org.kaazing.mina.core.future.DefaultWriteFutureEx;
+import org.kaazing.mina.core.future.WriteFutureEx;
+import org.kaazing.mina.core.service.IoServiceEx;
+import org.kaazing.mina.core.write.DefaultWriteRequestEx;
+import org.kaazing.mina.core.write.DefaultWriteRequestEx.ShareableWriteRequest;
+
+public class SseAcceptProcessorTest {
+
+    @Rule
+    public JUnitRuleMockery context = new JUnitRuleMockery();
+
+    private HttpAcceptSession parent;
+    private IoServiceEx service;
+    private IoBufferAllocatorEx<SseBuffer> allocator;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        parent = context.mock(HttpAcceptSession.class);
+        service = context.mock(IoServiceEx.class);
+        allocator = context.mock(IoBufferAllocatorEx.class);
+        final IoHandler handler = context.mock(IoHandler.class);
+
+        context.checking(new Expectations() {
+            {
+                allowing(service).getTransportMetadata(); will(returnValue(new DefaultTransportMetadata(SseProtocol.NAME)));
+                allowing(service).getHandler(); will(returnValue(handler));
+                allowing(service).getSessionConfig(); will(returnValue(new DefaultSseSessionConfig()));
+                allowing(service).getThreadLocalWriteRequest(with(any(int.class))); will(returnValue(new ShareableWriteRequest()));
+                allowing(parent).getIoLayer(); will(returnValue(0));
+                allowing(parent).getIoThread(); will(returnValue(currentThread()));
+                allowing(parent).getIoExecutor(); will(returnValue(IMMEDIATE_EXECUTOR));
+                allowing(parent).isClosing(); will(returnValue(false));
+                allowing(parent).getAttribute(with(any(Object.class))); will(returnValue(null));
+            }
+        });
+    }
+
+    @Test
+    public void shouldCoalesceBuffersUpToCoalesceBytes() throws Exception {
+        SseAcceptProcessor processor = new SseAcceptProcessor(8);
+        SseSession session = newSession(processor);
+
+        IoBufferEx buf3 = newBuffer("ijkl");
+        WriteRequest request1 = enqueue(session, newBuffer("abcd"));
+        WriteRequest request2 = enqueue(session, newBuffer("efgh"));
+        WriteRequest request3 = enqueue(session, buf3);
+
+        final WriteFutureEx batchFuture = new DefaultWriteFutureEx(parent);
+        final WriteFutureEx messageFuture = new DefaultWriteFutureEx(parent);
+        context.checking(new Expectations() {
+            {
+                oneOf(parent).write(with(batchOf(2))); will(returnValue(batchFuture));
+                oneOf(parent).write(with(messageOf(buf3))); will(returnValue(messageFuture));
+            }
+        });
+
+        processor.flushInternal(session);
+
+        batchFuture.setWritten();
+        assertTrue(request1.getFuture().isWritten());
+        assertTrue(request2.getFuture().isWritten());
+        assertFalse(request3.getFuture().isDone());
+
+        messageFuture.setWritten();
+        assertTrue(request3.getFuture().isWritten());
+    }
+
+    @Test
+    public void shouldReconnectAfterCoalescedBuffers() throws Exception {
+        SseAcceptProcessor processor = new SseAcceptProcessor(1024);
+        SseSession session = newSession(processor);
+
+        WriteRequest request1 = enqueue(session, newBuffer("abcd"));
+        WriteRequest request2 = enqueue(session, newBuffer("efgh"));
+        session.getWriteRequestQueue().offer(session, SseAcceptProcessor.RECONNECT_REQUEST);
+
+        final WriteFutureEx batchFuture = DefaultWriteFutureEx.newWrittenFuture(parent);
+        context.checking(new Expectations() {
+            {
+                oneOf(parent).write(with(batchOf(2))); will(returnValue(batchFuture));
+                oneOf(parent).write(with(reconnectMessage())); will(returnValue(new DefaultWriteFutureEx(parent)));
+                oneOf(parent).close(false);
+            }
+        });
+
+        processor.flushInternal(session);
+
+        assertTrue(request1.getFuture().isWritten());
+        assertTrue(request2.getFuture().isWritten());
+        assertNull(session.getParent());
+    }
+
+    @Test
+    public void shouldFailAllCoalescedBuffersWhenBatchWriteFails() throws Exception {
+        SseAcceptProcessor processor = new SseAcceptProcessor(1024);
+        SseSession session = newSession(processor);
+
+        WriteRequest request1 = enqueue(session, newBuffer("abcd"));
+        WriteRequest request2 = enqueue(session, newBuffer("efgh"));
+
+        final WriteFutureEx batchFuture = new DefaultWriteFutureEx(parent);
+        context.checking(new Expectations() {
+            {
+                oneOf(parent).write(with(batchOf(2))); will(returnValue(batchFuture));
+            }
+        });
+
+        processor.flushInternal(session);
+
+        Exception cause = new Exception("write failed");
+        batchFuture.setException(cause);
+        assertSame(cause, request1.getFuture().getException());
+        assertSame(cause, request2.getFuture().getException());
+    }
+
+    private SseSession newSession(SseAcceptProcessor processor) throws Exception {
+        ResourceAddressFactory addressFactory = ResourceAddressFactory.newResourceAddressFactory();
+        ResourceAddress address = addressFactory.newResourceAddress("sse://localhost:8000/sse");
+        SseSession session = new SseSession(service, processor, address, address, parent, allocator);
+        session.setWriteRequestQueue(new DefaultIoSessionDataStructureFactory().getWriteRequestQueue(session));
+        return session;
+    }
+
+    private static WriteRequest enqueue(SseSession session, IoBufferEx buf) {
+        WriteRequest request = new DefaultWriteRequestEx(buf, new DefaultWriteFutureEx(session));
+        session.getWriteRequestQueue().offer(session, request);
+        return request;
+    }
+
+    private static IoBufferEx newBuffer(String data) {
+        IoBufferEx buf = SimpleBufferAllocator.BUFFER_ALLOCATOR.wrap(ByteBuffer.wrap(data.getBytes()));
+        buf.mark();
+        return buf;
+    }
+
+    private static Matcher<Object> batchOf(final int size) {
+        return new BaseMatcher<Object>() {
+            @Override
+            public boolean matches(Object item) {
+                return item instanceof MessageBatch && ((MessageBatch<?>) item).size() == size;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a batch of ").appendValue(size).appendText(" messages");
+            }
+        };
+    }
+
+    private static Matcher<Object> messageOf(final IoBufferEx data) {
+        return new BaseMatcher<Object>() {
+            @Override
+            public boolean matches(Object item) {
+                return item instanceof SseMessage && ((SseMessage) item).getData() == data;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("an SSE message with data ").appendValue(data);
+            }
+        };
+    }
+
+    private static Matcher<Object> reconnectMessage() {
+        return new BaseMatcher<Object>() {
+            @Override
+            public boolean matches(Object item) {
+                return item instanceof SseMessage && ((SseMessage) item).isReconnect();
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("an SSE reconnect message");
+            }
+        };
+    }
+}
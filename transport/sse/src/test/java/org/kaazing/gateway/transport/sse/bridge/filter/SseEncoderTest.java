@@ -0,0 +1,86 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.sse.bridge.filter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.apache.mina.filter.codec.ProtocolEncoder;
+import org.junit.Test;
+import org.kaazing.gateway.transport.bridge.MessageBatch;
+import org.kaazing.gateway.transport.sse.bridge.SseMessage;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+import org.kaazing.mina.filter.codec.ProtocolCodecSessionEx;
+
+public class SseEncoderTest {
+
+    @Test
+    public void shouldEncodeSingleLineData() throws Exception {
+        ProtocolCodecSessionEx session = new ProtocolCodecSessionEx();
+        IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+        ProtocolEncoder encoder = new SseEncoder(allocator);
+
+        SseMessage in = new SseMessage("quote", allocator.wrap(ByteBuffer.wrap("{\"bid\":1}".getBytes(UTF_8))));
+        in.setId("7");
+
+        encoder.encode(session, in, session.getEncoderOutput());
+
+        IoBufferEx out = (IoBufferEx) session.getEncoderOutputQueue().poll();
+        assertEquals("event:quote\ndata:{\"bid\":1}\nid:7\n\n", out.getString(UTF_8.newDecoder()));
+        assertTrue(session.getEncoderOutputQueue().isEmpty());
+    }
+
+    @Test
+    public void shouldEncodeMultiLineDataAsOneDataFieldPerLine() throws Exception {
+        ProtocolCodecSessionEx session = new ProtocolCodecSessionEx();
+        IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+        ProtocolEncoder encoder = new SseEncoder(allocator);
+
+        IoBufferEx data = allocator.wrap(ByteBuffer.wrap("a\nbc\n\nd".getBytes(UTF_8)));
+        SseMessage in = new SseMessage("quote", data);
+        in.setId("7");
+
+        encoder.encode(session, in, session.getEncoderOutput());
+
+        IoBufferEx out = (IoBufferEx) session.getEncoderOutputQueue().poll();
+        assertEquals("event:quote\ndata:a\ndata:bc\ndata:\ndata:d\nid:7\n\n", out.getString(UTF_8.newDecoder()));
+        assertEquals(0, data.position());
+        assertTrue(session.getEncoderOutputQueue().isEmpty());
+    }
+
+    @Test
+    public void shouldEncodeBatchAsSeparateEventsInOneBuffer() throws Exception {
+        ProtocolCodecSessionEx session = new ProtocolCodecSessionEx();
+        IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+        ProtocolEncoder encoder = new SseEncoder(allocator);
+
+        MessageBatch<SseMessage> batch = new MessageBatch<>();
+        batch.add(new SseMessage(null, allocator.wrap(ByteBuffer.wrap("a".getBytes(UTF_8)))));
+        SseMessage second = new SseMessage("quote", allocator.wrap(ByteBuffer.wrap("b\nc".getBytes(UTF_8))));
+        second.setId("8");
+        batch.add(second);
+
+        encoder.encode(session, batch, session.getEncoderOutput());
+
+        IoBufferEx out = (IoBufferEx) session.getEncoderOutputQueue().poll();
+        assertEquals("data:a\n\nevent:quote\ndata:b\ndata:c\nid:8\n\n", out.getString(UTF_8.newDecoder()));
+        assertTrue(session.getEncoderOutputQueue().isEmpty());
+    }
+}
@@ -27,6 +27,10 @@ import static org.kaazing.gateway.resource.address.ssl.SslResourceAddress.WANT_C
 import static org.kaazing.gateway.transport.BridgeSession.LOCAL_ADDRESS;
 import static org.kaazing.gateway.transport.BridgeSession.NEXT_PROTOCOL_KEY;
 import static org.kaazing.gateway.transport.BridgeSession.REMOTE_ADDRESS;
+import static org.kaazing.gateway.util.InternalSystemProperty.HTTP2_ENABLED;
+import static org.kaazing.gateway.util.InternalSystemProperty.SSL_SESSION_CACHE_SIZE;
+import static org.kaazing.gateway.util.InternalSystemProperty.SSL_SESSION_TIMEOUT;
+import static org.kaazing.gateway.util.Utils.parseTimeInterval;
 
 import java.io.IOException;
 import java.net.URI;
@@ -37,8 +41,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
 import java.util.SortedSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.Resource;
 import javax.net.ssl.KeyManagerFactory;
@@ -100,12 +106,16 @@ public class SslAcceptor extends AbstractBridgeAcceptor<SslSession, NextProtocol
 
     private static final String ENCRYPTION_DISABLED_FILTER = SslProtocol.NAME + "#encryption_disabled";
 
+    // ALPN protocols in order of server preference, when HTTP/2 is enabled
+    private static final String[] HTTP2_APPLICATION_PROTOCOLS = { "h2", "http/1.1" };
+
     private SSLContext sslContext;
     private SslContextFactory sslContextFactory;
     private SslCertificateSelectionFilter certificateSelection;
     private ResourceAddressFactory resourceAddressFactory;
     private BridgeServiceFactory bridgeServiceFactory;
     private VirtualHostKeySelector vhostKeySelector;
+    private Properties configuration = new Properties();
 
     // TODO: SslBindings like HttpBindings
     
@@ -123,6 +133,11 @@ public class SslAcceptor extends AbstractBridgeAcceptor<SslSession, NextProtocol
         this.resourceAddressFactory = factory;
     }
 
+    @Resource(name = "configuration")
+    public void setConfiguration(Properties configuration) {
+        this.configuration = configuration;
+    }
+
     @Resource(name = "securityContext")
     public void setSecurityContext(SecurityContext securityContext) {
         vhostKeySelector = new VirtualHostKeySelector();
@@ -144,11 +159,6 @@ public class SslAcceptor extends AbstractBridgeAcceptor<SslSession, NextProtocol
             // various key selection criteria
             KeyManagerFactory kmf = KeyManagerFactory.getInstance("SslTransport", new SslProvider());
             sslContextFactory.setKeyManagerFactory(kmf);
-
-            // avoid caching SSLSession in shared SSLContextFactory instance
-            // Note: SSLSessionContext.setSessionCacheSize(0) means unlimited,
-            // so we use 1 instead
-            sslContextFactory.setServerSessionCacheSize(1);
         } catch (NoSuchAlgorithmException ne) {
             throw new RuntimeException(ne);
         }
@@ -163,6 +173,20 @@ public class SslAcceptor extends AbstractBridgeAcceptor<SslSession, NextProtocol
     protected void init() {
         super.init();
 
+        // by default avoid caching SSLSession in shared SSLContextFactory instance, which disables resumption by
+        // session id unless a larger cache size is configured
+        // Note: SSLSessionContext.setSessionCacheSize(0) means unlimited,
+        // so the default is 1 instead
+        int sessionCacheSize = SSL_SESSION_CACHE_SIZE.getIntProperty(configuration);
+        long sessionTimeout = parseTimeInterval(SSL_SESSION_TIMEOUT.getProperty(configuration), TimeUnit.SECONDS);
+        sslContextFactory.setServerSessionCacheSize(sessionCacheSize);
+        sslContextFactory.setServerSessionTimeout((int) Math.min(sessionTimeout, Integer.MAX_VALUE));
+
+        if (logger.isDebugEnabled()) {
+            logger.debug(format("SSL/TLS server session cache size %d, session timeout %d seconds", sessionCacheSize,
+                    sessionTimeout));
+        }
+
         try {
             sslContext = sslContextFactory.newInstance();
 
@@ -241,6 +265,11 @@ public class SslAcceptor extends AbstractBridgeAcceptor<SslSession, NextProtocol
             sslFilter.setEnabledCipherSuites(enabledCipherSuites);
             // Enable the configured SSL protocols like TLSv1 etc
             sslFilter.setEnabledProtocols(sslAddress.getOption(PROTOCOLS));
+            // Offer HTTP/2 by ALPN when https is accepting it (see HttpAcceptor)
+            if (HTTP2_ENABLED.getBooleanProperty(configuration) &&
+                    "http/1.1".equals(sslAddress.getOption(NEXT_PROTOCOL))) {
+                sslFilter.setApplicationProtocols(HTTP2_APPLICATION_PROTOCOLS);
+            }
 
             IoSessionEx sessionEx = (IoSessionEx) session;
             IoBufferAllocatorEx<?> allocator = sessionEx.getBufferAllocator();
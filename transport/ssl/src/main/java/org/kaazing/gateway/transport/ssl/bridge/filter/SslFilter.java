@@ -166,6 +166,8 @@ public class SslFilter extends IoFilterAdapter {
 
     private String[] enabledProtocols;
 
+    private String[] applicationProtocols;
+
     /**
      * Creates a new SSL filter using the specified {@link SSLContext}.
      * The handshake will start immediately.
@@ -352,6 +354,27 @@ public class SslFilter extends IoFilterAdapter {
         this.enabledProtocols = protocols;
     }
 
+    /**
+     * Returns the application protocols, in order of preference, offered by TLS
+     * application-layer protocol negotiation (ALPN) when {@link SSLEngine} is initialized.
+     *
+     * @return <tt>null</tt> means 'no ALPN.'
+     */
+    public String[] getApplicationProtocols() {
+        return applicationProtocols;
+    }
+
+    /**
+     * Sets the application protocols, in order of preference, offered by TLS
+     * application-layer protocol negotiation (ALPN) when {@link SSLEngine} is initialized.
+     * Ignored on JDKs without ALPN support.
+     *
+     * @param protocols <tt>null</tt> means 'no ALPN.'
+     */
+    public void setApplicationProtocols(String[] protocols) {
+        this.applicationProtocols = protocols;
+    }
+
     @Override
     public void onPreAdd(IoFilterChain parent, String name,
             NextFilter nextFilter) throws SSLException {
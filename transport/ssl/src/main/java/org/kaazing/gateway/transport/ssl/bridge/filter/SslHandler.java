@@ -15,6 +15,7 @@
  */
 package org.kaazing.gateway.transport.ssl.bridge.filter;
 
+import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -30,6 +31,7 @@ import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLEngineResult;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSession;
 
 import org.apache.mina.core.buffer.IoBuffer;
@@ -42,10 +44,13 @@ import org.apache.mina.core.write.WriteRequest;
 import org.apache.mina.util.CircularQueue;
 import org.slf4j.Logger;
 
+import org.kaazing.gateway.transport.ssl.SslProtocol;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
 import org.kaazing.mina.core.buffer.IoBufferEx;
 import org.kaazing.mina.core.future.DefaultWriteFutureEx;
 import org.kaazing.mina.core.future.WriteFutureEx;
+import org.kaazing.mina.core.metrics.TransportLayerMetrics;
+import org.kaazing.mina.core.metrics.TransportMetrics;
 import org.kaazing.mina.core.session.IoSessionEx;
 import org.kaazing.mina.core.write.DefaultWriteRequestEx;
 
@@ -61,6 +66,9 @@ import org.kaazing.mina.core.write.DefaultWriteRequestEx;
  */
 class SslHandler {
 
+    // SSLParameters.setApplicationProtocols(String[]) is only present on JDKs with ALPN support (8u252+, 9+)
+    private static final Method SET_APPLICATION_PROTOCOLS = findSetApplicationProtocols();
+
     private final SslFilter parent;
     private final SSLContext sslContext;
     private final IoSessionEx session;
@@ -97,6 +105,11 @@ class SslHandler {
     private boolean writingEncryptedData;
     private final IoBufferAllocatorEx<?> allocator;
 
+    // handshake metrics are only recorded on the accept side, to size the server session cache
+    private final TransportLayerMetrics metrics;
+    private long handshakeStartNanos;
+    private long handshakeStartMillis;
+
     /**
      * Constuctor.
      *
@@ -111,6 +124,8 @@ class SslHandler {
         this.logger = logger;
         this.allocator = session.getBufferAllocator();
         this.emptyBuffer = allocator.wrap(allocator.allocate(0));
+        this.metrics = parent.isUseClientMode() ? TransportLayerMetrics.NONE
+                : TransportMetrics.getInstance().layer(SslProtocol.NAME);
         init();
     }
 
@@ -208,6 +223,11 @@ class SslHandler {
         }
         sslEngine.setEnabledProtocols(protocols);
 
+        String[] applicationProtocols = parent.getApplicationProtocols();
+        if (applicationProtocols != null && applicationProtocols.length > 0) {
+            setApplicationProtocols(applicationProtocols);
+        }
+
         // TODO : we may not need to call this method...
         sslEngine.beginHandshake();
         
@@ -384,6 +404,10 @@ class SslHandler {
 
         inNetBuffer.put(buf);
         if (!handshakeComplete) {
+            if (handshakeStartNanos == 0L && metrics.isEnabled()) {
+                handshakeStartNanos = System.nanoTime();
+                handshakeStartMillis = System.currentTimeMillis();
+            }
             handshake(nextFilter);
         }
 
@@ -552,6 +576,10 @@ class SslHandler {
                             SslFilter.SSL_SESSION, sslEngine.getSession());
                     handshakeComplete = true;
 
+                    if (handshakeStartNanos != 0L) {
+                        recordHandshake();
+                    }
+
                     if (logger.isDebugEnabled()) {
                         SSLSession sslSession = sslEngine.getSession();
                         logger.debug(String.format("SSL session ID %s on transport session #%d %s: cipher %s, app buffer size %d, packet buffer size %d", 
@@ -779,6 +807,15 @@ class SslHandler {
         return res;
     }
 
+    private void recordHandshake() {
+        long nanos = System.nanoTime() - handshakeStartNanos;
+        // a resumed session keeps the creation time of the session it resumes, whether it came
+        // from the server session cache or from a session ticket
+        boolean resumed = sslEngine.getSession().getCreationTime() < handshakeStartMillis;
+        metrics.handshake(nanos, resumed);
+        handshakeStartNanos = 0L;
+    }
+
     /**
      * Do all the outstanding handshake tasks in the current Thread.
      */
@@ -834,6 +871,40 @@ class SslHandler {
         return protocolList.toArray(new String[protocolList.size()]);
     }
 
+    private void setApplicationProtocols(String[] applicationProtocols) {
+        if (SET_APPLICATION_PROTOCOLS == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug(String.format("ALPN is not supported by this JDK, not offering %s",
+                        Arrays.asList(applicationProtocols)));
+            }
+            return;
+        }
+
+        // the server selects the first of these protocols that the client also offers
+        SSLParameters parameters = sslEngine.getSSLParameters();
+        try {
+            SET_APPLICATION_PROTOCOLS.invoke(parameters, (Object) applicationProtocols);
+        }
+        catch (ReflectiveOperationException e) {
+            logger.warn(String.format("Unable to set ALPN protocols %s: %s", Arrays.asList(applicationProtocols), e));
+            return;
+        }
+        sslEngine.setSSLParameters(parameters);
+
+        if (logger.isTraceEnabled()) {
+            logger.trace(String.format("ALPN protocols are: %s", Arrays.asList(applicationProtocols)));
+        }
+    }
+
+    private static Method findSetApplicationProtocols() {
+        try {
+            return SSLParameters.class.getMethod("setApplicationProtocols", String[].class);
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
     private boolean isSslv3Enabled(String[] protocols) {
         for(String protocol : protocols) {
             if (protocol.equals("SSLv3")) {
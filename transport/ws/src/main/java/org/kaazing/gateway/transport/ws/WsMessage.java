@@ -31,6 +31,8 @@ public abstract class WsMessage extends Message {
 
     private IoBufferEx buf;
 
+    private int rsv;
+
     public WsMessage() {
         this(true);
     }
@@ -51,6 +53,21 @@ public abstract class WsMessage extends Message {
         return fin;
     }
 
+    /**
+     * @return the RSV1, RSV2 and RSV3 bits of the frame carrying this message, as a value from 0 to 7
+     *         (RSV1 being the most significant bit), as used by negotiated extensions such as permessage-deflate
+     */
+    public int getRsv() {
+        return rsv;
+    }
+
+    public void setRsv(int rsv) {
+        if ((rsv & ~0x07) != 0) {
+            throw new IllegalArgumentException("Invalid RSV bits: " + rsv);
+        }
+        this.rsv = rsv;
+    }
+
     @Override
     public int hashCode() {
         return buf.hashCode();
@@ -63,7 +80,7 @@ public abstract class WsMessage extends Message {
         }
 
         WsMessage that = (WsMessage) obj;
-        return (that.getKind() == this.getKind() && that.fin == this.fin &&
+        return (that.getKind() == this.getKind() && that.fin == this.fin && that.rsv == this.rsv &&
                 Utils.sameOrEquals(this.buf == null ? null : this.buf.buf(),
                         that.buf == null ? null : that.buf.buf())); // IoBufferEx has no equals method
     }
@@ -0,0 +1,73 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.ws.bridge.extensions.deflate;
+
+import org.apache.mina.core.filterchain.IoFilter;
+import org.kaazing.gateway.transport.ws.extension.ExtensionHeader;
+import org.kaazing.gateway.transport.ws.extension.ExtensionHeaderBuilder;
+import org.kaazing.gateway.transport.ws.extension.ExtensionHelper;
+import org.kaazing.gateway.transport.ws.extension.ExtensionParameterBuilder;
+import org.kaazing.gateway.transport.ws.extension.WebSocketExtension;
+
+/**
+ * The permessage-deflate extension defined by RFC 7692. Text and binary messages are compressed with the DEFLATE
+ * algorithm and flagged with RSV1 on their first frame.
+ */
+public final class PerMessageDeflateExtension extends WebSocketExtension {
+    static final String EXTENSION_TOKEN = "permessage-deflate";
+
+    static final String SERVER_NO_CONTEXT_TAKEOVER = "server_no_context_takeover";
+    static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+    static final String SERVER_MAX_WINDOW_BITS = "server_max_window_bits";
+    static final String CLIENT_MAX_WINDOW_BITS = "client_max_window_bits";
+
+    static final int MIN_WINDOW_BITS = 8;
+    static final int MAX_WINDOW_BITS = 15;
+
+    private final ExtensionHeader extension;
+    private final boolean serverNoContextTakeover;
+    private final int maxMessageSize;
+
+    public PerMessageDeflateExtension(ExtensionHelper extensionHelper,
+                                      boolean serverNoContextTakeover,
+                                      boolean clientNoContextTakeover,
+                                      int maxMessageSize) {
+        super(extensionHelper);
+        this.serverNoContextTakeover = serverNoContextTakeover;
+        this.maxMessageSize = maxMessageSize;
+
+        // client_max_window_bits is not echoed, our inflater accepts any window size up to 2^15 bytes
+        ExtensionHeaderBuilder builder = new ExtensionHeaderBuilder(EXTENSION_TOKEN);
+        if (serverNoContextTakeover) {
+            builder.append(new ExtensionParameterBuilder(SERVER_NO_CONTEXT_TAKEOVER));
+        }
+        if (clientNoContextTakeover) {
+            builder.append(new ExtensionParameterBuilder(CLIENT_NO_CONTEXT_TAKEOVER));
+        }
+        this.extension = builder.done();
+    }
+
+    @Override
+    public ExtensionHeader getExtensionHeader() {
+        return extension;
+    }
+
+    @Override
+    public IoFilter getFilter() {
+        return new PerMessageDeflateFilter(serverNoContextTakeover, maxMessageSize);
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.ws.bridge.extensions.deflate;
+
+import static org.kaazing.gateway.resource.address.ws.WsResourceAddress.CODEC_REQUIRED;
+import static org.kaazing.gateway.resource.address.ws.WsResourceAddress.COMPRESSION_ENABLED;
+import static org.kaazing.gateway.resource.address.ws.WsResourceAddress.LIGHTWEIGHT;
+import static org.kaazing.gateway.resource.address.ws.WsResourceAddress.MAX_MESSAGE_SIZE;
+import static org.kaazing.gateway.transport.ws.bridge.extensions.deflate.PerMessageDeflateExtension.CLIENT_MAX_WINDOW_BITS;
+import static org.kaazing.gateway.transport.ws.bridge.extensions.deflate.PerMessageDeflateExtension.CLIENT_NO_CONTEXT_TAKEOVER;
+import static org.kaazing.gateway.transport.ws.bridge.extensions.deflate.PerMessageDeflateExtension.MAX_WINDOW_BITS;
+import static org.kaazing.gateway.transport.ws.bridge.extensions.deflate.PerMessageDeflateExtension.MIN_WINDOW_BITS;
+import static org.kaazing.gateway.transport.ws.bridge.extensions.deflate.PerMessageDeflateExtension.SERVER_MAX_WINDOW_BITS;
+import static org.kaazing.gateway.transport.ws.bridge.extensions.deflate.PerMessageDeflateExtension.SERVER_NO_CONTEXT_TAKEOVER;
+
+import java.net.ProtocolException;
+
+import org.kaazing.gateway.resource.address.ws.WsResourceAddress;
+import org.kaazing.gateway.transport.ws.extension.ExtensionHeader;
+import org.kaazing.gateway.transport.ws.extension.ExtensionHelper;
+import org.kaazing.gateway.transport.ws.extension.ExtensionParameter;
+import org.kaazing.gateway.transport.ws.extension.WebSocketExtension;
+import org.kaazing.gateway.transport.ws.extension.WebSocketExtensionFactorySpi;
+
+public final class PerMessageDeflateExtensionFactory extends WebSocketExtensionFactorySpi {
+
+    @Override
+    public String getExtensionName() {
+        return PerMessageDeflateExtension.EXTENSION_TOKEN;
+    }
+
+    @Override
+    public WebSocketExtension offer(ExtensionHelper extensionHelper, WsResourceAddress address) {
+        // connectors are not sending this extension in handshake request
+        return null;
+    }
+
+    @Override
+    public WebSocketExtension negotiate(ExtensionHeader requestedExtension, ExtensionHelper extensionHelper,
+            WsResourceAddress address) throws ProtocolException {
+
+        // Only native WebSocket sessions carry the RSV1 bit, emulated and wrapped sessions decline the offer
+        if (!address.getOption(COMPRESSION_ENABLED) || !address.getOption(CODEC_REQUIRED) || address.getOption(LIGHTWEIGHT)) {
+            return null;
+        }
+
+        boolean serverNoContextTakeover = false;
+        boolean clientNoContextTakeover = false;
+
+        // Any offer we cannot honor is declined (RFC 7692 section 5), the client may have sent a fallback offer
+        for (ExtensionParameter parameter : requestedExtension.getParameters()) {
+            String name = parameter.getName();
+            String value = unquote(parameter.getValue());
+            switch (name) {
+            case SERVER_NO_CONTEXT_TAKEOVER:
+                if (value != null) {
+                    return null;
+                }
+                serverNoContextTakeover = true;
+                break;
+            case CLIENT_NO_CONTEXT_TAKEOVER:
+                if (value != null) {
+                    return null;
+                }
+                clientNoContextTakeover = true;
+                break;
+            case SERVER_MAX_WINDOW_BITS:
+                // java.util.zip.Deflater always compresses with the maximum (32K) LZ77 window
+                if (parseWindowBits(value) != MAX_WINDOW_BITS) {
+                    return null;
+                }
+                break;
+            case CLIENT_MAX_WINDOW_BITS:
+                if (value != null && parseWindowBits(value) == -1) {
+                    return null;
+                }
+                break;
+            default:
+                return null;
+            }
+        }
+
+        return new PerMessageDeflateExtension(extensionHelper, serverNoContextTakeover, clientNoContextTakeover,
+                address.getOption(MAX_MESSAGE_SIZE));
+    }
+
+    private static int parseWindowBits(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            int windowBits = Integer.parseInt(value);
+            return (windowBits >= MIN_WINDOW_BITS && windowBits <= MAX_WINDOW_BITS) ? windowBits : -1;
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String unquote(String value) {
+        if (value != null && value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,318 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.ws.bridge.extensions.deflate;
+
+import static org.kaazing.gateway.transport.ws.util.WsUtils.NEGOTIATED_RSV_BITS_KEY;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.mina.core.filterchain.IoFilterChain;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.core.write.WriteRequest;
+import org.kaazing.gateway.transport.ws.WsBinaryMessage;
+import org.kaazing.gateway.transport.ws.WsCloseMessage;
+import org.kaazing.gateway.transport.ws.WsContinuationMessage;
+import org.kaazing.gateway.transport.ws.WsFilterAdapter;
+import org.kaazing.gateway.transport.ws.WsMessage;
+import org.kaazing.gateway.transport.ws.WsMessage.Kind;
+import org.kaazing.gateway.transport.ws.WsTextMessage;
+import org.kaazing.gateway.transport.ws.bridge.filter.WsBuffer;
+import org.kaazing.gateway.transport.ws.bridge.filter.WsBuffer.WsSharedBuffer;
+import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+import org.kaazing.mina.core.session.IoSessionEx;
+import org.kaazing.mina.core.write.DefaultWriteRequestEx;
+
+/**
+ * This filter is used when the permessage-deflate extension is active. It inflates received messages flagged with RSV1
+ * and deflates text and binary messages being written.
+ * <p>
+ * Messages with an initialized encoding cache (broadcast to many sessions) are compressed only once per I/O thread,
+ * using a fresh compression context, and the resulting message is stored in the cache of the original message so that
+ * its frame encoding is cached too. The server is always permitted to reset its own compression context (RFC 7692
+ * section 7.1.1.1), so this is compatible with any negotiated context takeover parameters, but the session deflater
+ * must then be reset before its next message, since its history no longer matches the client's LZ77 window.
+ */
+class PerMessageDeflateFilter extends WsFilterAdapter {
+    static final int RSV1 = 0x04;
+
+    private static final String CACHE_KEY = PerMessageDeflateExtension.EXTENSION_TOKEN;
+
+    // RFC 7692 section 7.2.1: the trailing empty stored block produced by a sync flush is removed from each message
+    private static final byte[] TAIL = { (byte)0x00, (byte)0x00, (byte)0xff, (byte)0xff };
+
+    private static final ThreadLocal<Deflater> SHARED_DEFLATER = new ThreadLocal<Deflater>() {
+        @Override
+        protected Deflater initialValue() {
+            return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+    };
+
+    private final boolean serverNoContextTakeover;
+    private final int maxMessageSize;
+
+    private Deflater deflater;
+    private Inflater inflater;
+    private boolean deflating;
+    private boolean resetDeflater;
+    private boolean inflating;
+    private long inflatedMessageSize;
+
+    PerMessageDeflateFilter(boolean serverNoContextTakeover, int maxMessageSize) {
+        this.serverNoContextTakeover = serverNoContextTakeover;
+        this.maxMessageSize = maxMessageSize;
+    }
+
+    @Override
+    public void onPreAdd(IoFilterChain parent, String name, NextFilter nextFilter) throws Exception {
+        IoSession session = parent.getSession();
+        NEGOTIATED_RSV_BITS_KEY.set(session, NEGOTIATED_RSV_BITS_KEY.get(session) | RSV1);
+    }
+
+    @Override
+    public void onPostRemove(IoFilterChain parent, String name, NextFilter nextFilter) throws Exception {
+        IoSession session = parent.getSession();
+        NEGOTIATED_RSV_BITS_KEY.set(session, NEGOTIATED_RSV_BITS_KEY.get(session) & ~RSV1);
+        dispose();
+    }
+
+    @Override
+    public void sessionClosed(NextFilter nextFilter, IoSession session) throws Exception {
+        dispose();
+        super.sessionClosed(nextFilter, session);
+    }
+
+    @Override
+    protected Object doFilterWriteWsText(NextFilter nextFilter, IoSession session, WriteRequest writeRequest, WsTextMessage wsText)
+            throws Exception {
+        return deflateMessage((IoSessionEx) session, wsText);
+    }
+
+    @Override
+    protected Object doFilterWriteWsBinary(NextFilter nextFilter, IoSession session, WriteRequest writeRequest,
+            WsBinaryMessage wsBinary) throws Exception {
+        return deflateMessage((IoSessionEx) session, wsBinary);
+    }
+
+    @Override
+    protected Object doFilterWriteWsCont(NextFilter nextFilter, IoSession session, WriteRequest writeRequest,
+            WsContinuationMessage wsCont) throws Exception {
+        if (!deflating) {
+            return wsCont;
+        }
+        IoBufferAllocatorEx<?> allocator = ((IoSessionEx) session).getBufferAllocator();
+        byte[] compressed = deflate(deflater, wsCont.getBytes(), wsCont.isFin());
+        deflating = !wsCont.isFin();
+        return new WsContinuationMessage(allocator.wrap(ByteBuffer.wrap(compressed)), wsCont.isFin());
+    }
+
+    @Override
+    protected void wsTextReceived(NextFilter nextFilter, IoSession session, WsTextMessage wsText) throws Exception {
+        if ((wsText.getRsv() & RSV1) == 0) {
+            super.wsTextReceived(nextFilter, session, wsText);
+            return;
+        }
+        IoBufferEx inflated = inflateMessage(nextFilter, (IoSessionEx) session, wsText, true);
+        if (inflated != null) {
+            super.wsTextReceived(nextFilter, session, new WsTextMessage(inflated, wsText.isFin()));
+        }
+    }
+
+    @Override
+    protected void wsBinaryReceived(NextFilter nextFilter, IoSession session, WsBinaryMessage wsBinary) throws Exception {
+        if ((wsBinary.getRsv() & RSV1) == 0) {
+            super.wsBinaryReceived(nextFilter, session, wsBinary);
+            return;
+        }
+        IoBufferEx inflated = inflateMessage(nextFilter, (IoSessionEx) session, wsBinary, true);
+        if (inflated != null) {
+            super.wsBinaryReceived(nextFilter, session, new WsBinaryMessage(inflated, wsBinary.isFin()));
+        }
+    }
+
+    @Override
+    protected void wsContinuationReceived(NextFilter nextFilter, IoSession session, WsContinuationMessage wsCont)
+            throws Exception {
+        // RSV1 is only permitted on the first frame of a compressed message
+        if ((wsCont.getRsv() & RSV1) != 0) {
+            protocolError(nextFilter, session, WsCloseMessage.PROTOCOL_ERROR);
+            return;
+        }
+        if (!inflating) {
+            super.wsContinuationReceived(nextFilter, session, wsCont);
+            return;
+        }
+        IoBufferEx inflated = inflateMessage(nextFilter, (IoSessionEx) session, wsCont, false);
+        if (inflated != null) {
+            super.wsContinuationReceived(nextFilter, session, new WsContinuationMessage(inflated, wsCont.isFin()));
+        }
+    }
+
+    private WsMessage deflateMessage(IoSessionEx session, WsMessage message) {
+        if (message.isFin() && message.hasCache()) {
+            resetDeflater = true;
+            return sharedDeflateMessage(message);
+        }
+
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+        else if (resetDeflater || serverNoContextTakeover) {
+            deflater.reset();
+        }
+        resetDeflater = false;
+
+        IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+        byte[] compressed = deflate(deflater, message.getBytes(), message.isFin());
+        deflating = !message.isFin();
+        return newMessage(message.getKind(), allocator.wrap(ByteBuffer.wrap(compressed)), message.isFin());
+    }
+
+    private static WsMessage sharedDeflateMessage(WsMessage message) {
+        ConcurrentMap<String, IoBufferEx> cache = message.getCache();
+        IoBufferEx cachedBuffer = cache.get(CACHE_KEY);
+        if (cachedBuffer == null) {
+            Deflater sharedDeflater = SHARED_DEFLATER.get();
+            sharedDeflater.reset();
+            byte[] compressed = deflate(sharedDeflater, message.getBytes(), true);
+
+            WsSharedBuffer newCachedBuffer = new WsSharedBuffer(ByteBuffer.wrap(compressed));
+            WsMessage deflated = newMessage(message.getKind(), newCachedBuffer, true);
+            deflated.initCache();
+            newCachedBuffer.setMessage(deflated);
+
+            cachedBuffer = cache.putIfAbsent(CACHE_KEY, newCachedBuffer);
+            if (cachedBuffer == null) {
+                cachedBuffer = newCachedBuffer;
+            }
+        }
+        return ((WsBuffer) cachedBuffer).getMessage();
+    }
+
+    private static WsMessage newMessage(Kind kind, IoBufferEx payload, boolean fin) {
+        WsMessage message;
+        switch (kind) {
+        case TEXT:
+            message = new WsTextMessage(payload, fin);
+            break;
+        case BINARY:
+            message = new WsBinaryMessage(payload, fin);
+            break;
+        default:
+            throw new IllegalStateException("Unexpected message kind: " + kind);
+        }
+        message.setRsv(RSV1);
+        return message;
+    }
+
+    private static byte[] deflate(Deflater deflater, IoBufferEx payload, boolean fin) {
+        ByteBuffer buf = payload.buf();
+        int remaining = buf.remaining();
+        if (buf.hasArray()) {
+            deflater.setInput(buf.array(), buf.arrayOffset() + buf.position(), remaining);
+        }
+        else {
+            byte[] input = new byte[remaining];
+            buf.duplicate().get(input);
+            deflater.setInput(input);
+        }
+
+        byte[] output = new byte[Math.max(64, remaining + (remaining >> 4) + TAIL.length + 6)];
+        int length = 0;
+        int deflated;
+        do {
+            if (length == output.length) {
+                output = Arrays.copyOf(output, output.length << 1);
+            }
+            deflated = deflater.deflate(output, length, output.length - length, Deflater.SYNC_FLUSH);
+            length += deflated;
+        } while (length == output.length);
+
+        if (fin && length >= TAIL.length) {
+            length -= TAIL.length;
+        }
+        return (length == output.length) ? output : Arrays.copyOf(output, length);
+    }
+
+    private IoBufferEx inflateMessage(NextFilter nextFilter, IoSessionEx session, WsMessage message, boolean first)
+            throws Exception {
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        if (first) {
+            inflatedMessageSize = 0;
+        }
+        inflating = !message.isFin();
+
+        ByteBuffer buf = message.getBytes().buf();
+        int remaining = buf.remaining();
+        byte[] input = new byte[remaining + (message.isFin() ? TAIL.length : 0)];
+        buf.duplicate().get(input, 0, remaining);
+        if (message.isFin()) {
+            System.arraycopy(TAIL, 0, input, remaining, TAIL.length);
+        }
+        inflater.setInput(input);
+
+        byte[] output = new byte[Math.max(64, remaining << 2)];
+        int length = 0;
+        try {
+            while (true) {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length << 1);
+                }
+                int inflated = inflater.inflate(output, length, output.length - length);
+                length += inflated;
+                if (maxMessageSize > 0 && inflatedMessageSize + length > maxMessageSize) {
+                    protocolError(nextFilter, session, WsCloseMessage.MESSAGE_TOO_LONG_ERROR);
+                    return null;
+                }
+                if (inflated == 0 && (inflater.needsInput() || inflater.finished() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+        }
+        catch (DataFormatException e) {
+            protocolError(nextFilter, session, WsCloseMessage.PROTOCOL_ERROR);
+            return null;
+        }
+        inflatedMessageSize += length;
+
+        return session.getBufferAllocator().wrap(ByteBuffer.wrap(output, 0, length));
+    }
+
+    private void protocolError(NextFilter nextFilter, IoSession session, WsCloseMessage closeMessage) {
+        inflating = false;
+        nextFilter.filterWrite(session, new DefaultWriteRequestEx(closeMessage));
+        session.close(true);
+    }
+
+    private void dispose() {
+        if (deflater != null) {
+            deflater.end();
+            deflater = null;
+        }
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+    }
+
+}
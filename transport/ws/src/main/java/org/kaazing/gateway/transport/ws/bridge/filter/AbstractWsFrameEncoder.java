@@ -18,10 +18,13 @@ package org.kaazing.gateway.transport.ws.bridge.filter;
 import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_SHARED;
 import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_ZERO_COPY;
 
+import java.util.List;
+
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.filter.codec.ProtocolEncoderAdapter;
 import org.apache.mina.filter.codec.ProtocolEncoderOutput;
 import org.kaazing.gateway.transport.bridge.CachingMessageEncoder;
+import org.kaazing.gateway.transport.bridge.MessageBatch;
 import org.kaazing.gateway.transport.bridge.MessageEncoder;
 import org.kaazing.gateway.transport.ws.WsCloseMessage;
 import org.kaazing.gateway.transport.ws.WsMessage;
@@ -52,13 +55,24 @@ public abstract class AbstractWsFrameEncoder extends ProtocolEncoderAdapter {
     public void encode(IoSession session, Object message,
                        ProtocolEncoderOutput out) throws Exception {
 
-        WsMessage wsMessage = (WsMessage) message;
+        if (message instanceof MessageBatch) {
+            // encode each frame of the batch and write them out as a single buffer
+            List<?> wsMessages = ((MessageBatch<?>) message).getMessages();
+            IoBufferEx[] bufs = new IoBufferEx[wsMessages.size()];
+            for (int i = 0; i < bufs.length; i++) {
+                bufs[i] = encode((WsMessage) wsMessages.get(i));
+            }
+            out.write(MessageBatch.join(allocator, bufs, FLAG_ZERO_COPY));
+        } else {
+            out.write(encode((WsMessage) message));
+        }
+    }
+
+    private IoBufferEx encode(WsMessage wsMessage) {
         if (wsMessage.hasCache()) {
-            IoBufferEx buf = cachingEncoder.encode(encoder, wsMessage, allocator, FLAG_SHARED | FLAG_ZERO_COPY);
-            out.write(buf);
+            return cachingEncoder.encode(encoder, wsMessage, allocator, FLAG_SHARED | FLAG_ZERO_COPY);
         } else {
-            IoBufferEx buf = doEncode(allocator, FLAG_ZERO_COPY, wsMessage);
-            out.write(buf);
+            return doEncode(allocator, FLAG_ZERO_COPY, wsMessage);
         }
     }
 
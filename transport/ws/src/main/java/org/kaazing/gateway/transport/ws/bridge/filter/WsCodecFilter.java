@@ -15,11 +15,14 @@
  */
 package org.kaazing.gateway.transport.ws.bridge.filter;
 
+import static org.kaazing.gateway.transport.bridge.CachingMessageEncoder.IO_MESSAGE_ENCODER;
+
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.filter.codec.ProtocolCodecFactory;
 import org.apache.mina.filter.codec.ProtocolDecoder;
 import org.apache.mina.filter.codec.ProtocolEncoder;
 import org.kaazing.gateway.transport.BridgeSession;
+import org.kaazing.mina.core.buffer.GatheringBuffer;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
 import org.kaazing.mina.core.session.IoSessionEx;
 import org.kaazing.mina.filter.codec.ProtocolCodecFilter;
@@ -48,12 +51,16 @@ public class WsCodecFilter extends ProtocolCodecFilter {
             IoSessionEx sessionEx = (IoSessionEx) session;
             IoBufferAllocatorEx<?> allocator = sessionEx.getBufferAllocator();
 
+            // large frames can be written without copying their payload when the transport
+            // supports gathering writes (TCP, but not SSL for example)
+            boolean gatheringWrites = session.getTransportMetadata().getEnvelopeTypes().contains(GatheringBuffer.class);
+
             if (session instanceof BridgeSession) {
                 BridgeSession bridgeSession = (BridgeSession)session;
-                return new WsFrameEncoder(bridgeSession.getMessageEncoder(), allocator, maskSends);
+                return new WsFrameEncoder(bridgeSession.getMessageEncoder(), allocator, maskSends, gatheringWrites);
             }
 
-            return new WsFrameEncoder(allocator, maskSends);
+            return new WsFrameEncoder(IO_MESSAGE_ENCODER, allocator, maskSends, gatheringWrites);
         }
 
         @Override
@@ -18,6 +18,7 @@ package org.kaazing.gateway.transport.ws.bridge.filter;
 import static org.kaazing.gateway.transport.ws.WsMessage.Kind.BINARY;
 import static org.kaazing.gateway.transport.ws.WsMessage.Kind.CONTINUATION;
 import static org.kaazing.gateway.transport.ws.WsMessage.Kind.TEXT;
+import static org.kaazing.gateway.transport.ws.util.WsUtils.NEGOTIATED_RSV_BITS_KEY;
 
 import java.nio.ByteBuffer;
 
@@ -27,6 +28,7 @@ import org.apache.mina.filter.codec.ProtocolDecoderOutput;
 import org.kaazing.gateway.transport.ws.WsBinaryMessage;
 import org.kaazing.gateway.transport.ws.WsCloseMessage;
 import org.kaazing.gateway.transport.ws.WsContinuationMessage;
+import org.kaazing.gateway.transport.ws.WsMessage;
 import org.kaazing.gateway.transport.ws.WsMessage.Kind;
 import org.kaazing.gateway.transport.ws.WsPingMessage;
 import org.kaazing.gateway.transport.ws.WsPongMessage;
@@ -46,7 +48,8 @@ public class WsFrameDecoder extends CumulativeProtocolDecoderEx {
     private final boolean maskingExpected;
 
     WsFrameDecoder(IoBufferAllocatorEx<?> allocator, int maxMessageSize, boolean maskingExpected) {
-        super(allocator);
+        // large frames spanning many reads are gathered until complete rather than copied on each read
+        super(allocator, Cumulation.COMPOSITE);
         this.maxMessageSize = maxMessageSize;
         this.maskingExpected = maskingExpected;
     }
@@ -57,10 +60,10 @@ public class WsFrameDecoder extends CumulativeProtocolDecoderEx {
             return false;
         }
 
+        int start = in.position();
         in.mark();
 
         byte opcodeByte = in.get();
-        validateRSV(opcodeByte);
 
         int i = (opcodeByte & 0x0f);
         Opcode opcode;
@@ -72,6 +75,9 @@ public class WsFrameDecoder extends CumulativeProtocolDecoderEx {
             throw new ProtocolDecoderException("Unrecognized WebSocket frame opcode: " + i + " on session " + session.getLocalAddress(), e);
         }
 
+        int rsv = (opcodeByte & 0x70) >> 4;
+        validateRSV(session, rsv, opcode);
+
         // FIN bit validation for opcode
         boolean fin = (opcodeByte & 0x80) != 0;
         validateOpcodeUsingFin(opcode, fin);
@@ -118,6 +124,7 @@ public class WsFrameDecoder extends CumulativeProtocolDecoderEx {
         // actual payload length plus additional 4 bytes if masked
         long totalRemainingBytesNeeded = (masked ? 4 : 0) + frameSize;
         if (in.remaining() < totalRemainingBytesNeeded) {
+            requireRemaining(session, in.position() - start + totalRemainingBytesNeeded);
             in.reset();
             return false;
         }
@@ -131,17 +138,17 @@ public class WsFrameDecoder extends CumulativeProtocolDecoderEx {
 
         switch (opcode) {
             case CONTINUATION:
-                binaryTextDecoder.decodeWsMessage(buf, CONTINUATION, fin, out);
+                binaryTextDecoder.decodeWsMessage(buf, CONTINUATION, fin, rsv, out);
                 prevDataFin = fin;
                 currentMessageSize = currentMessageSizeCandidate;
                 break;
             case BINARY:
-                binaryTextDecoder.decodeWsMessage(buf, BINARY, fin, out);
+                binaryTextDecoder.decodeWsMessage(buf, BINARY, fin, rsv, out);
                 prevDataFin = fin;
                 currentMessageSize = currentMessageSizeCandidate;
                 break;
             case TEXT:
-                binaryTextDecoder.decodeWsMessage(buf, TEXT, fin, out);
+                binaryTextDecoder.decodeWsMessage(buf, TEXT, fin, rsv, out);
                 prevDataFin = fin;
                 currentMessageSize = currentMessageSizeCandidate;
                 break;
@@ -196,17 +203,28 @@ public class WsFrameDecoder extends CumulativeProtocolDecoderEx {
         }
     }
 
-    // Validates RSV bits
-    private void validateRSV(byte opcodeByte) throws ProtocolDecoderException {
-        if ((opcodeByte & 0x70) != 0) {
-            // We don't support negotiated extensions that deal with RSV bits
-            if ((opcodeByte & 0x40) != 0) {
+    // Validates RSV bits against those reserved by negotiated extensions (only data frames may carry them)
+    private void validateRSV(IoSession session, int rsv, Opcode opcode) throws ProtocolDecoderException {
+        if (rsv != 0) {
+            int negotiated;
+            switch (opcode) {
+                case CONTINUATION:
+                case TEXT:
+                case BINARY:
+                    negotiated = NEGOTIATED_RSV_BITS_KEY.get(session);
+                    break;
+                default:
+                    negotiated = 0;
+                    break;
+            }
+            int unexpected = rsv & ~negotiated;
+            if ((unexpected & 0x04) != 0) {
                 throw new ProtocolDecoderException("RSV1 is set");
             }
-            if ((opcodeByte & 0x20) != 0) {
+            if ((unexpected & 0x02) != 0) {
                 throw new ProtocolDecoderException("RSV2 is set");
             }
-            if ((opcodeByte & 0x10) != 0) {
+            if ((unexpected & 0x01) != 0) {
                 throw new ProtocolDecoderException("RSV3 is set");
             }
         }
@@ -216,47 +234,7 @@ public class WsFrameDecoder extends CumulativeProtocolDecoderEx {
      * Unmask a buffer in place
      */
     protected static void unmask(ByteBuffer buf, int mask) {
-        if (!buf.hasRemaining()) {
-            return;
-        }
-
-        byte b;
-        int start = buf.position();
-        int remainder = buf.remaining() % 4;
-        int remaining = buf.remaining() - remainder;
-        int end = remaining + buf.position();
-
-        // xor a 32bit word at a time as long as possible
-        while (buf.position() < end) {
-            int plaintext = buf.getInt(buf.position()) ^ mask;
-            buf.putInt(plaintext);
-        }
-
-        // xor the remaining 3, 2, or 1 bytes
-        switch (remainder) {
-        case 3:
-            b = (byte) (buf.get(buf.position()) ^ ((mask >> 24) & 0xff));
-            buf.put(b);
-            b = (byte) (buf.get(buf.position()) ^ ((mask >> 16) & 0xff));
-            buf.put(b);
-            b = (byte) (buf.get(buf.position()) ^ ((mask >> 8) & 0xff));
-            buf.put(b);
-            break;
-        case 2:
-            b = (byte) (buf.get(buf.position()) ^ ((mask >> 24) & 0xff));
-            buf.put(b);
-            b = (byte) (buf.get(buf.position()) ^ ((mask >> 16) & 0xff));
-            buf.put(b);
-            break;
-        case 1:
-            b = (byte) (buf.get(buf.position()) ^ (mask >> 24));
-            buf.put(b);
-            break;
-        case 0:
-        default:
-                break;
-        }
-        buf.position(start);
+        WsFrameUtils.xor(buf, mask);
     }
 
     private void validateMessageSize(long messageSize) throws WSMessageTooLongException {
@@ -287,25 +265,30 @@ public class WsFrameDecoder extends CumulativeProtocolDecoderEx {
     }
 
     private interface BinaryTextMessageDecoder {
-        void decodeWsMessage(IoBufferEx payload, Kind messageKind, boolean fin, ProtocolDecoderOutput out);
+        void decodeWsMessage(IoBufferEx payload, Kind messageKind, boolean fin, int rsv, ProtocolDecoderOutput out);
     }
 
     private static final BinaryTextMessageDecoder DEFAULT_BINARY_TEXT_DECODER = new BinaryTextMessageDecoder() {
         @Override
-        public void decodeWsMessage(IoBufferEx payload, Kind messageKind, boolean fin, ProtocolDecoderOutput out) {
+        public void decodeWsMessage(IoBufferEx payload, Kind messageKind, boolean fin, int rsv, ProtocolDecoderOutput out) {
+            WsMessage message;
             switch(messageKind) {
             case CONTINUATION:
-                out.write(new WsContinuationMessage(payload, fin));
+                message = new WsContinuationMessage(payload, fin);
                 break;
             case BINARY:
-                out.write(new WsBinaryMessage(payload, fin));
+                message = new WsBinaryMessage(payload, fin);
                 break;
             case TEXT:
-                out.write(new WsTextMessage(payload, fin));
+                message = new WsTextMessage(payload, fin);
                 break;
             default:
-                assert false;
+                throw new IllegalStateException("Unexpected message kind: " + messageKind);
+            }
+            if (rsv != 0) {
+                message.setRsv(rsv);
             }
+            out.write(message);
         }
     };
 
@@ -16,18 +16,26 @@
 package org.kaazing.gateway.transport.ws.bridge.filter;
 
 import static org.kaazing.gateway.transport.bridge.CachingMessageEncoder.IO_MESSAGE_ENCODER;
+import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_ZERO_COPY;
 
 import java.security.SecureRandom;
 
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.filter.codec.ProtocolEncoderOutput;
 import org.kaazing.gateway.transport.bridge.CachingMessageEncoder;
 import org.kaazing.gateway.transport.ws.WsCloseMessage;
 import org.kaazing.gateway.transport.ws.WsMessage;
+import org.kaazing.mina.core.buffer.GatheringBuffer;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
 import org.kaazing.mina.core.buffer.IoBufferEx;
 
 public class WsFrameEncoder extends AbstractWsFrameEncoder {
-    
+
+    // below this payload size copying the payload after the frame header is cheaper than a gathering write
+    static final int GATHERING_WRITE_MINIMUM_PAYLOAD = 4096;
+
     private final boolean maskSends;
+    private final boolean gatheringWrites;
     private static SecureRandom prng;
     
     static {
@@ -43,8 +51,32 @@ public class WsFrameEncoder extends AbstractWsFrameEncoder {
     }
     
     public WsFrameEncoder(CachingMessageEncoder cachingEncoder, IoBufferAllocatorEx<?> allocator, boolean maskSends) {
+        this(cachingEncoder, allocator, maskSends, false);
+    }
+
+    /**
+     * @param gatheringWrites  true if the session accepts {@link GatheringBuffer} messages, in which case large
+     *                         unmasked frames are written as a header buffer followed by the uncopied payload
+     */
+    public WsFrameEncoder(CachingMessageEncoder cachingEncoder, IoBufferAllocatorEx<?> allocator, boolean maskSends,
+                          boolean gatheringWrites) {
         super(cachingEncoder, allocator);
-        this.maskSends = maskSends; 
+        this.maskSends = maskSends;
+        this.gatheringWrites = gatheringWrites && !maskSends;
+    }
+
+    @Override
+    public void encode(IoSession session, Object message, ProtocolEncoderOutput out) throws Exception {
+        if (gatheringWrites && message instanceof WsMessage) {
+            WsMessage wsMessage = (WsMessage) message;
+            // cached encodings are shared across sessions so must remain single buffers
+            if (!wsMessage.hasCache() &&
+                    WsFrameEncodingSupport.isGatheringCandidate(FLAG_ZERO_COPY, wsMessage, GATHERING_WRITE_MINIMUM_PAYLOAD)) {
+                out.write(WsFrameEncodingSupport.doEncodeGathering(allocator, FLAG_ZERO_COPY, wsMessage));
+                return;
+            }
+        }
+        super.encode(session, message, out);
     }
 
     @Override
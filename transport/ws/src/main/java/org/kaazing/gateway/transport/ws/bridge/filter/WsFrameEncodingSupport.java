@@ -24,6 +24,7 @@ import org.kaazing.gateway.transport.bridge.Message;
 import org.kaazing.gateway.transport.ws.WsCloseMessage;
 import org.kaazing.gateway.transport.ws.WsMessage;
 import org.kaazing.gateway.transport.ws.WsMessage.Kind;
+import org.kaazing.mina.core.buffer.GatheringBuffer;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
 import org.kaazing.mina.core.buffer.IoBufferEx;
 
@@ -161,6 +162,60 @@ public class WsFrameEncodingSupport {
 	}
 
 
+    /**
+     * Encode the header of a WebSocket message sent as a single unmasked frame, returning it together with the
+     * (uncopied) message payload so that both can be written out with a single gathering write.
+     */
+    public static GatheringBuffer doEncodeGathering(IoBufferAllocatorEx<?> allocator, int flags, WsMessage message) {
+
+        IoBufferEx ioBuf = message.getBytes();
+
+        boolean fin = message.isFin();
+
+        int remaining = ioBuf.remaining();
+
+        int offset = 2 + calculateLengthSize(remaining);
+        ByteBuffer b = allocator.allocate(offset, flags);
+
+        int start = b.position();
+
+        byte b1 = (byte) (fin ? 0x80 : 0x00);
+        byte b2 = lenBits(remaining);
+
+        b1 = doEncodeOpcode(b1, message);
+
+        b.put(b1).put(b2);
+
+        doEncodeLength(b, remaining);
+
+        b.limit(b.position());
+        b.position(start);
+
+        // payload positions are left untouched, the write sends duplicates
+        return new GatheringBuffer(allocator.wrap(b, flags), ioBuf);
+    }
+
+    /**
+     * Determines whether an unmasked message is better encoded with {@link #doEncodeGathering} than copied after
+     * the frame header: the payload must be at least the given size, and must not already have room for the
+     * header in front of it (in which case the header is written there without a copy).
+     */
+    public static boolean isGatheringCandidate(int flags, WsMessage message, int minimumPayloadSize) {
+        if (message.getKind() == Kind.CLOSE) {
+            return false;
+        }
+
+        IoBufferEx ioBuf = message.getBytes();
+        int remaining = ioBuf.remaining();
+        if (remaining < minimumPayloadSize) {
+            return false;
+        }
+
+        int offset = 2 + calculateLengthSize(remaining);
+        return ((flags & FLAG_ZERO_COPY) == 0) || (ioBuf.position() < offset);
+    }
+
+
     protected enum Opcode {
     	CONTINUATION(0),
     	TEXT(1),
@@ -222,7 +277,8 @@ public class WsFrameEncodingSupport {
 
 
     /**
-     * Encode a WebSocket opcode onto a byte that might have some high bits set.
+     * Encode a WebSocket opcode (and any RSV bits set by a negotiated extension) onto a byte that might have
+     * some high bits set.
      *
      * @param b
      * @param message
@@ -231,6 +287,8 @@ public class WsFrameEncodingSupport {
     private static byte doEncodeOpcode(byte b, WsMessage message) {
         Kind kind = message.getKind();
 
+        b |= message.getRsv() << 4;
+
         switch (kind) {
         case CONTINUATION:
             b |= Opcode.CONTINUATION.getCode();
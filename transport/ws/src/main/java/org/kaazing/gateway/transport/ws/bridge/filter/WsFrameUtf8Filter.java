@@ -15,6 +15,8 @@
  */
 package org.kaazing.gateway.transport.ws.bridge.filter;
 
+import static org.kaazing.gateway.util.Utf8Util.isASCII;
+
 import java.nio.ByteBuffer;
 
 import org.apache.mina.core.session.IoSession;
@@ -39,6 +41,10 @@ public class WsFrameUtf8Filter extends WsFilterAdapter {
     protected Object doFilterWriteWsBinary(NextFilter nextFilter, IoSession session, WriteRequest writeRequest, WsBinaryMessage wsBinary) throws Exception {
 	    IoBufferEx binaryEx = wsBinary.getBytes();
         ByteBuffer binary = binaryEx.buf();
+        if (isASCII(binary, binary.position(), binary.limit())) {
+            // ASCII bytes encode as themselves
+            return new WsTextMessage(binaryEx);
+        }
         ByteBuffer encoded = utf8.encode(binary);
         IoSessionEx sessionEx = (IoSessionEx) session;
         IoBufferAllocatorEx<?> allocator = sessionEx.getBufferAllocator();
@@ -50,6 +56,11 @@ public class WsFrameUtf8Filter extends WsFilterAdapter {
 	protected void wsTextReceived(NextFilter nextFilter, IoSession session, WsTextMessage wsText) throws Exception {
         IoBufferEx encodedEx = wsText.getBytes();
         ByteBuffer encoded = encodedEx.buf();
+        if (isASCII(encoded, encoded.position(), encoded.limit())) {
+            // ASCII bytes decode as themselves
+            super.wsBinaryReceived(nextFilter, session, new WsBinaryMessage(encodedEx));
+            return;
+        }
         ByteBuffer binary = utf8.decode(encoded);
         IoSessionEx sessionEx = (IoSessionEx) session;
         IoBufferAllocatorEx<?> allocator = sessionEx.getBufferAllocator();
@@ -15,6 +15,8 @@
  */
 package org.kaazing.gateway.transport.ws.bridge.filter;
 
+import static java.nio.ByteOrder.BIG_ENDIAN;
+
 import java.nio.ByteBuffer;
 
 /**
@@ -30,40 +32,52 @@ public class WsFrameUtils {
      * @param mask  the mask to apply
      */
     public static void xor(ByteBuffer src, ByteBuffer dst, int mask) {
-    	int remainder = src.remaining() % 4;
-    	int remaining = src.remaining() - remainder;
-    	int end = remaining + src.position();
+        int mask32 = (src.order() == BIG_ENDIAN) ? mask : Integer.reverseBytes(mask);
+        long mask64 = ((long) mask32 << 32) | (mask32 & 0xffffffffL);
+
+        // xor a 64bit word at a time as long as possible
+        while (src.remaining() >= 8) {
+            dst.putLong(src.getLong() ^ mask64);
+        }
+
+        // then a 32bit word, keeping the mask aligned for the remaining bytes
+        if (src.remaining() >= 4) {
+            dst.putInt(src.getInt() ^ mask32);
+        }
+
+        // xor the remaining 3, 2, or 1 bytes
+        for (int shift = 24; src.hasRemaining(); shift -= 8) {
+            dst.put((byte) (src.get() ^ (mask >> shift)));
+        }
+    }
+
+    /**
+     * Masks (or unmasks) the readable bytes of a buffer in place, leaving its position unchanged.
+     *
+     * @param buf   the buffer containing readable bytes to be masked
+     * @param mask  the mask to apply
+     */
+    public static void xor(ByteBuffer buf, int mask) {
+        int mask32 = (buf.order() == BIG_ENDIAN) ? mask : Integer.reverseBytes(mask);
+        long mask64 = ((long) mask32 << 32) | (mask32 & 0xffffffffL);
+
+        int index = buf.position();
+        int limit = buf.limit();
+
+        // xor a 64bit word at a time as long as possible
+        for (; index + 8 <= limit; index += 8) {
+            buf.putLong(index, buf.getLong(index) ^ mask64);
+        }
 
-    	// xor a 32bit word at a time as long as possible
-    	while (src.position() < end) {
-    		int masked = src.getInt() ^ mask;
-    		dst.putInt(masked);
-    	}
+        // then a 32bit word, keeping the mask aligned for the remaining bytes
+        if (index + 4 <= limit) {
+            buf.putInt(index, buf.getInt(index) ^ mask32);
+            index += 4;
+        }
 
-    	// xor the remaining 3, 2, or 1 bytes
-    	byte b;
-    	switch (remainder) {
-    	case 3:
-    		b = (byte) (src.get() ^ ((mask >> 24) & 0xff));
-    		dst.put(b);
-    		b = (byte) (src.get() ^ ((mask >> 16) & 0xff));
-    		dst.put(b);
-    		b = (byte) (src.get() ^ ((mask >> 8) & 0xff));
-    		dst.put(b);
-    		break;
-    	case 2:
-    		b = (byte) (src.get() ^ ((mask >> 24) & 0xff));
-    		dst.put(b);
-    		b = (byte) (src.get() ^ ((mask >> 16) & 0xff));
-    		dst.put(b);
-    		break;
-    	case 1:
-    		b = (byte) (src.get() ^ (mask >> 24));
-    		dst.put(b);
-    		break;
-    	case 0:
-		default:
-			break;
-    	}
+        // xor the remaining 3, 2, or 1 bytes
+        for (int shift = 24; index < limit; index++, shift -= 8) {
+            buf.put(index, (byte) (buf.get(index) ^ (mask >> shift)));
+        }
     }
 }
@@ -68,6 +68,12 @@ public class WsUtils {
     public static final TypedAttributeKey<List<WebSocketExtension>> ACTIVE_EXTENSIONS_KEY
         = new TypedAttributeKey<>(WsUtils.class, "active-ws-extensions", EMPTY_EXTENSIONS);
 
+    /**
+     * RSV bits (RSV1 being 0x04, RSV2 0x02 and RSV3 0x01) which negotiated extensions permit on received data frames.
+     */
+    public static final TypedAttributeKey<Integer> NEGOTIATED_RSV_BITS_KEY
+        = new TypedAttributeKey<>(WsUtils.class, "negotiated-rsv-bits", 0);
+
 
     private WsUtils() {
         // no instances
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.ws.bridge.extensions.deflate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.mina.core.session.IoSession;
+import org.junit.Before;
+import org.junit.Test;
+import org.kaazing.gateway.resource.address.ResourceAddressFactory;
+import org.kaazing.gateway.resource.address.ws.WsResourceAddress;
+import org.kaazing.gateway.security.auth.context.ResultAwareLoginContext;
+import org.kaazing.gateway.transport.ws.extension.ExtensionHeader;
+import org.kaazing.gateway.transport.ws.extension.ExtensionHeaderBuilder;
+import org.kaazing.gateway.transport.ws.extension.ExtensionHelper;
+
+public class PerMessageDeflateExtensionFactoryTest {
+    private static final String extensionName = "permessage-deflate";
+    private static final ExtensionHelper extensionHelper = new ExtensionHelper() {
+
+        @Override
+        public void setLoginContext(IoSession session, ResultAwareLoginContext loginContext) {
+            throw new RuntimeException("Not expected to be called");
+        }
+
+        @Override
+        public void closeWebSocketConnection(IoSession session) {
+            throw new RuntimeException("Not expected to be called");
+        }
+    };
+
+    WsResourceAddress address;
+    PerMessageDeflateExtensionFactory factory;
+
+    @Before
+    public void setUp() {
+        address = newAddress(true);
+        factory = new PerMessageDeflateExtensionFactory();
+    }
+
+    @Test
+    public void negotiateShouldAcceptOfferWithoutParameters() throws Exception {
+        ExtensionHeader requested = new ExtensionHeaderBuilder(extensionName).done();
+        PerMessageDeflateExtension extension = (PerMessageDeflateExtension) factory.negotiate(requested, extensionHelper, address);
+        assertEquals(extensionName, extension.getExtensionHeader().getExtensionToken());
+        assertFalse(extension.getExtensionHeader().hasParameters());
+    }
+
+    @Test
+    public void negotiateShouldAcceptClientMaxWindowBitsWithoutEchoingIt() throws Exception {
+        ExtensionHeader requested = new ExtensionHeaderBuilder(extensionName + "; client_max_window_bits").done();
+        PerMessageDeflateExtension extension = (PerMessageDeflateExtension) factory.negotiate(requested, extensionHelper, address);
+        assertEquals(extensionName, extension.getExtensionHeader().toString());
+    }
+
+    @Test
+    public void negotiateShouldEchoContextTakeoverParameters() throws Exception {
+        ExtensionHeader requested = new ExtensionHeaderBuilder(
+                extensionName + "; server_no_context_takeover; client_no_context_takeover").done();
+        PerMessageDeflateExtension extension = (PerMessageDeflateExtension) factory.negotiate(requested, extensionHelper, address);
+        assertEquals(extensionName + "; server_no_context_takeover; client_no_context_takeover",
+                extension.getExtensionHeader().toString());
+    }
+
+    @Test
+    public void negotiateShouldAcceptMaximumServerWindowBits() throws Exception {
+        ExtensionHeader requested = new ExtensionHeaderBuilder(extensionName + "; server_max_window_bits=15").done();
+        PerMessageDeflateExtension extension = (PerMessageDeflateExtension) factory.negotiate(requested, extensionHelper, address);
+        assertEquals(extensionName, extension.getExtensionHeader().toString());
+    }
+
+    @Test
+    public void negotiateShouldDeclineSmallerServerWindowBits() throws Exception {
+        ExtensionHeader requested = new ExtensionHeaderBuilder(extensionName + "; server_max_window_bits=10").done();
+        assertNull(factory.negotiate(requested, extensionHelper, address));
+    }
+
+    @Test
+    public void negotiateShouldDeclineInvalidClientWindowBits() throws Exception {
+        ExtensionHeader requested = new ExtensionHeaderBuilder(extensionName + "; client_max_window_bits=16").done();
+        assertNull(factory.negotiate(requested, extensionHelper, address));
+    }
+
+    @Test
+    public void negotiateShouldDeclineUnknownParameter() throws Exception {
+        ExtensionHeader requested = new ExtensionHeaderBuilder(extensionName + "; foo=bar").done();
+        assertNull(factory.negotiate(requested, extensionHelper, address));
+    }
+
+    @Test
+    public void negotiateShouldDeclineWhenCompressionNotEnabled() throws Exception {
+        ExtensionHeader requested = new ExtensionHeaderBuilder(extensionName).done();
+        assertNull(factory.negotiate(requested, extensionHelper, newAddress(false)));
+    }
+
+    private static WsResourceAddress newAddress(boolean compressionEnabled) {
+        String addressURI = "ws://localhost:2020/";
+        Map<String, Object> options = new HashMap<>();
+        options.put("ws.compressionEnabled", compressionEnabled);
+        return (WsResourceAddress) ResourceAddressFactory.newResourceAddressFactory().newResourceAddress(addressURI, options);
+    }
+
+}
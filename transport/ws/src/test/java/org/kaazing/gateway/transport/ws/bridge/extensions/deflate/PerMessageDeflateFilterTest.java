@@ -0,0 +1,146 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.ws.bridge.extensions.deflate;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.kaazing.mina.core.buffer.SimpleBufferAllocator.BUFFER_ALLOCATOR;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.mina.core.filterchain.IoFilter.NextFilter;
+import org.apache.mina.core.filterchain.IoFilterChain;
+import org.jmock.integration.junit4.JUnitRuleMockery;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.kaazing.gateway.transport.test.Expectations;
+import org.kaazing.gateway.transport.ws.WsMessage;
+import org.kaazing.gateway.transport.ws.WsTextMessage;
+import org.kaazing.mina.core.session.IoSessionEx;
+import org.kaazing.mina.core.write.WriteRequestEx;
+
+public class PerMessageDeflateFilterTest {
+    private static final byte[] TEXT = "{\"symbol\":\"KZNG\",\"bid\":10.25,\"ask\":10.50,\"symbol\":\"KZNG\"}".getBytes(UTF_8);
+    private static final byte[] TAIL = { (byte)0x00, (byte)0x00, (byte)0xff, (byte)0xff };
+
+    @Rule
+    public JUnitRuleMockery context = new JUnitRuleMockery();
+
+    private final IoFilterChain filterChain = context.mock(IoFilterChain.class, "filterChain");
+    final IoSessionEx session = context.mock(IoSessionEx.class);
+    final NextFilter nextFilter = context.mock(NextFilter.class);
+    final WriteRequestEx writeRequest = context.mock(WriteRequestEx.class);
+
+    private PerMessageDeflateFilter filter;
+
+    @Before
+    public void before() throws Exception {
+        filter = new PerMessageDeflateFilter(false, 0);
+        context.checking(new Expectations() {
+            {
+                allowing(filterChain).getSession(); will(returnValue(session));
+                allowing(session).getBufferAllocator(); will(returnValue(BUFFER_ALLOCATOR));
+                allowing(session).getAttribute(with(any(Object.class)), with(any(Object.class))); will(returnValue(0));
+                allowing(session).setAttribute(with(any(Object.class)), with(any(Object.class)));
+            }
+        });
+        filter.onPreAdd(filterChain, "permessage-deflate", nextFilter);
+    }
+
+    @Test
+    public void shouldDeflateTextMessage() throws Exception {
+        WsTextMessage message = new WsTextMessage(BUFFER_ALLOCATOR.wrap(ByteBuffer.wrap(TEXT)));
+
+        WsMessage deflated = (WsMessage) filter.doFilterWriteWsText(nextFilter, session, writeRequest, message);
+
+        assertEquals(PerMessageDeflateFilter.RSV1, deflated.getRsv());
+        assertArrayEquals(TEXT, inflate(deflated.getBytes().buf()));
+    }
+
+    @Test
+    public void shouldDeflateCachedTextMessageOnce() throws Exception {
+        WsTextMessage message = new WsTextMessage(BUFFER_ALLOCATOR.wrap(ByteBuffer.wrap(TEXT)));
+        message.initCache();
+
+        PerMessageDeflateFilter otherFilter = new PerMessageDeflateFilter(false, 0);
+        otherFilter.onPreAdd(filterChain, "permessage-deflate", nextFilter);
+
+        WsMessage deflated = (WsMessage) filter.doFilterWriteWsText(nextFilter, session, writeRequest, message);
+        WsMessage otherDeflated = (WsMessage) otherFilter.doFilterWriteWsText(nextFilter, session, writeRequest, message);
+
+        assertSame(deflated, otherDeflated);
+        assertEquals(PerMessageDeflateFilter.RSV1, deflated.getRsv());
+        assertArrayEquals(TEXT, inflate(deflated.getBytes().buf()));
+    }
+
+    @Test
+    public void shouldInflateReceivedTextMessage() throws Exception {
+        WsTextMessage message = new WsTextMessage(BUFFER_ALLOCATOR.wrap(ByteBuffer.wrap(deflate(TEXT))));
+        message.setRsv(PerMessageDeflateFilter.RSV1);
+        final WsTextMessage expected = new WsTextMessage(BUFFER_ALLOCATOR.wrap(ByteBuffer.wrap(TEXT)));
+
+        context.checking(new Expectations() {
+            {
+                oneOf(nextFilter).messageReceived(session, expected);
+            }
+        });
+
+        filter.messageReceived(nextFilter, session, message);
+        context.assertIsSatisfied();
+    }
+
+    @Test
+    public void shouldPassThroughUncompressedTextMessage() throws Exception {
+        final WsTextMessage message = new WsTextMessage(BUFFER_ALLOCATOR.wrap(ByteBuffer.wrap(TEXT)));
+
+        context.checking(new Expectations() {
+            {
+                oneOf(nextFilter).messageReceived(session, message);
+            }
+        });
+
+        filter.messageReceived(nextFilter, session, message);
+        context.assertIsSatisfied();
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(bytes);
+        byte[] output = new byte[bytes.length + 64];
+        int length = deflater.deflate(output, 0, output.length, Deflater.SYNC_FLUSH);
+        deflater.end();
+        return Arrays.copyOf(output, length - TAIL.length);
+    }
+
+    private static byte[] inflate(ByteBuffer buf) throws Exception {
+        byte[] input = new byte[buf.remaining() + TAIL.length];
+        buf.duplicate().get(input, 0, buf.remaining());
+        System.arraycopy(TAIL, 0, input, buf.remaining(), TAIL.length);
+        Inflater inflater = new Inflater(true);
+        inflater.setInput(input);
+        byte[] output = new byte[TEXT.length * 2];
+        int length = inflater.inflate(output);
+        inflater.end();
+        return Arrays.copyOf(output, length);
+    }
+
+}
@@ -253,6 +253,37 @@ public class WsFrameDecoderTest {
         assertEquals(new WsContinuationMessage(allocator.wrap(ByteBuffer.wrap(continuationFramePayload))), out2);
     }
 
+    @Test
+    public void decodeLargeBinaryFrameArrivingInManyReads() throws Exception {
+        ProtocolCodecSessionEx session = new ProtocolCodecSessionEx();
+        IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+        ProtocolDecoder decoder = new WsFrameDecoder(allocator, 0, false);
+
+        byte[] binaryFramePayload = createString('a', 60000).getBytes();
+
+        IoBufferEx in = allocator.wrap(allocator.allocate(4 + 60000))
+                .put((byte) 0x82)
+                .put((byte) 126)
+                .putShort((short) 60000)
+                .put(binaryFramePayload)
+                .flip();
+
+        // deliver the frame in 1 KiB reads
+        while (in.hasRemaining()) {
+            int length = Math.min(1024, in.remaining());
+            byte[] chunk = new byte[length];
+            in.get(chunk);
+            decoder.decode(session, (IoBuffer) allocator.wrap(ByteBuffer.wrap(chunk)), session.getDecoderOutput());
+            if (in.hasRemaining()) {
+                assertTrue(session.getDecoderOutputQueue().isEmpty());
+            }
+        }
+
+        WsMessage out = (WsMessage)session.getDecoderOutputQueue().poll();
+        assertEquals(new WsBinaryMessage(allocator.wrap(ByteBuffer.wrap(binaryFramePayload))), out);
+        assertTrue(session.getDecoderOutputQueue().isEmpty());
+    }
+
     @Test(expected = ProtocolDecoderException.class)
     public void decodeFragmentedContinuationFrameExceedingMaxMessageSize() throws Exception {
         ProtocolCodecSessionEx session = new ProtocolCodecSessionEx();
@@ -39,6 +39,7 @@ import org.kaazing.gateway.transport.ws.WsMessage;
 import org.kaazing.gateway.transport.ws.WsPingMessage;
 import org.kaazing.gateway.transport.ws.WsPongMessage;
 import org.kaazing.gateway.transport.ws.WsTextMessage;
+import org.kaazing.mina.core.buffer.GatheringBuffer;
 import org.kaazing.mina.core.buffer.IoBufferAllocatorEx;
 import org.kaazing.mina.core.buffer.IoBufferEx;
 import org.kaazing.mina.core.buffer.SimpleBufferAllocator;
@@ -445,4 +446,50 @@ public class WsFrameEncoderTest {
         assertSame(secondaryOut.array(), secondaryOut2.array());
     }
 
+    @Test
+    public void shouldEncodeLargeBinaryAsHeaderAndUncopiedPayload() throws Exception {
+        ProtocolCodecSessionEx session = new ProtocolCodecSessionEx();
+        IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+        ProtocolEncoder encoder = new WsFrameEncoder(CachingMessageEncoder.IO_MESSAGE_ENCODER, allocator, false, true);
+
+        IoBufferEx buf = allocator.wrap(allocator.allocate(65536)).fillAndReset((byte)0x97, 65536);
+        WsMessage in = new WsBinaryMessage(buf);
+
+        encoder.encode(session, in, session.getEncoderOutput());
+
+        GatheringBuffer out = (GatheringBuffer) session.getEncoderOutputQueue().poll();
+        assertEquals(2, out.getBuffers().length);
+        assertEquals(allocator.wrap(allocator.allocate(10))
+                              .put((byte)0x82)
+                              .put((byte)127)
+                              .putLong(65536L)
+                              .flip(),
+                     out.getBuffers()[0]);
+        assertSame(buf, out.getBuffers()[1]);
+        assertEquals(0, buf.position());
+        assertEquals(10 + 65536, out.remaining());
+    }
+
+    @Test
+    public void shouldEncodeSmallBinaryAsSingleBufferWithGatheringWrites() throws Exception {
+        ProtocolCodecSessionEx session = new ProtocolCodecSessionEx();
+        IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+        ProtocolEncoder encoder = new WsFrameEncoder(CachingMessageEncoder.IO_MESSAGE_ENCODER, allocator, false, true);
+
+        IoBufferEx buf = allocator.wrap(allocator.allocate(200)).fillAndReset((byte)0x97, 200);
+        WsMessage in = new WsBinaryMessage(buf);
+
+        encoder.encode(session, in, session.getEncoderOutput());
+
+        IoBufferEx out = (IoBufferEx) session.getEncoderOutputQueue().poll();
+        assertEquals(allocator.wrap(allocator.allocate(204))
+                              .put((byte)0x82)
+                              .put((byte)126)
+                              .put((byte)0x00)
+                              .put((byte)200)
+                              .fill((byte)0x97, 200)
+                              .flip(),
+                     out);
+    }
+
 }
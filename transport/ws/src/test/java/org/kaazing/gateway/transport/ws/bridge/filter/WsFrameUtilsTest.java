@@ -0,0 +1,89 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.ws.bridge.filter;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+public class WsFrameUtilsTest {
+
+    private static final int MASK = 0x1a2b3c4d;
+
+    @Test
+    public void shouldMaskInPlaceForAllLengthsAndOffsets() throws Exception {
+        for (ByteOrder order : new ByteOrder[] { BIG_ENDIAN, LITTLE_ENDIAN }) {
+            for (int offset = 0; offset < 8; offset++) {
+                for (int length = 0; length < 40; length++) {
+                    ByteBuffer buf = payload(offset, length).order(order);
+
+                    WsFrameUtils.xor(buf, MASK);
+
+                    assertEquals(offset, buf.position());
+                    assertEquals(masked(payload(offset, length)), buf);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldMaskIntoDestinationForAllLengths() throws Exception {
+        for (int length = 0; length < 40; length++) {
+            ByteBuffer src = payload(0, length);
+            ByteBuffer dst = ByteBuffer.allocate(length);
+
+            WsFrameUtils.xor(src, dst, MASK);
+
+            assertEquals(src.limit(), src.position());
+            dst.flip();
+            assertEquals(masked(payload(0, length)), dst);
+        }
+    }
+
+    @Test
+    public void shouldUnmaskMaskedBytes() throws Exception {
+        ByteBuffer buf = payload(3, 1000);
+
+        WsFrameUtils.xor(buf, MASK);
+        WsFrameUtils.xor(buf, MASK);
+
+        assertEquals(payload(3, 1000), buf);
+    }
+
+    private static ByteBuffer payload(int offset, int length) {
+        ByteBuffer buf = ByteBuffer.allocate(offset + length);
+        for (int i = 0; i < buf.capacity(); i++) {
+            buf.put(i, (byte) (i * 31 + 7));
+        }
+        buf.position(offset);
+        return buf;
+    }
+
+    // masks one byte at a time, as described by RFC 6455 section 5.3
+    private static ByteBuffer masked(ByteBuffer buf) {
+        byte[] maskBytes = ByteBuffer.allocate(4).putInt(MASK).array();
+        for (int i = 0; i < buf.remaining(); i++) {
+            int index = buf.position() + i;
+            buf.put(index, (byte) (buf.get(index) ^ maskBytes[i % 4]));
+        }
+        return buf;
+    }
+}
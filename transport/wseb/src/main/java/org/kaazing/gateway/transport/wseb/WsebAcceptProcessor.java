@@ -15,6 +15,8 @@
  */
 package org.kaazing.gateway.transport.wseb;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.mina.core.filterchain.IoFilterChain;
@@ -23,6 +25,7 @@ import org.apache.mina.core.future.WriteFuture;
 import org.apache.mina.core.write.WriteRequest;
 import org.apache.mina.core.write.WriteRequestQueue;
 import org.kaazing.gateway.transport.BridgeAcceptProcessor;
+import org.kaazing.gateway.transport.bridge.MessageBatch;
 import org.kaazing.gateway.transport.http.HttpAcceptSession;
 import org.kaazing.gateway.transport.http.HttpSession;
 import org.kaazing.gateway.transport.ws.Command;
@@ -38,10 +41,20 @@ public class WsebAcceptProcessor extends BridgeAcceptProcessor<WsebSession> {
     private final Logger logger;
     private static final CheckInitialPadding CHECK_INITIAL_PADDING = new CheckInitialPadding();
     private final ScheduledExecutorService scheduler;
+    private final int coalesceBytes;
 
     public WsebAcceptProcessor(ScheduledExecutorService scheduler, Logger logger) {
+        this(scheduler, logger, 0);
+    }
+
+    /**
+     * @param coalesceBytes  maximum number of bytes of ready frames written to the downstream as a single
+     *                       HTTP chunk, or 0 to write each frame separately
+     */
+    public WsebAcceptProcessor(ScheduledExecutorService scheduler, Logger logger, int coalesceBytes) {
         this.scheduler = scheduler;
         this.logger = logger;
+        this.coalesceBytes = coalesceBytes;
     }
 
     @Override
@@ -146,6 +159,7 @@ public class WsebAcceptProcessor extends BridgeAcceptProcessor<WsebSession> {
             if (message instanceof WsMessage) {
                 WsMessage frame = (WsMessage) message;
                 IoBufferEx buf = frame.getBytes();
+                List<WriteRequest> requests = null;
                 try {
                     // stop if parent already closing
                     if (writer.isClosing()) {
@@ -175,8 +189,43 @@ public class WsebAcceptProcessor extends BridgeAcceptProcessor<WsebSession> {
                     // resulting in a WriteToClosedSessionException and losing data
 
 
-                    // flush the message out to the session
-                    lastWrite = flushNowInternal(writer, frame, buf, filterChain, request);
+                    // gather any further frames that are ready so they are written out as a single chunk
+                    MessageBatch<WsMessage> batch = null;
+                    List<IoBufferEx> bufs = null;
+                    while (remaining < coalesceBytes) {
+                        WriteRequest nextRequest = writeRequestQueue.poll(session);
+                        if (nextRequest == null) {
+                            break;
+                        }
+                        if (!isCoalescable(nextRequest)) {
+                            // handled by the next iteration
+                            currentWriteRequest = nextRequest;
+                            break;
+                        }
+                        if (batch == null) {
+                            batch = new MessageBatch<>();
+                            bufs = new ArrayList<>();
+                            requests = new ArrayList<>();
+                            batch.add(frame);
+                            bufs.add(buf);
+                            requests.add(request);
+                        }
+                        WsMessage nextFrame = (WsMessage) nextRequest.getMessage();
+                        IoBufferEx nextBuf = nextFrame.getBytes();
+                        remaining += nextBuf.remaining();
+                        batch.add(nextFrame);
+                        bufs.add(nextBuf);
+                        requests.add(nextRequest);
+                    }
+
+                    if (batch == null) {
+                        // flush the message out to the session
+                        lastWrite = flushNowInternal(writer, frame, buf, filterChain, request);
+                    }
+                    else {
+                        // flush the batched messages out to the session
+                        lastWrite = flushNowInternal(writer, batch, bufs, filterChain, requests);
+                    }
 
                     // increment session written bytes
                     int written = remaining;
@@ -204,7 +253,14 @@ public class WsebAcceptProcessor extends BridgeAcceptProcessor<WsebSession> {
                     // write close to message close
                 }
                 catch (Exception e) {
-                    request.getFuture().setException(e);
+                    if (requests != null) {
+                        for (WriteRequest batchedRequest : requests) {
+                            batchedRequest.getFuture().setException(e);
+                        }
+                    }
+                    else {
+                        request.getFuture().setException(e);
+                    }
                 }
             }
             else {
@@ -214,6 +270,12 @@ public class WsebAcceptProcessor extends BridgeAcceptProcessor<WsebSession> {
         while (true);
     }
 
+    private static boolean isCoalescable(WriteRequest request) {
+        Object message = request.getMessage();
+        return !WsebSession.isReconnectRequest(request) &&
+                message instanceof WsMessage && ((WsMessage) message).getKind() != Kind.CLOSE;
+    }
+
     private static void checkInitialPadding(HttpAcceptSession session) {
         // check to see if we need to add a padding message to the end of
         // the sent messages
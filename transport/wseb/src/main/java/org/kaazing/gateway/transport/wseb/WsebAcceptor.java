@@ -33,6 +33,7 @@ import static org.kaazing.gateway.transport.http.HttpHeaders.HEADER_CONTENT_LENG
 import static org.kaazing.gateway.transport.http.HttpHeaders.HEADER_CONTENT_TYPE;
 import static org.kaazing.gateway.transport.ws.WsSystemProperty.WSE_IDLE_TIMEOUT;
 import static org.kaazing.gateway.transport.ws.bridge.filter.WsCheckAliveFilter.DISABLE_INACTIVITY_TIMEOUT;
+import static org.kaazing.gateway.util.InternalSystemProperty.WSEB_COALESCE_BYTES;
 import static org.kaazing.gateway.util.InternalSystemProperty.WSE_SPECIFICATION;
 import static org.kaazing.mina.core.future.DefaultUnbindFuture.combineFutures;
 
@@ -47,6 +48,8 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 
 import javax.annotation.Resource;
@@ -192,6 +195,10 @@ public class WsebAcceptor extends AbstractBridgeAcceptor<WsebSession, Binding> {
             }
     };
 
+    // bound wse address -> http address (with httpxe alternate) without security, from which the
+    // upstream and downstream addresses of each session are resolved
+    private final ConcurrentMap<ResourceAddress, ResourceAddress> noSecurityTemplates = new ConcurrentHashMap<>();
+
     private final IoHandler createHandler = new WsebCreateHandler();
 
     public WsebAcceptor() {
@@ -200,7 +207,8 @@ public class WsebAcceptor extends AbstractBridgeAcceptor<WsebSession, Binding> {
 
     @Override
     protected IoProcessorEx<WsebSession> initProcessor() {
-        return new WsebAcceptProcessor(scheduler, logger);
+        int coalesceBytes = (configuration != null) ? WSEB_COALESCE_BYTES.getIntProperty(configuration) : 0;
+        return new WsebAcceptProcessor(scheduler, logger, coalesceBytes);
     }
 
     @Resource(name = "configuration")
@@ -366,6 +374,7 @@ public class WsebAcceptor extends AbstractBridgeAcceptor<WsebSession, Binding> {
             BridgeSessionInitializer<? extends IoFuture> initializer) {
 
         unbindApiPath(address);
+        noSecurityTemplates.remove(address);
 
         final ResourceAddress transportAddress = address.getTransport();
         BridgeAcceptor acceptor = bridgeServiceFactory.newBridgeAcceptor(transportAddress);
@@ -706,21 +715,19 @@ public class WsebAcceptor extends AbstractBridgeAcceptor<WsebSession, Binding> {
          // But for logging purposes we do want to set an IdentityResolver
             String wsebSessionIdentity = format("%s#%d", getTransportMetadata().getName(), wsebSession.getId());
             final IdentityResolver downstreamResolver = new FixedIdentityResolver(wsebSessionIdentity + "d");
-            // tcp | http | httpxe | wse - apply no security to http layer
-            ResourceAddress httpxeBaseAddress = httpxeAddressNoSecurity(httpxeAddress, downstreamResolver);
 
-            // tcp | http | wse - apply no security to http layer, also sets the httpxe alternate
-            ResourceAddress httpBaseAddress = httpAddressNoSecurity(httpAddress, httpxeBaseAddress, downstreamResolver);
+            // tcp | http | httpxe | wse - apply no security to http layer, also sets the httpxe alternate;
+            // built once per bind, per session variants only differ by path and identity resolver
+            ResourceAddress httpBaseAddress = noSecurityTemplate(localAddress, httpAddress, httpxeAddress);
 
-            ResourceAddress localDownstream = httpBaseAddress.resolve(createResolvePath(httpBaseAddress.getResource(), downstreamSuffix + sessionIdSuffix));
+            ResourceAddress localDownstream = httpBaseAddress.resolve(
+                    createResolvePath(httpBaseAddress.getResource(), downstreamSuffix + sessionIdSuffix), downstreamResolver);
             logger.trace("Binding "+localDownstream.getTransport()+" to downstreamHandler");
 
             // Now repeat for upstream
             final IdentityResolver upstreamResolver = new FixedIdentityResolver(wsebSessionIdentity + "u");
-            httpxeBaseAddress = httpxeAddressNoSecurity(httpxeAddress, upstreamResolver);
-            httpBaseAddress = httpAddressNoSecurity(httpAddress, httpxeBaseAddress, upstreamResolver);
-
-            ResourceAddress localUpstream = httpBaseAddress.resolve(createResolvePath(httpBaseAddress.getResource(), upstreamSuffix + sessionIdSuffix));
+            ResourceAddress localUpstream = httpBaseAddress.resolve(
+                    createResolvePath(httpBaseAddress.getResource(), upstreamSuffix + sessionIdSuffix), upstreamResolver);
             logger.trace("Binding "+localUpstream.getTransport()+" to upstreamHandler");
 
             BridgeAcceptor downstreamAcceptor = bridgeServiceFactory.newBridgeAcceptor(localDownstream);
@@ -772,6 +779,22 @@ public class WsebAcceptor extends AbstractBridgeAcceptor<WsebSession, Binding> {
             wsebSession.scheduleTimeout(scheduler);
         }
 
+        private ResourceAddress noSecurityTemplate(ResourceAddress localAddress, ResourceAddress httpAddress,
+                                                   ResourceAddress httpxeAddress) {
+            ResourceAddress template = noSecurityTemplates.get(localAddress);
+            if (template == null) {
+                // placeholder identity resolver, replaced per session when the template is resolved
+                IdentityResolver resolver = new FixedIdentityResolver(getTransportMetadata().getName());
+                ResourceAddress httpxeBaseAddress = httpxeAddressNoSecurity(httpxeAddress, resolver);
+                template = httpAddressNoSecurity(httpAddress, httpxeBaseAddress, resolver);
+                ResourceAddress existing = noSecurityTemplates.putIfAbsent(localAddress, template);
+                if (existing != null) {
+                    template = existing;
+                }
+            }
+            return template;
+        }
+
         private ResourceAddress httpAddressNoSecurity(ResourceAddress httpAddress, ResourceAddress httpxeAddressNoSecurity, IdentityResolver resolver) {
             ResourceOptions noSecurityOptions = new NoSecurityResourceOptions(httpAddress);
             noSecurityOptions.setOption(ALTERNATE, httpxeAddressNoSecurity);
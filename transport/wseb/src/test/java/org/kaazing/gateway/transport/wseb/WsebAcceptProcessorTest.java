@@ -0,0 +1,211 @@
+/**
+ * Copyright 2007-2016, Kaazing Corporation. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kaazing.gateway.transport.wseb;
+
+import static java.lang.Thread.currentThread;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.kaazing.mina.core.session.IoSessionEx.IMMEDIATE_EXECUTOR;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.apache.mina.core.service.IoHandler;
+import org.apache.mina.core.write.WriteRequest;
+import org.hamcrest.BaseMatcher;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.jmock.Expectations;
+import org.jmock.integration.junit4.JUnitRuleMockery;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.kaazing.gateway.resource.address.ResourceAddress;
+import org.kaazing.gateway.resource.address.ResourceAddressFactory;
+import org.kaazing.gateway.transport.DefaultIoSessionConfigEx;
+import org.kaazing.gateway.transport.DefaultTransportMetadata;
+import org.kaazing.gateway.transport.bridge.MessageBatch;
+import org.kaazing.gateway.transport.http.HttpAcceptSession;
+import org.kaazing.gateway.transport.ws.WsCloseMessage;
+import org.kaazing.gateway.transport.ws.WsCommandMessage;
+import org.kaazing.gateway.transport.ws.WsTextMessage;
+import org.kaazing.gateway.transport.ws.extension.WebSocketExtension;
+import org.kaazing.gateway.transport.wseb.filter.WsebBufferAllocator;
+import org.kaazing.mina.core.buffer.IoBufferEx;
+import org.kaazing.mina.core.buffer.SimpleBufferAllocator;
+import org.kaazing.mina.core.future.DefaultWriteFutureEx;
+import org.kaazing.mina.core.future.WriteFutureEx;
+import org.kaazing.mina.core.service.IoServiceEx;
+import org.kaazing.mina.core.write.DefaultWriteRequestEx;
+import org.kaazing.mina.core.write.DefaultWriteRequestEx.ShareableWriteRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class WsebAcceptProcessorTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WsebAcceptProcessorTest.class);
+
+    @Rule
+    public JUnitRuleMockery context = new JUnitRuleMockery();
+
+    private ScheduledExecutorService scheduler;
+    private HttpAcceptSession writer;
+    private IoServiceEx service;
+
+    @Before
+    public void setUp() {
+        scheduler = context.mock(ScheduledExecutorService.class);
+        writer = context.mock(HttpAcceptSession.class);
+        service = context.mock(IoServiceEx.class);
+        final IoHandler handler = context.mock(IoHandler.class);
+
+        context.checking(new Expectations() {
+            {
+                allowing(service).getTransportMetadata(); will(returnValue(new DefaultTransportMetadata(WsebProtocol.NAME)));
+                allowing(service).getHandler(); will(returnValue(handler));
+                allowing(service).getSessionConfig(); will(returnValue(new DefaultIoSessionConfigEx()));
+                allowing(service).getThreadLocalWriteRequest(with(any(int.class))); will(returnValue(new ShareableWriteRequest()));
+                allowing(writer).getIoThread(); will(returnValue(currentThread()));
+                allowing(writer).isClosing(); will(returnValue(false));
+                allowing(writer).getAttribute(with(any(Object.class))); will(returnValue(null));
+            }
+        });
+    }
+
+    @Test
+    public void shouldCoalesceFramesUpToCoalesceBytes() throws Exception {
+        WsebAcceptProcessor processor = new WsebAcceptProcessor(scheduler, LOGGER, 8);
+        WsebSession session = newSession(processor);
+
+        WsTextMessage frame1 = newTextMessage("abcd");
+        WsTextMessage frame2 = newTextMessage("efgh");
+        WsTextMessage frame3 = newTextMessage("ijkl");
+        WriteRequest request1 = enqueue(session, frame1);
+        WriteRequest request2 = enqueue(session, frame2);
+        WriteRequest request3 = enqueue(session, frame3);
+
+        final WriteFutureEx batchFuture = new DefaultWriteFutureEx(writer);
+        final WriteFutureEx frameFuture = new DefaultWriteFutureEx(writer);
+        context.checking(new Expectations() {
+            {
+                oneOf(writer).write(with(batchOf(2))); will(returnValue(batchFuture));
+                oneOf(writer).write(with(same(frame3))); will(returnValue(frameFuture));
+            }
+        });
+
+        processor.flushInternal(session);
+
+        batchFuture.setWritten();
+        assertTrue(request1.getFuture().isWritten());
+        assertTrue(request2.getFuture().isWritten());
+        assertFalse(request3.getFuture().isDone());
+
+        frameFuture.setWritten();
+        assertTrue(request3.getFuture().isWritten());
+    }
+
+    @Test
+    public void shouldWriteCloseAfterCoalescedFrames() throws Exception {
+        WsebAcceptProcessor processor = new WsebAcceptProcessor(scheduler, LOGGER, 1024);
+        WsebSession session = newSession(processor);
+
+        WriteRequest request1 = enqueue(session, newTextMessage("abcd"));
+        WriteRequest request2 = enqueue(session, newTextMessage("efgh"));
+        WriteRequest closeRequest = enqueue(session, WsCloseMessage.NORMAL_CLOSE);
+
+        final WriteFutureEx batchFuture = DefaultWriteFutureEx.newWrittenFuture(writer);
+        context.checking(new Expectations() {
+            {
+                oneOf(writer).write(with(batchOf(2))); will(returnValue(batchFuture));
+                oneOf(writer).write(with(same(WsCommandMessage.CLOSE))); will(returnValue(new DefaultWriteFutureEx(writer)));
+                oneOf(writer).write(with(same(WsCommandMessage.RECONNECT))); will(returnValue(new DefaultWriteFutureEx(writer)));
+                oneOf(writer).close(false);
+            }
+        });
+
+        processor.flushInternal(session);
+
+        assertTrue(request1.getFuture().isWritten());
+        assertTrue(request2.getFuture().isWritten());
+        assertTrue(closeRequest.getFuture().isWritten());
+        assertNull(session.getWriter());
+    }
+
+    @Test
+    public void shouldFailAllCoalescedFramesWhenBatchWriteFails() throws Exception {
+        WsebAcceptProcessor processor = new WsebAcceptProcessor(scheduler, LOGGER, 1024);
+        WsebSession session = newSession(processor);
+
+        WriteRequest request1 = enqueue(session, newTextMessage("abcd"));
+        WriteRequest request2 = enqueue(session, newTextMessage("efgh"));
+
+        final WriteFutureEx batchFuture = new DefaultWriteFutureEx(writer);
+        context.checking(new Expectations() {
+            {
+                oneOf(writer).write(with(batchOf(2))); will(returnValue(batchFuture));
+            }
+        });
+
+        processor.flushInternal(session);
+
+        Exception cause = new Exception("write failed");
+        batchFuture.setException(cause);
+        assertSame(cause, request1.getFuture().getException());
+        assertSame(cause, request2.getFuture().getException());
+    }
+
+    private WsebSession newSession(WsebAcceptProcessor processor) throws Exception {
+        ResourceAddressFactory addressFactory = ResourceAddressFactory.newResourceAddressFactory();
+        ResourceAddress address = addressFactory.newResourceAddress("wse://localhost:8000/echo");
+        WsebBufferAllocator allocator = new WsebBufferAllocator(SimpleBufferAllocator.BUFFER_ALLOCATOR);
+        return new WsebSession(0, currentThread(), IMMEDIATE_EXECUTOR, service, processor, address, address, allocator,
+                null, 0, 0L, false, 0L, Collections.<WebSocketExtension>emptyList(), LOGGER, new Properties()) {
+            {
+                setParent(writer);
+            }
+        };
+    }
+
+    private static WriteRequest enqueue(WsebSession session, Object message) {
+        WriteRequest request = new DefaultWriteRequestEx(message, new DefaultWriteFutureEx(session));
+        session.getTransportSession().getWriteRequestQueue().offer(session, request);
+        return request;
+    }
+
+    private static WsTextMessage newTextMessage(String text) {
+        IoBufferEx buf = SimpleBufferAllocator.BUFFER_ALLOCATOR.wrap(ByteBuffer.wrap(text.getBytes()));
+        buf.mark();
+        return new WsTextMessage(buf);
+    }
+
+    private static Matcher<Object> batchOf(final int size) {
+        return new BaseMatcher<Object>() {
+            @Override
+            public boolean matches(Object item) {
+                return item instanceof MessageBatch && ((MessageBatch<?>) item).size() == size;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a batch of ").appendValue(size).appendText(" messages");
+            }
+        };
+    }
+}
@@ -19,6 +19,7 @@ package org.kaazing.gateway.transport.wseb.filter;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_SHARED;
 import static org.kaazing.mina.core.buffer.IoBufferEx.FLAG_ZERO_COPY;
 
@@ -31,6 +32,7 @@ import org.apache.mina.filter.codec.ProtocolEncoderOutput;
 import org.junit.Test;
 import org.kaazing.gateway.transport.BridgeCodecSession;
 import org.kaazing.gateway.transport.bridge.CachingMessageEncoder;
+import org.kaazing.gateway.transport.bridge.MessageBatch;
 import org.kaazing.gateway.transport.ws.Command;
 import org.kaazing.gateway.transport.ws.WsBinaryMessage;
 import org.kaazing.gateway.transport.ws.WsCommandMessage;
@@ -311,4 +313,32 @@ public class WsebFrameEncoderTest {
         assertSame(secondaryOut.array(), secondaryOut2.array());
     }
 
+    @Test
+    public void testEncodeBatchAsSingleBuffer() throws Exception {
+        ProtocolCodecSessionEx session = new ProtocolCodecSessionEx();
+        IoBufferAllocatorEx<?> allocator = session.getBufferAllocator();
+        ProtocolEncoder encoder = new WsebFrameEncoder(allocator);
+
+        WsMessage text = new WsTextMessage(allocator.wrap(ByteBuffer.wrap("Hello".getBytes(UTF_8))));
+        WsMessage binary = new WsBinaryMessage(allocator.wrap(allocator.allocate(200)).fill((byte)0x97, 200).flip());
+
+        encoder.encode(session, text, session.getEncoderOutput());
+        encoder.encode(session, binary, session.getEncoderOutput());
+        IoBufferEx textOut = (IoBufferEx) session.getEncoderOutputQueue().poll();
+        IoBufferEx binaryOut = (IoBufferEx) session.getEncoderOutputQueue().poll();
+
+        MessageBatch<WsMessage> batch = new MessageBatch<>();
+        batch.add(text);
+        batch.add(binary);
+        encoder.encode(session, batch, session.getEncoderOutput());
+
+        IoBufferEx out = (IoBufferEx) session.getEncoderOutputQueue().poll();
+        assertEquals(allocator.wrap(allocator.allocate(textOut.remaining() + binaryOut.remaining()))
+                              .put(textOut.duplicate())
+                              .put(binaryOut.duplicate())
+                              .flip(),
+                     out);
+        assertTrue(session.getEncoderOutputQueue().isEmpty());
+    }
+
 }
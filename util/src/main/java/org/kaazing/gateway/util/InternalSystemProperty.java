@@ -50,6 +50,11 @@ public enum InternalSystemProperty {
     TCP_PROCESSOR_COUNT("org.kaazing.gateway.server.transport.tcp.PROCESSOR_COUNT",
                         Integer.toString(getRuntime().availableProcessors())),
 
+    // Number of SO_REUSEPORT listening sockets opened for each TCP bind address (Linux, Java 9 or later), each accepting
+    // on its own boss thread paired with one worker. Typically set to the processor count; the default of 1 accepts
+    // through a single socket and spreads connections over the workers
+    TCP_ACCEPTOR_COUNT("org.kaazing.gateway.server.transport.tcp.ACCEPTOR_COUNT", "1"),
+
     // Thread Pool Size for background tasks
     BACKGROUND_TASK_THREADS
             ("org.kaazing.gateway.server.util.scheduler.BACKGROUND_TASK_THREADS",
@@ -93,6 +98,72 @@ public enum InternalSystemProperty {
     TCP_IP_TOS
             ("org.kaazing.gateway.server.transport.tcp.IP_TOS"),
 
+    // Server side TLS session resumption (SslAcceptor). Note a cache size of 0 means unlimited, and the default
+    // of 1 keeps the historical behaviour, which DISABLES resumption by session id: configure a larger size
+    // (for example 20480, the JSSE default) to let reconnecting clients resume their sessions
+    SSL_SESSION_CACHE_SIZE
+            ("org.kaazing.gateway.server.transport.ssl.SESSION_CACHE_SIZE", "1"),
+
+    SSL_SESSION_TIMEOUT
+            ("org.kaazing.gateway.server.transport.ssl.SESSION_TIMEOUT", "24hours"),
+
+    // true or false, stateless session tickets (RFC 5077) on JDKs whose JSSE supports them. JSSE only offers JVM-wide
+    // system properties for these, read once before the first SSLContext is created, so they are applied when the
+    // gateway is launched and apply to every TLS user in the JVM. An embedding application that creates an SSLContext
+    // before launching the gateway must instead pass -Djdk.tls.server.enableSessionTicketExtension=true and
+    // -Djdk.tls.server.statelessKeyTimeout=<seconds> as JVM options.
+    SSL_SESSION_TICKETS
+            ("org.kaazing.gateway.server.transport.ssl.SESSION_TICKETS", "false"),
+
+    SSL_SESSION_TICKET_KEY_ROTATION
+            ("org.kaazing.gateway.server.transport.ssl.SESSION_TICKET_KEY_ROTATION", "1hour"),
+
+    // true or false, decode request header values lazily on lookup rather than up front
+    HTTP_FLYWEIGHT_HEADERS
+            ("org.kaazing.gateway.transport.http.FLYWEIGHT_HEADERS", "false"),
+
+    // true or false, accept HTTP/2 (h2 negotiated by TLS ALPN, or h2c with prior knowledge) on http binds
+    HTTP2_ENABLED
+            ("org.kaazing.gateway.transport.http.HTTP2_ENABLED", "false"),
+
+    // maximum number of concurrently open HTTP/2 streams per connection advertised to clients
+    HTTP2_MAX_CONCURRENT_STREAMS
+            ("org.kaazing.gateway.transport.http.HTTP2_MAX_CONCURRENT_STREAMS", "100"),
+
+    // Maximum number of bytes of queued messages coalesced into a single HTTP chunk when flushing an emulated
+    // WebSocket (wseb) or server-sent events (sse) downstream (0, the default, writes each message separately)
+    WSEB_COALESCE_BYTES
+            ("org.kaazing.gateway.transport.wseb.COALESCE_BYTES", "0"),
+
+    SSE_COALESCE_BYTES
+            ("org.kaazing.gateway.transport.sse.COALESCE_BYTES", "0"),
+
+    // How long resolved host names are cached for resource addresses (0 disables the cache), and how long
+    // failed lookups are remembered. Expired entries are refreshed in the background while still being served
+    DNS_CACHE_TTL
+            ("org.kaazing.gateway.server.resolver.DNS_CACHE_TTL", "30sec"),
+
+    DNS_NEGATIVE_CACHE_TTL
+            ("org.kaazing.gateway.server.resolver.DNS_NEGATIVE_CACHE_TTL", "10sec"),
+
+    // security
+    // Threads and queue capacity of the executor running realm logins; logins beyond the queue capacity
+    // are answered with 503 Service Unavailable
+    LOGIN_THREADS
+            ("org.kaazing.gateway.server.security.LOGIN_THREADS",
+                    Integer.toString(getRuntime().availableProcessors())),
+
+    LOGIN_QUEUE_CAPACITY
+            ("org.kaazing.gateway.server.security.LOGIN_QUEUE_CAPACITY", "10000"),
+
+    // How long a successful login is reused for the same authentication token and client host
+    // (0, the default, disables the cache), and how many logins each realm caches
+    LOGIN_CACHE_TTL
+            ("org.kaazing.gateway.server.security.LOGIN_CACHE_TTL", "0"),
+
+    LOGIN_CACHE_MAXIMUM_SIZE
+            ("org.kaazing.gateway.server.security.LOGIN_CACHE_MAXIMUM_SIZE", "10000"),
+
     CONNECT_FOLLOW_REDIRECT_WITH_QUERY
             ("org.kaazing.gateway.transport.http.CONNECT_FOLLOW_REDIRECT_WITH_QUERY", "false"),
 
@@ -104,6 +175,10 @@ public enum InternalSystemProperty {
     BROADCAST_SERVICE_DISCONNECT_CLIENTS_ON_RECONNECT(
             "org.kaazing.gateway.server.service.broadcast.DISCONNECT_CLIENTS_ON_RECONNECT"),
 
+    // How often a balanced service publishes its session count to the cluster, for load-aware balancers
+    BALANCEE_LOAD_PUBLISH_INTERVAL
+            ("org.kaazing.gateway.server.service.balancer.BALANCEE_LOAD_PUBLISH_INTERVAL", "1sec"),
+
     // management
     MANAGEMENT_SESSION_THRESHOLD
             ("org.kaazing.gateway.management.SESSION_THRESHOLD", "500"),
@@ -139,7 +214,12 @@ public enum InternalSystemProperty {
     // Note, the idle usage is using the mina netty idle timeout which may be set
     // by higher layers. Logic for this is in NioIdleFilter
     TCP_IDLE_TIMEOUT("org.kaazing.gateway.server.transport.tcp.IDLE_TIMEOUT", Integer.toString(0)),
-    UDP_IDLE_TIMEOUT("org.kaazing.gateway.server.transport.udp.IDLE_TIMEOUT", "60");
+    UDP_IDLE_TIMEOUT("org.kaazing.gateway.server.transport.udp.IDLE_TIMEOUT", "60"),
+
+    // Number of SO_REUSEPORT datagram sockets opened for each UDP bind address (Linux, Java 9 or later), each read
+    // on its own boss thread paired with one worker and keeping its own sessions. The kernel hashes each client
+    // address to one socket, so datagrams from a client stay in order. The default of 1 reads through a single socket
+    UDP_ACCEPTOR_COUNT("org.kaazing.gateway.server.transport.udp.ACCEPTOR_COUNT", "1");
 
     private final String name;
     private final String defaultValue;
@@ -27,6 +27,9 @@ import java.nio.ByteBuffer;
 public final class Utf8Util {
     public static final int INVALID_UTF8 = -1;
 
+    // high bit of each byte in a 64bit word, none of which is set when all 8 bytes are ASCII
+    private static final long NON_ASCII_MASK = 0x8080808080808080L;
+
     private static final String MSG_INVALID_CODEPOINT = "Invalid UTF-16 codepoint %c";
 
     private Utf8Util() {
@@ -137,6 +140,10 @@ public final class Utf8Util {
 
     public static int validateUTF8(ByteBuffer buffer, int offset, int length, ErrorHandler errorHandler) {
         for (int index = 0; index < length; index++) {
+            index = skipASCII(buffer, offset + index, offset + length) - offset;
+            if (index == length) {
+                break;
+            }
             byte leadingByte = buffer.get(offset + index);
             final int expectedLen;
             int codePoint;
@@ -198,6 +205,10 @@ public final class Utf8Util {
 
     public static boolean validBytesUTF8(ByteBuffer buf, int offset, int limit) {
         for (int index = offset; index < limit;) {
+            index = skipASCII(buf, index, limit);
+            if (index == limit) {
+                break;
+            }
             byte leadingByte = buf.get(index++);
             if ((leadingByte & 0xc0) == 0x80) {
                 return false;
@@ -218,6 +229,29 @@ public final class Utf8Util {
         return true;
     }
 
+    /**
+     * Determines whether the bytes of a buffer between offset and limit are all ASCII, and therefore also valid
+     * UTF-8 encoding each byte as itself.
+     */
+    public static boolean isASCII(ByteBuffer buf, int offset, int limit) {
+        return skipASCII(buf, offset, limit) == limit;
+    }
+
+    /**
+     * Returns the index of the first non ASCII byte between offset and limit, or limit if there is none,
+     * checking 8 bytes at a time as long as possible.
+     */
+    private static int skipASCII(ByteBuffer buf, int offset, int limit) {
+        int index = offset;
+        while (index + 8 <= limit && (buf.getLong(index) & NON_ASCII_MASK) == 0) {
+            index += 8;
+        }
+        while (index < limit && buf.get(index) >= 0) {
+            index++;
+        }
+        return index;
+    }
+
     /**
      * Custom UTF-8 encoding. Generates UTF-8 byte sequence for the specified char[]. The UTF-8 byte sequence is
      * encoded in the specified ByteBuffer.
@@ -20,15 +20,20 @@ import static org.kaazing.gateway.util.InternalSystemProperty.BACKGROUND_TASK_TH
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class SchedulerProvider {
 
     private final List<ManagedScheduledExecutorService> schedulers = new ArrayList<>(10);
     private final ManagedScheduledExecutorService sharedScheduler;
+    private final List<ThreadPoolExecutor> executors = new ArrayList<>(2);
 
     public SchedulerProvider() {
         this(new Properties());
@@ -55,6 +60,23 @@ public class SchedulerProvider {
         return needDedicatedThread ? new ManagedScheduledExecutorService(1, purpose, false) : sharedScheduler;
     }
 
+    /*
+     * @param purpose  short description of the purpose of the executor, will be set as the thread name
+     *
+     * @param threads  number of dedicated threads running the submitted tasks
+     *
+     * @param queueCapacity maximum number of tasks waiting for a thread; further tasks are rejected
+     *                      with a RejectedExecutionException
+     * @return
+     */
+    public synchronized ExecutorService getExecutor(String purpose, int threads, int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(queueCapacity), newThreadFactory(purpose));
+        executor.allowCoreThreadTimeOut(true);
+        executors.add(executor);
+        return executor;
+    }
+
     public synchronized void shutdownNow() {
         for (ManagedScheduledExecutorService scheduler : schedulers) {
             scheduler.shutdownImmediate();
@@ -62,6 +84,23 @@ public class SchedulerProvider {
 
         schedulers.clear();
         sharedScheduler.shutdownImmediate();
+
+        for (ThreadPoolExecutor executor : executors) {
+            executor.shutdownNow();
+        }
+        executors.clear();
+    }
+
+    private static ThreadFactory newThreadFactory(final String purpose) {
+        return new ThreadFactory() {
+            final AtomicInteger poolNumber = new AtomicInteger(1);
+            final String namePrefix = purpose + "-";
+
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r, namePrefix + poolNumber.getAndIncrement());
+            }
+        };
     }
 
     /**
@@ -73,15 +112,7 @@ public class SchedulerProvider {
         private final boolean shared;
 
         ManagedScheduledExecutorService(int corePoolSize, final String purpose, boolean shared) {
-            super(corePoolSize, new ThreadFactory() {
-                final AtomicInteger poolNumber = new AtomicInteger(1);
-                final String namePrefix = purpose + "-";
-
-                @Override
-                public Thread newThread(Runnable r) {
-                    return new Thread(r, namePrefix + poolNumber.getAndIncrement());
-                }
-            });
+            super(corePoolSize, newThreadFactory(purpose));
             this.shared = shared;
             schedulers.add(this);
         }
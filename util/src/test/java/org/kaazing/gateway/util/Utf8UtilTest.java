@@ -15,10 +15,19 @@
  */
 package org.kaazing.gateway.util;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.kaazing.gateway.util.Utf8Util.INVALID_UTF8;
 import static org.kaazing.gateway.util.Utf8Util.initialDecodeUTF8;
+import static org.kaazing.gateway.util.Utf8Util.isASCII;
 import static org.kaazing.gateway.util.Utf8Util.remainingBytesUTF8;
 import static org.kaazing.gateway.util.Utf8Util.remainingDecodeUTF8;
+import static org.kaazing.gateway.util.Utf8Util.validBytesUTF8;
+import static org.kaazing.gateway.util.Utf8Util.validateUTF8;
+
+import java.nio.ByteBuffer;
 
 import org.junit.Test;
 
@@ -70,4 +79,61 @@ public class Utf8UtilTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldValidateMultiByteCharsBetweenASCIIWords() throws Exception {
+        ByteBuffer buf = ByteBuffer.wrap("{\"text\":\"caf\u00e9 \u8bc5 \ud883\udd52\",\"id\":12345678}".getBytes(UTF_8));
+
+        assertEquals(0, validateUTF8(buf, 0, buf.remaining(), FAIL_ON_ERROR));
+        assertTrue(validBytesUTF8(buf, 0, buf.limit()));
+        assertFalse(isASCII(buf, 0, buf.limit()));
+    }
+
+    @Test
+    public void shouldRejectInvalidByteAfterASCIIWords() throws Exception {
+        byte[] bytes = "abcdefghijklmnopqrstu".getBytes(UTF_8);
+        bytes[17] = (byte) 0x80;
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+
+        assertEquals(INVALID_UTF8, validateUTF8(buf, 0, buf.remaining(), IGNORE_ERROR));
+        assertFalse(validBytesUTF8(buf, 0, buf.limit()));
+    }
+
+    @Test
+    public void shouldReportIncompleteCharAfterASCIIWords() throws Exception {
+        byte[] bytes = "abcdefghijklmnop\u8bc5".getBytes(UTF_8);
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+
+        assertEquals(2, validateUTF8(buf, 0, bytes.length - 1, FAIL_ON_ERROR));
+    }
+
+    @Test
+    public void shouldDetectASCIIAtAnyOffset() throws Exception {
+        byte[] bytes = "abcdefghijklmnopqrstuvwxyz".getBytes(UTF_8);
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        for (int offset = 0; offset < bytes.length; offset++) {
+            assertTrue(isASCII(buf, offset, bytes.length));
+            assertEquals(0, validateUTF8(buf, offset, bytes.length - offset, FAIL_ON_ERROR));
+        }
+
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = (byte) 0x80;
+            assertFalse(isASCII(buf, 0, bytes.length));
+            assertTrue(isASCII(buf, index + 1, bytes.length));
+            bytes[index] = 'a';
+        }
+    }
+
+    private static final ErrorHandler FAIL_ON_ERROR = new ErrorHandler() {
+        @Override
+        public void handleError(String message) {
+            throw new AssertionError(message);
+        }
+    };
+
+    private static final ErrorHandler IGNORE_ERROR = new ErrorHandler() {
+        @Override
+        public void handleError(String message) {
+        }
+    };
+}